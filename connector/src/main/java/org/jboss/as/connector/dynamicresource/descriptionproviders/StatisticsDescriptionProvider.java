@@ -116,6 +116,9 @@
                     if (plugin.getType(name) == long.class) {
                         modelType = ModelType.LONG;
                     }
+                    if (plugin.getType(name) == ModelNode.class) {
+                        modelType = ModelType.OBJECT;
+                    }
                     node.get(TYPE).set(modelType);
                     node.get(REQUIRED).set(false);
                     node.get(ACCESS_TYPE, READ_ONLY).set(true);
@@ -0,0 +1,68 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.connector.dynamicresource.operations;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.OperationStepHandler;
+import org.jboss.dmr.ModelNode;
+import org.jboss.jca.core.spi.statistics.StatisticsPlugin;
+
+/**
+ * Enable or disable the collection of stats for passed plugins
+ */
+public class EnableStatisticsHandler implements OperationStepHandler {
+
+    private final boolean enabled;
+    private final List<StatisticsPlugin> stats;
+
+    public EnableStatisticsHandler(boolean enabled, StatisticsPlugin... stats) {
+        this.enabled = enabled;
+        this.stats = Arrays.asList(stats);
+    }
+
+    @Override
+    public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
+
+        if (context.isNormalServer()) {
+            context.addStep(new OperationStepHandler() {
+                public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
+                    final boolean[] previous = new boolean[stats.size()];
+                    for (int i = 0; i < previous.length; i++) {
+                        previous[i] = stats.get(i).isEnabled();
+                        stats.get(i).setEnabled(enabled);
+                    }
+                    if (context.completeStep() != OperationContext.ResultAction.KEEP) {
+                        for (int i = 0; i < previous.length; i++) {
+                            stats.get(i).setEnabled(previous[i]);
+                        }
+                    }
+                }
+            }, OperationContext.Stage.RUNTIME);
+        }
+        context.completeStep();
+    }
+}
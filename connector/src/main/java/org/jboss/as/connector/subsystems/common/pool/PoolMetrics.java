@@ -97,7 +97,12 @@ public abstract class PoolMetrics implements OperationStepHandler {
                         if (managementRepoService != null) {
                             try {
                                 final ModelNode result = context.getResult();
-                                result.set("" + stats.getValue(attributeName));
+                                final Object value = stats.getValue(attributeName);
+                                if (value instanceof ModelNode) {
+                                    result.set((ModelNode) value);
+                                } else {
+                                    result.set("" + value);
+                                }
 
                             } catch (Exception e) {
                                throw new OperationFailedException(MESSAGES.failedToGetMetrics(e.getLocalizedMessage()));
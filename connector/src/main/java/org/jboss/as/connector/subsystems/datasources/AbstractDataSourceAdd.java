@@ -52,6 +52,8 @@ import static org.jboss.as.connector.logging.ConnectorMessages.MESSAGES;
 import static org.jboss.as.connector.subsystems.datasources.Constants.DATASOURCE_DRIVER;
 import static org.jboss.as.connector.subsystems.datasources.Constants.ENABLED;
 import static org.jboss.as.connector.subsystems.datasources.Constants.JNDINAME;
+import static org.jboss.as.connector.subsystems.datasources.Constants.STATEMENT_SHAPE_CACHE_SIZE;
+import static org.jboss.as.connector.subsystems.datasources.Constants.STATEMENT_SHAPE_PREWARM_COUNT;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
 
 /**
@@ -75,6 +77,8 @@ public abstract class AbstractDataSourceAdd extends AbstractAddStepHandler {
 
 
         AbstractDataSourceService dataSourceService = createDataSourceService(dsName);
+        dataSourceService.getStatementShapeCache().configure(STATEMENT_SHAPE_CACHE_SIZE.resolveModelAttribute(context, model).asInt(),
+                STATEMENT_SHAPE_PREWARM_COUNT.resolveModelAttribute(context, model).asInt());
 
         final ManagementResourceRegistration registration = context.getResourceRegistrationForUpdate();
 
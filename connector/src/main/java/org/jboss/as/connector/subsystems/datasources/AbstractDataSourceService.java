@@ -63,8 +63,12 @@ import org.jboss.security.SubjectFactory;
 
 import javax.naming.Reference;
 import javax.resource.ResourceException;
+import javax.resource.spi.ConnectionRequestInfo;
+import javax.resource.spi.ManagedConnection;
 import javax.resource.spi.ManagedConnectionFactory;
+import javax.security.auth.Subject;
 import javax.sql.DataSource;
+import javax.sql.XADataSource;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.security.AccessController;
@@ -98,6 +102,9 @@ public abstract class AbstractDataSourceService implements Service<DataSource> {
 
     protected CommonDeployment deploymentMD;
     private javax.sql.DataSource sqlDataSource;
+    private final DataSourceInstrumentation instrumentation = new DataSourceInstrumentation();
+    private final StatementShapeCache statementShapeCache = new StatementShapeCache();
+    private final PhysicalConnectionWrapper physicalConnectionWrapper = new PhysicalConnectionWrapper(instrumentation, statementShapeCache);
 
     /**
      * The class loader to use. If null the Driver class loader will be used instead.
@@ -117,7 +124,7 @@ public abstract class AbstractDataSourceService implements Service<DataSource> {
             if (deploymentMD.getCfs().length != 1) {
                 throw MESSAGES.cannotStartDs();
             }
-            sqlDataSource = (javax.sql.DataSource) deploymentMD.getCfs()[0];
+            sqlDataSource = new InstrumentedDataSource((javax.sql.DataSource) deploymentMD.getCfs()[0], instrumentation, statementShapeCache);
             DS_DEPLOYER_LOGGER.debugf("Adding datasource: %s", deploymentMD.getCfJndiNames()[0]);
         } catch (Throwable t) {
             throw MESSAGES.deploymentError(t, jndiName);
@@ -149,6 +156,14 @@ public abstract class AbstractDataSourceService implements Service<DataSource> {
         return deploymentMD;
     }
 
+    public DataSourceInstrumentation getInstrumentation() {
+        return instrumentation;
+    }
+
+    public StatementShapeCache getStatementShapeCache() {
+        return statementShapeCache;
+    }
+
     public synchronized DataSource getValue() throws IllegalStateException, IllegalArgumentException {
         return sqlDataSource;
     }
@@ -425,7 +440,7 @@ public abstract class AbstractDataSourceService implements Service<DataSource> {
         @Override
         protected ManagedConnectionFactory createMcf(org.jboss.jca.common.api.metadata.ds.DataSource arg0, String arg1,
                 ClassLoader arg2) throws NotFoundException, DeployException {
-            final LocalManagedConnectionFactory managedConnectionFactory = new LocalManagedConnectionFactory();
+            final LocalManagedConnectionFactory managedConnectionFactory = new MyLocalMCF();
             managedConnectionFactory.setUserTransactionJndiName("java:comp/UserTransaction");
             managedConnectionFactory.setDriverClass(dataSourceConfig.getDriverClass());
 
@@ -572,6 +587,32 @@ public abstract class AbstractDataSourceService implements Service<DataSource> {
 
     }
 
+    /**
+     * Pre-warm a physical connection created by the pool and record the time its connection handles are held by the
+     * application.
+     */
+    private ManagedConnection managedConnectionCreated(final ManagedConnection mc, final Subject subject, final ConnectionRequestInfo cri) {
+        statementShapeCache.prewarm(mc, subject, cri);
+        mc.addConnectionEventListener(instrumentation);
+        return mc;
+    }
+
+    private class MyLocalMCF extends LocalManagedConnectionFactory {
+
+        private static final long serialVersionUID = -6474263427366524157L;
+
+        @Override
+        public ManagedConnection createManagedConnection(Subject subject, ConnectionRequestInfo cri) throws ResourceException {
+            return managedConnectionCreated(super.createManagedConnection(subject, cri), subject, cri);
+        }
+
+        @Override
+        protected Driver getDriver(String url) throws ResourceException {
+            return physicalConnectionWrapper.wrap(super.getDriver(url));
+        }
+
+    }
+
     private class MyXaMCF extends XAManagedConnectionFactory {
 
         private static final long serialVersionUID = 4876371551002746953L;
@@ -580,5 +621,15 @@ public abstract class AbstractDataSourceService implements Service<DataSource> {
             xaProps.putAll(inputProperties);
         }
 
+        @Override
+        public ManagedConnection createManagedConnection(Subject subject, ConnectionRequestInfo cri) throws ResourceException {
+            return managedConnectionCreated(super.createManagedConnection(subject, cri), subject, cri);
+        }
+
+        @Override
+        protected XADataSource getXADataSource() throws ResourceException {
+            return physicalConnectionWrapper.wrap(super.getXADataSource());
+        }
+
     }
 }
@@ -24,6 +24,7 @@ package org.jboss.as.connector.subsystems.datasources;
 import org.jboss.as.controller.OperationFailedException;
 import org.jboss.as.controller.SimpleAttributeDefinition;
 import org.jboss.as.controller.client.helpers.MeasurementUnit;
+import org.jboss.as.controller.operations.validation.IntRangeValidator;
 import org.jboss.as.controller.operations.validation.ParameterValidator;
 import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.ModelType;
@@ -126,6 +127,10 @@ class Constants {
 
     private static final String TRACKSTATEMENTS_NAME = "track-statements";
 
+    private static final String STATEMENT_SHAPE_CACHE_SIZE_NAME = "statement-shape-cache-size";
+
+    private static final String STATEMENT_SHAPE_PREWARM_COUNT_NAME = "statement-shape-prewarm-count";
+
     private static final String VALIDCONNECTIONCHECKERCLASSNAME_NAME = "valid-connection-checker-class-name";
 
     private static final String CHECKVALIDCONNECTIONSQL_NAME = "check-valid-connection-sql";
@@ -247,6 +252,10 @@ class Constants {
 
     static SimpleAttributeDefinition TRACKSTATEMENTS = new SimpleAttributeDefinition(TRACKSTATEMENTS_NAME, Statement.Tag.TRACK_STATEMENTS.getLocalName(), new ModelNode().set(Defaults.TRACK_STATEMENTS.name()), ModelType.STRING, true, true, MeasurementUnit.NONE);
 
+    static SimpleAttributeDefinition STATEMENT_SHAPE_CACHE_SIZE = new SimpleAttributeDefinition(STATEMENT_SHAPE_CACHE_SIZE_NAME, STATEMENT_SHAPE_CACHE_SIZE_NAME, new ModelNode().set(0), ModelType.INT, true, true, MeasurementUnit.NONE, new IntRangeValidator(0, Integer.MAX_VALUE, true, true));
+
+    static SimpleAttributeDefinition STATEMENT_SHAPE_PREWARM_COUNT = new SimpleAttributeDefinition(STATEMENT_SHAPE_PREWARM_COUNT_NAME, STATEMENT_SHAPE_PREWARM_COUNT_NAME, new ModelNode().set(0), ModelType.INT, true, true, MeasurementUnit.NONE, new IntRangeValidator(0, Integer.MAX_VALUE, true, true));
+
     static SimpleAttributeDefinition ALLOCATION_RETRY = new SimpleAttributeDefinition(ALLOCATION_RETRY_NAME, TimeOut.Tag.ALLOCATION_RETRY.getLocalName(),  new ModelNode(), ModelType.INT, true, true, MeasurementUnit.NONE);
 
     static SimpleAttributeDefinition ALLOCATION_RETRY_WAIT_MILLIS = new SimpleAttributeDefinition(ALLOCATION_RETRY_WAIT_MILLIS_NAME, TimeOut.Tag.ALLOCATION_RETRY_WAIT_MILLIS.getLocalName(),  new ModelNode(), ModelType.LONG, true, true, MeasurementUnit.NONE);
@@ -0,0 +1,329 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.connector.subsystems.datasources;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.resource.spi.ConnectionEvent;
+import javax.resource.spi.ConnectionEventListener;
+
+import org.jboss.dmr.ModelNode;
+import org.jboss.jca.core.spi.statistics.StatisticsPlugin;
+import org.jboss.modules.ModuleClassLoader;
+
+/**
+ * Statistics about the use of a data source by the deployments: time spent waiting for a connection, time a
+ * connection is held by the application and time spent executing statements.
+ * <p/>
+ * The wait time is recorded by the {@link InstrumentedDataSource} and attributed to the deployment whose class loader
+ * is the thread context class loader when the connection is obtained. The hold time is recorded when the managed
+ * connection signals that the connection handle has been closed, and the statement execution time by the
+ * {@link PhysicalConnectionWrapper} below the managed connection, so the application always gets the IronJacamar
+ * connection and statement handles themselves. Statements are attributed to the deployment whose class loader is the
+ * thread context class loader when they are executed. Instrumentation is disabled by default.
+ */
+public class DataSourceInstrumentation implements StatisticsPlugin, ConnectionEventListener {
+
+    static final String CONNECTION_WAIT_COUNT = "ConnectionWaitCount";
+    static final String CONNECTION_WAIT_AVERAGE_TIME = "ConnectionWaitAverageTime";
+    static final String CONNECTION_WAIT_MAX_TIME = "ConnectionWaitMaxTime";
+    static final String CONNECTION_WAIT_99TH_PERCENTILE = "ConnectionWait99thPercentile";
+    static final String CONNECTION_WAIT_HISTOGRAM = "ConnectionWaitHistogram";
+    static final String CONNECTION_HOLD_AVERAGE_TIME = "ConnectionHoldAverageTime";
+    static final String CONNECTION_HOLD_MAX_TIME = "ConnectionHoldMaxTime";
+    static final String CONNECTION_HOLD_99TH_PERCENTILE = "ConnectionHold99thPercentile";
+    static final String CONNECTION_HOLD_HISTOGRAM = "ConnectionHoldHistogram";
+    static final String STATEMENT_COUNT = "StatementCount";
+    static final String STATEMENT_AVERAGE_TIME = "StatementAverageTime";
+    static final String STATEMENT_MAX_TIME = "StatementMaxTime";
+    static final String STATEMENT_99TH_PERCENTILE = "Statement99thPercentile";
+    static final String STATEMENT_HISTOGRAM = "StatementHistogram";
+    static final String DEPLOYMENTS = "Deployments";
+
+    static final String CONNECTION_COUNT = "connection-count";
+    static final String WAIT_AVERAGE_TIME = "wait-average-time";
+    static final String WAIT_MAX_TIME = "wait-max-time";
+    static final String HOLD_AVERAGE_TIME = "hold-average-time";
+    static final String HOLD_MAX_TIME = "hold-max-time";
+    static final String EXECUTION_COUNT = "execution-count";
+    static final String EXECUTION_AVERAGE_TIME = "execution-average-time";
+    static final String EXECUTION_MAX_TIME = "execution-max-time";
+
+    static final String UNKNOWN_DEPLOYMENT = "<unknown>";
+
+    private static final Map<String, Class<?>> TYPES;
+    private static final Map<String, String> DESCRIPTIONS;
+
+    static {
+        final Map<String, Class<?>> types = new HashMap<String, Class<?>>();
+        final Map<String, String> descriptions = new HashMap<String, String>();
+        types.put(CONNECTION_WAIT_COUNT, long.class);
+        descriptions.put(CONNECTION_WAIT_COUNT, "The number of connections obtained while instrumentation was enabled");
+        types.put(CONNECTION_WAIT_AVERAGE_TIME, long.class);
+        descriptions.put(CONNECTION_WAIT_AVERAGE_TIME, "The average time spent waiting for a connection (in microseconds)");
+        types.put(CONNECTION_WAIT_MAX_TIME, long.class);
+        descriptions.put(CONNECTION_WAIT_MAX_TIME, "The maximum time spent waiting for a connection (in microseconds)");
+        types.put(CONNECTION_WAIT_99TH_PERCENTILE, long.class);
+        descriptions.put(CONNECTION_WAIT_99TH_PERCENTILE, "The 99th percentile of the time spent waiting for a connection (in microseconds)");
+        types.put(CONNECTION_WAIT_HISTOGRAM, ModelNode.class);
+        descriptions.put(CONNECTION_WAIT_HISTOGRAM, "The number of connections obtained per bucket of time spent waiting for them, keyed by the upper bound of the bucket");
+        types.put(CONNECTION_HOLD_AVERAGE_TIME, long.class);
+        descriptions.put(CONNECTION_HOLD_AVERAGE_TIME, "The average time a connection is held before being closed (in microseconds)");
+        types.put(CONNECTION_HOLD_MAX_TIME, long.class);
+        descriptions.put(CONNECTION_HOLD_MAX_TIME, "The maximum time a connection is held before being closed (in microseconds)");
+        types.put(CONNECTION_HOLD_99TH_PERCENTILE, long.class);
+        descriptions.put(CONNECTION_HOLD_99TH_PERCENTILE, "The 99th percentile of the time a connection is held before being closed (in microseconds)");
+        types.put(CONNECTION_HOLD_HISTOGRAM, ModelNode.class);
+        descriptions.put(CONNECTION_HOLD_HISTOGRAM, "The number of connections closed per bucket of time they were held, keyed by the upper bound of the bucket");
+        types.put(STATEMENT_COUNT, long.class);
+        descriptions.put(STATEMENT_COUNT, "The number of statements executed on the physical connections opened while instrumentation was enabled");
+        types.put(STATEMENT_AVERAGE_TIME, long.class);
+        descriptions.put(STATEMENT_AVERAGE_TIME, "The average statement execution time (in microseconds)");
+        types.put(STATEMENT_MAX_TIME, long.class);
+        descriptions.put(STATEMENT_MAX_TIME, "The maximum statement execution time (in microseconds)");
+        types.put(STATEMENT_99TH_PERCENTILE, long.class);
+        descriptions.put(STATEMENT_99TH_PERCENTILE, "The 99th percentile of the statement execution time (in microseconds)");
+        types.put(STATEMENT_HISTOGRAM, ModelNode.class);
+        descriptions.put(STATEMENT_HISTOGRAM, "The number of statements executed per bucket of execution time, keyed by the upper bound of the bucket");
+        types.put(DEPLOYMENTS, ModelNode.class);
+        descriptions.put(DEPLOYMENTS, "The connection count, the average and maximum connection wait and hold times, the statement execution count and the average and maximum statement execution times (in microseconds) of each deployment using the data source, keyed by deployment");
+        TYPES = Collections.unmodifiableMap(types);
+        DESCRIPTIONS = Collections.unmodifiableMap(descriptions);
+    }
+
+    private volatile boolean enabled;
+    private final Usage total = new Usage();
+    private final ConcurrentMap<String, Usage> deployments = new ConcurrentHashMap<String, Usage>();
+    // connection handles obtained while enabled, weakly held in case the application never closes them
+    private final Map<Object, Lease> leases = Collections.synchronizedMap(new WeakHashMap<Object, Lease>());
+
+    @Override
+    public Set<String> getNames() {
+        return TYPES.keySet();
+    }
+
+    @Override
+    public Class getType(String name) {
+        return TYPES.get(name);
+    }
+
+    @Override
+    public String getDescription(String name) {
+        return DESCRIPTIONS.get(name);
+    }
+
+    @Override
+    public String getDescription(String name, Locale locale) {
+        return getDescription(name);
+    }
+
+    @Override
+    public Object getValue(String name) {
+        if (CONNECTION_WAIT_COUNT.equals(name)) {
+            return total.connectionWait.getCount();
+        } else if (CONNECTION_WAIT_AVERAGE_TIME.equals(name)) {
+            return total.connectionWait.getAverage();
+        } else if (CONNECTION_WAIT_MAX_TIME.equals(name)) {
+            return total.connectionWait.getMax();
+        } else if (CONNECTION_WAIT_99TH_PERCENTILE.equals(name)) {
+            return total.connectionWait.getPercentile(99);
+        } else if (CONNECTION_WAIT_HISTOGRAM.equals(name)) {
+            return total.connectionWait.toModelNode();
+        } else if (CONNECTION_HOLD_AVERAGE_TIME.equals(name)) {
+            return total.connectionHold.getAverage();
+        } else if (CONNECTION_HOLD_MAX_TIME.equals(name)) {
+            return total.connectionHold.getMax();
+        } else if (CONNECTION_HOLD_99TH_PERCENTILE.equals(name)) {
+            return total.connectionHold.getPercentile(99);
+        } else if (CONNECTION_HOLD_HISTOGRAM.equals(name)) {
+            return total.connectionHold.toModelNode();
+        } else if (STATEMENT_COUNT.equals(name)) {
+            return total.statement.getCount();
+        } else if (STATEMENT_AVERAGE_TIME.equals(name)) {
+            return total.statement.getAverage();
+        } else if (STATEMENT_MAX_TIME.equals(name)) {
+            return total.statement.getMax();
+        } else if (STATEMENT_99TH_PERCENTILE.equals(name)) {
+            return total.statement.getPercentile(99);
+        } else if (STATEMENT_HISTOGRAM.equals(name)) {
+            return total.statement.toModelNode();
+        } else if (DEPLOYMENTS.equals(name)) {
+            return getDeploymentsSummary();
+        }
+        return null;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    @Override
+    public void clear() {
+        total.clear();
+        deployments.clear();
+    }
+
+    /**
+     * Records the time spent by the calling deployment waiting for a connection and starts measuring the time it holds
+     * the connection.
+     *
+     * @param connection the connection handle handed out to the application
+     * @param waitNanos the time spent waiting for the connection
+     */
+    void connectionObtained(final Object connection, final long waitNanos) {
+        final Usage usage = getCallerUsage();
+        total.connectionWait.record(waitNanos);
+        usage.connectionWait.record(waitNanos);
+        leases.put(connection, new Lease(usage, System.nanoTime()));
+    }
+
+    /**
+     * Records the time a connection obtained through {@link #connectionObtained(Object, long)} was held.
+     *
+     * @param connection the connection handle, may be {@code null}
+     */
+    void connectionClosed(final Object connection) {
+        if (connection == null) {
+            return;
+        }
+        final Lease lease = leases.remove(connection);
+        if (lease != null) {
+            final long holdNanos = System.nanoTime() - lease.obtained;
+            total.connectionHold.record(holdNanos);
+            lease.usage.connectionHold.record(holdNanos);
+        }
+    }
+
+    /**
+     * Records the time spent by the calling deployment executing a statement.
+     *
+     * @param nanos the execution time
+     */
+    void statementExecuted(final long nanos) {
+        total.statement.record(nanos);
+        getCallerUsage().statement.record(nanos);
+    }
+
+    @Override
+    public void connectionClosed(final ConnectionEvent event) {
+        connectionClosed(event.getConnectionHandle());
+    }
+
+    @Override
+    public void connectionErrorOccurred(final ConnectionEvent event) {
+        connectionClosed(event.getConnectionHandle());
+    }
+
+    @Override
+    public void localTransactionStarted(final ConnectionEvent event) {
+    }
+
+    @Override
+    public void localTransactionCommitted(final ConnectionEvent event) {
+    }
+
+    @Override
+    public void localTransactionRolledback(final ConnectionEvent event) {
+    }
+
+    /**
+     * Returns the usage statistics of the deployment calling the data source.
+     */
+    private Usage getCallerUsage() {
+        final String deployment = getCallerDeployment();
+        Usage usage = deployments.get(deployment);
+        if (usage == null) {
+            final Usage newUsage = new Usage();
+            usage = deployments.putIfAbsent(deployment, newUsage);
+            if (usage == null) {
+                usage = newUsage;
+            }
+        }
+        return usage;
+    }
+
+    private ModelNode getDeploymentsSummary() {
+        final Map<String, Usage> sorted = new TreeMap<String, Usage>(deployments);
+        final ModelNode result = new ModelNode();
+        result.setEmptyObject();
+        for (Map.Entry<String, Usage> entry : sorted.entrySet()) {
+            final Usage usage = entry.getValue();
+            final ModelNode deployment = result.get(entry.getKey());
+            deployment.get(CONNECTION_COUNT).set(usage.connectionWait.getCount());
+            deployment.get(WAIT_AVERAGE_TIME).set(usage.connectionWait.getAverage());
+            deployment.get(WAIT_MAX_TIME).set(usage.connectionWait.getMax());
+            deployment.get(HOLD_AVERAGE_TIME).set(usage.connectionHold.getAverage());
+            deployment.get(HOLD_MAX_TIME).set(usage.connectionHold.getMax());
+            deployment.get(EXECUTION_COUNT).set(usage.statement.getCount());
+            deployment.get(EXECUTION_AVERAGE_TIME).set(usage.statement.getAverage());
+            deployment.get(EXECUTION_MAX_TIME).set(usage.statement.getMax());
+        }
+        return result;
+    }
+
+    private static String getCallerDeployment() {
+        final ClassLoader tccl = SecurityActions.getThreadContextClassLoader();
+        if (tccl instanceof ModuleClassLoader) {
+            return ((ModuleClassLoader) tccl).getModule().getIdentifier().getName();
+        }
+        return UNKNOWN_DEPLOYMENT;
+    }
+
+    /**
+     * Usage statistics of the data source, either in total or for a single deployment.
+     */
+    static final class Usage {
+        final LatencyHistogram connectionWait = new LatencyHistogram();
+        final LatencyHistogram connectionHold = new LatencyHistogram();
+        final LatencyHistogram statement = new LatencyHistogram();
+
+        void clear() {
+            connectionWait.clear();
+            connectionHold.clear();
+            statement.clear();
+        }
+    }
+
+    private static final class Lease {
+        final Usage usage;
+        final long obtained;
+
+        Lease(final Usage usage, final long obtained) {
+            this.usage = usage;
+            this.obtained = obtained;
+        }
+    }
+}
@@ -3,6 +3,7 @@ package org.jboss.as.connector.subsystems.datasources;
 import org.jboss.as.connector.dynamicresource.descriptionproviders.StatisticsDescriptionProvider;
 import org.jboss.as.connector.subsystems.common.pool.PoolMetrics;
 import org.jboss.as.connector.dynamicresource.operations.ClearStatisticsHandler;
+import org.jboss.as.connector.dynamicresource.operations.EnableStatisticsHandler;
 import org.jboss.as.controller.PathElement;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.jca.core.spi.statistics.StatisticsPlugin;
@@ -31,34 +32,53 @@ public class DataSourceStatisticsListener extends AbstractServiceListener<Object
         switch (transition) {
             case STARTING_to_UP: {
 
-                CommonDeployment deploymentMD = ((AbstractDataSourceService) controller.getService()).getDeploymentMD();
+                AbstractDataSourceService dataSourceService = (AbstractDataSourceService) controller.getService();
+                CommonDeployment deploymentMD = dataSourceService.getDeploymentMD();
 
                 StatisticsPlugin jdbcStats = deploymentMD.getDataSources()[0].getStatistics();
                 StatisticsPlugin poolStats = deploymentMD.getDataSources()[0].getPool().getStatistics();
+                DataSourceInstrumentation instrumentation = dataSourceService.getInstrumentation();
                 int jdbcStatsSize = jdbcStats.getNames().size();
                 int poolStatsSize = poolStats.getNames().size();
-                if (jdbcStatsSize > 0 || poolStatsSize > 0) {
-                    ManagementResourceRegistration subRegistration = registration.isAllowsOverride() ? registration.registerOverrideModel(dsName, DataSourcesSubsystemProviders.OVERRIDE_DS_DESC) : registration;
+                ManagementResourceRegistration subRegistration = registration.isAllowsOverride() ? registration.registerOverrideModel(dsName, DataSourcesSubsystemProviders.OVERRIDE_DS_DESC) : registration;
 
-                    if (jdbcStatsSize > 0) {
-                        ManagementResourceRegistration jdbcRegistration = subRegistration.registerSubModel(PathElement.pathElement("statistics", "jdbc"), new StatisticsDescriptionProvider(DataSourcesSubsystemProviders.RESOURCE_NAME, "statistics", jdbcStats));
-                        jdbcRegistration.setRuntimeOnly(true);
-                        jdbcRegistration.registerOperationHandler("clear-statistics", new ClearStatisticsHandler(jdbcStats), DataSourcesSubsystemProviders.CLEAR_STATISTICS_DESC, false);
+                if (jdbcStatsSize > 0) {
+                    ManagementResourceRegistration jdbcRegistration = subRegistration.registerSubModel(PathElement.pathElement("statistics", "jdbc"), new StatisticsDescriptionProvider(DataSourcesSubsystemProviders.RESOURCE_NAME, "statistics", jdbcStats));
+                    jdbcRegistration.setRuntimeOnly(true);
+                    jdbcRegistration.registerOperationHandler("clear-statistics", new ClearStatisticsHandler(jdbcStats), DataSourcesSubsystemProviders.CLEAR_STATISTICS_DESC, false);
 
-                        for (String statName : jdbcStats.getNames()) {
-                            jdbcRegistration.registerMetric(statName, new PoolMetrics.ParametrizedPoolMetricsHandler(jdbcStats));
-                        }
+                    for (String statName : jdbcStats.getNames()) {
+                        jdbcRegistration.registerMetric(statName, new PoolMetrics.ParametrizedPoolMetricsHandler(jdbcStats));
+                    }
+
+                }
 
+                if (poolStatsSize > 0) {
+                    ManagementResourceRegistration poolRegistration = subRegistration.registerSubModel(PathElement.pathElement("statistics", "pool"), new StatisticsDescriptionProvider(DataSourcesSubsystemProviders.RESOURCE_NAME, "statistics", poolStats));
+                    poolRegistration.setRuntimeOnly(true);
+                    poolRegistration.registerOperationHandler("clear-statistics", new ClearStatisticsHandler(poolStats), DataSourcesSubsystemProviders.CLEAR_STATISTICS_DESC, false);
+
+                    for (String statName : poolStats.getNames()) {
+                        poolRegistration.registerMetric(statName, new PoolMetrics.ParametrizedPoolMetricsHandler(poolStats));
                     }
+                }
 
-                    if (poolStatsSize > 0) {
-                        ManagementResourceRegistration poolRegistration = subRegistration.registerSubModel(PathElement.pathElement("statistics", "pool"), new StatisticsDescriptionProvider(DataSourcesSubsystemProviders.RESOURCE_NAME, "statistics", poolStats));
-                        poolRegistration.setRuntimeOnly(true);
-                        poolRegistration.registerOperationHandler("clear-statistics", new ClearStatisticsHandler(poolStats), DataSourcesSubsystemProviders.CLEAR_STATISTICS_DESC, false);
+                ManagementResourceRegistration instrumentationRegistration = subRegistration.registerSubModel(PathElement.pathElement("statistics", "instrumentation"), new StatisticsDescriptionProvider(DataSourcesSubsystemProviders.RESOURCE_NAME, "statistics.instrumentation", instrumentation));
+                instrumentationRegistration.setRuntimeOnly(true);
+                instrumentationRegistration.registerOperationHandler("clear-statistics", new ClearStatisticsHandler(instrumentation), DataSourcesSubsystemProviders.CLEAR_STATISTICS_DESC, false);
+                instrumentationRegistration.registerOperationHandler("enable", new EnableStatisticsHandler(true, instrumentation), DataSourcesSubsystemProviders.ENABLE_INSTRUMENTATION_DESC, false);
+                instrumentationRegistration.registerOperationHandler("disable", new EnableStatisticsHandler(false, instrumentation), DataSourcesSubsystemProviders.DISABLE_INSTRUMENTATION_DESC, false);
+                for (String statName : instrumentation.getNames()) {
+                    instrumentationRegistration.registerMetric(statName, new PoolMetrics.ParametrizedPoolMetricsHandler(instrumentation));
+                }
 
-                        for (String statName : poolStats.getNames()) {
-                            poolRegistration.registerMetric(statName, new PoolMetrics.ParametrizedPoolMetricsHandler(poolStats));
-                        }
+                StatementShapeCache statementShapeCache = dataSourceService.getStatementShapeCache();
+                if (statementShapeCache.isEnabled()) {
+                    ManagementResourceRegistration shapeCacheRegistration = subRegistration.registerSubModel(PathElement.pathElement("statistics", "statement-shape-cache"), new StatisticsDescriptionProvider(DataSourcesSubsystemProviders.RESOURCE_NAME, "statistics.statement-shape-cache", statementShapeCache));
+                    shapeCacheRegistration.setRuntimeOnly(true);
+                    shapeCacheRegistration.registerOperationHandler("clear-statistics", new ClearStatisticsHandler(statementShapeCache), DataSourcesSubsystemProviders.CLEAR_STATISTICS_DESC, false);
+                    for (String statName : statementShapeCache.getNames()) {
+                        shapeCacheRegistration.registerMetric(statName, new PoolMetrics.ParametrizedPoolMetricsHandler(statementShapeCache));
                     }
                 }
                 break;
@@ -71,6 +91,8 @@ public class DataSourceStatisticsListener extends AbstractServiceListener<Object
                 if (subRegistration != null) {
                     subRegistration.unregisterSubModel(PathElement.pathElement("statistics", "jdbc"));
                     subRegistration.unregisterSubModel(PathElement.pathElement("statistics", "pool"));
+                    subRegistration.unregisterSubModel(PathElement.pathElement("statistics", "instrumentation"));
+                    subRegistration.unregisterSubModel(PathElement.pathElement("statistics", "statement-shape-cache"));
                     registration.unregisterOverrideModel(dsName);
                 }
                 break;
@@ -79,6 +79,8 @@ import static org.jboss.as.connector.subsystems.datasources.Constants.SHAREPREPA
 import static org.jboss.as.connector.subsystems.datasources.Constants.SPY;
 import static org.jboss.as.connector.subsystems.datasources.Constants.STALECONNECTIONCHECKERCLASSNAME;
 import static org.jboss.as.connector.subsystems.datasources.Constants.STALECONNECTIONCHECKER_PROPERTIES;
+import static org.jboss.as.connector.subsystems.datasources.Constants.STATEMENT_SHAPE_CACHE_SIZE;
+import static org.jboss.as.connector.subsystems.datasources.Constants.STATEMENT_SHAPE_PREWARM_COUNT;
 import static org.jboss.as.connector.subsystems.datasources.Constants.TRACKSTATEMENTS;
 import static org.jboss.as.connector.subsystems.datasources.Constants.TRANSACTION_ISOLATION;
 import static org.jboss.as.connector.subsystems.datasources.Constants.URL_DELIMITER;
@@ -347,6 +349,7 @@ public class DataSourcesExtension implements Extension {
     public void initializeParsers(final ExtensionParsingContext context) {
         context.setSubsystemXmlMapping(SUBSYSTEM_NAME, Namespace.DATASOURCES_1_0.getUriString(), DataSourceSubsystemParser.INSTANCE);
         context.setSubsystemXmlMapping(SUBSYSTEM_NAME, Namespace.DATASOURCES_1_1.getUriString(), DataSourceSubsystemParser.INSTANCE);
+        context.setSubsystemXmlMapping(SUBSYSTEM_NAME, Namespace.DATASOURCES_1_2.getUriString(), DataSourceSubsystemParser.INSTANCE);
     }
 
     public static final class DataSourceSubsystemParser implements XMLStreamConstants, XMLElementReader<List<ModelNode>>,
@@ -634,12 +637,15 @@ public class DataSourcesExtension implements Extension {
                     XA_RESOURCE_TIMEOUT.marshallAsElement(dataSourceNode, writer);
                     writer.writeEndElement();
                 }
-                boolean statementRequired = hasAnyOf(dataSourceNode, TRACKSTATEMENTS, PREPAREDSTATEMENTSCACHESIZE, SHAREPREPAREDSTATEMENTS);
+                boolean statementRequired = hasAnyOf(dataSourceNode, TRACKSTATEMENTS, PREPAREDSTATEMENTSCACHESIZE, SHAREPREPAREDSTATEMENTS,
+                        STATEMENT_SHAPE_CACHE_SIZE, STATEMENT_SHAPE_PREWARM_COUNT);
                 if (statementRequired) {
                     writer.writeStartElement(DataSource.Tag.STATEMENT.getLocalName());
                     TRACKSTATEMENTS.marshallAsElement(dataSourceNode, writer);
                     PREPAREDSTATEMENTSCACHESIZE.marshallAsElement(dataSourceNode, writer);
                     SHAREPREPAREDSTATEMENTS.marshallAsElement(dataSourceNode, writer);
+                    STATEMENT_SHAPE_CACHE_SIZE.marshallAsElement(dataSourceNode, writer);
+                    STATEMENT_SHAPE_PREWARM_COUNT.marshallAsElement(dataSourceNode, writer);
 
                     writer.writeEndElement();
                 }
@@ -801,7 +807,8 @@ public class DataSourcesExtension implements Extension {
                         }
                         break;
                     }
-                    case DATASOURCES_1_1: {
+                    case DATASOURCES_1_1:
+                    case DATASOURCES_1_2: {
                         localName = reader.getLocalName();
                         Element element = Element.forName(reader.getLocalName());
                         SUBSYSTEM_DATASOURCES_LOGGER.tracef("%s -> %s", localName, element);
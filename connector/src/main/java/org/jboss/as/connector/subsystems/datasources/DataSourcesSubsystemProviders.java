@@ -96,6 +96,7 @@ class DataSourcesSubsystemProviders {
             org.jboss.as.connector.subsystems.common.pool.Constants.POOL_FLUSH_STRATEGY, Constants.ALLOW_MULTIPLE_USERS,
             Constants.PREPAREDSTATEMENTSCACHESIZE,
             Constants.SHAREPREPAREDSTATEMENTS, Constants.TRACKSTATEMENTS,
+            Constants.STATEMENT_SHAPE_CACHE_SIZE, Constants.STATEMENT_SHAPE_PREWARM_COUNT,
             Constants.ALLOCATION_RETRY, Constants.ALLOCATION_RETRY_WAIT_MILLIS,
             org.jboss.as.connector.subsystems.common.pool.Constants.BLOCKING_TIMEOUT_WAIT_MILLIS, org.jboss.as.connector.subsystems.common.pool.Constants.IDLETIMEOUTMINUTES,
             Constants.QUERYTIMEOUT, Constants.USETRYLOCK, Constants.SETTXQUERYTIMEOUT,
@@ -122,6 +123,7 @@ class DataSourcesSubsystemProviders {
             org.jboss.as.connector.subsystems.common.pool.Constants.POOL_FLUSH_STRATEGY, Constants.ALLOW_MULTIPLE_USERS,
             Constants.PREPAREDSTATEMENTSCACHESIZE,
             Constants.SHAREPREPAREDSTATEMENTS, Constants.TRACKSTATEMENTS,
+            Constants.STATEMENT_SHAPE_CACHE_SIZE, Constants.STATEMENT_SHAPE_PREWARM_COUNT,
             Constants.ALLOCATION_RETRY, Constants.ALLOCATION_RETRY_WAIT_MILLIS,
             org.jboss.as.connector.subsystems.common.pool.Constants.BLOCKING_TIMEOUT_WAIT_MILLIS, org.jboss.as.connector.subsystems.common.pool.Constants.IDLETIMEOUTMINUTES,
             Constants.QUERYTIMEOUT, Constants.USETRYLOCK, Constants.SETTXQUERYTIMEOUT,
@@ -717,6 +719,28 @@ class DataSourcesSubsystemProviders {
     };
 
 
+    static DescriptionProvider ENABLE_INSTRUMENTATION_DESC = new DescriptionProvider() {
+        @Override
+        public ModelNode getModelDescription(final Locale locale) {
+            final ResourceBundle bundle = getResourceBundle(locale);
+            final ModelNode operation = new ModelNode();
+            operation.get(OPERATION_NAME).set("enable");
+            operation.get(DESCRIPTION).set(bundle.getString("data-source.enable-instrumentation"));
+            return operation;
+        }
+    };
+
+    static DescriptionProvider DISABLE_INSTRUMENTATION_DESC = new DescriptionProvider() {
+        @Override
+        public ModelNode getModelDescription(final Locale locale) {
+            final ResourceBundle bundle = getResourceBundle(locale);
+            final ModelNode operation = new ModelNode();
+            operation.get(OPERATION_NAME).set("disable");
+            operation.get(DESCRIPTION).set(bundle.getString("data-source.disable-instrumentation"));
+            return operation;
+        }
+    };
+
     static DescriptionProvider XA_DATA_SOURCE_DESC = new DescriptionProvider() {
         @Override
         public ModelNode getModelDescription(final Locale locale) {
@@ -80,6 +80,8 @@ import static org.jboss.as.connector.subsystems.datasources.Constants.SHAREPREPA
 import static org.jboss.as.connector.subsystems.datasources.Constants.SPY;
 import static org.jboss.as.connector.subsystems.datasources.Constants.STALECONNECTIONCHECKERCLASSNAME;
 import static org.jboss.as.connector.subsystems.datasources.Constants.STALECONNECTIONCHECKER_PROPERTIES;
+import static org.jboss.as.connector.subsystems.datasources.Constants.STATEMENT_SHAPE_CACHE_SIZE;
+import static org.jboss.as.connector.subsystems.datasources.Constants.STATEMENT_SHAPE_PREWARM_COUNT;
 import static org.jboss.as.connector.subsystems.datasources.Constants.TRACKSTATEMENTS;
 import static org.jboss.as.connector.subsystems.datasources.Constants.TRANSACTION_ISOLATION;
 import static org.jboss.as.connector.subsystems.datasources.Constants.URL_DELIMITER;
@@ -1138,8 +1140,20 @@ public class DsParser extends AbstractParser {
                             SHAREPREPAREDSTATEMENTS.parseAndSetParameter(value, operation, reader);
                             break;
                         }
-                        default:
-                            throw new ParserException(bundle.unexpectedElement(reader.getLocalName()));
+                        default: {
+                            // the statement shape cache is not part of the IronJacamar metadata
+                            final String localName = reader.getLocalName();
+                            if (Namespace.forUri(reader.getNamespaceURI()).compareTo(Namespace.DATASOURCES_1_2) < 0) {
+                                throw new ParserException(bundle.unexpectedElement(localName));
+                            } else if (STATEMENT_SHAPE_CACHE_SIZE.getXmlName().equals(localName)) {
+                                STATEMENT_SHAPE_CACHE_SIZE.parseAndSetParameter(rawElementText(reader), operation, reader);
+                            } else if (STATEMENT_SHAPE_PREWARM_COUNT.getXmlName().equals(localName)) {
+                                STATEMENT_SHAPE_PREWARM_COUNT.parseAndSetParameter(rawElementText(reader), operation, reader);
+                            } else {
+                                throw new ParserException(bundle.unexpectedElement(localName));
+                            }
+                            break;
+                        }
                     }
                     break;
                 }
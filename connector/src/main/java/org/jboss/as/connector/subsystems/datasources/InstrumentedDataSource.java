@@ -0,0 +1,134 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.connector.subsystems.datasources;
+
+import java.io.PrintWriter;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.logging.Logger;
+
+import javax.naming.NamingException;
+import javax.naming.Reference;
+import javax.naming.Referenceable;
+import javax.sql.DataSource;
+
+/**
+ * {@link DataSource} wrapper recording the time spent waiting for a connection in the
+ * {@link DataSourceInstrumentation}.
+ * <p/>
+ * The connection handles of IronJacamar are always returned to the application as is. When instrumentation is
+ * disabled the only cost is a volatile read per {@link #getConnection()}. The statement execution times and the
+ * statement shapes are recorded below the managed connections, by the {@link PhysicalConnectionWrapper}.
+ * <p/>
+ * The data source is bound under the {@link Reference} of the wrapped data source.
+ */
+public class InstrumentedDataSource implements DataSource, Referenceable {
+
+    private final DataSource delegate;
+    private final DataSourceInstrumentation instrumentation;
+    private final StatementShapeCache statementShapeCache;
+
+    public InstrumentedDataSource(final DataSource delegate, final DataSourceInstrumentation instrumentation,
+            final StatementShapeCache statementShapeCache) {
+        this.delegate = delegate;
+        this.instrumentation = instrumentation;
+        this.statementShapeCache = statementShapeCache;
+    }
+
+    public DataSource getDelegate() {
+        return delegate;
+    }
+
+    public DataSourceInstrumentation getInstrumentation() {
+        return instrumentation;
+    }
+
+    public StatementShapeCache getStatementShapeCache() {
+        return statementShapeCache;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!instrumentation.isEnabled()) {
+            return delegate.getConnection();
+        }
+        final long start = System.nanoTime();
+        final Connection connection = delegate.getConnection();
+        instrumentation.connectionObtained(connection, System.nanoTime() - start);
+        return connection;
+    }
+
+    @Override
+    public Connection getConnection(final String username, final String password) throws SQLException {
+        if (!instrumentation.isEnabled()) {
+            return delegate.getConnection(username, password);
+        }
+        final long start = System.nanoTime();
+        final Connection connection = delegate.getConnection(username, password);
+        instrumentation.connectionObtained(connection, System.nanoTime() - start);
+        return connection;
+    }
+
+    @Override
+    public Reference getReference() throws NamingException {
+        return ((Referenceable) delegate).getReference();
+    }
+
+    @Override
+    public PrintWriter getLogWriter() throws SQLException {
+        return delegate.getLogWriter();
+    }
+
+    @Override
+    public void setLogWriter(final PrintWriter out) throws SQLException {
+        delegate.setLogWriter(out);
+    }
+
+    @Override
+    public void setLoginTimeout(final int seconds) throws SQLException {
+        delegate.setLoginTimeout(seconds);
+    }
+
+    @Override
+    public int getLoginTimeout() throws SQLException {
+        return delegate.getLoginTimeout();
+    }
+
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        throw new SQLFeatureNotSupportedException();
+    }
+
+    @Override
+    public <T> T unwrap(final Class<T> iface) throws SQLException {
+        if (iface.isInstance(delegate)) {
+            return iface.cast(delegate);
+        }
+        return delegate.unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(final Class<?> iface) throws SQLException {
+        return iface.isInstance(delegate) || delegate.isWrapperFor(iface);
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.connector.subsystems.datasources;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.jboss.dmr.ModelNode;
+
+/**
+ * Lock-free histogram of durations.
+ * <p/>
+ * Durations are counted in buckets whose upper bounds are powers of two microseconds, so recording a value is a
+ * couple of atomic increments and percentiles are approximated by the upper bound of their bucket.
+ */
+final class LatencyHistogram {
+
+    // 2^0 us to 2^31 us (~36 minutes), the last bucket holds everything above
+    private static final int BUCKETS = 33;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong total = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Record a duration.
+     *
+     * @param nanos the duration in nanoseconds
+     */
+    void record(final long nanos) {
+        final long micros = TimeUnit.NANOSECONDS.toMicros(nanos);
+        buckets.incrementAndGet(bucketFor(micros));
+        count.incrementAndGet();
+        total.addAndGet(micros);
+        long current = max.get();
+        while (micros > current && !max.compareAndSet(current, micros)) {
+            current = max.get();
+        }
+    }
+
+    void clear() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets.set(i, 0);
+        }
+        count.set(0);
+        total.set(0);
+        max.set(0);
+    }
+
+    long getCount() {
+        return count.get();
+    }
+
+    /**
+     * @return the average duration in microseconds
+     */
+    long getAverage() {
+        final long c = count.get();
+        return c == 0 ? 0 : total.get() / c;
+    }
+
+    /**
+     * @return the maximum duration in microseconds
+     */
+    long getMax() {
+        return max.get();
+    }
+
+    /**
+     * @param percentile a percentile between 0 and 100
+     * @return the upper bound in microseconds of the bucket containing the percentile
+     */
+    long getPercentile(final double percentile) {
+        final long c = count.get();
+        if (c == 0) {
+            return 0;
+        }
+        final long rank = (long) Math.ceil(percentile / 100 * c);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += buckets.get(i);
+            if (seen >= rank) {
+                return Math.min(upperBound(i), getMax());
+            }
+        }
+        return getMax();
+    }
+
+    /**
+     * @return the non empty buckets as an object whose keys are the {@code "<=upper-bound-us"} bucket labels, in
+     *         increasing order, and whose values are the counts
+     */
+    ModelNode toModelNode() {
+        final ModelNode node = new ModelNode();
+        node.setEmptyObject();
+        for (int i = 0; i < BUCKETS; i++) {
+            final long value = buckets.get(i);
+            if (value > 0) {
+                node.get(label(i)).set(value);
+            }
+        }
+        return node;
+    }
+
+    /**
+     * @return the non empty buckets as a {@code "<=upper-bound-us:count"} list
+     */
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < BUCKETS; i++) {
+            final long value = buckets.get(i);
+            if (value > 0) {
+                if (sb.length() > 0) {
+                    sb.append(", ");
+                }
+                sb.append(label(i)).append(':').append(value);
+            }
+        }
+        return sb.toString();
+    }
+
+    private static String label(final int bucket) {
+        if (bucket == BUCKETS - 1) {
+            return ">" + upperBound(bucket - 1) + "us";
+        }
+        return "<=" + upperBound(bucket) + "us";
+    }
+
+    private static int bucketFor(final long micros) {
+        if (micros <= 1) {
+            return 0;
+        }
+        // index of the smallest power of two greater or equal to micros
+        final int bucket = 64 - Long.numberOfLeadingZeros(micros - 1);
+        return Math.min(bucket, BUCKETS - 1);
+    }
+
+    private static long upperBound(final int bucket) {
+        return bucket >= BUCKETS - 1 ? Long.MAX_VALUE : 1L << bucket;
+    }
+}
@@ -35,12 +35,14 @@ public enum Namespace {
 
     DATASOURCES_1_0("urn:jboss:domain:datasources:1.0"),
 
-    DATASOURCES_1_1("urn:jboss:domain:datasources:1.1");
+    DATASOURCES_1_1("urn:jboss:domain:datasources:1.1"),
+
+    DATASOURCES_1_2("urn:jboss:domain:datasources:1.2");
 
     /**
      * The current namespace version.
      */
-    public static final Namespace CURRENT = DATASOURCES_1_1;
+    public static final Namespace CURRENT = DATASOURCES_1_2;
 
     private final String name;
 
@@ -0,0 +1,212 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.connector.subsystems.datasources;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+import javax.sql.XAConnection;
+import javax.sql.XADataSource;
+
+/**
+ * Wraps the physical connections the managed connection factories of a data source open with the JDBC driver, to
+ * record the time spent executing statements in the {@link DataSourceInstrumentation} and the SQL text of the
+ * statements prepared on them in the {@link StatementShapeCache}.
+ * <p/>
+ * The wrapping happens below the managed connection, so the application still gets the connection and statement
+ * handles of IronJacamar, and casts to its wrapper classes keep working. Only {@code getUnderlyingConnection()} and
+ * {@code getUnderlyingStatement()} return the wrappers, whose {@code unwrap} methods reach the objects of the driver.
+ * <p/>
+ * Only the physical connections opened while instrumentation or the statement shape cache is enabled are wrapped, so
+ * there is no overhead at all for the connections of a data source using neither. The connections already in the pool
+ * when instrumentation is enabled can be replaced with {@code flush-all-connection-in-pool}.
+ */
+final class PhysicalConnectionWrapper {
+
+    private final DataSourceInstrumentation instrumentation;
+    private final StatementShapeCache statementShapeCache;
+
+    PhysicalConnectionWrapper(final DataSourceInstrumentation instrumentation, final StatementShapeCache statementShapeCache) {
+        this.instrumentation = instrumentation;
+        this.statementShapeCache = statementShapeCache;
+    }
+
+    /**
+     * @param driver the driver of a local data source
+     * @return a driver wrapping the connections it opens
+     */
+    Driver wrap(final Driver driver) {
+        return proxy(driver, Driver.class, new DelegatingHandler(driver) {
+            @Override
+            Object wrapResult(final Method method, final Object[] args, final Object result) {
+                return result instanceof Connection ? wrap((Connection) result) : result;
+            }
+        });
+    }
+
+    /**
+     * @param xaDataSource the XA data source of an XA data source
+     * @return an XA data source wrapping the connections of the XA connections it opens
+     */
+    XADataSource wrap(final XADataSource xaDataSource) {
+        return proxy(xaDataSource, XADataSource.class, new DelegatingHandler(xaDataSource) {
+            @Override
+            Object wrapResult(final Method method, final Object[] args, final Object result) {
+                return result instanceof XAConnection ? wrap((XAConnection) result) : result;
+            }
+        });
+    }
+
+    private XAConnection wrap(final XAConnection xaConnection) {
+        return proxy(xaConnection, XAConnection.class, new DelegatingHandler(xaConnection) {
+            @Override
+            Object wrapResult(final Method method, final Object[] args, final Object result) {
+                return result instanceof Connection ? wrap((Connection) result) : result;
+            }
+        });
+    }
+
+    /**
+     * @param connection a physical connection
+     * @return the connection, wrapped if instrumentation or the statement shape cache is enabled
+     */
+    Connection wrap(final Connection connection) {
+        if (!instrumentation.isEnabled() && !statementShapeCache.isEnabled()) {
+            return connection;
+        }
+        return proxy(connection, Connection.class, new ConnectionHandler(connection));
+    }
+
+    private static <T> T proxy(final T delegate, final Class<T> type, final InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(SecurityActions.getClassLoader(delegate.getClass()), new Class<?>[] { type }, handler));
+    }
+
+    private static Class<? extends Statement> getStatementType(final String methodName) {
+        if ("prepareStatement".equals(methodName)) {
+            return PreparedStatement.class;
+        } else if ("prepareCall".equals(methodName)) {
+            return CallableStatement.class;
+        } else if ("createStatement".equals(methodName)) {
+            return Statement.class;
+        }
+        return null;
+    }
+
+    /**
+     * @return {@code true} for the forms of {@code prepareStatement} and {@code prepareCall} whose statements are
+     *         matched by the prepared statement cache of a statement pre-warmed with the SQL text only
+     */
+    private static boolean isCacheable(final Class<?>[] parameterTypes, final Object[] args) {
+        if (parameterTypes.length == 1) {
+            return parameterTypes[0] == String.class;
+        }
+        return parameterTypes.length == 3 && parameterTypes[0] == String.class
+                && parameterTypes[1] == int.class && parameterTypes[2] == int.class
+                && (Integer) args[1] == ResultSet.TYPE_FORWARD_ONLY && (Integer) args[2] == ResultSet.CONCUR_READ_ONLY;
+    }
+
+    private abstract static class DelegatingHandler implements InvocationHandler {
+        final Object delegate;
+
+        DelegatingHandler(final Object delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+            final String name = method.getName();
+            if ("equals".equals(name) && args != null && args.length == 1) {
+                return proxy == args[0];
+            } else if ("hashCode".equals(name) && args == null) {
+                return System.identityHashCode(proxy);
+            }
+            return wrapResult(method, args, invokeDelegate(method, args));
+        }
+
+        Object invokeDelegate(final Method method, final Object[] args) throws Throwable {
+            try {
+                return method.invoke(delegate, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        abstract Object wrapResult(Method method, Object[] args, Object result);
+    }
+
+    private class ConnectionHandler extends DelegatingHandler {
+
+        ConnectionHandler(final Connection connection) {
+            super(connection);
+        }
+
+        @Override
+        Object wrapResult(final Method method, final Object[] args, final Object result) {
+            final Class<? extends Statement> type = getStatementType(method.getName());
+            if (type == null || !type.isInstance(result)) {
+                return result;
+            }
+            if (type != Statement.class && statementShapeCache.isEnabled() && isCacheable(method.getParameterTypes(), args)) {
+                statementShapeCache.statementPrepared((String) args[0], type == CallableStatement.class);
+            }
+            return wrapStatement(type, result);
+        }
+
+        private <T extends Statement> T wrapStatement(final Class<T> type, final Object statement) {
+            return proxy(type.cast(statement), type, new StatementHandler(statement));
+        }
+    }
+
+    private class StatementHandler extends DelegatingHandler {
+
+        StatementHandler(final Object statement) {
+            super(statement);
+        }
+
+        @Override
+        Object invokeDelegate(final Method method, final Object[] args) throws Throwable {
+            if (!method.getName().startsWith("execute") || !instrumentation.isEnabled()) {
+                return super.invokeDelegate(method, args);
+            }
+            final long start = System.nanoTime();
+            try {
+                return super.invokeDelegate(method, args);
+            } finally {
+                instrumentation.statementExecuted(System.nanoTime() - start);
+            }
+        }
+
+        @Override
+        Object wrapResult(final Method method, final Object[] args, final Object result) {
+            return result;
+        }
+    }
+}
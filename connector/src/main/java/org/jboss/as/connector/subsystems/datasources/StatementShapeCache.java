@@ -0,0 +1,414 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.connector.subsystems.datasources;
+
+import static org.jboss.as.connector.logging.ConnectorLogger.DS_DEPLOYER_LOGGER;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import javax.resource.ResourceException;
+import javax.resource.spi.ConnectionRequestInfo;
+import javax.resource.spi.ManagedConnection;
+import javax.security.auth.Subject;
+
+import org.jboss.dmr.ModelNode;
+import org.jboss.jca.core.spi.statistics.StatisticsPlugin;
+
+/**
+ * Pool-wide cache of the statement shapes, i.e. the SQL text, prepared through a data source.
+ * <p/>
+ * The prepared statement cache of IronJacamar is held per physical connection, so every connection of the pool has
+ * to prepare the hot statements of the application again. This cache tracks how often each SQL text is prepared on
+ * the physical connections of the pool, as recorded by the {@link PhysicalConnectionWrapper} below the managed
+ * connections, and, when the pool creates a new physical connection, prepares the most frequent ones on it so that
+ * they are already in its prepared statement cache. With a {@code prepared-statements-cache-size} a statement only
+ * reaches the physical connection when it is not in the cache of the connection yet, so the frequency of a shape is
+ * the number of times a connection had to prepare it again. Pre-warming is only useful together with such a cache.
+ * <p/>
+ * Recording a prepared statement only updates a counter in a concurrent map. The number of tracked shapes is bounded:
+ * once the map holds a quarter more shapes than the size of the cache, the shapes are ranked by frequency and the
+ * least frequently prepared ones are evicted, by a single thread while the others go on. The shapes are also ranked
+ * when the most frequent ones are looked up. The frequencies are halved every {@value #AGING_PERIOD} prepared statements
+ * per tracked shape so that shapes which were hot a long time ago do not stay in the cache forever.
+ * Only the {@code prepareStatement} and {@code prepareCall} forms with a forward-only, read-only result set are
+ * tracked as the other forms are not matched by the per-connection cache of a pre-warmed statement.
+ */
+public class StatementShapeCache implements StatisticsPlugin {
+
+    static final String HIT_COUNT = "HitCount";
+    static final String MISS_COUNT = "MissCount";
+    static final String HIT_PERCENTAGE = "HitPercentage";
+    static final String EVICTION_COUNT = "EvictionCount";
+    static final String SHAPE_COUNT = "ShapeCount";
+    static final String PREWARMED_CONNECTION_COUNT = "PrewarmedConnectionCount";
+    static final String PREWARMED_STATEMENT_COUNT = "PrewarmedStatementCount";
+    static final String TOP_STATEMENTS = "TopStatements";
+
+    /**
+     * The number of prepared statements, per tracked shape, after which the frequencies are halved.
+     */
+    static final int AGING_PERIOD = 16;
+
+    private static final Map<String, Class<?>> TYPES;
+    private static final Map<String, String> DESCRIPTIONS;
+
+    static {
+        final Map<String, Class<?>> types = new HashMap<String, Class<?>>();
+        final Map<String, String> descriptions = new HashMap<String, String>();
+        types.put(HIT_COUNT, long.class);
+        descriptions.put(HIT_COUNT, "The number of statements prepared on a physical connection whose SQL text was already tracked by the cache");
+        types.put(MISS_COUNT, long.class);
+        descriptions.put(MISS_COUNT, "The number of statements prepared on a physical connection whose SQL text was not tracked by the cache");
+        types.put(HIT_PERCENTAGE, int.class);
+        descriptions.put(HIT_PERCENTAGE, "The percentage of the statements prepared on a physical connection whose SQL text was already tracked by the cache");
+        types.put(EVICTION_COUNT, long.class);
+        descriptions.put(EVICTION_COUNT, "The number of statement shapes evicted from the cache");
+        types.put(SHAPE_COUNT, int.class);
+        descriptions.put(SHAPE_COUNT, "The number of statement shapes currently tracked by the cache");
+        types.put(PREWARMED_CONNECTION_COUNT, long.class);
+        descriptions.put(PREWARMED_CONNECTION_COUNT, "The number of physical connections the most frequent statements were prepared on");
+        types.put(PREWARMED_STATEMENT_COUNT, long.class);
+        descriptions.put(PREWARMED_STATEMENT_COUNT, "The number of statements prepared to pre-warm new physical connections");
+        types.put(TOP_STATEMENTS, ModelNode.class);
+        descriptions.put(TOP_STATEMENTS, "The statements that are prepared on new physical connections, keyed by SQL text, with their aged prepare frequency");
+        TYPES = Collections.unmodifiableMap(types);
+        DESCRIPTIONS = Collections.unmodifiableMap(descriptions);
+    }
+
+    private volatile int maxShapes;
+    private volatile int prewarmCount;
+    private volatile boolean enabled = true;
+
+    private final ConcurrentMap<String, Entry> shapes = new ConcurrentHashMap<String, Entry>();
+    private final AtomicLong nextSequence = new AtomicLong();
+    private final AtomicLong preparedSinceAging = new AtomicLong();
+    // held while ranking or aging the shapes
+    private final Lock rankLock = new ReentrantLock();
+    // set while the statements of a new connection are prepared, so that they are not counted
+    private final ThreadLocal<Boolean> prewarming = new ThreadLocal<Boolean>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong prewarmedConnections = new AtomicLong();
+    private final AtomicLong prewarmedStatements = new AtomicLong();
+
+    /**
+     * Set the size of the cache.
+     *
+     * @param maxShapes the maximum number of statement shapes tracked, {@code 0} disables the cache
+     * @param prewarmCount the number of the most frequent statements prepared on new physical connections
+     */
+    void configure(final int maxShapes, final int prewarmCount) {
+        this.maxShapes = maxShapes;
+        this.prewarmCount = Math.min(prewarmCount, maxShapes);
+    }
+
+    @Override
+    public Set<String> getNames() {
+        return TYPES.keySet();
+    }
+
+    @Override
+    public Class getType(String name) {
+        return TYPES.get(name);
+    }
+
+    @Override
+    public String getDescription(String name) {
+        return DESCRIPTIONS.get(name);
+    }
+
+    @Override
+    public String getDescription(String name, Locale locale) {
+        return getDescription(name);
+    }
+
+    @Override
+    public Object getValue(String name) {
+        if (HIT_COUNT.equals(name)) {
+            return hits.get();
+        } else if (MISS_COUNT.equals(name)) {
+            return misses.get();
+        } else if (HIT_PERCENTAGE.equals(name)) {
+            final long hitCount = hits.get();
+            final long total = hitCount + misses.get();
+            return total == 0 ? 0 : (int) (hitCount * 100 / total);
+        } else if (EVICTION_COUNT.equals(name)) {
+            rank(0);
+            return evictions.get();
+        } else if (SHAPE_COUNT.equals(name)) {
+            rank(0);
+            return shapes.size();
+        } else if (PREWARMED_CONNECTION_COUNT.equals(name)) {
+            return prewarmedConnections.get();
+        } else if (PREWARMED_STATEMENT_COUNT.equals(name)) {
+            return prewarmedStatements.get();
+        } else if (TOP_STATEMENTS.equals(name)) {
+            final ModelNode result = new ModelNode();
+            result.setEmptyObject();
+            for (Shape shape : getTopShapes(prewarmCount)) {
+                result.get(shape.sql).set(shape.count);
+            }
+            return result;
+        }
+        return null;
+    }
+
+    /**
+     * @return {@code true} if the cache is configured with a non zero size and has not been disabled
+     */
+    @Override
+    public boolean isEnabled() {
+        return enabled && maxShapes > 0;
+    }
+
+    @Override
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Reset the counters. The tracked shapes are kept so that new connections are still pre-warmed.
+     */
+    @Override
+    public void clear() {
+        hits.set(0);
+        misses.set(0);
+        evictions.set(0);
+        prewarmedConnections.set(0);
+        prewarmedStatements.set(0);
+    }
+
+    /**
+     * Record that a statement was prepared on a physical connection.
+     *
+     * @param sql the SQL text of the statement
+     * @param callable {@code true} if the statement was prepared with {@code prepareCall}
+     */
+    void statementPrepared(final String sql, final boolean callable) {
+        if (prewarming.get() != null) {
+            return;
+        }
+        final int max = maxShapes;
+        Entry entry = shapes.get(sql);
+        if (entry != null) {
+            hits.incrementAndGet();
+            entry.count.incrementAndGet();
+        } else {
+            misses.incrementAndGet();
+            final Entry newEntry = new Entry(sql, callable, nextSequence.getAndIncrement());
+            entry = shapes.putIfAbsent(sql, newEntry);
+            (entry == null ? newEntry : entry).count.incrementAndGet();
+            if (shapes.size() > max + Math.max(1, max / 4)) {
+                rank(0);
+            }
+        }
+        if (preparedSinceAging.incrementAndGet() >= (long) AGING_PERIOD * max && rankLock.tryLock()) {
+            try {
+                age();
+            } finally {
+                rankLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Halve the frequencies. Increments racing with the halving are kept.
+     */
+    private void age() {
+        preparedSinceAging.set(0);
+        for (Entry entry : shapes.values()) {
+            final long count = entry.count.get();
+            entry.count.addAndGet(-(count - (count >> 1)));
+        }
+    }
+
+    /**
+     * Rank the shapes by frequency, evict the least frequent ones beyond the size of the cache and return the most
+     * frequent ones. If another thread is ranking the shapes, only the lookup waits for it.
+     *
+     * @param count the number of the most frequent shapes to return
+     * @return a snapshot of the {@code count} most frequent shapes, most frequent first
+     */
+    private List<Shape> rank(final int count) {
+        if (count > 0) {
+            rankLock.lock();
+        } else if (!rankLock.tryLock()) {
+            return Collections.emptyList();
+        }
+        try {
+            final TreeSet<Shape> byFrequency = new TreeSet<Shape>(BY_FREQUENCY);
+            for (Entry entry : shapes.values()) {
+                byFrequency.add(entry.snapshot());
+            }
+            while (byFrequency.size() > maxShapes) {
+                final Shape victim = byFrequency.pollFirst();
+                if (shapes.remove(victim.sql) != null) {
+                    evictions.incrementAndGet();
+                }
+            }
+            final List<Shape> top = new ArrayList<Shape>(Math.min(count, byFrequency.size()));
+            final Iterator<Shape> iterator = byFrequency.descendingIterator();
+            while (top.size() < count && iterator.hasNext()) {
+                top.add(iterator.next());
+            }
+            return top;
+        } finally {
+            rankLock.unlock();
+        }
+    }
+
+    /**
+     * Prepare the most frequent statements on a physical connection the pool has just created, before any application
+     * uses it. Failures are logged and otherwise ignored, the connection is added to the pool regardless.
+     *
+     * @param mc the new managed connection
+     * @param subject the subject the connection was created for
+     * @param cri the connection request information the connection was created for
+     */
+    void prewarm(final ManagedConnection mc, final Subject subject, final ConnectionRequestInfo cri) {
+        final int count = prewarmCount;
+        if (count <= 0 || !isEnabled()) {
+            return;
+        }
+        final List<Shape> top = getTopShapes(count);
+        if (top.isEmpty()) {
+            return;
+        }
+        prewarming.set(Boolean.TRUE);
+        try {
+            prewarm(mc, subject, cri, top);
+        } finally {
+            prewarming.remove();
+        }
+    }
+
+    private void prewarm(final ManagedConnection mc, final Subject subject, final ConnectionRequestInfo cri, final List<Shape> top) {
+        final Object handle;
+        try {
+            handle = mc.getConnection(subject, cri);
+        } catch (ResourceException e) {
+            DS_DEPLOYER_LOGGER.debugf(e, "Failed to pre-warm new connection");
+            return;
+        }
+        if (!(handle instanceof Connection)) {
+            return;
+        }
+        final Connection connection = (Connection) handle;
+        try {
+            prewarmedConnections.incrementAndGet();
+            for (Shape shape : top) {
+                try {
+                    // closing the statement hands it over to the prepared statement cache of the connection
+                    final PreparedStatement statement = shape.callable ? connection.prepareCall(shape.sql) : connection.prepareStatement(shape.sql);
+                    statement.close();
+                    prewarmedStatements.incrementAndGet();
+                } catch (SQLException e) {
+                    DS_DEPLOYER_LOGGER.debugf(e, "Failed to pre-warm statement %s", shape.sql);
+                }
+            }
+        } finally {
+            try {
+                connection.close();
+            } catch (SQLException e) {
+                DS_DEPLOYER_LOGGER.debugf(e, "Failed to close pre-warmed connection");
+            }
+        }
+    }
+
+    /**
+     * @return a snapshot of the {@code count} most frequent shapes, most frequent first
+     */
+    List<Shape> getTopShapes(final int count) {
+        return count > 0 ? rank(count) : Collections.<Shape>emptyList();
+    }
+
+    /**
+     * Least frequent first; among shapes of the same frequency the oldest first.
+     */
+    private static final Comparator<Shape> BY_FREQUENCY = new Comparator<Shape>() {
+        @Override
+        public int compare(final Shape o1, final Shape o2) {
+            if (o1.count != o2.count) {
+                return o1.count < o2.count ? -1 : 1;
+            }
+            return o1.sequence < o2.sequence ? -1 : o1.sequence == o2.sequence ? 0 : 1;
+        }
+    };
+
+    /**
+     * A tracked statement shape, whose frequency is updated concurrently.
+     */
+    private static final class Entry {
+        final String sql;
+        final boolean callable;
+        final long sequence;
+        final AtomicLong count = new AtomicLong();
+
+        Entry(final String sql, final boolean callable, final long sequence) {
+            this.sql = sql;
+            this.callable = callable;
+            this.sequence = sequence;
+        }
+
+        Shape snapshot() {
+            final Shape shape = new Shape(sql, callable, sequence);
+            shape.count = count.get();
+            return shape;
+        }
+    }
+
+    /**
+     * A statement shape and the number of times it was prepared.
+     */
+    static final class Shape {
+        final String sql;
+        final boolean callable;
+        final long sequence;
+        long count;
+
+        Shape(final String sql, final boolean callable, final long sequence) {
+            this.sql = sql;
+            this.callable = callable;
+            this.sequence = sequence;
+        }
+    }
+}
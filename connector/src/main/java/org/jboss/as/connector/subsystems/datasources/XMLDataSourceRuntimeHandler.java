@@ -117,6 +117,10 @@ public class XMLDataSourceRuntimeHandler extends AbstractXMLDataSourceRuntimeHan
                 return;
             }
             setStringIfNotNull(context, dataSource.getPool().getFlushStrategy().getName());
+        } else if (attributeName.equals(Constants.STATEMENT_SHAPE_CACHE_SIZE.getName())
+                || attributeName.equals(Constants.STATEMENT_SHAPE_PREWARM_COUNT.getName())) {
+            // the statement shape cache cannot be configured in -ds.xml deployments
+            return;
         } else if (attributeName.equals(Constants.PREPAREDSTATEMENTSCACHESIZE.getName())) {
             if (dataSource.getStatement() == null) {
                 return;
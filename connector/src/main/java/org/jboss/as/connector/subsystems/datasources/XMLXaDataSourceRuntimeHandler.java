@@ -105,6 +105,10 @@ public class XMLXaDataSourceRuntimeHandler extends AbstractXMLDataSourceRuntimeH
                 return;
             }
             setBooleanIfNotNull(context, dataSource.getXaPool().isWrapXaResource());
+        } else if (attributeName.equals(Constants.STATEMENT_SHAPE_CACHE_SIZE.getName())
+                || attributeName.equals(Constants.STATEMENT_SHAPE_PREWARM_COUNT.getName())) {
+            // the statement shape cache cannot be configured in -ds.xml deployments
+            return;
         } else if (attributeName.equals(Constants.PREPAREDSTATEMENTSCACHESIZE.getName())) {
             if (dataSource.getStatement() == null) {
                 return;
@@ -320,6 +324,10 @@ public class XMLXaDataSourceRuntimeHandler extends AbstractXMLDataSourceRuntimeH
             for (final Map.Entry<String, String> entry : propertiesMap.entrySet()) {
                 context.getResult().asPropertyList().add(new ModelNode().set(entry.getKey(), entry.getValue()).asProperty());
             }
+        } else if (attributeName.equals(Constants.STATEMENT_SHAPE_CACHE_SIZE.getName())
+                || attributeName.equals(Constants.STATEMENT_SHAPE_PREWARM_COUNT.getName())) {
+            // the statement shape cache cannot be configured in -ds.xml deployments
+            return;
         } else if (attributeName.equals(Constants.PREPAREDSTATEMENTSCACHESIZE.getName())) {
             if (dataSource.getStatement() == null) {
                 return;
@@ -0,0 +1,199 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.connector.subsystems.datasources;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.PreparedStatement;
+import java.util.Properties;
+
+import javax.resource.spi.ConnectionEvent;
+import javax.resource.spi.ManagedConnection;
+import javax.sql.DataSource;
+
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+import org.junit.Test;
+
+/**
+ * Tests {@link DataSourceInstrumentation} and the {@link InstrumentedDataSource}.
+ */
+public class DataSourceInstrumentationUnitTestCase {
+
+    private static final InvocationHandler NOOP = new InvocationHandler() {
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if ("equals".equals(method.getName())) {
+                return proxy == args[0];
+            } else if ("hashCode".equals(method.getName())) {
+                return System.identityHashCode(proxy);
+            }
+            return null;
+        }
+    };
+
+    @Test
+    public void testConnectionHandleIsNotWrapped() throws Exception {
+        final Connection connection = proxy(Connection.class, NOOP);
+        final DataSource delegate = proxy(DataSource.class, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                return "getConnection".equals(method.getName()) ? connection : null;
+            }
+        });
+        final DataSourceInstrumentation instrumentation = new DataSourceInstrumentation();
+        final StatementShapeCache statementShapeCache = new StatementShapeCache();
+        final InstrumentedDataSource dataSource = new InstrumentedDataSource(delegate, instrumentation, statementShapeCache);
+
+        assertSame(connection, dataSource.getConnection());
+        assertEquals(0L, instrumentation.getValue(DataSourceInstrumentation.CONNECTION_WAIT_COUNT));
+
+        instrumentation.setEnabled(true);
+        assertSame(connection, dataSource.getConnection());
+        assertEquals(1L, instrumentation.getValue(DataSourceInstrumentation.CONNECTION_WAIT_COUNT));
+
+        // the statement shapes are recorded below the managed connection too
+        statementShapeCache.configure(10, 2);
+        assertSame(connection, dataSource.getConnection());
+    }
+
+    @Test
+    public void testHoldTimeRecordedOnClose() throws Exception {
+        final DataSourceInstrumentation instrumentation = new DataSourceInstrumentation();
+        final Connection connection = proxy(Connection.class, NOOP);
+        final Connection other = proxy(Connection.class, NOOP);
+
+        instrumentation.connectionObtained(connection, 1000);
+        // a handle that was not obtained while the instrumentation was enabled is ignored
+        instrumentation.connectionClosed(closed(other));
+        assertEquals(0L, instrumentation.getValue(DataSourceInstrumentation.CONNECTION_HOLD_MAX_TIME));
+        assertTrue(((ModelNode) instrumentation.getValue(DataSourceInstrumentation.CONNECTION_HOLD_HISTOGRAM)).keys().isEmpty());
+
+        instrumentation.connectionClosed(closed(connection));
+        final ModelNode hold = (ModelNode) instrumentation.getValue(DataSourceInstrumentation.CONNECTION_HOLD_HISTOGRAM);
+        assertEquals(ModelType.OBJECT, hold.getType());
+        assertEquals(1, hold.keys().size());
+
+        // closing twice only records the hold time once
+        instrumentation.connectionErrorOccurred(closed(connection));
+        hold.set((ModelNode) instrumentation.getValue(DataSourceInstrumentation.CONNECTION_HOLD_HISTOGRAM));
+        assertEquals(1L, hold.get(hold.keys().iterator().next()).asLong());
+    }
+
+    @Test
+    public void testDeployments() {
+        final DataSourceInstrumentation instrumentation = new DataSourceInstrumentation();
+        final Connection connection = proxy(Connection.class, NOOP);
+        instrumentation.connectionObtained(connection, 3000);
+        instrumentation.connectionObtained(proxy(Connection.class, NOOP), 5000);
+
+        final ModelNode deployments = (ModelNode) instrumentation.getValue(DataSourceInstrumentation.DEPLOYMENTS);
+        assertEquals(ModelType.OBJECT, deployments.getType());
+        // the test is not run by a module class loader
+        final ModelNode unknown = deployments.get(DataSourceInstrumentation.UNKNOWN_DEPLOYMENT);
+        assertEquals(2L, unknown.get(DataSourceInstrumentation.CONNECTION_COUNT).asLong());
+        assertEquals(4L, unknown.get(DataSourceInstrumentation.WAIT_AVERAGE_TIME).asLong());
+        assertEquals(5L, unknown.get(DataSourceInstrumentation.WAIT_MAX_TIME).asLong());
+        assertEquals(ModelType.LONG, unknown.get(DataSourceInstrumentation.HOLD_MAX_TIME).getType());
+
+        final ModelNode wait = (ModelNode) instrumentation.getValue(DataSourceInstrumentation.CONNECTION_WAIT_HISTOGRAM);
+        assertEquals(1L, wait.get("<=4us").asLong());
+        assertEquals(1L, wait.get("<=8us").asLong());
+
+        instrumentation.clear();
+        assertFalse(((ModelNode) instrumentation.getValue(DataSourceInstrumentation.DEPLOYMENTS)).has(DataSourceInstrumentation.UNKNOWN_DEPLOYMENT));
+    }
+
+    @Test
+    public void testStatementExecutionTimedOnPhysicalConnections() throws Exception {
+        final PreparedStatement statement = proxy(PreparedStatement.class, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                if (method.getReturnType() == boolean.class) {
+                    return false;
+                } else if (method.getReturnType() == int.class) {
+                    return 0;
+                }
+                return NOOP.invoke(proxy, method, args);
+            }
+        });
+        final Connection physical = proxy(Connection.class, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                if ("prepareStatement".equals(method.getName())) {
+                    return statement;
+                } else if ("unwrap".equals(method.getName())) {
+                    return proxy;
+                }
+                return NOOP.invoke(proxy, method, args);
+            }
+        });
+        final Driver driver = proxy(Driver.class, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                return "connect".equals(method.getName()) ? physical : null;
+            }
+        });
+        final DataSourceInstrumentation instrumentation = new DataSourceInstrumentation();
+        final Driver wrapped = new PhysicalConnectionWrapper(instrumentation, new StatementShapeCache()).wrap(driver);
+
+        // the connections opened while instrumentation is disabled are not wrapped
+        assertSame(physical, wrapped.connect("jdbc:test", new Properties()));
+
+        instrumentation.setEnabled(true);
+        final Connection connection = wrapped.connect("jdbc:test", new Properties());
+        assertNotSame(physical, connection);
+        assertSame(physical, connection.unwrap(Connection.class));
+        final PreparedStatement prepared = connection.prepareStatement("select 1");
+        assertNotSame(statement, prepared);
+        prepared.setInt(1, 1);
+        prepared.executeQuery();
+        prepared.execute();
+        assertEquals(2L, instrumentation.getValue(DataSourceInstrumentation.STATEMENT_COUNT));
+        final ModelNode deployments = (ModelNode) instrumentation.getValue(DataSourceInstrumentation.DEPLOYMENTS);
+        assertEquals(2L, deployments.get(DataSourceInstrumentation.UNKNOWN_DEPLOYMENT, DataSourceInstrumentation.EXECUTION_COUNT).asLong());
+
+        // a wrapped connection does not record anything once instrumentation is disabled
+        instrumentation.setEnabled(false);
+        prepared.executeUpdate();
+        assertEquals(2L, instrumentation.getValue(DataSourceInstrumentation.STATEMENT_COUNT));
+    }
+
+    private static ConnectionEvent closed(final Connection handle) {
+        final ConnectionEvent event = new ConnectionEvent(proxy(ManagedConnection.class, NOOP), ConnectionEvent.CONNECTION_CLOSED);
+        event.setConnectionHandle(handle);
+        return event;
+    }
+
+    private static <T> T proxy(final Class<T> type, final InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, handler));
+    }
+}
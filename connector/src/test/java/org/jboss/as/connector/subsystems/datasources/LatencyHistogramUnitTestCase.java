@@ -0,0 +1,83 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.connector.subsystems.datasources;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+import org.junit.Test;
+
+/**
+ * Tests {@link LatencyHistogram}.
+ */
+public class LatencyHistogramUnitTestCase {
+
+    @Test
+    public void testEmpty() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getAverage());
+        assertEquals(0, histogram.getPercentile(99));
+        assertEquals("", histogram.toString());
+    }
+
+    @Test
+    public void testPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < 99; i++) {
+            histogram.record(TimeUnit.MICROSECONDS.toNanos(3));
+        }
+        histogram.record(TimeUnit.MILLISECONDS.toNanos(5));
+
+        assertEquals(100, histogram.getCount());
+        assertEquals(5000, histogram.getMax());
+        assertEquals((99 * 3 + 5000) / 100, histogram.getAverage());
+        // 3us falls in the (2us, 4us] bucket
+        assertEquals(4, histogram.getPercentile(50));
+        assertEquals(4, histogram.getPercentile(99));
+        // the upper bound of the last bucket is capped by the maximum
+        assertEquals(5000, histogram.getPercentile(100));
+        assertEquals("<=4us:99, <=8192us:1", histogram.toString());
+
+        ModelNode buckets = histogram.toModelNode();
+        assertEquals(ModelType.OBJECT, buckets.getType());
+        assertEquals(Arrays.asList("<=4us", "<=8192us"), new ArrayList<String>(buckets.keys()));
+        assertEquals(99, buckets.get("<=4us").asLong());
+        assertEquals(1, buckets.get("<=8192us").asLong());
+    }
+
+    @Test
+    public void testClear() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(TimeUnit.MILLISECONDS.toNanos(1));
+        histogram.clear();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMax());
+        assertEquals("", histogram.toString());
+    }
+}
@@ -0,0 +1,220 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.connector.subsystems.datasources;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.jboss.dmr.ModelNode;
+import org.junit.Test;
+
+/**
+ * Tests {@link StatementShapeCache}.
+ */
+public class StatementShapeCacheUnitTestCase {
+
+    @Test
+    public void testDisabledByDefault() {
+        StatementShapeCache cache = new StatementShapeCache();
+        assertFalse(cache.isEnabled());
+        cache.configure(10, 2);
+        assertTrue(cache.isEnabled());
+        cache.setEnabled(false);
+        assertFalse(cache.isEnabled());
+    }
+
+    @Test
+    public void testHitCounts() {
+        StatementShapeCache cache = new StatementShapeCache();
+        cache.configure(10, 2);
+        cache.statementPrepared("select a from t", false);
+        cache.statementPrepared("select a from t", false);
+        cache.statementPrepared("select a from t", false);
+        cache.statementPrepared("select b from t", false);
+
+        assertEquals(2L, cache.getValue(StatementShapeCache.HIT_COUNT));
+        assertEquals(2L, cache.getValue(StatementShapeCache.MISS_COUNT));
+        assertEquals(50, cache.getValue(StatementShapeCache.HIT_PERCENTAGE));
+        assertEquals(2, cache.getValue(StatementShapeCache.SHAPE_COUNT));
+        ModelNode top = (ModelNode) cache.getValue(StatementShapeCache.TOP_STATEMENTS);
+        assertEquals(Arrays.asList("select a from t", "select b from t"), new ArrayList<String>(top.keys()));
+        assertEquals(3L, top.get("select a from t").asLong());
+        assertEquals(1L, top.get("select b from t").asLong());
+
+        cache.clear();
+        assertEquals(0L, cache.getValue(StatementShapeCache.HIT_COUNT));
+        // the shapes survive a reset of the counters
+        assertEquals(2, cache.getValue(StatementShapeCache.SHAPE_COUNT));
+    }
+
+    @Test
+    public void testEvictsLeastFrequent() {
+        StatementShapeCache cache = new StatementShapeCache();
+        cache.configure(2, 2);
+        cache.statementPrepared("hot", false);
+        cache.statementPrepared("hot", false);
+        cache.statementPrepared("cold", false);
+        cache.statementPrepared("new", true);
+
+        assertEquals(1L, cache.getValue(StatementShapeCache.EVICTION_COUNT));
+        List<StatementShapeCache.Shape> top = cache.getTopShapes(2);
+        assertEquals(2, top.size());
+        assertEquals("hot", top.get(0).sql);
+        assertEquals("new", top.get(1).sql);
+        assertTrue(top.get(1).callable);
+    }
+
+    @Test
+    public void testConcurrentPrepares() throws Exception {
+        final StatementShapeCache cache = new StatementShapeCache();
+        cache.configure(8, 4);
+        final int threads = 4;
+        final int prepares = 10000;
+        final CountDownLatch start = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            final List<Future<?>> futures = new ArrayList<Future<?>>();
+            for (int t = 0; t < threads; t++) {
+                final int thread = t;
+                futures.add(executor.submit(new Callable<Void>() {
+                    @Override
+                    public Void call() throws Exception {
+                        start.await();
+                        for (int i = 0; i < prepares; i++) {
+                            // a few hot shapes and a stream of cold ones
+                            cache.statementPrepared(i % 4 != 0 ? "hot" + (i % 3) : "cold" + thread + "-" + i, false);
+                        }
+                        return null;
+                    }
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        final long hits = (Long) cache.getValue(StatementShapeCache.HIT_COUNT);
+        final long misses = (Long) cache.getValue(StatementShapeCache.MISS_COUNT);
+        assertEquals((long) threads * prepares, hits + misses);
+        assertTrue((Integer) cache.getValue(StatementShapeCache.SHAPE_COUNT) <= 8);
+        final List<StatementShapeCache.Shape> top = cache.getTopShapes(3);
+        assertEquals(3, top.size());
+        for (StatementShapeCache.Shape shape : top) {
+            assertTrue(shape.sql, shape.sql.startsWith("hot"));
+        }
+    }
+
+    @Test
+    public void testShapesRecordedOnPhysicalConnections() throws Exception {
+        final StatementShapeCache cache = new StatementShapeCache();
+        cache.configure(10, 2);
+        final Connection physical = (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[] { Connection.class }, new InvocationHandler() {
+                    @Override
+                    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                        final String name = method.getName();
+                        if ("prepareStatement".equals(name) || "prepareCall".equals(name)) {
+                            return Proxy.newProxyInstance(CallableStatement.class.getClassLoader(),
+                                    new Class<?>[] { CallableStatement.class }, this);
+                        }
+                        return null;
+                    }
+                });
+        final Connection connection = new PhysicalConnectionWrapper(new DataSourceInstrumentation(), cache).wrap(physical);
+        connection.prepareStatement("select a from t");
+        connection.prepareStatement("select a from t", ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        connection.prepareCall("{call p}");
+        // not matched by the cache entry of a pre-warmed statement
+        connection.prepareStatement("select b from t", ResultSet.TYPE_SCROLL_INSENSITIVE, ResultSet.CONCUR_READ_ONLY);
+        connection.prepareStatement("select c from t", Statement.RETURN_GENERATED_KEYS);
+
+        final List<StatementShapeCache.Shape> top = cache.getTopShapes(10);
+        assertEquals(2, top.size());
+        assertEquals("select a from t", top.get(0).sql);
+        assertEquals(2L, top.get(0).count);
+        assertEquals("{call p}", top.get(1).sql);
+        assertTrue(top.get(1).callable);
+    }
+
+    @Test
+    public void testAging() {
+        StatementShapeCache cache = new StatementShapeCache();
+        cache.configure(2, 1);
+        for (int i = 0; i < 20; i++) {
+            cache.statementPrepared("old", false);
+        }
+        // the 32nd prepared statement halves the frequencies: old 20 -> 10, recent 12 -> 6
+        for (int i = 0; i < 12; i++) {
+            cache.statementPrepared("recent", false);
+        }
+        assertEquals(10L, cache.getTopShapes(1).get(0).count);
+        assertEquals("old", cache.getTopShapes(1).get(0).sql);
+
+        for (int i = 0; i < 5; i++) {
+            cache.statementPrepared("recent", false);
+        }
+        assertEquals("recent", cache.getTopShapes(1).get(0).sql);
+        assertEquals(11L, cache.getTopShapes(1).get(0).count);
+    }
+
+    @Test
+    public void testEvictionKeepsFrequencyOrder() {
+        StatementShapeCache cache = new StatementShapeCache();
+        cache.configure(3, 3);
+        cache.statementPrepared("a", false);
+        cache.statementPrepared("b", false);
+        cache.statementPrepared("b", false);
+        cache.statementPrepared("c", false);
+        cache.statementPrepared("c", false);
+        cache.statementPrepared("c", false);
+        // "a" is the least frequent shape
+        cache.statementPrepared("d", false);
+        cache.statementPrepared("a", false);
+
+        List<StatementShapeCache.Shape> top = cache.getTopShapes(3);
+        assertEquals(3, top.size());
+        assertEquals("c", top.get(0).sql);
+        assertEquals("b", top.get(1).sql);
+        // "a" was still tracked when it was prepared again, "d" became the least frequent shape
+        assertEquals("a", top.get(2).sql);
+        assertEquals(1L, cache.getValue(StatementShapeCache.EVICTION_COUNT));
+    }
+}
@@ -81,6 +81,8 @@ public class ParseUtils {
         params.put("track-statements","nowarn");
         params.put("prepared-statements-cache-size","30");
         params.put("share-prepared-statements","true");
+        params.put("statement-shape-cache-size","256");
+        params.put("statement-shape-prewarm-count","20");
 
     	return params;
     }
@@ -340,6 +340,47 @@ public interface ControllerClientMessages {
     @Message(id = 10649, value = "Allocation stack trace:")
     LeakDescription controllerClientNotClosed();
 
+    /**
+     * Creates an exception indicating a model node was written in a version of the compact encoding which is not
+     * supported.
+     *
+     * @param version the version.
+     *
+     * @return an {@link IOException} for the error.
+     */
+    @Message(id = 10650, value = "Unsupported compact model encoding version %d")
+    IOException unsupportedCompactEncodingVersion(byte version);
+
+    /**
+     * Creates an exception indicating an invalid type tag was read from a model node in the compact encoding.
+     *
+     * @param tag the tag.
+     *
+     * @return an {@link IOException} for the error.
+     */
+    @Message(id = 10651, value = "Invalid compact model encoding tag %d")
+    IOException invalidCompactEncodingTag(byte tag);
+
+    /**
+     * Creates an exception indicating a reference to an unknown string was read from a model node in the compact
+     * encoding.
+     *
+     * @param reference the reference.
+     *
+     * @return an {@link IOException} for the error.
+     */
+    @Message(id = 10652, value = "Invalid compact model encoding string reference %d")
+    IOException invalidCompactEncodingReference(long reference);
+
+    /**
+     * Creates an exception indicating an invalid length or variable length integer was read from a model node in the
+     * compact encoding.
+     *
+     * @return an {@link IOException} for the error.
+     */
+    @Message(id = 10653, value = "Invalid compact model encoding length")
+    IOException invalidCompactEncodingLength();
+
     class LeakDescription extends Throwable {
         private static final long serialVersionUID = -7193498784746897578L;
 
@@ -44,6 +44,7 @@ import org.jboss.as.protocol.mgmt.ManagementRequestHeader;
 import org.jboss.as.protocol.mgmt.ManagementResponseHeader;
 import static org.jboss.as.protocol.mgmt.ProtocolUtils.expectHeader;
 import org.jboss.dmr.ModelNode;
+import org.jboss.remoting3.Channel;
 import org.jboss.threads.AsyncFuture;
 
 
@@ -58,6 +59,9 @@ public abstract class AbstractModelControllerClient implements ModelControllerCl
 
     private static final OperationMessageHandler NO_OP_HANDLER = OperationMessageHandler.DISCARD;
 
+    // the channel on which the controller answered using the compact encoding
+    private volatile Channel compactEncodingChannel;
+
     /**
      * Get the mgmt channel association.
      *
@@ -156,17 +160,28 @@ public abstract class AbstractModelControllerClient implements ModelControllerCl
                 if (streams != null) {
                     inputStreamLength = streams.size();
                 }
+                // Only use the compact encoding once the other side used it on this channel
+                final boolean compact = context.getChannel() == compactEncodingChannel;
+                if (compact) {
+                    output.write(ModelControllerProtocol.PARAM_COMPACT_ENCODING);
+                }
                 output.write(ModelControllerProtocol.PARAM_OPERATION);
-                operation.writeExternal(output);
+                CompactModelNodeCodec.writeModelNode(output, operation, compact);
                 output.write(ModelControllerProtocol.PARAM_INPUTSTREAMS_LENGTH);
                 output.writeInt(inputStreamLength);
+                CompactModelNodeCodec.writeSupported(output);
             }
 
             @Override
             public void handleRequest(final DataInput input, final ActiveOperation.ResultHandler<ModelNode> resultHandler, final ManagementRequestContext<OperationExecutionContext> context) throws IOException {
-                expectHeader(input, ModelControllerProtocol.PARAM_RESPONSE);
-                final ModelNode node = new ModelNode();
-                node.readExternal(input);
+                byte param = input.readByte();
+                final boolean compact = param == ModelControllerProtocol.PARAM_COMPACT_ENCODING;
+                if (compact) {
+                    compactEncodingChannel = context.getChannel();
+                    param = input.readByte();
+                }
+                expectHeader(param, ModelControllerProtocol.PARAM_RESPONSE);
+                final ModelNode node = CompactModelNodeCodec.readModelNode(input, compact);
                 resultHandler.done(node);
                 expectHeader(input, ManagementProtocol.RESPONSE_END);
             }
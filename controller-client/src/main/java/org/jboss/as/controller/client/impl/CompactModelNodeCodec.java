@@ -0,0 +1,451 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.client.impl;
+
+import static org.jboss.as.controller.client.ControllerClientMessages.MESSAGES;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.EOFException;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+import org.jboss.dmr.Property;
+
+/**
+ * A compact binary encoding of a {@link ModelNode}, used instead of {@link ModelNode#writeExternal(DataOutput)} for
+ * operations and results once both sides of a management connection announced support for it.
+ * <p/>
+ * Integers, longs and lengths are written as variable length integers. Strings are written once per node tree;
+ * repeated strings, such as the keys of an object or the elements of an address, are written as a reference to
+ * their first occurrence. The keys used by nearly every operation and result are part of a fixed dictionary and
+ * never written at all. The encoding of a node does not depend on any previously written node, so messages can be
+ * handled in any order.
+ * <p/>
+ * A peer announces support by writing {@link ModelControllerProtocol#PARAM_COMPACT_ENCODING} followed by the
+ * {@link #VERSION} of the encoding it can read after the parameters of its request. A node written in the compact
+ * encoding is preceded by {@link ModelControllerProtocol#PARAM_COMPACT_ENCODING} in front of its parameter header.
+ */
+public final class CompactModelNodeCodec {
+
+    /**
+     * The version of the encoding. Any change to the encoding, including the {@link #DICTIONARY}, requires a new version.
+     */
+    public static final byte VERSION = 1;
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    // Longer strings are unlikely to be repeated, they are written as they are without being referenced
+    private static final int MAX_REFERENCED_LENGTH = 128;
+
+    private static final int STRING_LITERAL = 0;
+    private static final int STRING_LITERAL_UNREFERENCED = 1;
+    private static final int STRING_REFERENCE_OFFSET = 2;
+
+    private static final byte TAG_UNDEFINED = 0;
+    private static final byte TAG_TRUE = 1;
+    private static final byte TAG_FALSE = 2;
+    private static final byte TAG_INT = 3;
+    private static final byte TAG_LONG = 4;
+    private static final byte TAG_DOUBLE = 5;
+    private static final byte TAG_BIG_INTEGER = 6;
+    private static final byte TAG_BIG_DECIMAL = 7;
+    private static final byte TAG_BYTES = 8;
+    private static final byte TAG_STRING = 9;
+    private static final byte TAG_EXPRESSION = 10;
+    private static final byte TAG_TYPE = 11;
+    private static final byte TAG_LIST = 12;
+    private static final byte TAG_OBJECT = 13;
+    private static final byte TAG_PROPERTY = 14;
+
+    /**
+     * The strings known to both sides without being written. Entries must never be reordered or removed.
+     */
+    private static final String[] DICTIONARY = {
+            // operations
+            "operation", "address", "operation-headers", "caller-type", "user", "rollback-on-runtime-failure",
+            "allow-resource-service-restart", "rollout-plan", "in-series", "concurrent-groups", "rolling-to-servers",
+            "max-failed-servers", "max-failure-percentage", "rollback-across-groups", "composite", "steps",
+            "add", "remove", "read-resource", "read-attribute", "write-attribute", "undefine-attribute",
+            "read-children-names", "read-children-types", "read-children-resources", "read-resource-description",
+            "read-operation-names", "read-operation-description", "recursive", "recursive-depth", "include-runtime",
+            "include-defaults", "proxies", "attributes-only", "child-type", "name", "value",
+            // results
+            "outcome", "success", "failed", "cancelled", "result", "failure-description", "rolled-back",
+            "response-headers", "process-state", "reload-required", "restart-required", "operation-requires-reload",
+            "operation-requires-restart", "server-groups", "domain-results", "host", "server", "server-group",
+            "step-1", "step-2", "step-3", "step-4", "step-5", "step-6", "step-7", "step-8", "step-9", "step-10",
+            // resources
+            "subsystem", "profile", "deployment", "extension", "module", "interface", "socket-binding-group",
+            "socket-binding", "system-property", "path", "relative-to", "core-service", "management", "server-config",
+            "auto-start", "group", "port", "port-offset", "multicast-address", "multicast-port", "inet-address",
+            "jvm", "content", "hash", "enabled", "runtime-name", "default-interface",
+            // descriptions
+            "description", "type", "value-type", "required", "nillable", "default", "min", "max", "attributes",
+            "children", "operations", "operation-name", "request-properties", "reply-properties",
+            "model-description", "access-type", "storage", "read-only", "read-write", "configuration", "runtime",
+            "metric", "expressions-allowed", "head-comment-allowed", "tail-comment-allowed", "namespace",
+    };
+
+    private static final Map<String, Integer> DICTIONARY_INDEX;
+
+    static {
+        final Map<String, Integer> index = new HashMap<String, Integer>(DICTIONARY.length * 2);
+        for (int i = 0; i < DICTIONARY.length; i++) {
+            index.put(DICTIONARY[i], i);
+        }
+        DICTIONARY_INDEX = index;
+    }
+
+    private CompactModelNodeCodec() {
+    }
+
+    /**
+     * Check whether a version announced by the peer can be used.
+     *
+     * @param version the version
+     * @return {@code true} if this side reads and writes the given version
+     */
+    public static boolean isSupported(final byte version) {
+        return version == VERSION;
+    }
+
+    /**
+     * Announce the support for the compact encoding, see {@link #readSupported(DataInput)}.
+     *
+     * @param output the output
+     * @throws IOException for any error
+     */
+    public static void writeSupported(final DataOutput output) throws IOException {
+        output.writeByte(ModelControllerProtocol.PARAM_COMPACT_ENCODING);
+        output.writeByte(VERSION);
+    }
+
+    /**
+     * Read the optional announcement of the support for the compact encoding following the parameters of a request.
+     * Older peers do not send it, they end the request right after its parameters.
+     *
+     * @param input the input
+     * @return {@code true} if the peer reads nodes in the compact encoding
+     * @throws IOException for any error
+     */
+    public static boolean readSupported(final DataInput input) throws IOException {
+        try {
+            return input.readByte() == ModelControllerProtocol.PARAM_COMPACT_ENCODING && isSupported(input.readByte());
+        } catch (EOFException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Write a node either in the compact encoding or using {@link ModelNode#writeExternal(DataOutput)}.
+     *
+     * @param output the output
+     * @param node the node
+     * @param compact {@code true} to use the compact encoding
+     * @throws IOException for any error
+     */
+    public static void writeModelNode(final DataOutput output, final ModelNode node, final boolean compact) throws IOException {
+        if (compact) {
+            output.writeByte(VERSION);
+            new Writer(output).writeNode(node);
+        } else {
+            node.writeExternal(output);
+        }
+    }
+
+    /**
+     * Read a node written by {@link #writeModelNode(DataOutput, ModelNode, boolean)}.
+     *
+     * @param input the input
+     * @param compact {@code true} if the node was written in the compact encoding
+     * @return the node
+     * @throws IOException for any error
+     */
+    public static ModelNode readModelNode(final DataInput input, final boolean compact) throws IOException {
+        final ModelNode node = new ModelNode();
+        if (compact) {
+            final byte version = input.readByte();
+            if (!isSupported(version)) {
+                throw MESSAGES.unsupportedCompactEncodingVersion(version);
+            }
+            new Reader(input).readNode(node);
+        } else {
+            node.readExternal(input);
+        }
+        return node;
+    }
+
+    private static final class Writer {
+        private final DataOutput output;
+        private final Map<String, Integer> strings = new HashMap<String, Integer>();
+
+        private Writer(final DataOutput output) {
+            this.output = output;
+        }
+
+        private void writeNode(final ModelNode node) throws IOException {
+            switch (node.getType()) {
+                case UNDEFINED:
+                    output.writeByte(TAG_UNDEFINED);
+                    break;
+                case BOOLEAN:
+                    output.writeByte(node.asBoolean() ? TAG_TRUE : TAG_FALSE);
+                    break;
+                case INT:
+                    output.writeByte(TAG_INT);
+                    writeVarLong(output, zigZag(node.asInt()));
+                    break;
+                case LONG:
+                    output.writeByte(TAG_LONG);
+                    writeVarLong(output, zigZag(node.asLong()));
+                    break;
+                case DOUBLE:
+                    output.writeByte(TAG_DOUBLE);
+                    output.writeDouble(node.asDouble());
+                    break;
+                case BIG_INTEGER:
+                    output.writeByte(TAG_BIG_INTEGER);
+                    writeBytes(node.asBigInteger().toByteArray());
+                    break;
+                case BIG_DECIMAL: {
+                    final BigDecimal value = node.asBigDecimal();
+                    output.writeByte(TAG_BIG_DECIMAL);
+                    writeBytes(value.unscaledValue().toByteArray());
+                    writeVarLong(output, zigZag(value.scale()));
+                    break;
+                }
+                case BYTES:
+                    output.writeByte(TAG_BYTES);
+                    writeBytes(node.asBytes());
+                    break;
+                case STRING:
+                    output.writeByte(TAG_STRING);
+                    writeString(node.asString());
+                    break;
+                case EXPRESSION:
+                    output.writeByte(TAG_EXPRESSION);
+                    writeString(node.asString());
+                    break;
+                case TYPE:
+                    output.writeByte(TAG_TYPE);
+                    writeString(node.asType().name());
+                    break;
+                case LIST: {
+                    final List<ModelNode> elements = node.asList();
+                    output.writeByte(TAG_LIST);
+                    writeVarLong(output, elements.size());
+                    for (ModelNode element : elements) {
+                        writeNode(element);
+                    }
+                    break;
+                }
+                case OBJECT:
+                    output.writeByte(TAG_OBJECT);
+                    writeVarLong(output, node.keys().size());
+                    for (String key : node.keys()) {
+                        writeString(key);
+                        writeNode(node.get(key));
+                    }
+                    break;
+                case PROPERTY: {
+                    final Property property = node.asProperty();
+                    output.writeByte(TAG_PROPERTY);
+                    writeString(property.getName());
+                    writeNode(property.getValue());
+                    break;
+                }
+            }
+        }
+
+        private void writeString(final String value) throws IOException {
+            final Integer known = DICTIONARY_INDEX.get(value);
+            if (known != null) {
+                writeVarLong(output, known + STRING_REFERENCE_OFFSET);
+                return;
+            }
+            final Integer seen = strings.get(value);
+            if (seen != null) {
+                writeVarLong(output, seen + STRING_REFERENCE_OFFSET);
+                return;
+            }
+            if (value.length() > MAX_REFERENCED_LENGTH) {
+                writeVarLong(output, STRING_LITERAL_UNREFERENCED);
+            } else {
+                strings.put(value, DICTIONARY.length + strings.size());
+                writeVarLong(output, STRING_LITERAL);
+            }
+            writeBytes(value.getBytes(UTF_8));
+        }
+
+        private void writeBytes(final byte[] bytes) throws IOException {
+            writeVarLong(output, bytes.length);
+            output.write(bytes);
+        }
+    }
+
+    private static final class Reader {
+        private final DataInput input;
+        private final List<String> strings = new ArrayList<String>();
+
+        private Reader(final DataInput input) {
+            this.input = input;
+        }
+
+        private void readNode(final ModelNode node) throws IOException {
+            final byte tag = input.readByte();
+            switch (tag) {
+                case TAG_UNDEFINED:
+                    break;
+                case TAG_TRUE:
+                    node.set(true);
+                    break;
+                case TAG_FALSE:
+                    node.set(false);
+                    break;
+                case TAG_INT:
+                    node.set((int) unZigZag(readVarLong(input)));
+                    break;
+                case TAG_LONG:
+                    node.set(unZigZag(readVarLong(input)));
+                    break;
+                case TAG_DOUBLE:
+                    node.set(input.readDouble());
+                    break;
+                case TAG_BIG_INTEGER:
+                    node.set(new BigInteger(readBytes()));
+                    break;
+                case TAG_BIG_DECIMAL: {
+                    final BigInteger unscaled = new BigInteger(readBytes());
+                    node.set(new BigDecimal(unscaled, (int) unZigZag(readVarLong(input))));
+                    break;
+                }
+                case TAG_BYTES:
+                    node.set(readBytes());
+                    break;
+                case TAG_STRING:
+                    node.set(readString());
+                    break;
+                case TAG_EXPRESSION:
+                    node.setExpression(readString());
+                    break;
+                case TAG_TYPE:
+                    node.set(ModelType.valueOf(readString()));
+                    break;
+                case TAG_LIST: {
+                    final int size = readLength();
+                    node.setEmptyList();
+                    for (int i = 0; i < size; i++) {
+                        readNode(node.add());
+                    }
+                    break;
+                }
+                case TAG_OBJECT: {
+                    final int size = readLength();
+                    node.setEmptyObject();
+                    for (int i = 0; i < size; i++) {
+                        readNode(node.get(readString()));
+                    }
+                    break;
+                }
+                case TAG_PROPERTY: {
+                    final String name = readString();
+                    final ModelNode value = new ModelNode();
+                    readNode(value);
+                    node.set(name, value);
+                    break;
+                }
+                default:
+                    throw MESSAGES.invalidCompactEncodingTag(tag);
+            }
+        }
+
+        private String readString() throws IOException {
+            final long ref = readVarLong(input);
+            if (ref >= STRING_REFERENCE_OFFSET) {
+                final long index = ref - STRING_REFERENCE_OFFSET;
+                if (index < DICTIONARY.length) {
+                    return DICTIONARY[(int) index];
+                } else if (index - DICTIONARY.length < strings.size()) {
+                    return strings.get((int) (index - DICTIONARY.length));
+                }
+                throw MESSAGES.invalidCompactEncodingReference(ref);
+            }
+            final String value = new String(readBytes(), UTF_8);
+            if (ref == STRING_LITERAL) {
+                strings.add(value);
+            }
+            return value;
+        }
+
+        private byte[] readBytes() throws IOException {
+            final byte[] bytes = new byte[readLength()];
+            input.readFully(bytes);
+            return bytes;
+        }
+
+        private int readLength() throws IOException {
+            final long length = readVarLong(input);
+            if (length > Integer.MAX_VALUE) {
+                throw MESSAGES.invalidCompactEncodingLength();
+            }
+            return (int) length;
+        }
+    }
+
+    static void writeVarLong(final DataOutput output, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            output.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        output.writeByte((int) value);
+    }
+
+    static long readVarLong(final DataInput input) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            final byte b = input.readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw MESSAGES.invalidCompactEncodingLength();
+    }
+
+    static long zigZag(final long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    static long unZigZag(final long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
@@ -49,6 +49,8 @@ public interface ModelControllerProtocol {
     //byte PARAM_PREPARED = 0x69;
     byte PARAM_COMMIT = 0x70;
     byte PARAM_ROLLBACK = 0x71;
+    // Announces or precedes the compact model encoding, see CompactModelNodeCodec
+    byte PARAM_COMPACT_ENCODING = 0x72;
     // The tx response params
     byte PARAM_OPERATION_FAILED = 0x49;
     byte PARAM_OPERATION_COMPLETED = 0x4A;
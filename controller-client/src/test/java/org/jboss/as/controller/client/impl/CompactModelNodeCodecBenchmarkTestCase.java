@@ -0,0 +1,140 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.client.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.Assert;
+import org.jboss.dmr.ModelNode;
+import org.jboss.logging.Logger;
+import org.junit.Test;
+
+/**
+ * Compares the size on the wire and the time to write and read the operations sent to a server while a domain boots,
+ * and the result of a recursive {@code read-resource} of a server, using the compact and the generic encoding.
+ * <p/>
+ * The number of boot operations and the number of iterations can be changed with the
+ * {@code benchmark.codec.boot.operations} and {@code benchmark.codec.iterations} system properties.
+ */
+public class CompactModelNodeCodecBenchmarkTestCase {
+
+    private static final Logger log = Logger.getLogger(CompactModelNodeCodecBenchmarkTestCase.class);
+
+    private static final int BOOT_OPERATIONS = Integer.getInteger("benchmark.codec.boot.operations", 1000);
+    private static final int ITERATIONS = Integer.getInteger("benchmark.codec.iterations", 20);
+
+    @Test
+    public void testBootOperations() throws Exception {
+        final List<ModelNode> operations = new ArrayList<ModelNode>();
+        for (int i = 0; i < BOOT_OPERATIONS; i++) {
+            operations.add(createBootOperation(i));
+        }
+        compare("domain boot operations", operations);
+    }
+
+    @Test
+    public void testReadResourceResult() throws Exception {
+        final ModelNode response = new ModelNode();
+        response.get("outcome").set("success");
+        final ModelNode result = response.get("result");
+        for (int s = 0; s < 20; s++) {
+            final ModelNode subsystem = result.get("subsystem", "subsystem-" + s);
+            subsystem.get("default-name").set("default");
+            for (int c = 0; c < 25; c++) {
+                final ModelNode child = subsystem.get("child", "child-" + c);
+                child.get("name").set("child-" + c);
+                child.get("enabled").set(c % 2 == 0);
+                child.get("max-size").set(c * 100);
+                child.get("timeout").set(30000L);
+                child.get("jndi-name").set("java:jboss/subsystem-" + s + "/child-" + c);
+                child.get("relative-to").set("jboss.server.data.dir");
+                child.get("optional");
+                child.get("properties", "property").set("value");
+            }
+        }
+        final List<ModelNode> responses = new ArrayList<ModelNode>();
+        responses.add(response);
+        compare("recursive read-resource result", responses);
+    }
+
+    private static ModelNode createBootOperation(final int i) {
+        final ModelNode operation = new ModelNode();
+        operation.get("operation").set("add");
+        final ModelNode address = operation.get("address");
+        address.add("subsystem", "subsystem-" + i % 30);
+        address.add("resource", "resource-" + i);
+        operation.get("enabled").set(true);
+        operation.get("pool-size").set(i % 50);
+        operation.get("path").set("resources/" + i);
+        operation.get("relative-to").set("jboss.server.base.dir");
+        operation.get("socket-binding").setExpression("${binding." + i % 5 + ":http}");
+        operation.get("operation-headers", "caller-type").set("user");
+        return operation;
+    }
+
+    private static void compare(final String name, final List<ModelNode> nodes) throws Exception {
+        final Result generic = run(nodes, false);
+        final Result compact = run(nodes, true);
+        log.info(String.format("Compact model encoding benchmark results, %s:%n%-20s %12s %12s %12s%n%s%n%s", name,
+                "encoding", "bytes", "write (ms)", "read (ms)", generic.format("generic"), compact.format("compact")));
+        Assert.assertTrue(compact.size < generic.size);
+    }
+
+    private static Result run(final List<ModelNode> nodes, final boolean compact) throws Exception {
+        final List<byte[]> encoded = new ArrayList<byte[]>(nodes.size());
+        final Result result = new Result();
+        for (ModelNode node : nodes) {
+            final byte[] bytes = CompactModelNodeCodecTestCase.encode(node, compact);
+            encoded.add(bytes);
+            result.size += bytes.length;
+        }
+        // the first iteration warms up
+        for (int i = 0; i <= ITERATIONS; i++) {
+            final long start = System.nanoTime();
+            for (ModelNode node : nodes) {
+                CompactModelNodeCodecTestCase.encode(node, compact);
+            }
+            final long written = System.nanoTime();
+            for (byte[] bytes : encoded) {
+                CompactModelNodeCodecTestCase.decode(bytes, compact);
+            }
+            if (i > 0) {
+                result.writeTime += written - start;
+                result.readTime += System.nanoTime() - written;
+            }
+        }
+        return result;
+    }
+
+    private static class Result {
+        private long size;
+        private long writeTime;
+        private long readTime;
+
+        private String format(final String encoding) {
+            return String.format("%-20s %12d %12.2f %12.2f", encoding, size, writeTime / ITERATIONS / 1000000d,
+                    readTime / ITERATIONS / 1000000d);
+        }
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.client.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+import junit.framework.Assert;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link CompactModelNodeCodec}.
+ */
+public class CompactModelNodeCodecTestCase {
+
+    @Test
+    public void testSimpleTypes() throws Exception {
+        assertRoundTrip(new ModelNode());
+        assertRoundTrip(new ModelNode().set(true));
+        assertRoundTrip(new ModelNode().set(false));
+        for (int value : new int[] {0, 1, -1, 63, -64, 64, Integer.MAX_VALUE, Integer.MIN_VALUE}) {
+            assertRoundTrip(new ModelNode().set(value));
+        }
+        for (long value : new long[] {0L, -1L, 1L << 40, Long.MAX_VALUE, Long.MIN_VALUE}) {
+            assertRoundTrip(new ModelNode().set(value));
+        }
+        assertRoundTrip(new ModelNode().set(Math.PI));
+        assertRoundTrip(new ModelNode().set(new BigInteger("-123456789012345678901234567890")));
+        assertRoundTrip(new ModelNode().set(new BigDecimal("-12345678901234567890.0987654321")));
+        assertRoundTrip(new ModelNode().set(new byte[] {0, 1, 2, (byte) 0xff}));
+        assertRoundTrip(new ModelNode().set("a string \u00e9\u4e2d"));
+        assertRoundTrip(new ModelNode().setExpression("${jboss.bind.address:127.0.0.1}"));
+        assertRoundTrip(new ModelNode().set(ModelType.OBJECT));
+        assertRoundTrip(new ModelNode().set("name", new ModelNode().set(1)));
+    }
+
+    @Test
+    public void testStructures() throws Exception {
+        assertRoundTrip(new ModelNode().setEmptyList());
+        assertRoundTrip(new ModelNode().setEmptyObject());
+
+        final ModelNode operation = new ModelNode();
+        operation.get("operation").set("add");
+        operation.get("address").add("profile", "default").add("subsystem", "datasources").add("data-source", "ExampleDS");
+        operation.get("jndi-name").set("java:jboss/datasources/ExampleDS");
+        operation.get("enabled").set(true);
+        operation.get("min-pool-size").set(5);
+        operation.get("undefined-attribute");
+        operation.get("operation-headers", "rollback-on-runtime-failure").set(false);
+        assertRoundTrip(operation);
+
+        final ModelNode composite = new ModelNode();
+        composite.get("operation").set("composite");
+        composite.get("address").setEmptyList();
+        for (int i = 0; i < 20; i++) {
+            final ModelNode step = operation.clone();
+            step.get("address").add("connection-property", "property-" + i);
+            composite.get("steps").add(step);
+        }
+        assertRoundTrip(composite);
+    }
+
+    @Test
+    public void testLongStrings() throws Exception {
+        final StringBuilder sb = new StringBuilder();
+        while (sb.length() < 100000) {
+            sb.append("a long value, ");
+        }
+        final ModelNode node = new ModelNode();
+        node.get("first").set(sb.toString());
+        node.get("second").set(sb.toString());
+        assertRoundTrip(node);
+    }
+
+    @Test
+    public void testRepeatedStringsReferenced() throws Exception {
+        final ModelNode node = new ModelNode();
+        for (int i = 0; i < 100; i++) {
+            node.get("key-" + i).set("a-repeated-value");
+        }
+        // the value is written once, every other occurrence is a reference of at most two bytes
+        final int size = encode(node, true).length;
+        final int genericSize = encode(node, false).length;
+        Assert.assertTrue(size + " / " + genericSize, size < genericSize / 2);
+    }
+
+    @Test
+    public void testUnsupportedVersion() throws Exception {
+        final byte[] bytes = encode(new ModelNode().set(1), true);
+        bytes[0] = (byte) (CompactModelNodeCodec.VERSION + 1);
+        try {
+            CompactModelNodeCodec.readModelNode(new DataInputStream(new ByteArrayInputStream(bytes)), true);
+            Assert.fail("IOException expected");
+        } catch (IOException expected) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testSupportAnnouncement() throws Exception {
+        final ByteArrayOutputStream bout = new ByteArrayOutputStream();
+        final DataOutputStream output = new DataOutputStream(bout);
+        CompactModelNodeCodec.writeSupported(output);
+        output.close();
+        Assert.assertTrue(CompactModelNodeCodec.readSupported(new DataInputStream(new ByteArrayInputStream(bout.toByteArray()))));
+        // older peers end the request instead
+        Assert.assertFalse(CompactModelNodeCodec.readSupported(new DataInputStream(new ByteArrayInputStream(new byte[] {0x15}))));
+        Assert.assertFalse(CompactModelNodeCodec.readSupported(new DataInputStream(new ByteArrayInputStream(new byte[0]))));
+    }
+
+    static byte[] encode(final ModelNode node, final boolean compact) throws IOException {
+        final ByteArrayOutputStream bout = new ByteArrayOutputStream();
+        final DataOutputStream output = new DataOutputStream(bout);
+        CompactModelNodeCodec.writeModelNode(output, node, compact);
+        output.close();
+        return bout.toByteArray();
+    }
+
+    static ModelNode decode(final byte[] bytes, final boolean compact) throws IOException {
+        return CompactModelNodeCodec.readModelNode(new DataInputStream(new ByteArrayInputStream(bytes)), compact);
+    }
+
+    private static void assertRoundTrip(final ModelNode node) throws IOException {
+        final ModelNode read = decode(encode(node, true), true);
+        Assert.assertEquals(node.getType(), read.getType());
+        Assert.assertEquals(node, read);
+        // object keys keep their order
+        Assert.assertEquals(node.toString(), read.toString());
+    }
+}
@@ -102,6 +102,7 @@ public abstract class AbstractControllerService implements Service<ModelControll
     private final OperationStepHandler prepareStep;
     private final InjectedValue<ExecutorService> injectedExecutorService = new InjectedValue<ExecutorService>();
     private final ExpressionResolver expressionResolver;
+    private volatile BootProfile bootProfile;
     private volatile ModelControllerImpl controller;
     private ConfigurationPersister configurationPersister;
 
@@ -140,11 +141,13 @@ public abstract class AbstractControllerService implements Service<ModelControll
         final ServiceContainer container = serviceController.getServiceContainer();
         final ServiceTarget target = context.getChildTarget();
         final ExecutorService executorService = injectedExecutorService.getOptionalValue();
+        final BootProfile bootProfile = new BootProfile();
+        this.bootProfile = bootProfile;
         final ModelControllerImpl controller = new ModelControllerImpl(container, target,
                 ManagementResourceRegistration.Factory.create(rootDescriptionProvider),
                 new ContainerStateMonitor(container, serviceController),
                 configurationPersister, processType, runningModeControl, prepareStep,
-                processState, executorService, expressionResolver);
+                processState, executorService, expressionResolver, bootProfile);
         initModel(controller.getRootResource(), controller.getRootRegistration());
         this.controller = controller;
 
@@ -195,6 +198,16 @@ public abstract class AbstractControllerService implements Service<ModelControll
         return controller.internalExecute(operation, handler, control, attachments, prepareStep);
     }
 
+    /**
+     * Get the time spent booting the subsystems during the last start of this service. The profile is only filled
+     * when the subsystems boot in parallel.
+     *
+     * @return the boot profile
+     */
+    protected BootProfile getBootProfile() {
+        return bootProfile;
+    }
+
     protected void finishBoot() throws ConfigurationPersistenceException {
         controller.finishBoot();
         configurationPersister.successfulBoot();
@@ -0,0 +1,259 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.jboss.msc.service.AbstractServiceListener;
+import org.jboss.msc.service.ServiceController;
+import org.jboss.msc.service.ServiceListener;
+
+/**
+ * The time spent booting the subsystems of a server, as recorded by the {@link ParallelBootOperationStepHandler}.
+ * <p/>
+ * For each subsystem the profile records the time spent executing its boot operations in the model and in the runtime
+ * stage, the time its boot task then waited for the rest of the boot before its changes were committed, and the time
+ * spent starting the services its boot operations installed. The time the boot waited for the service container to
+ * settle is recorded for the server as a whole. All times are in nanoseconds.
+ */
+public final class BootProfile {
+
+    private final Map<String, SubsystemProfile> subsystems = new LinkedHashMap<String, SubsystemProfile>();
+    private long modelStageTime;
+    private long runtimeStageTime;
+    private long containerStabilityTime;
+    private boolean frozen;
+
+    /**
+     * @return the time the subsystems took to complete the model stage, as seen by the boot thread
+     */
+    public synchronized long getModelStageTime() {
+        return modelStageTime;
+    }
+
+    /**
+     * @return the time the subsystems took to complete the runtime stage, as seen by the boot thread
+     */
+    public synchronized long getRuntimeStageTime() {
+        return runtimeStageTime;
+    }
+
+    /**
+     * @return the time the boot waited for the services to start once the boot operations were executed
+     */
+    public synchronized long getContainerStabilityTime() {
+        return containerStabilityTime;
+    }
+
+    /**
+     * @return the profiles of the subsystems, in the order of the configuration
+     */
+    public synchronized List<SubsystemProfile> getSubsystems() {
+        return new ArrayList<SubsystemProfile>(subsystems.values());
+    }
+
+    synchronized void stageCompleted(final OperationContext.Stage stage, final long nanos) {
+        if (frozen) {
+            return;
+        } else if (stage == OperationContext.Stage.MODEL) {
+            modelStageTime += nanos;
+        } else {
+            runtimeStageTime += nanos;
+        }
+    }
+
+    synchronized void containerStabilized(final long nanos) {
+        if (!frozen) {
+            containerStabilityTime += nanos;
+        }
+    }
+
+    /**
+     * Stop recording once the boot completed. The service listeners of the subsystems are removed from the services
+     * they were added to, so the services started after the boot are not profiled.
+     */
+    void freeze() {
+        final List<SubsystemProfile> profiles;
+        synchronized (this) {
+            frozen = true;
+            profiles = new ArrayList<SubsystemProfile>(subsystems.values());
+        }
+        for (SubsystemProfile profile : profiles) {
+            profile.freeze();
+        }
+    }
+
+    synchronized SubsystemProfile getSubsystem(final String subsystemName) {
+        SubsystemProfile profile = subsystems.get(subsystemName);
+        if (profile == null) {
+            profile = new SubsystemProfile(subsystemName);
+            subsystems.put(subsystemName, profile);
+        }
+        return profile;
+    }
+
+    /**
+     * The boot times of a subsystem.
+     */
+    public static final class SubsystemProfile {
+
+        private final String name;
+        // protected by "this"
+        private final Map<ServiceController<?>, Long> startingServices = new IdentityHashMap<ServiceController<?>, Long>();
+        // protected by "this"
+        private final Set<ServiceController<?>> listenedServices = Collections.newSetFromMap(new IdentityHashMap<ServiceController<?>, Boolean>());
+        private boolean frozen;
+        private long modelTime;
+        private long modelWaitTime;
+        private long runtimeTime;
+        private long runtimeWaitTime;
+        private long serviceStartTime;
+        private int servicesStarted;
+
+        private final ServiceListener<Object> serviceListener = new AbstractServiceListener<Object>() {
+            @Override
+            public void listenerAdded(final ServiceController<? extends Object> controller) {
+                synchronized (SubsystemProfile.this) {
+                    if (!frozen) {
+                        listenedServices.add(controller);
+                        return;
+                    }
+                }
+                controller.removeListener(this);
+            }
+
+            @Override
+            public void transition(final ServiceController<? extends Object> controller, final ServiceController.Transition transition) {
+                synchronized (SubsystemProfile.this) {
+                    if (frozen) {
+                        return;
+                    }
+                    if (transition.getAfter() == ServiceController.Substate.STARTING) {
+                        startingServices.put(controller, System.nanoTime());
+                    } else if (transition.getBefore() == ServiceController.Substate.STARTING) {
+                        final Long start = startingServices.remove(controller);
+                        if (start != null) {
+                            serviceStartTime += System.nanoTime() - start;
+                            servicesStarted++;
+                        }
+                    } else if (transition.getAfter() == ServiceController.Substate.REMOVED) {
+                        listenedServices.remove(controller);
+                    }
+                }
+            }
+        };
+
+        SubsystemProfile(final String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * @return the time spent executing the boot operations of the subsystem in the model stage
+         */
+        public synchronized long getModelTime() {
+            return modelTime;
+        }
+
+        /**
+         * @return the time the boot task of the subsystem waited for the boot to commit its model stage changes
+         */
+        public synchronized long getModelWaitTime() {
+            return modelWaitTime;
+        }
+
+        /**
+         * @return the time spent executing the boot operations of the subsystem in the runtime stage
+         */
+        public synchronized long getRuntimeTime() {
+            return runtimeTime;
+        }
+
+        /**
+         * @return the time the boot task of the subsystem waited for the boot to commit its runtime stage changes
+         */
+        public synchronized long getRuntimeWaitTime() {
+            return runtimeWaitTime;
+        }
+
+        /**
+         * @return the time spent in the {@code start} of the services installed by the subsystem, and of the services
+         *         these services installed
+         */
+        public synchronized long getServiceStartTime() {
+            return serviceStartTime;
+        }
+
+        /**
+         * @return the number of services of the subsystem that completed their start
+         */
+        public synchronized int getServicesStarted() {
+            return servicesStarted;
+        }
+
+        synchronized void executed(final OperationContext.Stage stage, final long nanos) {
+            if (stage == OperationContext.Stage.MODEL) {
+                modelTime += nanos;
+            } else {
+                runtimeTime += nanos;
+            }
+        }
+
+        synchronized void waited(final OperationContext.Stage stage, final long nanos) {
+            if (stage == OperationContext.Stage.MODEL) {
+                modelWaitTime += nanos;
+            } else {
+                runtimeWaitTime += nanos;
+            }
+        }
+
+        void freeze() {
+            final List<ServiceController<?>> controllers;
+            synchronized (this) {
+                frozen = true;
+                startingServices.clear();
+                controllers = new ArrayList<ServiceController<?>>(listenedServices);
+                listenedServices.clear();
+            }
+            for (ServiceController<?> controller : controllers) {
+                controller.removeListener(serviceListener);
+            }
+        }
+
+        /**
+         * @return a listener timing the start of the services it is added to
+         */
+        ServiceListener<Object> getServiceListener() {
+            return serviceListener;
+        }
+    }
+}
@@ -26,6 +26,7 @@ import static org.jboss.logging.Logger.Level.ERROR;
 import static org.jboss.logging.Logger.Level.WARN;
 
 import java.io.Closeable;
+import java.io.File;
 import java.net.InetAddress;
 import java.net.NetworkInterface;
 import java.util.Set;
@@ -381,4 +382,47 @@ public interface ControllerLogger extends BasicLogger {
     @LogMessage(level = Level.WARN)
     @Message(id = 14625, value = "We have no transformer for subsystem: %s-%d.%d model transfer can break!")
     void transformerNotFound(String subsystemName, int major, int minor);
+
+    /**
+     * Logs an informational message indicating the boot operations of a configuration file were loaded from the boot
+     * operation cache instead of parsing the file.
+     *
+     * @param count     the number of operations
+     * @param file      the configuration file
+     * @param loadTime  the time it took to load the operations, in milliseconds
+     * @param parseTime the time it took to parse the file when the operations were cached, in milliseconds
+     */
+    @LogMessage(level = Logger.Level.INFO)
+    @Message(id = 14626, value = "Loaded %d boot operations of %s from the boot operation cache in %d ms, parsing the file took %d ms")
+    void bootOperationsLoadedFromCache(int count, File file, long loadTime, long parseTime);
+
+    /**
+     * Logs a debug message indicating the time it took to parse a configuration file.
+     *
+     * @param file      the configuration file
+     * @param parseTime the time it took to parse the file, in milliseconds
+     */
+    @LogMessage(level = Logger.Level.DEBUG)
+    @Message(id = 14627, value = "Parsed %s in %d ms")
+    void parsedConfiguration(File file, long parseTime);
+
+    /**
+     * Logs a warning message indicating the boot operation cache could not be read.
+     *
+     * @param cause     the cause of the error
+     * @param cacheFile the cache file
+     */
+    @LogMessage(level = WARN)
+    @Message(id = 14628, value = "Failed to load the boot operation cache %s, the configuration will be parsed")
+    void failedToLoadBootOperationCache(@Cause Throwable cause, File cacheFile);
+
+    /**
+     * Logs a warning message indicating the boot operation cache could not be written.
+     *
+     * @param cause     the cause of the error
+     * @param cacheFile the cache file
+     */
+    @LogMessage(level = WARN)
+    @Message(id = 14629, value = "Failed to store the boot operation cache %s")
+    void failedToStoreBootOperationCache(@Cause Throwable cause, File cacheFile);
 }
@@ -86,12 +86,13 @@ class ModelControllerImpl implements ModelController {
     private final ControlledProcessState processState;
     private final ExecutorService executorService;
     private final ExpressionResolver expressionResolver;
+    private final BootProfile bootProfile;
 
     ModelControllerImpl(final ServiceRegistry serviceRegistry, final ServiceTarget serviceTarget, final ManagementResourceRegistration rootRegistration,
                         final ContainerStateMonitor stateMonitor, final ConfigurationPersister persister,
                         final ProcessType processType, final RunningModeControl runningModeControl,
                         final OperationStepHandler prepareStep, final ControlledProcessState processState, final ExecutorService executorService,
-                        final ExpressionResolver expressionResolver) {
+                        final ExpressionResolver expressionResolver, final BootProfile bootProfile) {
         this.serviceRegistry = serviceRegistry;
         this.serviceTarget = serviceTarget;
         this.rootRegistration = rootRegistration;
@@ -104,6 +105,7 @@ class ModelControllerImpl implements ModelController {
         this.serviceTarget.addListener(ServiceListener.Inheritance.ALL, stateMonitor);
         this.executorService = executorService;
         this.expressionResolver = expressionResolver;
+        this.bootProfile = bootProfile;
     }
 
 
@@ -207,7 +209,7 @@ class ModelControllerImpl implements ModelController {
         List<ParsedBootOp> postExtensionOps = null;
         ParallelExtensionAddHandler parallelExtensionAddHandler = executorService == null ? null : new ParallelExtensionAddHandler(executorService);
         ParallelBootOperationStepHandler parallelSubsystemHandler = (executorService != null && processType.isServer() && runningModeControl.getRunningMode() == RunningMode.NORMAL)
-                ? new ParallelBootOperationStepHandler(executorService, rootRegistration, processState) : null;
+                ? new ParallelBootOperationStepHandler(executorService, rootRegistration, processState, bootProfile) : null;
         boolean registeredParallelSubsystemHandler = false;
         int subsystemIndex = 0;
         for (ModelNode bootOp : bootList) {
@@ -278,6 +280,7 @@ class ModelControllerImpl implements ModelController {
 
     void finishBoot() {
         bootingFlag.set(false);
+        bootProfile.freeze();
     }
 
     public Resource getRootResource() {
@@ -439,7 +442,15 @@ class ModelControllerImpl implements ModelController {
     }
 
     ContainerStateMonitor.ContainerStateChangeReport awaitContainerStateChangeReport(final int count) throws InterruptedException {
-        return stateMonitor.awaitContainerStateChangeReport(count);
+        if (!bootingFlag.get()) {
+            return stateMonitor.awaitContainerStateChangeReport(count);
+        }
+        final long start = System.nanoTime();
+        try {
+            return stateMonitor.awaitContainerStateChangeReport(count);
+        } finally {
+            bootProfile.containerStabilized(System.nanoTime() - start);
+        }
     }
 
     ServiceRegistry getServiceRegistry() {
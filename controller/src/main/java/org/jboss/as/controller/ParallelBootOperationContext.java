@@ -25,7 +25,9 @@ package org.jboss.as.controller;
 import static org.jboss.as.controller.ControllerMessages.MESSAGES;
 
 import java.io.InputStream;
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 
 import org.jboss.as.controller.client.MessageSeverity;
 import org.jboss.as.controller.persistence.ConfigurationPersistenceException;
@@ -34,10 +36,15 @@ import org.jboss.as.controller.registry.ImmutableManagementResourceRegistration;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.as.controller.registry.Resource;
 import org.jboss.dmr.ModelNode;
+import org.jboss.msc.service.BatchServiceTarget;
+import org.jboss.msc.service.Service;
+import org.jboss.msc.service.ServiceBuilder;
 import org.jboss.msc.service.ServiceController;
+import org.jboss.msc.service.ServiceListener;
 import org.jboss.msc.service.ServiceName;
 import org.jboss.msc.service.ServiceRegistry;
 import org.jboss.msc.service.ServiceTarget;
+import org.jboss.msc.value.Value;
 
 /**
  * {@link OperationContext} implementation for parallel handling of subsystem operations during boot.
@@ -48,13 +55,16 @@ class ParallelBootOperationContext extends AbstractOperationContext {
 
     private final OperationContext primaryContext;
     private final List<ParsedBootOp> runtimeOps;
+    private final ServiceListener<Object> serviceListener;
 
     ParallelBootOperationContext(final ModelController.OperationTransactionControl transactionControl,
                                  final ControlledProcessState processState, final OperationContext primaryContext,
-                                 final List<ParsedBootOp> runtimeOps, final Thread controllingThread) {
+                                 final List<ParsedBootOp> runtimeOps, final Thread controllingThread,
+                                 final ServiceListener<Object> serviceListener) {
         super(primaryContext.getProcessType(), primaryContext.getRunningMode(), transactionControl, processState, true);
         this.primaryContext = primaryContext;
         this.runtimeOps = runtimeOps;
+        this.serviceListener = serviceListener;
         AbstractOperationContext.controllingThread.set(controllingThread);
     }
 
@@ -152,7 +162,8 @@ class ParallelBootOperationContext extends AbstractOperationContext {
 
     @Override
     public ServiceTarget getServiceTarget() throws UnsupportedOperationException {
-        return primaryContext.getServiceTarget();
+        final ServiceTarget target = primaryContext.getServiceTarget();
+        return serviceListener == null ? target : new ListeningServiceTarget(target, serviceListener);
     }
 
     @Override
@@ -303,4 +314,195 @@ class ParallelBootOperationContext extends AbstractOperationContext {
         return primaryContext.detach(key);
     }
 
+    /**
+     * Adds a listener, inherited by their child services, to the services installed by the boot operations of a
+     * subsystem. The primary context's target does not support target level listeners. The listener removes itself
+     * from the services once the boot completed, see {@link BootProfile#freeze()}.
+     */
+    private static class ListeningServiceTarget implements ServiceTarget {
+
+        private final ServiceTarget delegate;
+        private final ServiceListener<Object> listener;
+
+        private ListeningServiceTarget(final ServiceTarget delegate, final ServiceListener<Object> listener) {
+            this.delegate = delegate;
+            this.listener = listener;
+        }
+
+        public <T> ServiceBuilder<T> addServiceValue(final ServiceName name, final Value<? extends Service<T>> value) {
+            return delegate.addServiceValue(name, value).addListener(ServiceListener.Inheritance.ALL, listener);
+        }
+
+        public <T> ServiceBuilder<T> addService(final ServiceName name, final Service<T> service) {
+            return delegate.addService(name, service).addListener(ServiceListener.Inheritance.ALL, listener);
+        }
+
+        public ServiceTarget addListener(final ServiceListener<Object> listener) {
+            delegate.addListener(listener);
+            return this;
+        }
+
+        public ServiceTarget addListener(final ServiceListener<Object>... listeners) {
+            delegate.addListener(listeners);
+            return this;
+        }
+
+        public ServiceTarget addListener(final Collection<ServiceListener<Object>> listeners) {
+            delegate.addListener(listeners);
+            return this;
+        }
+
+        public ServiceTarget addListener(final ServiceListener.Inheritance inheritance, final ServiceListener<Object> listener) {
+            delegate.addListener(inheritance, listener);
+            return this;
+        }
+
+        public ServiceTarget addListener(final ServiceListener.Inheritance inheritance, final ServiceListener<Object>... listeners) {
+            delegate.addListener(inheritance, listeners);
+            return this;
+        }
+
+        public ServiceTarget addListener(final ServiceListener.Inheritance inheritance, final Collection<ServiceListener<Object>> listeners) {
+            delegate.addListener(inheritance, listeners);
+            return this;
+        }
+
+        public ServiceTarget removeListener(final ServiceListener<Object> listener) {
+            delegate.removeListener(listener);
+            return this;
+        }
+
+        public Set<ServiceListener<Object>> getListeners() {
+            return delegate.getListeners();
+        }
+
+        public ServiceTarget addDependency(final ServiceName dependency) {
+            delegate.addDependency(dependency);
+            return this;
+        }
+
+        public ServiceTarget addDependency(final ServiceName... dependencies) {
+            delegate.addDependency(dependencies);
+            return this;
+        }
+
+        public ServiceTarget addDependency(final Collection<ServiceName> dependencies) {
+            delegate.addDependency(dependencies);
+            return this;
+        }
+
+        public ServiceTarget removeDependency(final ServiceName dependency) {
+            delegate.removeDependency(dependency);
+            return this;
+        }
+
+        public Set<ServiceName> getDependencies() {
+            return delegate.getDependencies();
+        }
+
+        public ServiceTarget subTarget() {
+            return new ListeningServiceTarget(delegate.subTarget(), listener);
+        }
+
+        public BatchServiceTarget batchTarget() {
+            return new ListeningBatchServiceTarget(delegate.batchTarget(), listener);
+        }
+    }
+
+    /**
+     * A {@link ListeningServiceTarget} for the batch targets, so the services installed through them are profiled too.
+     */
+    private static class ListeningBatchServiceTarget implements BatchServiceTarget {
+
+        private final BatchServiceTarget delegate;
+        private final ServiceListener<Object> listener;
+
+        private ListeningBatchServiceTarget(final BatchServiceTarget delegate, final ServiceListener<Object> listener) {
+            this.delegate = delegate;
+            this.listener = listener;
+        }
+
+        public void removeServices() {
+            delegate.removeServices();
+        }
+
+        public <T> ServiceBuilder<T> addServiceValue(final ServiceName name, final Value<? extends Service<T>> value) {
+            return delegate.addServiceValue(name, value).addListener(ServiceListener.Inheritance.ALL, listener);
+        }
+
+        public <T> ServiceBuilder<T> addService(final ServiceName name, final Service<T> service) {
+            return delegate.addService(name, service).addListener(ServiceListener.Inheritance.ALL, listener);
+        }
+
+        public BatchServiceTarget addListener(final ServiceListener<Object> listener) {
+            delegate.addListener(listener);
+            return this;
+        }
+
+        public BatchServiceTarget addListener(final ServiceListener<Object>... listeners) {
+            delegate.addListener(listeners);
+            return this;
+        }
+
+        public BatchServiceTarget addListener(final Collection<ServiceListener<Object>> listeners) {
+            delegate.addListener(listeners);
+            return this;
+        }
+
+        public BatchServiceTarget addListener(final ServiceListener.Inheritance inheritance, final ServiceListener<Object> listener) {
+            delegate.addListener(inheritance, listener);
+            return this;
+        }
+
+        public BatchServiceTarget addListener(final ServiceListener.Inheritance inheritance, final ServiceListener<Object>... listeners) {
+            delegate.addListener(inheritance, listeners);
+            return this;
+        }
+
+        public BatchServiceTarget addListener(final ServiceListener.Inheritance inheritance, final Collection<ServiceListener<Object>> listeners) {
+            delegate.addListener(inheritance, listeners);
+            return this;
+        }
+
+        public BatchServiceTarget removeListener(final ServiceListener<Object> listener) {
+            delegate.removeListener(listener);
+            return this;
+        }
+
+        public Set<ServiceListener<Object>> getListeners() {
+            return delegate.getListeners();
+        }
+
+        public BatchServiceTarget addDependency(final ServiceName dependency) {
+            delegate.addDependency(dependency);
+            return this;
+        }
+
+        public BatchServiceTarget addDependency(final ServiceName... dependencies) {
+            delegate.addDependency(dependencies);
+            return this;
+        }
+
+        public BatchServiceTarget addDependency(final Collection<ServiceName> dependencies) {
+            delegate.addDependency(dependencies);
+            return this;
+        }
+
+        public BatchServiceTarget removeDependency(final ServiceName dependency) {
+            delegate.removeDependency(dependency);
+            return this;
+        }
+
+        public Set<ServiceName> getDependencies() {
+            return delegate.getDependencies();
+        }
+
+        public ServiceTarget subTarget() {
+            return new ListeningServiceTarget(delegate.subTarget(), listener);
+        }
+
+        public BatchServiceTarget batchTarget() {
+            return new ListeningBatchServiceTarget(delegate.batchTarget(), listener);
+        }
+    }
 }
@@ -32,6 +32,7 @@ import java.util.Map;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
 import org.jboss.as.controller.registry.ImmutableManagementResourceRegistration;
@@ -48,14 +49,16 @@ public class ParallelBootOperationStepHandler implements OperationStepHandler {
     private final Executor executor;
     private final ImmutableManagementResourceRegistration rootRegistration;
     private final ControlledProcessState processState;
+    private final BootProfile bootProfile;
 
     private final Map<String, List<ParsedBootOp>> opsBySubsystem = new LinkedHashMap<String, List<ParsedBootOp>>();
 
     ParallelBootOperationStepHandler(final ExecutorService executorService, final ImmutableManagementResourceRegistration rootRegistration,
-                                     final ControlledProcessState processState) {
+                                     final ControlledProcessState processState, final BootProfile bootProfile) {
         this.executor = executorService;
         this.rootRegistration = rootRegistration;
         this.processState = processState;
+        this.bootProfile = bootProfile;
     }
 
     boolean addSubsystemOperation(final ParsedBootOp parsedOp) {
@@ -86,7 +89,7 @@ public class ParallelBootOperationStepHandler implements OperationStepHandler {
             throw MESSAGES.fullServerBootRequired(getClass());
         }
 
-        long start = System.currentTimeMillis();
+        long start = System.nanoTime();
 
         // Make sure the lock has been taken
         context.getResourceRegistrationForUpdate();
@@ -106,7 +109,8 @@ public class ParallelBootOperationStepHandler implements OperationStepHandler {
             List<ParsedBootOp> subsystemRuntimeOps = new ArrayList<ParsedBootOp>();
             runtimeOpsBySubsystem.put(subsystemName, subsystemRuntimeOps);
 
-            final ParallelBootTransactionControl txControl = new ParallelBootTransactionControl(subsystemName, preparedLatch, committedLatch, completeLatch);
+            final ParallelBootTransactionControl txControl = new ParallelBootTransactionControl(subsystemName, preparedLatch, committedLatch, completeLatch,
+                    OperationContext.Stage.MODEL, bootProfile.getSubsystem(subsystemName));
             transactionControls.put(entry.getKey(), txControl);
 
             // Execute the subsystem's ops in another thread
@@ -152,9 +156,10 @@ public class ParallelBootOperationStepHandler implements OperationStepHandler {
             Thread.currentThread().interrupt();
         }
 
+        long elapsed = System.nanoTime() - start;
+        bootProfile.stageCompleted(OperationContext.Stage.MODEL, elapsed);
         if (MGMT_OP_LOGGER.isDebugEnabled()) {
-            long elapsed = System.currentTimeMillis() - start;
-            MGMT_OP_LOGGER.debugf("Ran subsystem model operations in [%d] ms", elapsed);
+            MGMT_OP_LOGGER.debugf("Ran subsystem model operations in [%d] ms", TimeUnit.NANOSECONDS.toMillis(elapsed));
         }
 
         // Continue boot
@@ -219,7 +224,7 @@ public class ParallelBootOperationStepHandler implements OperationStepHandler {
             @Override
             public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
 
-                long start = System.currentTimeMillis();
+                long start = System.nanoTime();
                 // make sure the registry lock is held
                 context.getServiceRegistry(true);
 
@@ -232,7 +237,8 @@ public class ParallelBootOperationStepHandler implements OperationStepHandler {
 
                 for (Map.Entry<String, List<ParsedBootOp>> entry : runtimeOpsBySubsystem.entrySet()) {
                     String subsystemName = entry.getKey();
-                    final ParallelBootTransactionControl txControl = new ParallelBootTransactionControl(subsystemName, preparedLatch, committedLatch, completeLatch);
+                    final ParallelBootTransactionControl txControl = new ParallelBootTransactionControl(subsystemName, preparedLatch, committedLatch, completeLatch,
+                            OperationContext.Stage.RUNTIME, bootProfile.getSubsystem(subsystemName));
                     transactionControls.put(subsystemName, txControl);
 
                     // Execute the subsystem's ops in another thread
@@ -252,9 +258,10 @@ public class ParallelBootOperationStepHandler implements OperationStepHandler {
                     Thread.currentThread().interrupt();
                 }
 
+                long elapsed = System.nanoTime() - start;
+                bootProfile.stageCompleted(OperationContext.Stage.RUNTIME, elapsed);
                 if (MGMT_OP_LOGGER.isDebugEnabled()) {
-                    long elapsed = System.currentTimeMillis() - start;
-                    MGMT_OP_LOGGER.debugf("Ran subsystem runtime operations in [%d] ms", elapsed);
+                    MGMT_OP_LOGGER.debugf("Ran subsystem runtime operations in [%d] ms", TimeUnit.NANOSECONDS.toMillis(elapsed));
                 }
 
 
@@ -302,9 +309,10 @@ public class ParallelBootOperationStepHandler implements OperationStepHandler {
         @Override
         public void run() {
             boolean interrupted = false;
+            transactionControl.started = System.nanoTime();
             try {
                 final OperationContext operationContext = new ParallelBootOperationContext(transactionControl, processState,
-                        primaryContext, runtimeOps, controllingThread);
+                        primaryContext, runtimeOps, controllingThread, transactionControl.profile.getServiceListener());
                 for (ParsedBootOp op : bootOperations) {
                     final OperationStepHandler osh = op.handler == null ? rootRegistration.getOperationHandler(op.address, op.operationName) : op.handler;
                     operationContext.addStep(op.response, op.operation, osh, executionStage);
@@ -352,21 +360,28 @@ public class ParallelBootOperationStepHandler implements OperationStepHandler {
         private final CountDownLatch preparedLatch;
         private final CountDownLatch committedLatch;
         private final CountDownLatch completeLatch;
+        private final OperationContext.Stage stage;
+        private final BootProfile.SubsystemProfile profile;
+        private long started;
         private ModelNode response;
         private ModelController.OperationTransaction transaction;
         private boolean signalled;
 
-        public ParallelBootTransactionControl(String subsystemName, CountDownLatch preparedLatch, CountDownLatch committedLatch, CountDownLatch completeLatch) {
+        public ParallelBootTransactionControl(String subsystemName, CountDownLatch preparedLatch, CountDownLatch committedLatch, CountDownLatch completeLatch,
+                                              OperationContext.Stage stage, BootProfile.SubsystemProfile profile) {
             this.preparedLatch = preparedLatch;
             this.committedLatch = committedLatch;
             this.completeLatch = completeLatch;
             this.subsystemName = subsystemName;
+            this.stage = stage;
+            this.profile = profile;
         }
 
         @Override
         public void operationFailed(ModelNode response) {
             if (!signalled) {
                 this.response = response;
+                profile.executed(stage, System.nanoTime() - started);
                 preparedLatch.countDown();
                 completeLatch.countDown();
                 signalled = true;
@@ -377,6 +392,8 @@ public class ParallelBootOperationStepHandler implements OperationStepHandler {
         public void operationPrepared(ModelController.OperationTransaction transaction, ModelNode result) {
             if (!signalled) {
                 this.transaction = transaction;
+                final long prepared = System.nanoTime();
+                profile.executed(stage, prepared - started);
                 preparedLatch.countDown();
                 signalled = true;
 
@@ -385,6 +402,8 @@ public class ParallelBootOperationStepHandler implements OperationStepHandler {
                 } catch (InterruptedException e) {
                     Thread.currentThread().interrupt();
                     throw MESSAGES.transactionInterrupted();
+                } finally {
+                    profile.waited(stage, System.nanoTime() - prepared);
                 }
             }
         }
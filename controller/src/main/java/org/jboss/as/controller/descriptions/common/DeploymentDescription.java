@@ -32,6 +32,7 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.HAS
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.HEAD_COMMENT_ALLOWED;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.INPUT_STREAM_INDEX;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.MAX_LENGTH;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.MAX_OCCURS;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.MIN;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.MIN_LENGTH;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.MIN_OCCURS;
@@ -75,6 +76,32 @@ import org.jboss.dmr.ModelType;
  */
 public class DeploymentDescription {
 
+    /** The name of the operation reading the time spent by the deployment unit processors on a deployment */
+    public static final String READ_DEPLOYMENT_PROFILE = "read-deployment-profile";
+    public static final String TOTAL_TIME = "total-time";
+    public static final String PHASES = "phases";
+    public static final String PHASE = "phase";
+    public static final String PROCESSORS = "processors";
+    public static final String PROCESSOR = "processor";
+    public static final String TIME = "time";
+    public static final String SUBDEPLOYMENTS = "subdeployments";
+    public static final String CACHES = "caches";
+    public static final String HITS = "hits";
+    public static final String MISSES = "misses";
+    public static final String HIT_RATE = "hit-rate";
+
+    /** The type of the child resource holding the class loading statistics of a deployment */
+    public static final String CLASS_LOADING = "class-loading";
+    public static final String CLASS_LOADING_STATISTICS = "statistics";
+    public static final String CLASSES_DEFINED = "classes-defined";
+    public static final String DEFINE_TIME = "define-time";
+    public static final String CLASS_LOOKUPS = "class-lookups";
+    public static final String FAILED_CLASS_LOOKUPS = "failed-class-lookups";
+    public static final String RESOURCE_LOOKUPS = "resource-lookups";
+    public static final String FAILED_RESOURCE_LOOKUPS = "failed-resource-lookups";
+    public static final String RESOURCE_ROOTS = "resource-roots";
+    public static final String LINKED_CLASSES = "linked-classes";
+
     private static final String RESOURCE_NAME = DeploymentDescription.class.getPackage().getName() + ".LocalDescriptions";
 
     private DeploymentDescription() {
@@ -162,6 +189,11 @@ public class DeploymentDescription {
             root.get(CHILDREN, SUBDEPLOYMENT, DESCRIPTION).set(bundle.getString("deployment.subdeployment"));
             root.get(CHILDREN, SUBDEPLOYMENT, MIN_OCCURS).set(0);
             root.get(CHILDREN, SUBDEPLOYMENT, MODEL_DESCRIPTION);
+
+            root.get(CHILDREN, CLASS_LOADING, DESCRIPTION).set(bundle.getString("deployment.class-loading"));
+            root.get(CHILDREN, CLASS_LOADING, MIN_OCCURS).set(0);
+            root.get(CHILDREN, CLASS_LOADING, MAX_OCCURS).set(1);
+            root.get(CHILDREN, CLASS_LOADING, MODEL_DESCRIPTION);
         } else {
             root.get(CHILDREN).setEmptyObject();
         }
@@ -181,9 +213,53 @@ public class DeploymentDescription {
         root.get(CHILDREN, SUBSYSTEM, MIN_OCCURS).set(0);
         root.get(CHILDREN, SUBSYSTEM, MODEL_DESCRIPTION);
 
+        root.get(CHILDREN, CLASS_LOADING, DESCRIPTION).set(bundle.getString("deployment.class-loading"));
+        root.get(CHILDREN, CLASS_LOADING, MIN_OCCURS).set(0);
+        root.get(CHILDREN, CLASS_LOADING, MAX_OCCURS).set(1);
+        root.get(CHILDREN, CLASS_LOADING, MODEL_DESCRIPTION);
+
+        return root;
+    }
+
+    public static ModelNode getClassLoadingStatisticsDescription(Locale locale) {
+        final ResourceBundle bundle = getResourceBundle(locale);
+        final ModelNode root = new ModelNode();
+        root.get(DESCRIPTION).set(bundle.getString("deployment.class-loading"));
+        root.get(ATTRIBUTES, CLASSES_DEFINED, TYPE).set(ModelType.INT);
+        root.get(ATTRIBUTES, CLASSES_DEFINED, DESCRIPTION).set(bundle.getString("deployment.class-loading.classes-defined"));
+        root.get(ATTRIBUTES, CLASSES_DEFINED, NILLABLE).set(true);
+        root.get(ATTRIBUTES, DEFINE_TIME, TYPE).set(ModelType.LONG);
+        root.get(ATTRIBUTES, DEFINE_TIME, DESCRIPTION).set(bundle.getString("deployment.class-loading.define-time"));
+        root.get(ATTRIBUTES, DEFINE_TIME, NILLABLE).set(true);
+        getLookupsDescription(root.get(ATTRIBUTES), bundle);
+        root.get(ATTRIBUTES, RESOURCE_ROOTS, TYPE).set(ModelType.OBJECT);
+        root.get(ATTRIBUTES, RESOURCE_ROOTS, DESCRIPTION).set(bundle.getString("deployment.class-loading.resource-roots"));
+        root.get(ATTRIBUTES, RESOURCE_ROOTS, NILLABLE).set(true);
+        getLookupsDescription(root.get(ATTRIBUTES, RESOURCE_ROOTS, VALUE_TYPE), bundle);
+        root.get(ATTRIBUTES, LINKED_CLASSES, TYPE).set(ModelType.OBJECT);
+        root.get(ATTRIBUTES, LINKED_CLASSES, DESCRIPTION).set(bundle.getString("deployment.class-loading.linked-classes"));
+        root.get(ATTRIBUTES, LINKED_CLASSES, VALUE_TYPE).set(ModelType.INT);
+        root.get(ATTRIBUTES, LINKED_CLASSES, NILLABLE).set(true);
+        root.get(OPERATIONS); // placeholder
+        root.get(CHILDREN).setEmptyObject();
         return root;
     }
 
+    private static void getLookupsDescription(ModelNode root, ResourceBundle bundle) {
+        root.get(CLASS_LOOKUPS, TYPE).set(ModelType.LONG);
+        root.get(CLASS_LOOKUPS, DESCRIPTION).set(bundle.getString("deployment.class-loading.class-lookups"));
+        root.get(CLASS_LOOKUPS, NILLABLE).set(true);
+        root.get(FAILED_CLASS_LOOKUPS, TYPE).set(ModelType.LONG);
+        root.get(FAILED_CLASS_LOOKUPS, DESCRIPTION).set(bundle.getString("deployment.class-loading.failed-class-lookups"));
+        root.get(FAILED_CLASS_LOOKUPS, NILLABLE).set(true);
+        root.get(RESOURCE_LOOKUPS, TYPE).set(ModelType.LONG);
+        root.get(RESOURCE_LOOKUPS, DESCRIPTION).set(bundle.getString("deployment.class-loading.resource-lookups"));
+        root.get(RESOURCE_LOOKUPS, NILLABLE).set(true);
+        root.get(FAILED_RESOURCE_LOOKUPS, TYPE).set(ModelType.LONG);
+        root.get(FAILED_RESOURCE_LOOKUPS, DESCRIPTION).set(bundle.getString("deployment.class-loading.failed-resource-lookups"));
+        root.get(FAILED_RESOURCE_LOOKUPS, NILLABLE).set(true);
+    }
+
     public static final ModelNode getUploadDeploymentBytesOperation(Locale locale) {
         final ResourceBundle bundle = getResourceBundle(locale);
         final ModelNode root = new ModelNode();
@@ -331,6 +407,48 @@ public class DeploymentDescription {
         return root;
     }
 
+    public static final ModelNode getReadDeploymentProfileOperation(Locale locale) {
+        final ResourceBundle bundle = getResourceBundle(locale);
+        final ModelNode root = new ModelNode();
+        root.get(OPERATION_NAME).set(READ_DEPLOYMENT_PROFILE);
+        root.get(DESCRIPTION).set(bundle.getString("deployment.read-deployment-profile"));
+        root.get(REQUEST_PROPERTIES).setEmptyObject();
+        root.get(REPLY_PROPERTIES, TYPE).set(ModelType.OBJECT);
+        root.get(REPLY_PROPERTIES, NILLABLE).set(true);
+        getDeploymentProfileDescription(root.get(REPLY_PROPERTIES, VALUE_TYPE), bundle);
+        root.get(REPLY_PROPERTIES, VALUE_TYPE, SUBDEPLOYMENTS, TYPE).set(ModelType.OBJECT);
+        root.get(REPLY_PROPERTIES, VALUE_TYPE, SUBDEPLOYMENTS, DESCRIPTION).set(bundle.getString("deployment.read-deployment-profile.subdeployments"));
+        getDeploymentProfileDescription(root.get(REPLY_PROPERTIES, VALUE_TYPE, SUBDEPLOYMENTS, VALUE_TYPE), bundle);
+        return root;
+    }
+
+    private static void getDeploymentProfileDescription(ModelNode root, ResourceBundle bundle) {
+        root.get(TOTAL_TIME, TYPE).set(ModelType.LONG);
+        root.get(TOTAL_TIME, DESCRIPTION).set(bundle.getString("deployment.read-deployment-profile.total-time"));
+        root.get(PHASES, TYPE).set(ModelType.OBJECT);
+        root.get(PHASES, DESCRIPTION).set(bundle.getString("deployment.read-deployment-profile.phases"));
+        root.get(PHASES, VALUE_TYPE).set(ModelType.LONG);
+        root.get(PROCESSORS, TYPE).set(ModelType.LIST);
+        root.get(PROCESSORS, DESCRIPTION).set(bundle.getString("deployment.read-deployment-profile.processors"));
+        root.get(PROCESSORS, VALUE_TYPE, PHASE, TYPE).set(ModelType.STRING);
+        root.get(PROCESSORS, VALUE_TYPE, PHASE, DESCRIPTION).set(bundle.getString("deployment.read-deployment-profile.processors.phase"));
+        root.get(PROCESSORS, VALUE_TYPE, SUBSYSTEM, TYPE).set(ModelType.STRING);
+        root.get(PROCESSORS, VALUE_TYPE, SUBSYSTEM, DESCRIPTION).set(bundle.getString("deployment.read-deployment-profile.processors.subsystem"));
+        root.get(PROCESSORS, VALUE_TYPE, SUBSYSTEM, NILLABLE).set(true);
+        root.get(PROCESSORS, VALUE_TYPE, PROCESSOR, TYPE).set(ModelType.STRING);
+        root.get(PROCESSORS, VALUE_TYPE, PROCESSOR, DESCRIPTION).set(bundle.getString("deployment.read-deployment-profile.processors.processor"));
+        root.get(PROCESSORS, VALUE_TYPE, TIME, TYPE).set(ModelType.LONG);
+        root.get(PROCESSORS, VALUE_TYPE, TIME, DESCRIPTION).set(bundle.getString("deployment.read-deployment-profile.processors.time"));
+        root.get(CACHES, TYPE).set(ModelType.OBJECT);
+        root.get(CACHES, DESCRIPTION).set(bundle.getString("deployment.read-deployment-profile.caches"));
+        root.get(CACHES, VALUE_TYPE, HITS, TYPE).set(ModelType.LONG);
+        root.get(CACHES, VALUE_TYPE, HITS, DESCRIPTION).set(bundle.getString("deployment.read-deployment-profile.caches.hits"));
+        root.get(CACHES, VALUE_TYPE, MISSES, TYPE).set(ModelType.LONG);
+        root.get(CACHES, VALUE_TYPE, MISSES, DESCRIPTION).set(bundle.getString("deployment.read-deployment-profile.caches.misses"));
+        root.get(CACHES, VALUE_TYPE, HIT_RATE, TYPE).set(ModelType.INT);
+        root.get(CACHES, VALUE_TYPE, HIT_RATE, DESCRIPTION).set(bundle.getString("deployment.read-deployment-profile.caches.hit-rate"));
+    }
+
     private static void getDeploymentContentParamDescription(ModelNode root, ResourceBundle bundle) {
         root.get(REQUEST_PROPERTIES, CONTENT, TYPE).set(ModelType.LIST);
         root.get(REQUEST_PROPERTIES, CONTENT, DESCRIPTION).set(bundle.getString("deployment.content"));
@@ -385,6 +503,8 @@ public class DeploymentDescription {
         System.out.println(getDeployDeploymentOperation(null));
         System.out.println(getFullReplaceDeploymentOperation(null));
         System.out.println(getRedeployDeploymentOperation(null));
+        System.out.println(getReadDeploymentProfileOperation(null));
+        System.out.println(getClassLoadingStatisticsDescription(null));
         System.out.println(getReplaceDeploymentOperation(null));
         System.out.println(getUndeployDeploymentOperation(null));
         System.out.println(getUploadDeploymentBytesOperation(null));
@@ -0,0 +1,77 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.operations.common;
+
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.controller.BootProfile;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.OperationStepHandler;
+import org.jboss.dmr.ModelNode;
+
+/**
+ * Reads the {@link BootProfile} of the process, with all times in milliseconds.
+ */
+public class BootProfileAttributeHandler implements OperationStepHandler {
+
+    public static final String MODEL_STAGE_TIME = "model-stage-time";
+    public static final String RUNTIME_STAGE_TIME = "runtime-stage-time";
+    public static final String CONTAINER_STABILITY_TIME = "container-stability-time";
+    public static final String SUBSYSTEMS = "subsystems";
+    public static final String MODEL_TIME = "model-time";
+    public static final String MODEL_WAIT_TIME = "model-wait-time";
+    public static final String RUNTIME_TIME = "runtime-time";
+    public static final String RUNTIME_WAIT_TIME = "runtime-wait-time";
+    public static final String SERVICE_START_TIME = "service-start-time";
+    public static final String SERVICES_STARTED = "services-started";
+
+    private final BootProfile bootProfile;
+
+    public BootProfileAttributeHandler(final BootProfile bootProfile) {
+        this.bootProfile = bootProfile;
+    }
+
+    @Override
+    public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
+        final ModelNode result = context.getResult();
+        result.get(MODEL_STAGE_TIME).set(toMillis(bootProfile.getModelStageTime()));
+        result.get(RUNTIME_STAGE_TIME).set(toMillis(bootProfile.getRuntimeStageTime()));
+        result.get(CONTAINER_STABILITY_TIME).set(toMillis(bootProfile.getContainerStabilityTime()));
+        final ModelNode subsystems = result.get(SUBSYSTEMS).setEmptyObject();
+        for (BootProfile.SubsystemProfile profile : bootProfile.getSubsystems()) {
+            final ModelNode subsystem = subsystems.get(profile.getName());
+            subsystem.get(MODEL_TIME).set(toMillis(profile.getModelTime()));
+            subsystem.get(MODEL_WAIT_TIME).set(toMillis(profile.getModelWaitTime()));
+            subsystem.get(RUNTIME_TIME).set(toMillis(profile.getRuntimeTime()));
+            subsystem.get(RUNTIME_WAIT_TIME).set(toMillis(profile.getRuntimeWaitTime()));
+            subsystem.get(SERVICE_START_TIME).set(toMillis(profile.getServiceStartTime()));
+            subsystem.get(SERVICES_STARTED).set(profile.getServicesStarted());
+        }
+        context.completeStep();
+    }
+
+    private static long toMillis(final long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+}
@@ -0,0 +1,348 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.persistence;
+
+import static org.jboss.as.controller.ControllerLogger.ROOT_LOGGER;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ADD;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.EXTENSION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.security.AccessController;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.PrivilegedAction;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.client.impl.CompactModelNodeCodec;
+import org.jboss.as.protocol.StreamUtils;
+import org.jboss.dmr.ModelNode;
+import org.jboss.modules.Module;
+import org.jboss.modules.ModuleIdentifier;
+import org.jboss.modules.ModuleLoadException;
+import org.jboss.modules.ModuleLoader;
+
+/**
+ * A cache of the boot operations parsed from a configuration file, stored in the compact binary form of
+ * {@link CompactModelNodeCodec}.
+ * <p/>
+ * The cached operations are only used if the configuration file has the same SHA-1 hash as the file they were parsed
+ * from, and if the jars providing the extensions of the {@code extension=*} add operations are the same size and have
+ * the same modification time as they had then. The jars providing the root parser, which parses the elements outside
+ * of the subsystems, and the release version are checked the same way. Otherwise the file is parsed again and the
+ * cache is replaced.
+ * <p/>
+ * The cache is disabled unless the {@value #ENABLED_PROPERTY} system property is set to {@code true}.
+ */
+public final class BootOperationCache {
+
+    /** The system property enabling the boot operation cache */
+    public static final String ENABLED_PROPERTY = "jboss.boot.operation.cache";
+
+    private static final int MAGIC = 0x4a424f43;
+    private static final byte VERSION = 2;
+    private static final String EXTENSION_SERVICE = "META-INF/services/org.jboss.as.controller.Extension";
+
+    private final File cacheFile;
+    private final ModuleLoader moduleLoader;
+    private final String parserFingerprint;
+
+    /**
+     * Construct a new instance.
+     *
+     * @param cacheFile the file storing the cached operations
+     * @param moduleLoader the module loader used to load the extension modules
+     * @param parserFingerprint identifies the root parser and the release, see {@link #fingerprint(Class, String)}
+     */
+    public BootOperationCache(final File cacheFile, final ModuleLoader moduleLoader, final String parserFingerprint) {
+        this.cacheFile = cacheFile;
+        this.moduleLoader = moduleLoader;
+        this.parserFingerprint = parserFingerprint;
+    }
+
+    /**
+     * Creates the boot operation cache of a configuration file, if the cache is enabled.
+     *
+     * @param configurationFile the configuration file
+     * @param moduleLoader the module loader used to load the extension modules
+     * @param rootParserClass the class of the parser of the configuration file
+     * @param releaseVersion the version of the release
+     * @return the cache, or {@code null} if the {@value #ENABLED_PROPERTY} system property is not set to {@code true}
+     */
+    public static BootOperationCache create(final ConfigurationFile configurationFile, final ModuleLoader moduleLoader,
+                                            final Class<?> rootParserClass, final String releaseVersion) {
+        if (!Boolean.parseBoolean(getSystemProperty(ENABLED_PROPERTY))) {
+            return null;
+        }
+        final File cacheFile = configurationFile.getBootOperationCacheFile();
+        try {
+            return new BootOperationCache(cacheFile, moduleLoader, fingerprint(rootParserClass, releaseVersion));
+        } catch (Exception e) {
+            ROOT_LOGGER.failedToLoadBootOperationCache(e, cacheFile);
+            return null;
+        }
+    }
+
+    /**
+     * Identifies a root parser by the release version and by the jars providing the parser class and its super
+     * classes, such as {@code CommonXml}.
+     *
+     * @param rootParserClass the class of the root parser
+     * @param releaseVersion the version of the release
+     * @return the fingerprint
+     */
+    static String fingerprint(final Class<?> rootParserClass, final String releaseVersion) throws IOException, URISyntaxException {
+        final StringBuilder sb = new StringBuilder(releaseVersion);
+        final TreeSet<String> sources = new TreeSet<String>();
+        for (Class<?> clazz = rootParserClass; clazz != null && clazz != Object.class; clazz = clazz.getSuperclass()) {
+            final String className = clazz.getName();
+            final URL resource = clazz.getResource(className.substring(className.lastIndexOf('.') + 1) + ".class");
+            if (resource != null) {
+                sources.add(describeSource(resource));
+            }
+        }
+        for (String source : sources) {
+            sb.append(';').append(source);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Loads the operations cached for a configuration file.
+     *
+     * @param file the configuration file
+     * @return the cached operations and the time it took to parse them, or {@code null} if the cache does not exist or
+     *         is stale
+     */
+    CachedOperations load(final File file) {
+        if (!cacheFile.exists()) {
+            return null;
+        }
+        try {
+            final DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(cacheFile)));
+            try {
+                if (input.readInt() != MAGIC || input.readByte() != VERSION) {
+                    return null;
+                }
+                final byte[] hash = new byte[input.readUnsignedShort()];
+                input.readFully(hash);
+                if (!Arrays.equals(hash, hash(file))) {
+                    return null;
+                }
+                if (!input.readUTF().equals(parserFingerprint)) {
+                    return null;
+                }
+                final long parseTime = input.readLong();
+                final int moduleCount = input.readInt();
+                for (int i = 0; i < moduleCount; i++) {
+                    final String module = input.readUTF();
+                    final String fingerprint = input.readUTF();
+                    if (!fingerprint.equals(fingerprint(module))) {
+                        return null;
+                    }
+                }
+                final int operationCount = input.readInt();
+                final List<ModelNode> operations = new ArrayList<ModelNode>(operationCount);
+                for (int i = 0; i < operationCount; i++) {
+                    operations.add(CompactModelNodeCodec.readModelNode(input, true));
+                }
+                input.close();
+                return new CachedOperations(operations, parseTime);
+            } finally {
+                StreamUtils.safeClose(input);
+            }
+        } catch (Exception e) {
+            ROOT_LOGGER.failedToLoadBootOperationCache(e, cacheFile);
+            return null;
+        }
+    }
+
+    /**
+     * Replaces the cached operations.
+     *
+     * @param file the configuration file the operations were parsed from
+     * @param operations the parsed operations
+     * @param parseTime the time it took to parse the operations, in nanoseconds
+     */
+    void store(final File file, final List<ModelNode> operations, final long parseTime) {
+        try {
+            final ExposedByteArrayOutputStream bytes = new ExposedByteArrayOutputStream(1024 * 32);
+            final DataOutputStream output = new DataOutputStream(bytes);
+            output.writeInt(MAGIC);
+            output.writeByte(VERSION);
+            final byte[] hash = hash(file);
+            output.writeShort(hash.length);
+            output.write(hash);
+            output.writeUTF(parserFingerprint);
+            output.writeLong(parseTime);
+            final Map<String, String> fingerprints = new TreeMap<String, String>();
+            for (String module : getExtensionModules(operations)) {
+                fingerprints.put(module, fingerprint(module));
+            }
+            output.writeInt(fingerprints.size());
+            for (Map.Entry<String, String> entry : fingerprints.entrySet()) {
+                output.writeUTF(entry.getKey());
+                output.writeUTF(entry.getValue());
+            }
+            output.writeInt(operations.size());
+            for (ModelNode operation : operations) {
+                CompactModelNodeCodec.writeModelNode(output, operation, true);
+            }
+            output.close();
+
+            final File parent = cacheFile.getParentFile();
+            if (!parent.exists() && !parent.mkdirs()) {
+                throw new IOException(parent.getAbsolutePath());
+            }
+            final File tempFile = FilePersistenceUtils.createTempFile(cacheFile);
+            FilePersistenceUtils.writeToTempFile(bytes, tempFile);
+            FilePersistenceUtils.moveTempFileToMain(tempFile, cacheFile);
+        } catch (Exception e) {
+            ROOT_LOGGER.failedToStoreBootOperationCache(e, cacheFile);
+        }
+    }
+
+    private static List<String> getExtensionModules(final List<ModelNode> operations) {
+        final List<String> modules = new ArrayList<String>();
+        for (ModelNode operation : operations) {
+            if (ADD.equals(operation.get(OP).asString())) {
+                final PathAddress address = PathAddress.pathAddress(operation.get(OP_ADDR));
+                if (address.size() == 1) {
+                    final PathElement element = address.getElement(0);
+                    if (EXTENSION.equals(element.getKey())) {
+                        modules.add(element.getValue());
+                    }
+                }
+            }
+        }
+        return modules;
+    }
+
+    /**
+     * Identifies the jars providing the extensions of a module by their size and modification time. Jars are not
+     * hashed, as that would take about as long as parsing the configuration.
+     */
+    private String fingerprint(final String moduleName) throws ModuleLoadException, IOException, URISyntaxException {
+        final Module module = moduleLoader.loadModule(ModuleIdentifier.fromString(moduleName));
+        final TreeSet<String> sources = new TreeSet<String>();
+        final Enumeration<URL> resources = module.getClassLoader().getResources(EXTENSION_SERVICE);
+        while (resources.hasMoreElements()) {
+            sources.add(describeSource(resources.nextElement()));
+        }
+        final StringBuilder sb = new StringBuilder();
+        for (String source : sources) {
+            if (sb.length() > 0) {
+                sb.append(';');
+            }
+            sb.append(source);
+        }
+        return sb.toString();
+    }
+
+    private static String describeSource(final URL resource) throws IOException, URISyntaxException {
+        final URLConnection connection = resource.openConnection();
+        final URL source = connection instanceof JarURLConnection ? ((JarURLConnection) connection).getJarFileURL() : resource;
+        if ("file".equals(source.getProtocol())) {
+            final File file = new File(source.toURI());
+            return file.getPath() + ':' + file.length() + ':' + file.lastModified();
+        } else {
+            return source.toExternalForm() + ':' + connection.getLastModified();
+        }
+    }
+
+    private static byte[] hash(final File file) throws IOException {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        final InputStream input = new FileInputStream(file);
+        try {
+            final byte[] buffer = new byte[8192];
+            int read;
+            while ((read = input.read(buffer)) > -1) {
+                digest.update(buffer, 0, read);
+            }
+            input.close();
+        } finally {
+            StreamUtils.safeClose(input);
+        }
+        return digest.digest();
+    }
+
+    private static String getSystemProperty(final String key) {
+        if (System.getSecurityManager() == null) {
+            return System.getProperty(key);
+        }
+        return AccessController.doPrivileged(new PrivilegedAction<String>() {
+            @Override
+            public String run() {
+                return System.getProperty(key);
+            }
+        });
+    }
+
+    /**
+     * Operations loaded from the cache.
+     */
+    static final class CachedOperations {
+        private final List<ModelNode> operations;
+        private final long parseTime;
+
+        CachedOperations(final List<ModelNode> operations, final long parseTime) {
+            this.operations = operations;
+            this.parseTime = parseTime;
+        }
+
+        List<ModelNode> getOperations() {
+            return operations;
+        }
+
+        /**
+         * @return the time it took to parse the operations when they were cached, in nanoseconds
+         */
+        long getParseTime() {
+            return parseTime;
+        }
+    }
+}
@@ -36,6 +36,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 import javax.xml.namespace.QName;
 import javax.xml.stream.XMLInputFactory;
@@ -58,6 +59,7 @@ public class XmlConfigurationPersister extends AbstractConfigurationPersister {
     private final QName rootElement;
     private final XMLElementReader<List<ModelNode>> rootParser;
     private final Map<QName, XMLElementReader<List<ModelNode>>> additionalParsers;
+    private volatile BootOperationCache bootOperationCache;
 
     /**
      * Construct a new instance.
@@ -81,6 +83,16 @@ public class XmlConfigurationPersister extends AbstractConfigurationPersister {
         }
     }
 
+    /**
+     * Sets the cache of the operations parsed from the configuration file, used by {@link #load()} instead of parsing
+     * the file when the file has not changed.
+     *
+     * @param bootOperationCache the cache, or {@code null} to always parse the file
+     */
+    public void setBootOperationCache(final BootOperationCache bootOperationCache) {
+        this.bootOperationCache = bootOperationCache;
+    }
+
     /** {@inheritDoc} */
     @Override
     public PersistenceResource store(final ModelNode model, Set<PathAddress> affectedAddresses) throws ConfigurationPersistenceException {
@@ -117,6 +129,18 @@ public class XmlConfigurationPersister extends AbstractConfigurationPersister {
     /** {@inheritDoc} */
     @Override
     public List<ModelNode> load() throws ConfigurationPersistenceException {
+        final BootOperationCache cache = bootOperationCache;
+        if (cache != null) {
+            final long loadStart = System.nanoTime();
+            final BootOperationCache.CachedOperations cached = cache.load(fileName);
+            if (cached != null) {
+                final List<ModelNode> updates = cached.getOperations();
+                ROOT_LOGGER.bootOperationsLoadedFromCache(updates.size(), fileName, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - loadStart),
+                        TimeUnit.NANOSECONDS.toMillis(cached.getParseTime()));
+                return updates;
+            }
+        }
+        final long start = System.nanoTime();
         final XMLMapper mapper = XMLMapper.Factory.create();
         mapper.registerRootElement(rootElement, rootParser);
         synchronized (additionalParsers) {
@@ -140,6 +164,11 @@ public class XmlConfigurationPersister extends AbstractConfigurationPersister {
         } catch (Exception e) {
             throw MESSAGES.failedToParseConfiguration(e);
         }
+        final long parseTime = System.nanoTime() - start;
+        ROOT_LOGGER.parsedConfiguration(fileName, TimeUnit.NANOSECONDS.toMillis(parseTime));
+        if (cache != null) {
+            cache.store(fileName, updates, parseTime);
+        }
         return updates;
     }
 
@@ -35,6 +35,7 @@ import java.io.IOException;
 import javax.security.auth.Subject;
 
 import org.jboss.as.controller.ModelController;
+import org.jboss.as.controller.client.impl.CompactModelNodeCodec;
 import org.jboss.as.controller.client.impl.ModelControllerProtocol;
 import org.jboss.as.protocol.StreamUtils;
 import org.jboss.as.protocol.mgmt.ActiveOperation;
@@ -92,12 +93,17 @@ public class ModelControllerClientOperationHandler implements ManagementRequestH
 
         @Override
         public void handleRequest(final DataInput input, final ActiveOperation.ResultHandler<ModelNode> resultHandler, final ManagementRequestContext<Void> context) throws IOException {
-            final ModelNode operation = new ModelNode();
-            ProtocolUtils.expectHeader(input, ModelControllerProtocol.PARAM_OPERATION);
-            operation.readExternal(input);
+            byte param = input.readByte();
+            final boolean compactOperation = param == ModelControllerProtocol.PARAM_COMPACT_ENCODING;
+            if (compactOperation) {
+                param = input.readByte();
+            }
+            ProtocolUtils.expectHeader(param, ModelControllerProtocol.PARAM_OPERATION);
+            final ModelNode operation = CompactModelNodeCodec.readModelNode(input, compactOperation);
 
             ProtocolUtils.expectHeader(input, ModelControllerProtocol.PARAM_INPUTSTREAMS_LENGTH);
             final int attachmentsLength = input.readInt();
+            final boolean compact = CompactModelNodeCodec.readSupported(input);
             context.executeAsync(new ManagementRequestContext.AsyncTask<Void>() {
                 @Override
                 public void execute(final ManagementRequestContext<Void> context) throws Exception {
@@ -112,8 +118,11 @@ public class ModelControllerClientOperationHandler implements ManagementRequestH
 
                     final FlushableDataOutput output = context.writeMessage(response);
                     try {
+                        if (compact) {
+                            output.write(ModelControllerProtocol.PARAM_COMPACT_ENCODING);
+                        }
                         output.write(ModelControllerProtocol.PARAM_RESPONSE);
-                        result.writeExternal(output);
+                        CompactModelNodeCodec.writeModelNode(output, result, compact);
                         output.writeByte(ManagementProtocol.RESPONSE_END);
                         output.close();
                     } finally {
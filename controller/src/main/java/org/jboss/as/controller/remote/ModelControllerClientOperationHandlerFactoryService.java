@@ -43,8 +43,9 @@ public class ModelControllerClientOperationHandlerFactoryService extends Abstrac
 
     @Override
     public HandleableCloseable.Key startReceiving(Channel channel) {
+        // management clients upload deployment content on the same channel as their other operations
         final ManagementChannelHandler handler = new ManagementChannelHandler(ManagementClientChannelStrategy.create(channel),
-                getExecutor());
+                getExecutor(), true);
         UserInfo userInfo = channel.getConnection().getUserInfo();
         if (userInfo instanceof SubjectUserInfo) {
             handler.addHandlerFactory(new ModelControllerClientOperationHandler(getController(), handler,
@@ -27,6 +27,7 @@ import org.jboss.as.controller.client.MessageSeverity;
 import org.jboss.as.controller.client.OperationAttachments;
 import org.jboss.as.controller.client.OperationMessageHandler;
 import org.jboss.as.controller.client.impl.AbstractDelegatingAsyncFuture;
+import org.jboss.as.controller.client.impl.CompactModelNodeCodec;
 import org.jboss.as.controller.client.impl.ModelControllerProtocol;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.CANCELLED;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILED;
@@ -46,6 +47,7 @@ import org.jboss.as.protocol.mgmt.ManagementRequestHeader;
 import org.jboss.as.protocol.mgmt.ManagementResponseHeader;
 import static org.jboss.as.protocol.mgmt.ProtocolUtils.expectHeader;
 import org.jboss.dmr.ModelNode;
+import org.jboss.remoting3.Channel;
 import org.jboss.threads.AsyncFuture;
 import org.jboss.threads.AsyncFutureTask;
 
@@ -70,6 +72,9 @@ import java.util.concurrent.atomic.AtomicBoolean;
 class TransactionalProtocolClientImpl implements ManagementRequestHandlerFactory, TransactionalProtocolClient {
 
     private final ManagementChannelAssociation channelAssociation;
+    // the channel on which the remote controller answered using the compact encoding
+    private volatile Channel compactEncodingChannel;
+
     public TransactionalProtocolClientImpl(final ManagementChannelAssociation channelAssociation) {
         assert channelAssociation != null;
         this.channelAssociation = channelAssociation;
@@ -139,17 +144,27 @@ class TransactionalProtocolClientImpl implements ManagementRequestHandlerFactory
             if (streams != null) {
                 inputStreamLength = streams.size();
             }
+            // Only use the compact encoding once the remote controller used it on this channel
+            final boolean compact = context.getChannel() == compactEncodingChannel;
+            if (compact) {
+                output.write(ModelControllerProtocol.PARAM_COMPACT_ENCODING);
+            }
             output.write(ModelControllerProtocol.PARAM_OPERATION);
-            operation.writeExternal(output);
+            CompactModelNodeCodec.writeModelNode(output, operation, compact);
             output.write(ModelControllerProtocol.PARAM_INPUTSTREAMS_LENGTH);
             output.writeInt(inputStreamLength);
+            CompactModelNodeCodec.writeSupported(output);
         }
 
         @Override
         public void handleRequest(final DataInput input, final ActiveOperation.ResultHandler<ModelNode> resultHandler, final ManagementRequestContext<ExecuteRequestContext> context) throws IOException {
-            final byte responseType = input.readByte();
-            final ModelNode response = new ModelNode();
-            response.readExternal(input);
+            byte responseType = input.readByte();
+            final boolean compact = responseType == ModelControllerProtocol.PARAM_COMPACT_ENCODING;
+            if (compact) {
+                compactEncodingChannel = context.getChannel();
+                responseType = input.readByte();
+            }
+            final ModelNode response = CompactModelNodeCodec.readModelNode(input, compact);
             // If not prepared the operation failed
             final boolean prepared = responseType == ModelControllerProtocol.PARAM_OPERATION_PREPARED;
             final ExecuteRequestContext executeRequestContext = context.getAttachment();
@@ -208,10 +223,14 @@ class TransactionalProtocolClientImpl implements ManagementRequestHandlerFactory
 
         @Override
         public void handleRequest(final DataInput input, final ActiveOperation.ResultHandler<ModelNode> resultHandler, final ManagementRequestContext<ExecuteRequestContext> context) throws IOException {
+            byte responseType = input.readByte();
+            final boolean compact = responseType == ModelControllerProtocol.PARAM_COMPACT_ENCODING;
+            if (compact) {
+                responseType = input.readByte();
+            }
             // We only accept operationCompleted responses
-            expectHeader(input, ModelControllerProtocol.PARAM_OPERATION_COMPLETED);
-            final ModelNode response = new ModelNode();
-            response.readExternal(input);
+            expectHeader(responseType, ModelControllerProtocol.PARAM_OPERATION_COMPLETED);
+            final ModelNode response = CompactModelNodeCodec.readModelNode(input, compact);
             // Complete the operation
             resultHandler.done(response);
         }
@@ -32,6 +32,7 @@ import java.util.concurrent.CountDownLatch;
 
 import org.jboss.as.controller.ModelController;
 import org.jboss.as.controller.ProxyController;
+import org.jboss.as.controller.client.impl.CompactModelNodeCodec;
 import org.jboss.as.controller.client.impl.ModelControllerProtocol;
 import org.jboss.as.protocol.ProtocolLogger;
 import org.jboss.as.protocol.StreamUtils;
@@ -83,11 +84,17 @@ public class TransactionalProtocolOperationHandler implements ManagementRequestH
 
         @Override
         public void handleRequest(final DataInput input, final ActiveOperation.ResultHandler<Void> resultHandler, final ManagementRequestContext<ExecuteRequestContext> context) throws IOException {
-            final ModelNode operation = new ModelNode();
-            ProtocolUtils.expectHeader(input, ModelControllerProtocol.PARAM_OPERATION);
-            operation.readExternal(input);
+            byte param = input.readByte();
+            final boolean compactOperation = param == ModelControllerProtocol.PARAM_COMPACT_ENCODING;
+            if (compactOperation) {
+                param = input.readByte();
+            }
+            ProtocolUtils.expectHeader(param, ModelControllerProtocol.PARAM_OPERATION);
+            final ModelNode operation = CompactModelNodeCodec.readModelNode(input, compactOperation);
             ProtocolUtils.expectHeader(input, ModelControllerProtocol.PARAM_INPUTSTREAMS_LENGTH);
             final int attachmentsLength = input.readInt();
+            // answer in the compact encoding if the proxy can read it
+            context.getAttachment().compactEncoding = CompactModelNodeCodec.readSupported(input);
             context.executeAsync(new ManagementRequestContext.AsyncTask<ExecuteRequestContext>() {
 
                 @Override
@@ -186,6 +193,7 @@ public class TransactionalProtocolOperationHandler implements ManagementRequestH
         private ActiveOperation<Void, ExecuteRequestContext> operation;
         private ManagementRequestContext<ExecuteRequestContext> responseChannel;
         private final CountDownLatch txCompletedLatch = new CountDownLatch(1);
+        private volatile boolean compactEncoding;
 
         Integer getOperationId() {
             return operation.getOperationId();
@@ -321,12 +329,16 @@ public class TransactionalProtocolOperationHandler implements ManagementRequestH
      */
     static void sendResponse(final ManagementRequestContext<ExecuteRequestContext> context, final byte responseType, final ModelNode response) throws IOException {
         final ManagementResponseHeader header = ManagementResponseHeader.create(context.getRequestHeader());
+        final boolean compact = context.getAttachment().compactEncoding;
         final FlushableDataOutput output = context.writeMessage(header);
         try {
+            if (compact) {
+                output.writeByte(ModelControllerProtocol.PARAM_COMPACT_ENCODING);
+            }
             // response type
             output.writeByte(responseType);
             // operation result
-            response.writeExternal(output);
+            CompactModelNodeCodec.writeModelNode(output, response, compact);
             // response end
             output.writeByte(ManagementProtocol.RESPONSE_END);
             output.close();
@@ -0,0 +1,150 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.persistence;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ADD;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.Assert;
+
+import org.jboss.dmr.ModelNode;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the {@link BootOperationCache}.
+ */
+public class BootOperationCacheTestCase {
+
+    private static final String PARSER = "7.2.0.Final;standalone.jar:1:1";
+
+    private File dir;
+    private File configFile;
+    private File cacheFile;
+
+    @Before
+    public void createFiles() throws Exception {
+        final File tgt = new File("target");
+        if (!tgt.exists()) {
+            Assert.fail("target/ does not exist");
+        }
+        dir = new File(tgt, "boot-operation-cache-test");
+        dir.mkdirs();
+        configFile = new File(dir, "standalone.xml");
+        writeConfig("<server/>");
+        cacheFile = new File(new File(dir, "standalone_xml_history"), "standalone.xml.boot-operations");
+    }
+
+    @After
+    public void deleteFiles() {
+        cacheFile.delete();
+        cacheFile.getParentFile().delete();
+        configFile.delete();
+        dir.delete();
+    }
+
+    @Test
+    public void testLoadUnchangedConfiguration() throws Exception {
+        final BootOperationCache cache = new BootOperationCache(cacheFile, null, PARSER);
+        Assert.assertNull(cache.load(configFile));
+
+        final List<ModelNode> operations = createOperations();
+        cache.store(configFile, operations, 1234L);
+        Assert.assertTrue(cacheFile.exists());
+
+        final BootOperationCache.CachedOperations cached = new BootOperationCache(cacheFile, null, PARSER).load(configFile);
+        Assert.assertNotNull(cached);
+        Assert.assertEquals(1234L, cached.getParseTime());
+        Assert.assertEquals(operations, cached.getOperations());
+    }
+
+    @Test
+    public void testChangedConfigurationIsParsed() throws Exception {
+        final BootOperationCache cache = new BootOperationCache(cacheFile, null, PARSER);
+        cache.store(configFile, createOperations(), 1234L);
+        writeConfig("<server name=\"changed\"/>");
+        Assert.assertNull(cache.load(configFile));
+    }
+
+    @Test
+    public void testChangedParserIsParsed() throws Exception {
+        new BootOperationCache(cacheFile, null, PARSER).store(configFile, createOperations(), 1234L);
+        Assert.assertNull(new BootOperationCache(cacheFile, null, "7.2.1.Final;standalone.jar:1:1").load(configFile));
+        Assert.assertNull(new BootOperationCache(cacheFile, null, "7.2.0.Final;standalone.jar:2:1").load(configFile));
+        Assert.assertNotNull(new BootOperationCache(cacheFile, null, PARSER).load(configFile));
+    }
+
+    @Test
+    public void testParserFingerprint() throws Exception {
+        final String fingerprint = BootOperationCache.fingerprint(ArrayList.class, "7.2.0.Final");
+        Assert.assertTrue(fingerprint, fingerprint.startsWith("7.2.0.Final;"));
+        Assert.assertEquals(fingerprint, BootOperationCache.fingerprint(ArrayList.class, "7.2.0.Final"));
+        Assert.assertFalse(fingerprint.equals(BootOperationCache.fingerprint(ArrayList.class, "7.2.1.Final")));
+    }
+
+    @Test
+    public void testCorruptCacheIsIgnored() throws Exception {
+        cacheFile.getParentFile().mkdirs();
+        final Writer writer = new FileWriter(cacheFile);
+        try {
+            writer.write("garbage");
+        } finally {
+            writer.close();
+        }
+        Assert.assertNull(new BootOperationCache(cacheFile, null, PARSER).load(configFile));
+    }
+
+    private List<ModelNode> createOperations() {
+        final List<ModelNode> operations = new ArrayList<ModelNode>();
+        final ModelNode property = new ModelNode();
+        property.get(OP).set(ADD);
+        property.get(OP_ADDR).add("system-property", "test");
+        property.get("value").setExpression("${test.value:default}");
+        operations.add(property);
+        final ModelNode socketBinding = new ModelNode();
+        socketBinding.get(OP).set(ADD);
+        socketBinding.get(OP_ADDR).add("socket-binding-group", "standard-sockets").add("socket-binding", "http");
+        socketBinding.get("port").set(8080);
+        socketBinding.get("fixed-port").set(false);
+        operations.add(socketBinding);
+        return operations;
+    }
+
+    private void writeConfig(final String content) throws IOException {
+        final Writer writer = new FileWriter(configFile);
+        try {
+            writer.write(content);
+        } finally {
+            writer.close();
+        }
+    }
+}
@@ -22,14 +22,17 @@
 
 package org.jboss.as.repository;
 
-import java.io.BufferedInputStream;
 import java.io.Closeable;
+import java.io.EOFException;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.security.DigestOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 
@@ -108,8 +111,9 @@ public interface ContentRepository {
         private static class ContentRepositoryImpl implements ContentRepository, Service<ContentRepository> {
 
             protected static final String CONTENT = "content";
+            /** Size of the buffer used to hash uploads; content that fits in it is not written before it is hashed */
+            private static final int BUFFER_SIZE = 64 * 1024;
             private final File repoRoot;
-            protected final MessageDigest messageDigest;
 
             protected ContentRepositoryImpl(final File repoRoot) {
                 if (repoRoot == null)
@@ -126,52 +130,109 @@ public interface ContentRepository {
                     throw DeploymentRepositoryMessages.MESSAGES.cannotCreateDirectory(repoRoot.getAbsolutePath());
                 }
                 this.repoRoot = repoRoot;
+                // fail early if SHA-1 is not available
+                createMessageDigest();
+            }
 
+            /**
+             * Each upload is hashed with a digest of its own so that concurrent uploads do not wait for each other.
+             * The content is hashed while it is copied, so it is read only once. Content small enough to be buffered
+             * is not written at all if the repository already has it.
+             */
+            @Override
+            public byte[] addContent(InputStream stream) throws IOException {
+                final MessageDigest messageDigest = createMessageDigest();
+                final ReadableByteChannel in = Channels.newChannel(stream);
+                final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+                boolean eof = fill(in, buffer);
+                if (eof) {
+                    messageDigest.update(buffer.array(), 0, buffer.position());
+                    final byte[] sha1Bytes = messageDigest.digest();
+                    if (!isContentPresent(sha1Bytes)) {
+                        buffer.flip();
+                        final File tmp = createTempFile();
+                        writeTempFile(tmp, buffer);
+                        storeTempFile(tmp, sha1Bytes);
+                    }
+                    return sha1Bytes;
+                }
+
+                final File tmp = createTempFile();
+                final FileChannel out = new FileOutputStream(tmp).getChannel();
+                boolean written = false;
                 try {
-                    this.messageDigest = MessageDigest.getInstance("SHA-1");
+                    while (!eof) {
+                        messageDigest.update(buffer.array(), 0, buffer.position());
+                        buffer.flip();
+                        writeFully(out, buffer);
+                        buffer.clear();
+                        eof = fill(in, buffer);
+                    }
+                    messageDigest.update(buffer.array(), 0, buffer.position());
+                    buffer.flip();
+                    writeFully(out, buffer);
+                    out.force(true);
+                    out.close();
+                    written = true;
+                } finally {
+                    safeClose(out);
+                    if (!written) {
+                        deleteTempFile(tmp);
+                    }
+                }
+                final byte[] sha1Bytes = messageDigest.digest();
+                if (isContentPresent(sha1Bytes)) {
+                    deleteTempFile(tmp);
+                } else {
+                    storeTempFile(tmp, sha1Bytes);
+                }
+                return sha1Bytes;
+            }
+
+            private MessageDigest createMessageDigest() {
+                try {
+                    return MessageDigest.getInstance("SHA-1");
                 } catch (NoSuchAlgorithmException e) {
                     throw DeploymentRepositoryMessages.MESSAGES.cannotObtainSha1(e, MessageDigest.class.getSimpleName());
                 }
             }
 
-            @Override
-            public byte[] addContent(InputStream stream) throws IOException {
-                byte[] sha1Bytes;
-                File tmp = File.createTempFile(CONTENT, "tmp", repoRoot);
-                FileOutputStream fos = new FileOutputStream(tmp);
-                synchronized (messageDigest) {
-                    messageDigest.reset();
-                    try {
-                        DigestOutputStream dos = new DigestOutputStream(fos, messageDigest);
-                        BufferedInputStream bis = new BufferedInputStream(stream);
-                        byte[] bytes = new byte[8192];
-                        int read;
-                        while ((read = bis.read(bytes)) > -1) {
-                            dos.write(bytes, 0, read);
-                        }
-                        fos.flush();
-                        fos.getFD().sync();
-                        fos.close();
-                        fos = null;
-                    }
-                    finally {
-                        safeClose(fos);
-                    }
-                    sha1Bytes = messageDigest.digest();
+            private boolean isContentPresent(final byte[] sha1Bytes) {
+                if (hasContent(sha1Bytes)) {
+                    DeploymentRepositoryLogger.ROOT_LOGGER.debugf("Content was already present in repository at location %s",
+                            getDeploymentContentFile(sha1Bytes).getAbsolutePath());
+                    return true;
                 }
-                final File realFile = getDeploymentContentFile(sha1Bytes, true);
-                if(hasContent(sha1Bytes)) {
-                    // we've already got this content
-                    if (!tmp.delete()) {
-                        tmp.deleteOnExit();
+                return false;
+            }
+
+            private File createTempFile() throws IOException {
+                return File.createTempFile(CONTENT, "tmp", repoRoot);
+            }
+
+            /**
+             * Write the given buffer to the temp file and sync it to disk.
+             */
+            private void writeTempFile(final File tmp, final ByteBuffer buffer) throws IOException {
+                final FileChannel out = new FileOutputStream(tmp).getChannel();
+                boolean written = false;
+                try {
+                    writeFully(out, buffer);
+                    out.force(true);
+                    out.close();
+                    written = true;
+                } finally {
+                    safeClose(out);
+                    if (!written) {
+                        deleteTempFile(tmp);
                     }
-                    DeploymentRepositoryLogger.ROOT_LOGGER.debugf("Content was already present in repository at location %s", realFile.getAbsolutePath());
-                } else {
-                    moveTempToPermanent(tmp, realFile);
-                    DeploymentRepositoryLogger.ROOT_LOGGER.contentAdded(realFile.getAbsolutePath());
                 }
+            }
 
-                return sha1Bytes;
+            private void storeTempFile(final File tmp, final byte[] sha1Bytes) throws IOException {
+                final File realFile = getDeploymentContentFile(sha1Bytes, true);
+                moveTempToPermanent(tmp, realFile);
+                DeploymentRepositoryLogger.ROOT_LOGGER.contentAdded(realFile.getAbsolutePath());
             }
 
             @Override
@@ -229,10 +290,15 @@ public interface ContentRepository {
             private void moveTempToPermanent(File tmpFile, File permanentFile) throws IOException {
 
                 if (!tmpFile.renameTo(permanentFile)) {
+                    if (permanentFile.exists()) {
+                        // A concurrent upload of the same content won the race
+                        deleteTempFile(tmpFile);
+                        return;
+                    }
                     // AS7-3574. Try to avoid writing the permanent file bit by bit in we crash in the middle.
                     // Copy tmpFile to another tmpfile in the same dir as the permanent file (and thus same filesystem)
                     // and see then if we can rename it.
-                    File localTmp = new File(permanentFile.getParent(), "tmp");
+                    File localTmp = File.createTempFile(CONTENT, "tmp", permanentFile.getParentFile());
                     try {
                         copyFile(tmpFile, localTmp);
                         if (!localTmp.renameTo(permanentFile)) {
@@ -251,9 +317,7 @@ public interface ContentRepository {
                         throw e;
 
                     } finally {
-                        if (!tmpFile.delete()) {
-                            tmpFile.deleteOnExit();
-                        }
+                        deleteTempFile(tmpFile);
                         if (localTmp.exists() && !localTmp.delete()) {
                             localTmp.deleteOnExit();
                         }
@@ -262,23 +326,56 @@ public interface ContentRepository {
             }
 
             private void copyFile(File src, File dest) throws IOException {
-                FileOutputStream fos = null;
-                FileInputStream fis = null;
+                FileChannel out = null;
+                FileChannel in = null;
                 try {
-                    fos = new FileOutputStream(dest);
-                    fis = new FileInputStream(src);
-                    byte[] bytes = new byte[8192];
-                    int read;
-                    while ((read = fis.read(bytes)) > -1) {
-                        fos.write(bytes, 0, read);
-                    }
-                    fos.flush();
-                    fos.getFD().sync();
-                    fos.close();
-                    fos = null;
+                    out = new FileOutputStream(dest).getChannel();
+                    in = new FileInputStream(src).getChannel();
+                    transferFully(in, 0, in.size(), out);
+                    out.force(true);
+                    out.close();
+                    out = null;
                 } finally {
-                    safeClose(fos);
-                    safeClose(fis);
+                    safeClose(out);
+                    safeClose(in);
+                }
+            }
+
+            private static void deleteTempFile(final File tmp) {
+                if (!tmp.delete()) {
+                    tmp.deleteOnExit();
+                }
+            }
+
+            /**
+             * Fill the buffer from the channel.
+             *
+             * @return {@code true} if the end of the channel was reached
+             */
+            private static boolean fill(final ReadableByteChannel in, final ByteBuffer buffer) throws IOException {
+                while (buffer.hasRemaining()) {
+                    if (in.read(buffer) == -1) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+
+            private static void writeFully(final FileChannel out, final ByteBuffer buffer) throws IOException {
+                while (buffer.hasRemaining()) {
+                    out.write(buffer);
+                }
+            }
+
+            private static void transferFully(final FileChannel in, final long position, final long count, final FileChannel out) throws IOException {
+                long transferred = 0;
+                while (transferred < count) {
+                    final long n = in.transferTo(position + transferred, count - transferred, out);
+                    if (n <= 0) {
+                        // the source was truncated
+                        throw new EOFException();
+                    }
+                    transferred += n;
                 }
             }
 
@@ -23,17 +23,22 @@ package org.jboss.as.repository;
 
 import static org.jboss.as.protocol.mgmt.ProtocolUtils.expectHeader;
 
-import java.io.BufferedOutputStream;
 import java.io.DataInput;
+import java.io.EOFException;
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.jboss.as.protocol.StreamUtils;
 import org.jboss.as.protocol.mgmt.ActiveOperation;
@@ -51,6 +56,14 @@ import org.jboss.logging.BasicLogger;
  */
 public abstract class RemoteFileRequestAndHandler {
 
+    /** Size of the chunks the content is read from disk and written to the channel with */
+    private static final int TRANSFER_BUFFER_SIZE = 64 * 1024;
+    /** Suffix of the directory the files are received in until the transfer is complete */
+    private static final String PARTIAL_SUFFIX = ".part";
+    /** The shared partial directories currently owned by a transfer */
+    private static final Set<File> OWNED_PARTIAL_PATHS = Collections.synchronizedSet(new HashSet<File>());
+    private static final AtomicInteger PARTIAL_PATH_COUNTER = new AtomicInteger();
+
     private final RemoteFileProtocolIdMapper protocol;
     private final Executor asyncExecutor;
 
@@ -64,15 +77,59 @@ public abstract class RemoteFileRequestAndHandler {
     }
 
     public void sendRequest(FlushableDataOutput output, byte rootId, String filePath) throws IOException{
+        sendRequest(output, rootId, filePath, null);
+    }
+
+    /**
+     * Send a request for a file, resuming an earlier transfer into the given local path if it did not complete. A
+     * transfer can only be resumed if the remote content cannot have changed since, i.e. for content addressed by its
+     * hash, and if the remote side understands the {@link RemoteFileProtocolIdMapper#paramFileOffset() offset}.
+     *
+     * @param localPath the local path the files will be received in, or {@code null} if the transfer cannot be resumed
+     * @return the transfer the response has to be handled with, {@code null} if the local path is {@code null}. It
+     *         has to be {@link Transfer#release() released} if the response is not handled.
+     */
+    public Transfer sendRequest(FlushableDataOutput output, byte rootId, String filePath, File localPath) throws IOException{
+        final Transfer transfer = localPath == null ? null : Transfer.claim(localPath);
+        final ResumePoint resumePoint = transfer == null ? null : transfer.resumePoint;
+        if (resumePoint != null) {
+            output.writeByte(protocol.paramFileOffset());
+            output.writeUTF(resumePoint.path);
+            output.writeLong(resumePoint.offset);
+        }
         output.writeByte(protocol.paramRootId());
         output.writeByte(rootId);
         output.writeByte(protocol.paramFilePath());
         output.writeUTF(filePath);
-
+        return transfer;
     }
 
     public void handleResponse(DataInput input, File localPath, BasicLogger log, ActiveOperation.ResultHandler<File> resultHandler, ManagementRequestContext<Void> context)
             throws IOException, CannotCreateLocalDirectoryException, DidNotReadEntireFileException{
+        handleResponse(input, localPath, null, log, resultHandler, context);
+    }
+
+    /**
+     * Receive the files. They are written to a directory next to the local path which is only renamed to the local
+     * path once all the files were received, so an interrupted transfer never leaves incomplete content behind.
+     *
+     * @param transfer the transfer returned when {@link #sendRequest(FlushableDataOutput, byte, String, File) sending}
+     *                 the request, may be {@code null}. It is released once the response was handled.
+     */
+    public void handleResponse(DataInput input, File localPath, Transfer transfer, BasicLogger log, ActiveOperation.ResultHandler<File> resultHandler, ManagementRequestContext<Void> context)
+            throws IOException, CannotCreateLocalDirectoryException, DidNotReadEntireFileException{
+        try {
+            receiveFiles(input, localPath, transfer, log);
+        } finally {
+            if (transfer != null) {
+                transfer.release();
+            }
+        }
+        resultHandler.done(localPath);
+    }
+
+    private void receiveFiles(final DataInput input, final File localPath, final Transfer transfer, final BasicLogger log)
+            throws IOException, CannotCreateLocalDirectoryException, DidNotReadEntireFileException{
         expectHeader(input, protocol.paramNumFiles());
         int numFiles = input.readInt();
         log.debugf("Received %d files for %s", numFiles, localPath);
@@ -87,46 +144,99 @@ public abstract class RemoteFileRequestAndHandler {
                 break;
             }
             default: { // Found on DC
-                for (int i = 0; i < numFiles; i++) {
-                    expectHeader(input, protocol.fileStart());
-                    expectHeader(input, protocol.paramFilePath());
-                    final String path = input.readUTF();
-                    expectHeader(input, protocol.paramFileSize());
-                    final long length = input.readLong();
-                    log.debugf("Received file [%s] of length %d", path, length);
-                    final File file = new File(localPath, path);
-                    if (!file.getParentFile().exists() && !file.getParentFile().mkdirs()) {
-                        throw new CannotCreateLocalDirectoryException(localPath.getParentFile());
-                    }
-                    long totalRead = 0;
-                    OutputStream fileOut = null;
-                    try {
-                        fileOut = new BufferedOutputStream(new FileOutputStream(file));
-                        final byte[] buffer = new byte[8192];
-                        while (totalRead < length) {
-                            int len = Math.min((int) (length - totalRead), buffer.length);
-                            input.readFully(buffer, 0, len);
-                            fileOut.write(buffer, 0, len);
-                            totalRead += len;
-                        }
-                    } finally {
-                        if (fileOut != null) {
-                            fileOut.close();
-                        }
-                    }
-                    if (totalRead != length) {
-                        throw new DidNotReadEntireFileException((length - totalRead));
+                // only the owner of the shared partial directory resumes from it or leaves content in it
+                final boolean owner = transfer != null && transfer.owner;
+                final ResumePoint resumePoint = owner ? transfer.resumePoint : null;
+                final File partialPath = owner ? getPartialPath(localPath) : createPartialPath(localPath);
+                if (owner && resumePoint == null) {
+                    deleteRecursively(partialPath);
+                }
+                boolean complete = false;
+                try {
+                    receivePartialFiles(input, localPath, partialPath, numFiles, resumePoint, log);
+                    complete = true;
+                } finally {
+                    if (!complete && !owner) {
+                        // nobody can resume from a partial directory of its own
+                        deleteRecursively(partialPath);
                     }
-
-                    expectHeader(input, protocol.fileEnd());
                 }
             }
         }
-        resultHandler.done(localPath);
+    }
+
+    /**
+     * Receive the files in the partial directory and rename it to the local path.
+     *
+     * @param resumePoint where the request resumed an earlier transfer, {@code null} if it did not
+     */
+    private void receivePartialFiles(final DataInput input, final File localPath, final File partialPath, final int numFiles,
+                                     final ResumePoint resumePoint, final BasicLogger log)
+            throws IOException, CannotCreateLocalDirectoryException, DidNotReadEntireFileException{
+        boolean resumePathReceived = false;
+        final long start = System.nanoTime();
+        long received = 0;
+        for (int i = 0; i < numFiles; i++) {
+            expectHeader(input, protocol.fileStart());
+            expectHeader(input, protocol.paramFilePath());
+            final String path = input.readUTF();
+            expectHeader(input, protocol.paramFileSize());
+            final long length = input.readLong();
+            long offset = 0;
+            if (resumePoint != null) {
+                expectHeader(input, protocol.paramFileOffset());
+                offset = input.readLong();
+            }
+            log.debugf("Received file [%s] of length %d from offset %d", path, length, offset);
+            final File file = new File(partialPath, path);
+            if (resumePoint != null && resumePoint.path.equals(path)) {
+                resumePathReceived = true;
+            }
+            if (!file.getParentFile().exists() && !file.getParentFile().mkdirs()) {
+                throw new CannotCreateLocalDirectoryException(file.getParentFile());
+            }
+            received += receiveFile(input, file, offset, length);
+            expectHeader(input, protocol.fileEnd());
+        }
+        if (resumePoint != null && !resumePathReceived) {
+            // the file being resumed is not part of the content received
+            new File(partialPath, resumePoint.path).delete();
+        }
+        if (!partialPath.renameTo(localPath)) {
+            if (!localPath.exists()) {
+                throw new CannotCreateLocalDirectoryException(localPath);
+            }
+            // received concurrently by another request
+            deleteRecursively(partialPath);
+        }
+        final long elapsed = System.nanoTime() - start;
+        log.debugf("Received %d bytes for %s in %d ms (%d KiB/s)", received, localPath,
+                TimeUnit.NANOSECONDS.toMillis(elapsed), getThroughput(received, elapsed) / 1024);
     }
 
     public void handleRequest(final DataInput input, final RootFileReader reader, final ManagementRequestContext<Void> context) throws IOException {
-        expectHeader(input, protocol.paramRootId());
+        handleRequest(input, reader, context, null);
+    }
+
+    /**
+     * Handle a request for a file.
+     *
+     * @param listener notified once the files were written, may be {@code null}
+     */
+    public void handleRequest(final DataInput input, final RootFileReader reader, final ManagementRequestContext<Void> context,
+                              final TransferListener listener) throws IOException {
+        byte header = input.readByte();
+        final String resumePath;
+        final long resumeOffset;
+        if (header == protocol.paramFileOffset()) {
+            resumePath = input.readUTF();
+            resumeOffset = input.readLong();
+            header = input.readByte();
+        } else {
+            resumePath = null;
+            resumeOffset = 0;
+        }
+        expectHeader(header, protocol.paramRootId());
         final byte rootId = input.readByte();
         expectHeader(input, protocol.paramFilePath());
         final String filePath = input.readUTF();
@@ -137,12 +247,17 @@ public abstract class RemoteFileRequestAndHandler {
                 final File localPath = reader.readRootFile(rootId, filePath);
                 //final FlushableDataOutput output = writeGenericResponseHeader(context);
                 FlushableDataOutput output = context.writeMessage(ManagementResponseHeader.create(context.getRequestHeader()));
+                final long start = System.nanoTime();
+                final long sent;
                 try {
-                    writeResponse(localPath, output);
+                    sent = writeResponse(localPath, output, resumePath, resumeOffset);
                     output.close();
                 } finally {
                     StreamUtils.safeClose(output);
                 }
+                if (listener != null && sent >= 0) {
+                    listener.transferCompleted(localPath, sent, System.nanoTime() - start);
+                }
             }
         };
 
@@ -153,19 +268,25 @@ public abstract class RemoteFileRequestAndHandler {
         }
     }
 
-    private void writeResponse(final File localPath, final FlushableDataOutput output) throws IOException {
+    /**
+     * @return the number of bytes of file content written, or {@code -1} if the local path does not exist
+     */
+    private long writeResponse(final File localPath, final FlushableDataOutput output, final String resumePath, final long resumeOffset) throws IOException {
         output.writeByte(protocol.paramNumFiles());
         if (localPath == null || !localPath.exists()) {
             output.writeInt(-1);
+            return -1;
         } else if (localPath.isFile()) {
             output.writeInt(1);
-            writeFile(localPath, localPath, output);
+            return writeFile(localPath, localPath, output, resumePath, resumeOffset);
         } else {
             final List<File> childFiles = getChildFiles(localPath);
             output.writeInt(childFiles.size());
+            long sent = 0;
             for (File child : childFiles) {
-                writeFile(localPath, child, output);
+                sent += writeFile(localPath, child, output, resumePath, resumeOffset);
             }
+            return sent;
         }
     }
 
@@ -189,29 +310,191 @@ public abstract class RemoteFileRequestAndHandler {
         return child.getAbsolutePath().substring(parent.getAbsolutePath().length()+1);
     }
 
-    private void writeFile(final File localPath, final File file, final FlushableDataOutput output) throws IOException {
+    /**
+     * Write a file, skipping the part the requester already has if the request resumes an earlier transfer of it.
+     *
+     * @param resumePath the relative path of the file being resumed, {@code null} if the request does not resume a transfer
+     * @return the number of bytes of file content written
+     */
+    private long writeFile(final File localPath, final File file, final FlushableDataOutput output, final String resumePath,
+                           final long resumeOffset) throws IOException {
+        final String relativePath = getRelativePath(localPath, file);
+        final long length = file.length();
         output.writeByte(protocol.fileStart());
         output.writeByte(protocol.paramFilePath());
-        output.writeUTF(getRelativePath(localPath, file));
+        output.writeUTF(relativePath);
         output.writeByte(protocol.paramFileSize());
-        output.writeLong(file.length());
-        InputStream inputStream = null;
+        output.writeLong(length);
+        long offset = 0;
+        if (resumePath != null) {
+            if (resumePath.equals(relativePath) && resumeOffset > 0 && resumeOffset <= length) {
+                offset = resumeOffset;
+            }
+            output.writeByte(protocol.paramFileOffset());
+            output.writeLong(offset);
+        }
+        final FileChannel channel = new FileInputStream(file).getChannel();
         try {
-            inputStream = new FileInputStream(file);
-            byte[] buffer = new byte[8192];
-            int len;
-            while ((len = inputStream.read(buffer)) != -1) {
-                output.write(buffer, 0, len);
+            final ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(TRANSFER_BUFFER_SIZE, Math.max(1, length - offset)));
+            long position = offset;
+            while (position < length) {
+                buffer.clear();
+                buffer.limit((int) Math.min(buffer.capacity(), length - position));
+                final int read = channel.read(buffer, position);
+                if (read == -1) {
+                    // the file was truncated since its length was sent
+                    throw new EOFException();
+                }
+                output.write(buffer.array(), 0, read);
+                position += read;
             }
         } finally {
-            if (inputStream != null) {
-                try {
-                    inputStream.close();
-                } catch (IOException ignored) {
+            StreamUtils.safeClose(channel);
+        }
+        output.writeByte(protocol.fileEnd());
+        return length - offset;
+    }
+
+    /**
+     * @return the number of bytes received
+     */
+    private long receiveFile(final DataInput input, final File file, final long offset, final long length) throws IOException, DidNotReadEntireFileException {
+        final FileChannel channel = new RandomAccessFile(file, "rw").getChannel();
+        long totalRead = offset;
+        try {
+            // drop whatever was received beyond the offset the remote side resumes from
+            channel.truncate(offset);
+            channel.position(offset);
+            final byte[] buffer = new byte[(int) Math.min(TRANSFER_BUFFER_SIZE, Math.max(1, length - offset))];
+            while (totalRead < length) {
+                int len = (int) Math.min(length - totalRead, buffer.length);
+                input.readFully(buffer, 0, len);
+                final ByteBuffer bb = ByteBuffer.wrap(buffer, 0, len);
+                while (bb.hasRemaining()) {
+                    channel.write(bb);
                 }
+                totalRead += len;
             }
+        } finally {
+            channel.close();
         }
-        output.writeByte(protocol.fileEnd());
+        if (totalRead != length) {
+            throw new DidNotReadEntireFileException((length - totalRead));
+        }
+        return length - offset;
+    }
+
+    private static File getPartialPath(final File localPath) {
+        return new File(localPath.getParentFile(), localPath.getName() + PARTIAL_SUFFIX);
+    }
+
+    /**
+     * Create a partial directory only used by the current transfer, for transfers that cannot be resumed or that
+     * run while another transfer of the same content owns the shared partial directory.
+     */
+    private static File createPartialPath(final File localPath) throws CannotCreateLocalDirectoryException {
+        final File parent = localPath.getParentFile();
+        if (!parent.exists() && !parent.mkdirs() && !parent.exists()) {
+            throw new CannotCreateLocalDirectoryException(parent);
+        }
+        while (true) {
+            final File partialPath = new File(parent, localPath.getName() + PARTIAL_SUFFIX + PARTIAL_PATH_COUNTER.incrementAndGet());
+            if (partialPath.mkdir()) {
+                return partialPath;
+            } else if (!partialPath.exists()) {
+                throw new CannotCreateLocalDirectoryException(partialPath);
+            }
+        }
+    }
+
+    /**
+     * Only a transfer of a single file, like deployment content, is resumed.
+     */
+    private static ResumePoint getResumePoint(final File localPath) {
+        final File partialPath = getPartialPath(localPath);
+        final File[] children = partialPath.listFiles();
+        if (children == null || children.length != 1 || !children[0].isFile() || children[0].length() == 0) {
+            return null;
+        }
+        return new ResumePoint(children[0].getName(), children[0].length());
+    }
+
+    private static void deleteRecursively(final File file) {
+        final File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                deleteRecursively(child);
+            }
+        }
+        file.delete();
+    }
+
+    /**
+     * @return the throughput in bytes per second
+     */
+    public static long getThroughput(final long bytes, final long nanos) {
+        return nanos <= 0 ? 0 : (long) (bytes * (double) TimeUnit.SECONDS.toNanos(1) / nanos);
+    }
+
+    /**
+     * The local side of a file transfer. A transfer which may be resumed receives the files in the shared partial
+     * directory next to the local path, which is owned by at most one transfer at a time so that a transfer only
+     * resumes from or writes to content it received itself. A concurrent transfer of the same content receives the
+     * files in a partial directory of its own.
+     */
+    public static final class Transfer {
+        private final File localPath;
+        private final boolean owner;
+        private final ResumePoint resumePoint;
+        private boolean released;
+
+        private Transfer(final File localPath, final boolean owner, final ResumePoint resumePoint) {
+            this.localPath = localPath;
+            this.owner = owner;
+            this.resumePoint = resumePoint;
+        }
+
+        private static Transfer claim(final File localPath) {
+            if (OWNED_PARTIAL_PATHS.add(getPartialPath(localPath))) {
+                return new Transfer(localPath, true, getResumePoint(localPath));
+            }
+            return new Transfer(localPath, false, null);
+        }
+
+        /**
+         * Give up the ownership of the shared partial directory, if this transfer owns it. Can be called more than once.
+         */
+        public void release() {
+            synchronized (this) {
+                if (!owner || released) {
+                    return;
+                }
+                released = true;
+            }
+            OWNED_PARTIAL_PATHS.remove(getPartialPath(localPath));
+        }
+    }
+
+    private static final class ResumePoint {
+        private final String path;
+        private final long offset;
+
+        private ResumePoint(final String path, final long offset) {
+            this.path = path;
+            this.offset = offset;
+        }
+    }
+
+    /**
+     * Notified of the files written in response to a request
+     */
+    public interface TransferListener {
+        /**
+         * @param localPath the root of the files written
+         * @param bytes the number of bytes of file content written
+         * @param nanos the time it took to write the files, in nanoseconds
+         */
+        void transferCompleted(File localPath, long bytes, long nanos);
     }
 
     /**
@@ -224,6 +507,7 @@ public abstract class RemoteFileRequestAndHandler {
         byte paramFilePath();
         byte paramFileSize();
         byte fileEnd();
+        byte paramFileOffset();
     }
 
     /**
@@ -37,6 +37,7 @@ enum Attribute {
     RELATIVE_TO(CommonAttributes.RELATIVE_TO),
     SCAN_ENABLED(CommonAttributes.SCAN_ENABLED),
     SCAN_INTERVAL(CommonAttributes.SCAN_INTERVAL),
+    SCAN_MODE(CommonAttributes.SCAN_MODE),
     AUTO_DEPLOY_ZIPPED(CommonAttributes.AUTO_DEPLOY_ZIPPED),
     AUTO_DEPLOY_EXPLODED(CommonAttributes.AUTO_DEPLOY_EXPLODED),
     AUTO_DEPLOY_XML(CommonAttributes.AUTO_DEPLOY_XML),
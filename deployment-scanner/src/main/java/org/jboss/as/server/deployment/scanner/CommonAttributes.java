@@ -32,11 +32,15 @@ interface CommonAttributes {
     String AUTO_DEPLOY_XML = "auto-deploy-xml";
     String DEPLOYMENT_SCANNER = "deployment-scanner";
     String DEPLOYMENT_TIMEOUT = "deployment-timeout";
+    String LAST_SCAN_DURATION = "last-scan-duration";
+    String MAX_SCAN_DURATION = "max-scan-duration";
     String NAME = "name";
     String PATH = "path";
     String RELATIVE_TO = "relative-to";
     String SCANNER = "scanner";
+    String SCAN_COUNT = "scan-count";
     String SCAN_ENABLED = "scan-enabled";
     String SCAN_INTERVAL = "scan-interval";
+    String SCAN_MODE = "scan-mode";
 
 }
@@ -0,0 +1,164 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment.scanner;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import org.jboss.as.server.deployment.scanner.ZipCompletionScanner.NonScannableZipException;
+
+/**
+ * Caches the outcome of the completeness checks of auto-deploy content across scans.
+ * <p/>
+ * An outcome is kept for as long as the size and the last modification time of the file do not change, so content
+ * that is complete, or whose copy stalled, is not read again on every scan. Checks that have to read the whole
+ * file can furthermore be deferred while the file keeps changing between scans; such a file is reported incomplete
+ * without being read until it has been stable for one scan.
+ * <p/>
+ * Outcomes of files that were not checked during a scan are discarded at the end of the scan. This class is not
+ * thread safe, it is only used while holding the scan lock.
+ */
+class CompletionCheckCache {
+
+    /**
+     * A completeness check of a single file.
+     */
+    interface CompletionCheck {
+        boolean isComplete(File file) throws IOException, NonScannableZipException;
+    }
+
+    private final Map<File, Entry> entries = new HashMap<File, Entry>();
+    private int generation;
+    private long checkCount;
+    private long hitCount;
+    private long deferredCount;
+
+    /**
+     * Mark the beginning of a scan.
+     */
+    void beginScan() {
+        generation++;
+    }
+
+    /**
+     * Mark the end of a scan, discarding the outcomes of the files that were not checked during the scan.
+     */
+    void endScan() {
+        final Iterator<Entry> it = entries.values().iterator();
+        while (it.hasNext()) {
+            if (it.next().generation != generation) {
+                it.remove();
+            }
+        }
+    }
+
+    /**
+     * Check whether the given file is complete, reusing the outcome of a previous scan if the file did not change.
+     *
+     * @param file the file to check
+     * @param check the check to run if no outcome can be reused
+     * @param deferWhileChanging {@code true} if the check should not be run while the file, known to be incomplete,
+     *                           keeps changing between scans
+     * @return {@code true} if the file is complete
+     *
+     * @throws IOException if the check failed; the failure is not cached
+     * @throws NonScannableZipException if the file cannot be checked; the failure is cached
+     */
+    boolean isComplete(final File file, final CompletionCheck check, final boolean deferWhileChanging) throws IOException, NonScannableZipException {
+        final long length = file.length();
+        final long lastModified = file.lastModified();
+        Entry entry = entries.get(file);
+        if (entry == null) {
+            entry = new Entry();
+            entries.put(file, entry);
+        } else if (entry.length == length && entry.lastModified == lastModified) {
+            if (entry.checked) {
+                entry.generation = generation;
+                hitCount++;
+                if (entry.failure != null) {
+                    throw entry.failure;
+                }
+                return entry.complete;
+            }
+        } else if (deferWhileChanging && !entry.complete) {
+            // the file was incomplete on the previous scan and is still being written
+            entry.update(length, lastModified, generation);
+            deferredCount++;
+            return false;
+        }
+
+        entry.update(length, lastModified, generation);
+        checkCount++;
+        try {
+            entry.complete = check.isComplete(file);
+        } catch (NonScannableZipException e) {
+            entry.failure = e;
+            entry.checked = true;
+            throw e;
+        }
+        entry.checked = true;
+        return entry.complete;
+    }
+
+    /**
+     * @return the number of checks that were run
+     */
+    long getCheckCount() {
+        return checkCount;
+    }
+
+    /**
+     * @return the number of checks answered from the outcome of a previous scan
+     */
+    long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * @return the number of checks deferred as the file was still changing
+     */
+    long getDeferredCount() {
+        return deferredCount;
+    }
+
+    private static final class Entry {
+        private long length;
+        private long lastModified;
+        private int generation;
+        private boolean checked;
+        private boolean complete;
+        private NonScannableZipException failure;
+
+        private void update(final long length, final long lastModified, final int generation) {
+            this.length = length;
+            this.lastModified = lastModified;
+            this.generation = generation;
+            this.checked = false;
+            this.complete = false;
+            this.failure = null;
+        }
+    }
+}
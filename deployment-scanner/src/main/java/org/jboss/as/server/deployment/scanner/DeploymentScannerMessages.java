@@ -164,4 +164,14 @@ public interface DeploymentScannerMessages {
     @Message(id = 15060, value = "File %2$s was configured for auto-deploy but could not be safely auto-deployed. The reason the file " +
             "could not be auto-deployed was: %1$s.  To enable deployment of this file create a file called %2$s%3$s")
     String unsafeAutoDeploy(String errorMsg, String fileName, String marker);
+
+    /**
+     * Creates an exception indicating the scan mode is not known.
+     *
+     * @param name the name of the scan mode.
+     *
+     * @return an {@link IllegalArgumentException} for the error.
+     */
+    @Message(id = 15061, value = "Unknown scan mode %s")
+    IllegalArgumentException unknownScanMode(String name);
 }
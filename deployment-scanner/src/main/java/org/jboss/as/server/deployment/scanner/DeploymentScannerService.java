@@ -32,6 +32,7 @@ import org.jboss.as.controller.services.path.PathManager;
 import org.jboss.as.controller.services.path.PathManagerService;
 import org.jboss.as.server.Services;
 import org.jboss.as.server.deployment.scanner.api.DeploymentScanner;
+import org.jboss.as.server.deployment.scanner.api.ScanMode;
 import org.jboss.msc.service.Service;
 import org.jboss.msc.service.ServiceBuilder;
 import org.jboss.msc.service.ServiceController;
@@ -54,6 +55,7 @@ public class DeploymentScannerService implements Service<DeploymentScanner> {
     private static final int DEFAULT_INTERVAL = 5000;
     private long interval;
     private TimeUnit unit = TimeUnit.MILLISECONDS;
+    private ScanMode scanMode;
     private boolean enabled;
     private boolean autoDeployZipped;
     private boolean autoDeployExploded;
@@ -84,17 +86,18 @@ public class DeploymentScannerService implements Service<DeploymentScanner> {
      * @param relativeTo        the relative to
      * @param path              the path
      * @param scanInterval      the scan interval
+     * @param scanMode          how the scanner detects changes
      * @param scanEnabled       scan enabled
      * @param deploymentTimeout the deployment timeout
      * @param bootTimeService   the deployment scanner used in the boot time scan
      * @return
      */
     public static ServiceController<DeploymentScanner> addService(final ServiceTarget serviceTarget, final String name, final String relativeTo, final String path,
-                                                                  final Integer scanInterval, TimeUnit unit, final Boolean autoDeployZip,
+                                                                  final Integer scanInterval, TimeUnit unit, final ScanMode scanMode, final Boolean autoDeployZip,
                                                                   final Boolean autoDeployExploded, final Boolean autoDeployXml, final Boolean scanEnabled, final Long deploymentTimeout,
                                                                   final List<ServiceController<?>> newControllers, final FileSystemDeploymentService bootTimeService, final ScheduledExecutorService scheduledExecutorService,
                                                                   final ServiceListener<Object>... listeners) {
-        final DeploymentScannerService service = new DeploymentScannerService(relativeTo, path, scanInterval, unit, autoDeployZip,
+        final DeploymentScannerService service = new DeploymentScannerService(relativeTo, path, scanInterval, unit, scanMode, autoDeployZip,
                 autoDeployExploded, autoDeployXml, scanEnabled, deploymentTimeout, bootTimeService);
         final ServiceName serviceName = getServiceName(name);
 
@@ -111,13 +114,14 @@ public class DeploymentScannerService implements Service<DeploymentScanner> {
         return svc;
     }
 
-    DeploymentScannerService(final String relativeTo, final String path, final Integer interval, final TimeUnit unit, final Boolean autoDeployZipped,
+    DeploymentScannerService(final String relativeTo, final String path, final Integer interval, final TimeUnit unit, final ScanMode scanMode, final Boolean autoDeployZipped,
                              final Boolean autoDeployExploded, final Boolean autoDeployXml, final Boolean enabled, final Long deploymentTimeout,
                              final FileSystemDeploymentService bootTimeService) {
         this.relativeTo = relativeTo;
         this.path = path;
         this.interval = interval == null ? DEFAULT_INTERVAL : interval.longValue();
         this.unit = unit;
+        this.scanMode = scanMode == null ? ScanMode.POLL : scanMode;
         this.autoDeployZipped = autoDeployZipped == null ? true : autoDeployZipped.booleanValue();
         this.autoDeployExploded = autoDeployExploded == null ? false : autoDeployExploded.booleanValue();
         this.autoDeployXml = autoDeployXml == null ? true : autoDeployXml.booleanValue();
@@ -155,6 +159,7 @@ public class DeploymentScannerService implements Service<DeploymentScanner> {
                         relativePath, factory, scheduledExecutorValue.getValue());
 
                 scanner.setScanInterval(unit.toMillis(interval));
+                scanner.setScanMode(scanMode);
                 scanner.setAutoDeployExplodedContent(autoDeployExploded);
                 scanner.setAutoDeployZippedContent(autoDeployZipped);
                 scanner.setAutoDeployXMLContent(autoDeployXml);
@@ -0,0 +1,236 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.server.deployment.scanner;
+
+import static org.jboss.as.server.deployment.scanner.FileSystemDeploymentService.DEPLOYED;
+import static org.jboss.as.server.deployment.scanner.FileSystemDeploymentService.DEPLOYING;
+import static org.jboss.as.server.deployment.scanner.FileSystemDeploymentService.DO_DEPLOY;
+import static org.jboss.as.server.deployment.scanner.FileSystemDeploymentService.FAILED_DEPLOY;
+import static org.jboss.as.server.deployment.scanner.FileSystemDeploymentService.PENDING;
+import static org.jboss.as.server.deployment.scanner.FileSystemDeploymentService.UNDEPLOYED;
+import static org.jboss.as.server.deployment.scanner.FileSystemDeploymentService.UNDEPLOYING;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Detects changes in a deployment directory and the sub directories the scanner looks into, without listing them
+ * on every {@link #poll()}.
+ * <p/>
+ * A poll only reads the modification time of each watched directory, which changes whenever an entry is added,
+ * removed or renamed, and of each {@code .deployed} marker and the content it refers to, which is how an archive or
+ * XML descriptor replaced in place, or a touched marker, is noticed. Only a directory whose modification time changed
+ * is listed again, and its entries are compared by name with the previous listing. The content of exploded
+ * deployments is not watched; like with auto-deploy-exploded disabled, touching a {@code .dodeploy} marker redeploys
+ * it. Only the API of Java 6 is used, and the watcher does not use a thread of its own.
+ * <p/>
+ * The marker files written or removed by the scanner itself do not count as changes. The removal of a
+ * {@code .deployed} marker still does, as that is how a deployment is undeployed.
+ * <p/>
+ * A watcher is not thread safe; it is only polled by the watch task of its scanner.
+ */
+class DirectoryWatcher {
+
+    /**
+     * The granularity of the modification times, as seen through {@link File#lastModified()}, on the file systems and
+     * JVMs the watcher should cope with. A directory modified less than that before it was listed is listed again by
+     * the next poll, as a later change within the same time unit would not change its modification time.
+     */
+    static final long TIME_GRANULARITY = 2000;
+
+    private static final String[] SCANNER_MARKERS = {DEPLOYED, FAILED_DEPLOY, DEPLOYING, UNDEPLOYING, UNDEPLOYED, PENDING};
+
+    private final Pattern contentPattern;
+    private final Map<File, WatchedDirectory> directories = new HashMap<File, WatchedDirectory>();
+
+    /**
+     * @param root the deployment directory
+     * @param contentPattern the pattern of the names of the directories holding exploded deployments, which are not
+     *        watched
+     */
+    DirectoryWatcher(final File root, final Pattern contentPattern) {
+        this.contentPattern = contentPattern;
+        watch(root);
+    }
+
+    /**
+     * Check whether the watched directories changed since the previous poll.
+     *
+     * @return {@code true} if anything other than a marker file written by the scanner changed
+     */
+    boolean poll() {
+        boolean changed = false;
+        // the entries of a changed directory may add and remove watched directories
+        for (WatchedDirectory directory : directories.values().toArray(new WatchedDirectory[directories.size()])) {
+            final long lastModified = directory.dir.lastModified();
+            if (lastModified != directory.lastModified) {
+                changed |= relist(directory, true);
+            } else if (directory.recent) {
+                changed |= relist(directory, false);
+            }
+            changed |= directory.deployedChanged();
+        }
+        return changed;
+    }
+
+    /**
+     * @return the number of directories currently watched
+     */
+    int getWatchedDirectoryCount() {
+        return directories.size();
+    }
+
+    private void watch(final File dir) {
+        final WatchedDirectory directory = new WatchedDirectory(dir);
+        directories.put(dir, directory);
+        relist(directory, false);
+    }
+
+    private void unwatch(final File dir) {
+        final Iterator<File> iterator = directories.keySet().iterator();
+        final String prefix = dir.getPath() + File.separator;
+        while (iterator.hasNext()) {
+            final File watched = iterator.next();
+            if (watched.equals(dir) || watched.getPath().startsWith(prefix)) {
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * List a directory again and compare its entries with the previous listing.
+     *
+     * @param modified {@code true} if the modification time of the directory changed
+     * @return {@code true} if an entry other than a marker file written by the scanner was added or removed
+     */
+    private boolean relist(final WatchedDirectory directory, final boolean modified) {
+        // read the time first, so that a change during the listing is seen by the next poll
+        directory.lastModified = directory.dir.lastModified();
+        directory.recent = System.currentTimeMillis() - directory.lastModified < TIME_GRANULARITY;
+        final String[] list = directory.dir.list();
+        final Set<String> names = list == null ? new HashSet<String>() : new HashSet<String>(Arrays.asList(list));
+        final Set<String> previous = directory.names;
+        directory.names = names;
+        boolean changed = false;
+        for (String name : names) {
+            if (!previous.contains(name)) {
+                final File file = new File(directory.dir, name);
+                if (file.isDirectory() && !contentPattern.matcher(name).matches()) {
+                    watch(file);
+                }
+                changed |= !isScannerMarker(name);
+            }
+        }
+        for (String name : previous) {
+            if (!names.contains(name)) {
+                unwatch(new File(directory.dir, name));
+                changed |= name.endsWith(DEPLOYED) || !(isScannerMarker(name) || name.endsWith(DO_DEPLOY));
+            }
+        }
+        directory.trackDeployed();
+        // a directory whose time changed without a change of its entries had an entry replaced by a rename
+        return changed || modified && previous.equals(names) && list != null;
+    }
+
+    private static boolean isScannerMarker(final String name) {
+        for (String marker : SCANNER_MARKERS) {
+            if (name.endsWith(marker)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static final class WatchedDirectory {
+        private final File dir;
+        private long lastModified;
+        // set if the directory was modified too shortly before it was listed to rely on its modification time
+        private boolean recent;
+        private Set<String> names = new HashSet<String>();
+        // the .deployed markers and the content they refer to
+        private Map<File, FileState> deployed = new HashMap<File, FileState>();
+
+        WatchedDirectory(final File dir) {
+            this.dir = dir;
+        }
+
+        void trackDeployed() {
+            final Map<File, FileState> tracked = new HashMap<File, FileState>();
+            for (String name : names) {
+                if (name.endsWith(DEPLOYED)) {
+                    final File marker = new File(dir, name);
+                    final File content = new File(dir, name.substring(0, name.length() - DEPLOYED.length()));
+                    // a state already tracked is compared by the next poll
+                    tracked.put(marker, deployed.containsKey(marker) ? deployed.get(marker) : new FileState(marker));
+                    tracked.put(content, deployed.containsKey(content) ? deployed.get(content) : new FileState(content));
+                }
+            }
+            deployed = tracked;
+        }
+
+        boolean deployedChanged() {
+            boolean changed = false;
+            for (Map.Entry<File, FileState> entry : deployed.entrySet()) {
+                final FileState state = new FileState(entry.getKey());
+                if (!state.equals(entry.getValue())) {
+                    entry.setValue(state);
+                    changed = true;
+                }
+            }
+            return changed;
+        }
+    }
+
+    /**
+     * The modification time and size of a file. A file rewritten within the granularity of the modification times
+     * usually changes size.
+     */
+    private static final class FileState {
+        private final long lastModified;
+        private final long length;
+
+        FileState(final File file) {
+            this.lastModified = file.lastModified();
+            this.length = file.length();
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (!(obj instanceof FileState)) {
+                return false;
+            }
+            final FileState other = (FileState) obj;
+            return lastModified == other.lastModified && length == other.length;
+        }
+
+        @Override
+        public int hashCode() {
+            return (int) (lastModified ^ length);
+        }
+    }
+}
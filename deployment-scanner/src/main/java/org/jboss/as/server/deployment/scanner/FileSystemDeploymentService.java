@@ -38,6 +38,7 @@ import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.regex.Pattern;
@@ -54,6 +55,7 @@ import org.jboss.as.server.deployment.DeploymentRemoveHandler;
 import org.jboss.as.server.deployment.DeploymentUndeployHandler;
 import org.jboss.as.server.deployment.scanner.ZipCompletionScanner.NonScannableZipException;
 import org.jboss.as.server.deployment.scanner.api.DeploymentScanner;
+import org.jboss.as.server.deployment.scanner.api.ScanMode;
 import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.Property;
 import org.jboss.msc.service.ServiceController;
@@ -109,6 +111,7 @@ class FileSystemDeploymentService implements DeploymentScanner {
 
     private File deploymentDir;
     private long scanInterval = 0;
+    private volatile ScanMode scanMode = ScanMode.POLL;
     private volatile boolean scanEnabled = false;
     private volatile boolean firstScan = true;
     private ScheduledFuture<?> scanTask;
@@ -122,6 +125,7 @@ class FileSystemDeploymentService implements DeploymentScanner {
     private final HashSet<String> prematureExplodedContentDeletionLogged = new HashSet<String>();
     private final HashSet<File> nonscannableLogged = new HashSet<File>();
     private final Map<File, IncompleteDeploymentStatus> incompleteDeployments = new HashMap<File, IncompleteDeploymentStatus>();
+    private final CompletionCheckCache completionChecks = new CompletionCheckCache();
 
     private final ScheduledExecutorService scheduledExecutor;
     private volatile DeploymentOperations.Factory deploymentOperationsFactory;
@@ -138,6 +142,10 @@ class FileSystemDeploymentService implements DeploymentScanner {
     private final String relativeTo;
     private final String relativePath;
 
+    private final AtomicLong scanCount = new AtomicLong();
+    private volatile long lastScanDuration;
+    private volatile long maxScanDuration;
+
     private class DeploymentScanRunnable implements Runnable {
 
         @Override
@@ -152,6 +160,27 @@ class FileSystemDeploymentService implements DeploymentScanner {
 
     private final DeploymentScanRunnable scanRunnable = new DeploymentScanRunnable();
 
+    private class DeploymentWatchRunnable implements Runnable {
+
+        /** Only accessed by the watch task, which never runs concurrently with itself */
+        private DirectoryWatcher watcher;
+
+        @Override
+        public void run() {
+            try {
+                if (watcher == null) {
+                    // pick up whatever changed while the directory was not watched, then only scan after a change
+                    watcher = new DirectoryWatcher(deploymentDir, ARCHIVE_PATTERN);
+                    scan(false, deploymentOperations);
+                } else if (watcher.poll()) {
+                    scan(false, deploymentOperations);
+                }
+            } catch (Exception e) {
+                ROOT_LOGGER.scanException(e, deploymentDir.getAbsolutePath());
+            }
+        }
+    }
+
     FileSystemDeploymentService(final String relativeTo, final File deploymentDir, final File relativeToDir,
                                 final DeploymentOperations.Factory deploymentOperationsFactory, final ScheduledExecutorService scheduledExecutor)
             throws OperationFailedException {
@@ -240,6 +269,44 @@ class FileSystemDeploymentService implements DeploymentScanner {
         startScan();
     }
 
+    ScanMode getScanMode() {
+        return scanMode;
+    }
+
+    /**
+     * Set how the scanner detects changes.
+     *
+     * @param scanMode the scan mode
+     */
+    synchronized void setScanMode(final ScanMode scanMode) {
+        if (scanMode != this.scanMode) {
+            cancelScan();
+            this.scanMode = scanMode;
+            startScan();
+        }
+    }
+
+    /**
+     * @return the number of scans performed since the scanner was created
+     */
+    long getScanCount() {
+        return scanCount.get();
+    }
+
+    /**
+     * @return the duration of the last scan in ms
+     */
+    long getLastScanDuration() {
+        return lastScanDuration;
+    }
+
+    /**
+     * @return the duration of the longest scan in ms
+     */
+    long getMaxScanDuration() {
+        return maxScanDuration;
+    }
+
     @Override
     public void setDeploymentTimeout(long deploymentTimeout) {
         this.deploymentTimeout = deploymentTimeout;
@@ -296,6 +363,13 @@ class FileSystemDeploymentService implements DeploymentScanner {
         this.maxNoProgress = max;
     }
 
+    /**
+     * Hook solely for unit test to check how often the completeness of auto-deploy content is verified
+     */
+    CompletionCheckCache getCompletionChecks() {
+        return completionChecks;
+    }
+
     private void establishDeployedContentList(File dir) {
         final Set<String> deploymentNames = deploymentOperations.getDeploymentNames();
         final File[] children = dir.listFiles();
@@ -351,12 +425,16 @@ class FileSystemDeploymentService implements DeploymentScanner {
         }
 
         boolean scheduleRescan = false;
+        long scanStart = 0;
         try {
             if (scanEnabled || oneOffScan) { // confirm the scan is still wanted
                 ROOT_LOGGER.tracef("Scanning directory %s for deployment content changes", deploymentDir.getAbsolutePath());
+                scanStart = System.nanoTime();
 
                 ScanContext scanContext = new ScanContext(deploymentOperations);
+                completionChecks.beginScan();
                 scanDirectory(deploymentDir, relativePath, scanContext);
+                completionChecks.endScan();
 
                 // WARN about markers with no associated content. Do this first in case any auto-deploy issue
                 // is due to a file that wasn't meant to be auto-deployed, but has a misspelled marker
@@ -394,7 +472,7 @@ class FileSystemDeploymentService implements DeploymentScanner {
                 // Deal with any incomplete or non-scannable auto-deploy content
                 ScanStatus status = handleAutoDeployFailures(scanContext);
                 if (status != ScanStatus.PROCEED) {
-                    if (status == ScanStatus.RETRY && scanInterval > 1000) {
+                    if (status == ScanStatus.RETRY && (scanInterval > 1000 || scanMode == ScanMode.WATCH)) {
                         // in finally block, schedule a non-repeating task to try again more quickly
                         scheduleRescan = true;
                     }
@@ -478,6 +556,10 @@ class FileSystemDeploymentService implements DeploymentScanner {
             }
         } finally {
 
+            if (scanStart != 0) {
+                recordScanDuration(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - scanStart));
+            }
+
             scanLock.unlock();
 
             if (scheduleRescan) {
@@ -640,7 +722,8 @@ class FileSystemDeploymentService implements DeploymentScanner {
 
     private boolean isXmlComplete(final File xmlFile) {
         try {
-            return XmlCompletionScanner.isCompleteDocument(xmlFile);
+            // parsing reads the whole document, so don't parse it again while it is still being written
+            return completionChecks.isComplete(xmlFile, XML_COMPLETION_CHECK, true);
         } catch (Exception e) {
             ROOT_LOGGER.failedCheckingXMLFile(e, xmlFile.getPath());
             return false;
@@ -680,7 +763,7 @@ class FileSystemDeploymentService implements DeploymentScanner {
             return true;
         } else if (isEEArchive(file.getName())) {
             try {
-                return ZipCompletionScanner.isCompleteZip(file);
+                return completionChecks.isComplete(file, ZIP_COMPLETION_CHECK, false);
             } catch (IOException e) {
                 ROOT_LOGGER.failedCheckingZipFile(e, file.getPath());
                 return false;
@@ -691,6 +774,20 @@ class FileSystemDeploymentService implements DeploymentScanner {
         }
     }
 
+    private static final CompletionCheckCache.CompletionCheck ZIP_COMPLETION_CHECK = new CompletionCheckCache.CompletionCheck() {
+        @Override
+        public boolean isComplete(final File file) throws IOException, NonScannableZipException {
+            return ZipCompletionScanner.isCompleteZip(file);
+        }
+    };
+
+    private static final CompletionCheckCache.CompletionCheck XML_COMPLETION_CHECK = new CompletionCheckCache.CompletionCheck() {
+        @Override
+        public boolean isComplete(final File file) throws IOException {
+            return XmlCompletionScanner.isCompleteDocument(file);
+        }
+    };
+
     private boolean isAutoDeployDisabled(File file) {
         final File parent = file.getParentFile();
         final String name = file.getName();
@@ -833,10 +930,22 @@ class FileSystemDeploymentService implements DeploymentScanner {
         return result;
     }
 
+    private void recordScanDuration(final long duration) {
+        scanCount.incrementAndGet();
+        lastScanDuration = duration;
+        if (duration > maxScanDuration) {
+            maxScanDuration = duration;
+        }
+    }
+
     private synchronized void startScan() {
         if (scanEnabled) {
             if (scanInterval > 0) {
-                scanTask = scheduledExecutor.scheduleWithFixedDelay(scanRunnable, 0, scanInterval, TimeUnit.MILLISECONDS);
+                if (scanMode == ScanMode.WATCH) {
+                    scanTask = scheduledExecutor.scheduleWithFixedDelay(new DeploymentWatchRunnable(), 0, scanInterval, TimeUnit.MILLISECONDS);
+                } else {
+                    scanTask = scheduledExecutor.scheduleWithFixedDelay(scanRunnable, 0, scanInterval, TimeUnit.MILLISECONDS);
+                }
             } else {
                 scanTask = scheduledExecutor.schedule(scanRunnable, scanInterval, TimeUnit.MILLISECONDS);
             }
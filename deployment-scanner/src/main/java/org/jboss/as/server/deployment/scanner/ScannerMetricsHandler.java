@@ -0,0 +1,91 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment.scanner;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+
+import org.jboss.as.controller.AttributeDefinition;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.OperationStepHandler;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+import org.jboss.msc.service.ServiceController;
+
+/**
+ * Reads the runtime metrics of a {@code FileSystemDeploymentService}.
+ */
+class ScannerMetricsHandler implements OperationStepHandler {
+
+    static final ScannerMetricsHandler INSTANCE = new ScannerMetricsHandler();
+
+    static final AttributeDefinition SCAN_COUNT =
+            new SimpleAttributeDefinitionBuilder(CommonAttributes.SCAN_COUNT, ModelType.LONG, true)
+                    .setStorageRuntime()
+                    .build();
+    static final AttributeDefinition LAST_SCAN_DURATION =
+            new SimpleAttributeDefinitionBuilder(CommonAttributes.LAST_SCAN_DURATION, ModelType.LONG, true)
+                    .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+                    .setStorageRuntime()
+                    .build();
+    static final AttributeDefinition MAX_SCAN_DURATION =
+            new SimpleAttributeDefinitionBuilder(CommonAttributes.MAX_SCAN_DURATION, ModelType.LONG, true)
+                    .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+                    .setStorageRuntime()
+                    .build();
+
+    static final AttributeDefinition[] METRICS = {SCAN_COUNT, LAST_SCAN_DURATION, MAX_SCAN_DURATION};
+
+    private ScannerMetricsHandler() {
+    }
+
+    @Override
+    public void execute(final OperationContext context, final ModelNode operation) throws OperationFailedException {
+        final String scannerName = PathAddress.pathAddress(operation.require(OP_ADDR)).getLastElement().getValue();
+        final String attributeName = operation.require(NAME).asString();
+
+        context.addStep(new OperationStepHandler() {
+            @Override
+            public void execute(final OperationContext context, final ModelNode operation) throws OperationFailedException {
+                final ServiceController<?> controller = context.getServiceRegistry(false).getService(DeploymentScannerService.getServiceName(scannerName));
+                if (controller != null && controller.getState() == ServiceController.State.UP) {
+                    final FileSystemDeploymentService scanner = (FileSystemDeploymentService) controller.getValue();
+                    final ModelNode result = context.getResult();
+                    if (CommonAttributes.SCAN_COUNT.equals(attributeName)) {
+                        result.set(scanner.getScanCount());
+                    } else if (CommonAttributes.LAST_SCAN_DURATION.equals(attributeName)) {
+                        result.set(scanner.getLastScanDuration());
+                    } else if (CommonAttributes.MAX_SCAN_DURATION.equals(attributeName)) {
+                        result.set(scanner.getMaxScanDuration());
+                    }
+                }
+                context.completeStep();
+            }
+        }, OperationContext.Stage.RUNTIME);
+        context.completeStep();
+    }
+}
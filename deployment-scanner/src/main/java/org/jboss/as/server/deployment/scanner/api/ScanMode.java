@@ -0,0 +1,72 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment.scanner.api;
+
+import static org.jboss.as.server.deployment.scanner.DeploymentScannerMessages.MESSAGES;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * How a deployment scanner detects changes in its directory.
+ */
+public enum ScanMode {
+    /** Scan the directory every {@code scan-interval} milliseconds */
+    POLL("poll"),
+    /** Check the directory for changes every {@code scan-interval} milliseconds and only scan it after a change */
+    WATCH("watch");
+
+    private final String name;
+
+    ScanMode(final String name) {
+        this.name = name;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+
+    private static final Map<String, ScanMode> MAP;
+
+    static {
+        final Map<String, ScanMode> map = new HashMap<String, ScanMode>();
+        for (ScanMode mode : values()) {
+            map.put(mode.name, mode);
+        }
+        MAP = map;
+    }
+
+    /**
+     * @param name the name of the mode
+     * @return the mode with the given name
+     * @throws IllegalArgumentException if the name is unknown
+     */
+    public static ScanMode forName(final String name) {
+        final ScanMode mode = MAP.get(name);
+        if (mode == null) {
+            throw MESSAGES.unknownScanMode(name);
+        }
+        return mode;
+    }
+}
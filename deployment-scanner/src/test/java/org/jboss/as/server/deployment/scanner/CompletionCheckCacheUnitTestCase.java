@@ -0,0 +1,219 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment.scanner;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import junit.framework.Assert;
+
+import org.jboss.as.server.deployment.scanner.ZipCompletionScanner.NonScannableZipException;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link CompletionCheckCache}. The slow writers are simulated by appending a chunk of the content
+ * to the file between two scans.
+ */
+public class CompletionCheckCacheUnitTestCase {
+
+    private static final int CHUNK_SIZE = 64;
+
+    private static AutoDeployTestSupport testSupport;
+
+    private CompletionCheckCache cache;
+
+    @BeforeClass
+    public static void setupClass() {
+        testSupport = new AutoDeployTestSupport(CompletionCheckCacheUnitTestCase.class.getSimpleName());
+    }
+
+    @AfterClass
+    public static void teardownClass() {
+        if (testSupport != null) {
+            testSupport.cleanupFiles();
+        }
+    }
+
+    @Before
+    public void setUp() {
+        cache = new CompletionCheckCache();
+    }
+
+    @After
+    public void tearDown() {
+        testSupport.cleanupChannels();
+    }
+
+    @Test
+    public void testSlowZipWriter() throws Exception {
+        final byte[] content = read(testSupport.getBasicWar());
+        final File file = testSupport.getFile("slow.war");
+        final CountingCheck check = new CountingCheck(true);
+
+        int written = 0;
+        int scans = 0;
+        while (written < content.length) {
+            written = Math.min(content.length, written + CHUNK_SIZE);
+            write(file, content, written);
+            final boolean complete = scan(file, check, false);
+            scans++;
+            Assert.assertEquals("complete after " + written + " of " + content.length + " bytes", written == content.length, complete);
+        }
+        // a zip check only reads the end of the file, it runs on every scan that sees a change
+        Assert.assertEquals(scans, check.count);
+
+        // the complete file is not read again
+        Assert.assertTrue(scan(file, check, false));
+        Assert.assertEquals(scans, check.count);
+        Assert.assertEquals(1, cache.getHitCount());
+    }
+
+    @Test
+    public void testSlowXmlWriter() throws Exception {
+        final byte[] content = "<deployment><element attribute=\"value\">text</element><element/><element/></deployment>".getBytes("UTF-8");
+        final File file = testSupport.getFile("slow.xml");
+        final CountingCheck check = new CountingCheck(false);
+
+        int written = 0;
+        while (written < content.length) {
+            written = Math.min(content.length, written + 16);
+            write(file, content, written);
+            Assert.assertFalse(scan(file, check, true));
+        }
+        // only the first scan parsed the document, the following ones saw it still changing
+        Assert.assertEquals(1, check.count);
+        Assert.assertTrue(cache.getDeferredCount() > 0);
+
+        // the writer is done, the document is parsed once it was stable for a scan
+        Assert.assertTrue(scan(file, check, true));
+        Assert.assertEquals(2, check.count);
+        Assert.assertTrue(scan(file, check, true));
+        Assert.assertEquals(2, check.count);
+    }
+
+    @Test
+    public void testStalledWriter() throws Exception {
+        final byte[] content = read(testSupport.getBasicWar());
+        final File file = testSupport.getFile("stalled.war");
+        final CountingCheck check = new CountingCheck(true);
+        write(file, content, content.length / 2);
+
+        for (int i = 0; i < 5; i++) {
+            Assert.assertFalse(scan(file, check, false));
+        }
+        Assert.assertEquals(1, check.count);
+        Assert.assertEquals(4, cache.getHitCount());
+
+        write(file, content, content.length);
+        Assert.assertTrue(scan(file, check, false));
+        Assert.assertEquals(2, check.count);
+    }
+
+    @Test
+    public void testUncheckedFilesDiscarded() throws Exception {
+        final File file = testSupport.getFile("discarded.war");
+        final byte[] content = read(testSupport.getBasicWar());
+        write(file, content, content.length);
+        final CountingCheck check = new CountingCheck(true);
+
+        Assert.assertTrue(scan(file, check, false));
+        cache.beginScan();
+        cache.endScan();
+        Assert.assertTrue(scan(file, check, false));
+        Assert.assertEquals(2, check.count);
+    }
+
+    @Test
+    public void testNonScannableCached() throws Exception {
+        final File file = testSupport.getFile("nonscannable.war");
+        testSupport.createZip(file, 1, false, true, true, false);
+        final CountingCheck check = new CountingCheck(true);
+
+        for (int i = 0; i < 2; i++) {
+            try {
+                scan(file, check, false);
+                Assert.fail("NonScannableZipException expected");
+            } catch (NonScannableZipException expected) {
+                // expected
+            }
+        }
+        Assert.assertEquals(1, check.count);
+    }
+
+    private boolean scan(final File file, final CompletionCheckCache.CompletionCheck check, final boolean deferWhileChanging) throws Exception {
+        cache.beginScan();
+        try {
+            return cache.isComplete(file, check, deferWhileChanging);
+        } finally {
+            cache.endScan();
+        }
+    }
+
+    private static byte[] read(final File file) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final InputStream in = new FileInputStream(file);
+        try {
+            final byte[] buffer = new byte[1024];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+        } finally {
+            in.close();
+        }
+        return out.toByteArray();
+    }
+
+    private static void write(final File file, final byte[] content, final int length) throws IOException {
+        final OutputStream out = new FileOutputStream(file);
+        try {
+            out.write(content, 0, length);
+        } finally {
+            out.close();
+        }
+    }
+
+    private static class CountingCheck implements CompletionCheckCache.CompletionCheck {
+        private final boolean zip;
+        private int count;
+
+        CountingCheck(final boolean zip) {
+            this.zip = zip;
+        }
+
+        @Override
+        public boolean isComplete(final File file) throws IOException, NonScannableZipException {
+            count++;
+            return zip ? ZipCompletionScanner.isCompleteZip(file) : XmlCompletionScanner.isCompleteDocument(file);
+        }
+    }
+}
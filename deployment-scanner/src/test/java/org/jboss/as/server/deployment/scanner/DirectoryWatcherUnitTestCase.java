@@ -0,0 +1,181 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment.scanner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.regex.Pattern;
+
+import org.jboss.as.server.deployment.scanner.api.ScanMode;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Unit tests of {@link DirectoryWatcher}.
+ */
+public class DirectoryWatcherUnitTestCase {
+
+    private static AutoDeployTestSupport testSupport;
+    private File tmpDir;
+    private DirectoryWatcher watcher;
+
+    @BeforeClass
+    public static void createTestSupport() throws Exception {
+        testSupport = new AutoDeployTestSupport(DirectoryWatcherUnitTestCase.class.getSimpleName());
+    }
+
+    @AfterClass
+    public static void cleanup() throws Exception {
+        if (testSupport != null) {
+            testSupport.cleanupFiles();
+        }
+    }
+
+    @Before
+    public void setup() throws Exception {
+        tmpDir = new File(testSupport.getTempDir(), String.valueOf(System.nanoTime()));
+        if (!tmpDir.mkdirs()) {
+            throw new RuntimeException("cannot create tmpDir");
+        }
+        watcher = new DirectoryWatcher(tmpDir, Pattern.compile("^.*\\.war$"));
+    }
+
+    @Test
+    public void testNoChange() throws Exception {
+        assertFalse(watcher.poll());
+    }
+
+    @Test
+    public void testFileAdded() throws Exception {
+        createFile(tmpDir, "foo.war", 1);
+        assertTrue(watcher.poll());
+        assertFalse(watcher.poll());
+    }
+
+    @Test
+    public void testDeployedContentModified() throws Exception {
+        final File war = createFile(tmpDir, "foo.war", 1);
+        final File deployed = createFile(tmpDir, "foo.war" + FileSystemDeploymentService.DEPLOYED, 0);
+        assertTrue(watcher.poll());
+        assertFalse(watcher.poll());
+
+        // replaced in place, which does not change the directory
+        createFile(tmpDir, "foo.war", 2);
+        assertTrue(war.setLastModified(war.lastModified() + 10000));
+        assertTrue(watcher.poll());
+        assertFalse(watcher.poll());
+
+        // touching the marker redeploys the content
+        assertTrue(deployed.setLastModified(deployed.lastModified() + 10000));
+        assertTrue(watcher.poll());
+        assertFalse(watcher.poll());
+
+        assertTrue(war.delete());
+        assertTrue(watcher.poll());
+    }
+
+    @Test
+    public void testNewDirectoryIsWatched() throws Exception {
+        final File dir = new File(tmpDir, "sub");
+        if (!dir.mkdir()) {
+            throw new RuntimeException("cannot create " + dir);
+        }
+        assertTrue(watcher.poll());
+        assertEquals(2, watcher.getWatchedDirectoryCount());
+
+        createFile(dir, "foo.war", 1);
+        assertTrue(watcher.poll());
+        assertFalse(watcher.poll());
+
+        assertTrue(new File(dir, "foo.war").delete());
+        assertTrue(dir.delete());
+        assertTrue(watcher.poll());
+        assertEquals(1, watcher.getWatchedDirectoryCount());
+    }
+
+    @Test
+    public void testExplodedDeploymentIsNotWatched() throws Exception {
+        final File dir = new File(tmpDir, "foo.war");
+        if (!dir.mkdir()) {
+            throw new RuntimeException("cannot create " + dir);
+        }
+        assertTrue(watcher.poll());
+        assertEquals(1, watcher.getWatchedDirectoryCount());
+
+        createFile(dir, "index.html", 1);
+        assertFalse(watcher.poll());
+
+        createFile(tmpDir, "foo.war" + FileSystemDeploymentService.DO_DEPLOY, 0);
+        assertTrue(watcher.poll());
+    }
+
+    @Test
+    public void testScannerMarkersIgnored() throws Exception {
+        createFile(tmpDir, "foo.war", 1);
+        final File dodeploy = createFile(tmpDir, "foo.war" + FileSystemDeploymentService.DO_DEPLOY, 0);
+        assertTrue(watcher.poll());
+
+        // what the scanner does to deploy foo.war
+        final File deploying = createFile(tmpDir, "foo.war" + FileSystemDeploymentService.DEPLOYING, 0);
+        assertTrue(dodeploy.delete());
+        assertTrue(deploying.delete());
+        createFile(tmpDir, "foo.war" + FileSystemDeploymentService.DEPLOYED, 0);
+        createFile(tmpDir, "bar.war" + FileSystemDeploymentService.FAILED_DEPLOY, 0);
+        createFile(tmpDir, "bar.war" + FileSystemDeploymentService.PENDING, 0);
+        assertFalse(watcher.poll());
+    }
+
+    @Test
+    public void testUndeployMarkerRemovalDetected() throws Exception {
+        final File deployed = createFile(tmpDir, "foo.war" + FileSystemDeploymentService.DEPLOYED, 0);
+        watcher.poll();
+
+        assertTrue(deployed.delete());
+        assertTrue(watcher.poll());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownScanMode() {
+        ScanMode.forName("inotify");
+    }
+
+    private static File createFile(final File dir, final String name, final int size) throws IOException {
+        final File file = new File(dir, name);
+        final FileOutputStream fos = new FileOutputStream(file);
+        try {
+            for (int i = 0; i < size; i++) {
+                fos.write(i);
+            }
+        } finally {
+            fos.close();
+        }
+        return file;
+    }
+}
@@ -138,6 +138,16 @@ public class FileSystemDeploymentServiceUnitTestCase {
         assertTrue(deployed.exists());
     }
 
+    @Test
+    public void testScanMetrics() throws Exception {
+        TesteeSet ts = createTestee();
+        assertEquals(0, ts.testee.getScanCount());
+        ts.testee.scan();
+        ts.testee.scan();
+        assertEquals(2, ts.testee.getScanCount());
+        assertTrue(ts.testee.getMaxScanDuration() >= ts.testee.getLastScanDuration());
+    }
+
     @Test
     public void testBasicXmlDeploy() throws Exception {
         File xml = createXmlFile("foo.xml", "<rootElement/>");
@@ -49,15 +49,21 @@ public interface Constants {
      */
 
     String ACCEPT = "Accept";
+    String ACCEPT_ENCODING = "Accept-Encoding";
     String AUTHORIZATION_HEADER = "Authorization";
+    String CACHE_CONTROL = "Cache-Control";
     String CONTENT_DISPOSITION = "Content-Disposition";
+    String CONTENT_ENCODING = "Content-Encoding";
     String CONTENT_TYPE = "Content-Type";
+    String ETAG = "ETag";
     String HOST = "Host";
+    String IF_NONE_MATCH = "If-None-Match";
     String LOCATION = "Location";
     String ORIGIN = "Origin";
     String REFERER = "Referer";
     String RETRY_AFTER = "Retry-After";
     String USER_AGENT = "User-Agent";
+    String VARY = "Vary";
     String VIA = "Via";
     String WWW_AUTHENTICATE_HEADER = "WWW-Authenticate";
 
@@ -75,6 +81,12 @@ public interface Constants {
     String TEXT_CSS = "text/css";
     String TEXT_HTML = "text/html";
 
+    /*
+     * Content Codings
+     */
+
+    String GZIP = "gzip";
+
     /*
      * Charsets
      */
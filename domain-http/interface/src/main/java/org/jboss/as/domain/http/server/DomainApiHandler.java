@@ -48,11 +48,13 @@ import static org.jboss.as.domain.http.server.Constants.US_ASCII;
 import static org.jboss.as.domain.http.server.Constants.UTF_8;
 import static org.jboss.as.domain.http.server.HttpServerLogger.ROOT_LOGGER;
 import static org.jboss.as.domain.http.server.HttpServerMessages.MESSAGES;
+import static org.jboss.as.domain.http.server.DomainUtil.openResponseBody;
 import static org.jboss.as.domain.http.server.DomainUtil.writeResponse;
 import static org.jboss.as.domain.http.server.DomainUtil.safeClose;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.PrintWriter;
 import java.io.UnsupportedEncodingException;
 import java.net.URI;
@@ -316,6 +318,12 @@ class DomainApiHandler implements ManagementHttpHandler {
             return;
         }
 
+        boolean pretty = dmr.hasDefined("json.pretty") && dmr.get("json.pretty").asBoolean();
+        if (isGet && ResourceTreeWriter.isStreamable(dmr, encode)) {
+            streamResourceTree(http, dmr, pretty);
+            return;
+        }
+
         try {
             response = modelController.execute(new OperationBuilder(dmr).build());
         } catch (Throwable t) {
@@ -328,10 +336,44 @@ class DomainApiHandler implements ManagementHttpHandler {
             status = INTERNAL_SERVER_ERROR;
         }
 
-        boolean pretty = dmr.hasDefined("json.pretty") && dmr.get("json.pretty").asBoolean();
         writeResponse(http, isGet, pretty, response, status, encode);
     }
 
+    /**
+     * Handles a recursive read request by writing the resources of the tree one at a time, see
+     * {@link ResourceTreeWriter}. Such a response has no entity tag as it is not known before the tree is written.
+     *
+     * @param http The HttpExchange object that allows access to the request and response.
+     * @param dmr The read request.
+     * @param pretty Flag indicating whether or not the output should be pretty printed.
+     * @throws IOException if an error occurs while attempting to send the response headers.
+     */
+    private void streamResourceTree(final HttpExchange http, final ModelNode dmr, final boolean pretty) throws IOException {
+        final ResourceTreeWriter treeWriter = new ResourceTreeWriter(modelController, dmr, pretty);
+        final ModelNode failure;
+        try {
+            failure = treeWriter.readRoot();
+        } catch (Throwable t) {
+            ROOT_LOGGER.modelRequestError(t);
+            sendError(http, true, t);
+            return;
+        }
+        if (failure != null) {
+            writeResponse(http, true, pretty, failure, INTERNAL_SERVER_ERROR, false);
+            return;
+        }
+
+        final OutputStream out = openResponseBody(http, OK, APPLICATION_JSON);
+        try {
+            treeWriter.write(out);
+        } catch (IOException e) {
+            // the status has already been sent, all that can be done is to cut the response short
+            ROOT_LOGGER.modelRequestError(e);
+        } finally {
+            safeClose(out);
+        }
+    }
+
     private void sendError(final HttpExchange http, boolean isGet, Throwable t) throws IOException {
         ModelNode response = new ModelNode();
         response.set(t.getMessage());
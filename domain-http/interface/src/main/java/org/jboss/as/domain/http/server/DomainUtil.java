@@ -22,18 +22,32 @@
 
 package org.jboss.as.domain.http.server;
 
+import static org.jboss.as.domain.http.server.Constants.ACCEPT_ENCODING;
 import static org.jboss.as.domain.http.server.Constants.APPLICATION_DMR_ENCODED;
 import static org.jboss.as.domain.http.server.Constants.APPLICATION_JSON;
+import static org.jboss.as.domain.http.server.Constants.CACHE_CONTROL;
+import static org.jboss.as.domain.http.server.Constants.CONTENT_ENCODING;
 import static org.jboss.as.domain.http.server.Constants.CONTENT_TYPE;
+import static org.jboss.as.domain.http.server.Constants.ETAG;
+import static org.jboss.as.domain.http.server.Constants.GZIP;
 import static org.jboss.as.domain.http.server.Constants.HOST;
 import static org.jboss.as.domain.http.server.Constants.HTTP;
 import static org.jboss.as.domain.http.server.Constants.HTTPS;
+import static org.jboss.as.domain.http.server.Constants.IF_NONE_MATCH;
+import static org.jboss.as.domain.http.server.Constants.NOT_MODIFIED;
 import static org.jboss.as.domain.http.server.Constants.OK;
+import static org.jboss.as.domain.http.server.Constants.VARY;
 
 import java.io.Closeable;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.PrintWriter;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
 
 import org.jboss.com.sun.net.httpserver.Headers;
 import org.jboss.com.sun.net.httpserver.HttpExchange;
@@ -47,12 +61,30 @@ import org.jboss.dmr.ModelNode;
  */
 class DomainUtil {
 
+    private static final char[] HEX_CHARS = "0123456789abcdef".toCharArray();
+
+    private static final OutputStream NULL_OUTPUT_STREAM = new OutputStream() {
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+    };
+
     // Prevent Instantiation
     private DomainUtil() {
     }
 
     /**
      * Writes the HTTP response to the output stream.
+     * <p/>
+     * The payload is compressed if the client accepts a gzip content coding. A successful GET response carries an
+     * entity tag derived from its content; if the request already holds that tag in its {@code If-None-Match} header
+     * a {@code 304 Not Modified} response without payload is sent instead, with the same {@code ETag},
+     * {@code Cache-Control} and {@code Vary} headers as the full response. The operation has been executed either way,
+     * the entity tag only saves sending the payload.
      *
      * @param http The HttpExchange object that allows access to the request and response.
      * @param isGet Flag indicating whether or not the request was a GET request or POST request.
@@ -64,17 +96,27 @@ class DomainUtil {
      */
     static void writeResponse(final HttpExchange http, boolean isGet, boolean pretty, ModelNode response, int status,
             boolean encode, String contentType) throws IOException {
+        final Headers requestHeaders = http.getRequestHeaders();
         final Headers responseHeaders = http.getResponseHeaders();
-        responseHeaders.add(CONTENT_TYPE, contentType);
-        http.sendResponseHeaders(status, 0);
 
         // GET (read) operations will never have a compensating update, and the status is already
         // available via the http response status code, so unwrap them.
         if (isGet && status == OK) {
             response = response.get("result");
+
+            final String entityTag = calculateEntityTag(response, pretty, encode);
+            responseHeaders.add(ETAG, entityTag);
+            // The model may change at any time, make sure cached responses are always revalidated
+            responseHeaders.add(CACHE_CONTROL, "no-cache");
+            if (matchesEntityTag(requestHeaders.get(IF_NONE_MATCH), entityTag)) {
+                // caches select the stored response to revalidate by the headers the full response varies on
+                responseHeaders.add(VARY, ACCEPT_ENCODING);
+                http.sendResponseHeaders(NOT_MODIFIED, -1);
+                return;
+            }
         }
 
-        final OutputStream out = http.getResponseBody();
+        final OutputStream out = openResponseBody(http, status, contentType);
         final PrintWriter print = new PrintWriter(out);
 
         try {
@@ -91,6 +133,29 @@ class DomainUtil {
         }
     }
 
+    /**
+     * Sends the response headers and opens the body of the response. The body is sent with the chunked transfer
+     * encoding, compressed if the client accepts a gzip content coding.
+     *
+     * @param http The HttpExchange object that allows access to the request and response.
+     * @param status The HTTP status code to be included in the response.
+     * @param contentType The content type of the response.
+     * @return the stream to write the body to, to be closed once the body is written.
+     * @throws IOException if an error occurs while sending the response headers.
+     */
+    static OutputStream openResponseBody(final HttpExchange http, int status, String contentType) throws IOException {
+        final Headers responseHeaders = http.getResponseHeaders();
+        final boolean gzip = acceptsGzip(http.getRequestHeaders().get(ACCEPT_ENCODING));
+        responseHeaders.add(CONTENT_TYPE, contentType);
+        responseHeaders.add(VARY, ACCEPT_ENCODING);
+        if (gzip) {
+            responseHeaders.add(CONTENT_ENCODING, GZIP);
+        }
+        http.sendResponseHeaders(status, 0);
+
+        return gzip ? new GZIPOutputStream(http.getResponseBody(), 8192) : http.getResponseBody();
+    }
+
     static void writeResponse(final HttpExchange http, boolean isGet, boolean pretty, ModelNode response, int status,
             boolean encode) throws IOException {
          String contentType = encode ? APPLICATION_DMR_ENCODED : APPLICATION_JSON;
@@ -104,6 +169,99 @@ class DomainUtil {
         }
     }
 
+    /**
+     * Calculate the entity tag of a response. The tag is a digest of the binary form of the response, which is much
+     * cheaper to produce than its JSON form, and of the flags selecting the representation sent to the client. The tag
+     * is weak as the same tag is used whether or not the payload is compressed.
+     *
+     * @param response the response to send
+     * @param pretty whether the JSON output is pretty printed
+     * @param encode whether the response is Base64 encoded
+     * @return the quoted entity tag
+     * @throws IOException if the response cannot be written
+     */
+    static String calculateEntityTag(final ModelNode response, final boolean pretty, final boolean encode) throws IOException {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        digest.update((byte) (pretty ? 1 : 0));
+        digest.update((byte) (encode ? 1 : 0));
+        response.writeExternal(new DigestOutputStream(NULL_OUTPUT_STREAM, digest));
+
+        final StringBuilder sb = new StringBuilder("W/\"");
+        for (byte b : digest.digest()) {
+            sb.append(HEX_CHARS[(b >> 4) & 0xf]).append(HEX_CHARS[b & 0xf]);
+        }
+        return sb.append('"').toString();
+    }
+
+    /**
+     * Check whether any of the entity tags of an {@code If-None-Match} request header matches the given tag, using the
+     * weak comparison function as required for conditional GET requests.
+     *
+     * @param values the values of the request header, may be {@code null}
+     * @param entityTag the entity tag of the current response
+     * @return {@code true} if the client already holds the current response
+     */
+    static boolean matchesEntityTag(final List<String> values, final String entityTag) {
+        if (values == null) {
+            return false;
+        }
+        final String opaqueTag = stripWeakPrefix(entityTag);
+        for (String value : values) {
+            for (String tag : value.split(",")) {
+                tag = tag.trim();
+                if ("*".equals(tag) || opaqueTag.equals(stripWeakPrefix(tag))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Check whether an {@code Accept-Encoding} request header allows a gzip compressed response.
+     *
+     * @param values the values of the request header, may be {@code null}
+     * @return {@code true} if the response can be compressed
+     */
+    static boolean acceptsGzip(final List<String> values) {
+        if (values == null) {
+            return false;
+        }
+        for (String value : values) {
+            for (String coding : value.split(",")) {
+                final String[] parts = coding.split(";");
+                final String name = parts[0].trim().toLowerCase(Locale.ENGLISH);
+                if (GZIP.equals(name) || "x-gzip".equals(name)) {
+                    return !isZeroQuality(parts);
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean isZeroQuality(final String[] parameters) {
+        for (int i = 1; i < parameters.length; i++) {
+            final String parameter = parameters[i].trim();
+            if (parameter.startsWith("q=")) {
+                try {
+                    return Float.parseFloat(parameter.substring(2)) == 0;
+                } catch (NumberFormatException e) {
+                    return false;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static String stripWeakPrefix(final String entityTag) {
+        return entityTag.startsWith("W/") ? entityTag.substring(2) : entityTag;
+    }
+
     /**
      * Based on the current request represented by the HttpExchange construct a complete URL for the supplied path.
      *
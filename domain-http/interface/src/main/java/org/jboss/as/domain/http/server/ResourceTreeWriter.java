@@ -0,0 +1,267 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.domain.http.server;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ATTRIBUTES_ONLY;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.INCLUDE_DEFAULTS;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.INCLUDE_RUNTIME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OUTCOME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.PROXIES;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_CHILDREN_TYPES_OPERATION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_RESOURCE_OPERATION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RECURSIVE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RECURSIVE_DEPTH;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RESULT;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUCCESS;
+import static org.jboss.as.domain.http.server.Constants.UTF_8;
+import static org.jboss.as.domain.http.server.HttpServerLogger.ROOT_LOGGER;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.jboss.as.controller.client.ModelControllerClient;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+
+/**
+ * Writes the result of a recursive {@code read-resource} request as JSON, one resource at a time.
+ * <p/>
+ * A recursive {@code read-resource} operation builds the complete tree of the addressed resources in memory before
+ * anything can be sent to the client. This writer instead reads every resource of the tree on its own, without its
+ * children, and writes it to the response as soon as it is read, before moving on to its children. Only the resources
+ * on the path from the addressed resource to the one being written, with the names of their children, are held in
+ * memory at any time, and the written part of the document is flushed to the chunked response as the buffer fills up.
+ * <p/>
+ * The document parses to the same model as the result of the recursive operation, but it is not an atomic snapshot
+ * of the model: a resource added while the tree is written may or may not be part of it, and a resource removed
+ * before it could be read is left out.
+ */
+class ResourceTreeWriter {
+
+    /** The request parameter selecting the streaming of a recursive read */
+    static final String JSON_STREAM = "json.stream";
+
+    private static final String[] READ_PARAMETERS = {INCLUDE_RUNTIME, INCLUDE_DEFAULTS, PROXIES};
+    private static final String INDENT = "    ";
+
+    private final ModelControllerClient client;
+    private final ModelNode address;
+    private final ModelNode readResource;
+    private final int maxDepth;
+    private final boolean pretty;
+
+    private ModelNode rootResource;
+    private Set<String> rootChildTypes;
+
+    ResourceTreeWriter(final ModelControllerClient client, final ModelNode operation, final boolean pretty) {
+        this.client = client;
+        this.address = operation.get(OP_ADDR).clone();
+        this.maxDepth = operation.hasDefined(RECURSIVE_DEPTH) ? operation.get(RECURSIVE_DEPTH).asInt() : -1;
+        this.pretty = pretty;
+        final ModelNode readResource = new ModelNode();
+        readResource.get(OP).set(READ_RESOURCE_OPERATION);
+        readResource.get(RECURSIVE).set(false);
+        for (String parameter : READ_PARAMETERS) {
+            if (operation.hasDefined(parameter)) {
+                readResource.get(parameter).set(operation.get(parameter));
+            }
+        }
+        this.readResource = readResource;
+    }
+
+    /**
+     * Check whether a request can be answered with this writer.
+     *
+     * @param operation the operation of the request
+     * @param encode whether the response has to be Base64 encoded rather than JSON
+     * @return {@code true} if the request asked for a streamed recursive read
+     */
+    static boolean isStreamable(final ModelNode operation, final boolean encode) {
+        return !encode
+                && operation.hasDefined(JSON_STREAM) && operation.get(JSON_STREAM).asBoolean()
+                && READ_RESOURCE_OPERATION.equals(operation.get(OP).asString())
+                && operation.hasDefined(RECURSIVE) && operation.get(RECURSIVE).asBoolean()
+                && !(operation.hasDefined(ATTRIBUTES_ONLY) && operation.get(ATTRIBUTES_ONLY).asBoolean());
+    }
+
+    /**
+     * Read the addressed resource, without its children. This must be done before the response headers are sent, so
+     * that a failure can still be reported with the appropriate status.
+     *
+     * @return {@code null} if the resource was read, the failed response otherwise
+     * @throws IOException if the operation could not be executed
+     */
+    ModelNode readRoot() throws IOException {
+        final ModelNode response = client.execute(getReadOperation(READ_RESOURCE_OPERATION, address));
+        if (!SUCCESS.equals(response.get(OUTCOME).asString())) {
+            return response;
+        }
+        final ModelNode childTypes = client.execute(getReadOperation(READ_CHILDREN_TYPES_OPERATION, address));
+        if (!SUCCESS.equals(childTypes.get(OUTCOME).asString())) {
+            return childTypes;
+        }
+        rootResource = response.get(RESULT);
+        rootChildTypes = toSet(childTypes.get(RESULT));
+        return null;
+    }
+
+    /**
+     * Write the tree of the resource read by {@link #readRoot()}, reading its descendants one at a time.
+     *
+     * @param out the body of the response, which is closed once the tree is written
+     * @throws IOException if the resources could not be read
+     */
+    void write(final OutputStream out) throws IOException {
+        final PrintWriter writer = new PrintWriter(new BufferedWriter(new OutputStreamWriter(out, UTF_8), 8192));
+        try {
+            writeResource(writer, address, rootResource, rootChildTypes, 0);
+            if (writer.checkError()) {
+                // the client went away, there is nobody left to report it to
+                ROOT_LOGGER.debugf("Failed to write the tree of resource %s", address);
+            }
+        } finally {
+            writer.close();
+        }
+    }
+
+    private void writeResource(final PrintWriter writer, final ModelNode address, final ModelNode resource,
+                               final Set<String> childTypes, final int depth) throws IOException {
+        final int indent = depth * 2;
+        if (resource.getType() != ModelType.OBJECT) {
+            writeValue(writer, resource, indent);
+            return;
+        }
+        final boolean expand = maxDepth < 0 || depth < maxDepth;
+        writer.write('{');
+        boolean first = true;
+        for (String key : resource.keys()) {
+            first = writeName(writer, key, first, indent + 1);
+            final ModelNode value = resource.get(key);
+            if (expand && childTypes.contains(key) && value.getType() == ModelType.OBJECT) {
+                writeChildren(writer, address, key, value, depth);
+            } else {
+                writeValue(writer, value, indent + 1);
+            }
+        }
+        endObject(writer, first, indent);
+    }
+
+    private void writeChildren(final PrintWriter writer, final ModelNode address, final String type,
+                               final ModelNode children, final int depth) throws IOException {
+        final int indent = depth * 2 + 1;
+        writer.write('{');
+        boolean first = true;
+        for (String name : children.keys()) {
+            final ModelNode childAddress = address.clone().add(type, name);
+            final ModelNode response = client.execute(getReadOperation(READ_RESOURCE_OPERATION, childAddress));
+            final Set<String> childTypes = SUCCESS.equals(response.get(OUTCOME).asString()) ? readChildTypes(childAddress) : null;
+            if (childTypes != null) {
+                first = writeName(writer, name, first, indent + 1);
+                writeResource(writer, childAddress, response.get(RESULT), childTypes, depth + 1);
+            }
+            // else removed since its parent was read
+        }
+        endObject(writer, first, indent);
+    }
+
+    private boolean writeName(final PrintWriter writer, final String name, final boolean first, final int indent) {
+        if (!first) {
+            writer.write(',');
+            if (!pretty) {
+                writer.write(' ');
+            }
+        }
+        newLine(writer, indent);
+        // reuse the escaping of the model
+        new ModelNode().set(name).writeJSONString(writer, true);
+        writer.write(" : ");
+        return false;
+    }
+
+    private void writeValue(final PrintWriter writer, final ModelNode value, final int indent) {
+        if (!pretty) {
+            value.writeJSONString(writer, true);
+            return;
+        }
+        // line breaks only occur between the tokens of the JSON form, so it can be indented at each of them
+        final String json = value.toJSONString(false);
+        final StringBuilder prefix = new StringBuilder("\n");
+        for (int i = 0; i < indent; i++) {
+            prefix.append(INDENT);
+        }
+        writer.write(json.replace("\n", prefix));
+    }
+
+    private void endObject(final PrintWriter writer, final boolean empty, final int indent) {
+        if (!empty) {
+            newLine(writer, indent);
+        }
+        writer.write('}');
+    }
+
+    private void newLine(final PrintWriter writer, final int indent) {
+        if (pretty) {
+            writer.write('\n');
+            for (int i = 0; i < indent; i++) {
+                writer.write(INDENT);
+            }
+        }
+    }
+
+    private Set<String> readChildTypes(final ModelNode address) throws IOException {
+        final ModelNode response = client.execute(getReadOperation(READ_CHILDREN_TYPES_OPERATION, address));
+        if (!SUCCESS.equals(response.get(OUTCOME).asString())) {
+            return null;
+        }
+        return toSet(response.get(RESULT));
+    }
+
+    private static Set<String> toSet(final ModelNode list) {
+        final Set<String> set = new HashSet<String>();
+        if (list.isDefined()) {
+            for (ModelNode element : list.asList()) {
+                set.add(element.asString());
+            }
+        }
+        return set;
+    }
+
+    private ModelNode getReadOperation(final String name, final ModelNode address) {
+        final ModelNode operation;
+        if (READ_RESOURCE_OPERATION.equals(name)) {
+            operation = readResource.clone();
+        } else {
+            operation = new ModelNode();
+            operation.get(OP).set(name);
+        }
+        operation.get(OP_ADDR).set(address);
+        return operation;
+    }
+}
@@ -0,0 +1,271 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.domain.http.server;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILED;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILURE_DESCRIPTION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OUTCOME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_CHILDREN_TYPES_OPERATION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_RESOURCE_OPERATION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RECURSIVE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RECURSIVE_DEPTH;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RESULT;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUCCESS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.jboss.as.controller.client.ModelControllerClient;
+import org.jboss.as.controller.client.Operation;
+import org.jboss.as.controller.client.OperationMessageHandler;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.Property;
+import org.jboss.threads.AsyncFuture;
+import org.junit.Test;
+
+/**
+ * Unit tests of {@link ResourceTreeWriter}.
+ */
+public class ResourceTreeWriterTestCase {
+
+    @Test
+    public void testStreamable() {
+        final ModelNode operation = createOperation();
+        assertTrue(ResourceTreeWriter.isStreamable(operation, false));
+        assertFalse(ResourceTreeWriter.isStreamable(operation, true));
+
+        final ModelNode notRecursive = createOperation();
+        notRecursive.get(RECURSIVE).set(false);
+        assertFalse(ResourceTreeWriter.isStreamable(notRecursive, false));
+
+        final ModelNode notRequested = createOperation();
+        notRequested.remove(ResourceTreeWriter.JSON_STREAM);
+        assertFalse(ResourceTreeWriter.isStreamable(notRequested, false));
+    }
+
+    @Test
+    public void testCompactOutput() throws IOException {
+        testOutput(false);
+    }
+
+    @Test
+    public void testPrettyOutput() throws IOException {
+        testOutput(true);
+    }
+
+    @Test
+    public void testFailedRead() throws IOException {
+        final ModelNode response = new ModelNode();
+        response.get(OUTCOME).set(FAILED);
+        response.get(FAILURE_DESCRIPTION).set("not found");
+        final TestClient client = new TestClient(createTree()) {
+            @Override
+            public ModelNode execute(final ModelNode operation) {
+                return response;
+            }
+        };
+        assertSame(response, new ResourceTreeWriter(client, createOperation(), false).readRoot());
+    }
+
+    @Test
+    public void testRecursiveDepth() throws IOException {
+        final ModelNode operation = createOperation();
+        operation.get(RECURSIVE_DEPTH).set(1);
+        final ModelNode tree = createTree();
+        final TestClient client = new TestClient(tree);
+        // the children below the depth are not read, and only have their names
+        final ModelNode expected = tree.clone();
+        for (Property property : expected.get("system-property").asPropertyList()) {
+            expected.get("system-property", property.getName(), "child", "only").set(new ModelNode());
+        }
+        assertEquals(expected, ModelNode.fromJSONString(write(client, operation, false)));
+    }
+
+    @Test
+    public void testRemovedChildIsLeftOut() throws IOException {
+        final ModelNode tree = createTree();
+        final TestClient client = new TestClient(tree) {
+            @Override
+            public ModelNode execute(final ModelNode operation) {
+                if (operation.get(OP_ADDR).asString().contains("property1")) {
+                    final ModelNode response = new ModelNode();
+                    response.get(OUTCOME).set(FAILED);
+                    response.get(FAILURE_DESCRIPTION).set("removed");
+                    return response;
+                }
+                return super.execute(operation);
+            }
+        };
+        assertEquals(createTree("property1"), ModelNode.fromJSONString(write(client, createOperation(), true)));
+    }
+
+    private void testOutput(final boolean pretty) throws IOException {
+        final ModelNode tree = createTree();
+        final TestClient client = new TestClient(tree);
+        final String json = write(client, createOperation(), pretty);
+
+        assertEquals(tree, ModelNode.fromJSONString(json));
+        // every resource is read on its own, without its children
+        assertEquals(2 * 8, client.operations.size());
+        for (ModelNode operation : client.operations) {
+            if (READ_RESOURCE_OPERATION.equals(operation.get(OP).asString())) {
+                assertFalse(operation.get(RECURSIVE).asBoolean());
+            }
+        }
+    }
+
+    private static String write(final TestClient client, final ModelNode operation, final boolean pretty) throws IOException {
+        final ResourceTreeWriter writer = new ResourceTreeWriter(client, operation, pretty);
+        assertNull(writer.readRoot());
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writer.write(out);
+        return new String(out.toByteArray(), Constants.UTF_8);
+    }
+
+    private static ModelNode createOperation() {
+        final ModelNode operation = new ModelNode();
+        operation.get(OP).set(READ_RESOURCE_OPERATION);
+        operation.get(OP_ADDR).setEmptyList();
+        operation.get(RECURSIVE).set(true);
+        operation.get(ResourceTreeWriter.JSON_STREAM).set(true);
+        return operation;
+    }
+
+    private static ModelNode createTree() {
+        return createTree(null);
+    }
+
+    /**
+     * A model of 8 resources: the root, 3 system properties with a child each and an empty subsystem.
+     */
+    private static ModelNode createTree(final String removedProperty) {
+        final ModelNode tree = new ModelNode();
+        tree.get("name").set("root");
+        tree.get("count").set(2);
+        for (int i = 0; i < 3; i++) {
+            if (("property" + i).equals(removedProperty)) {
+                continue;
+            }
+            final ModelNode property = tree.get("system-property", "property" + i);
+            property.get("value").set("value \"" + i + "\"");
+            property.get("boot-time").set(true);
+            property.get("child", "only", "attributes").get("nested").set("value");
+        }
+        tree.get("subsystem", "empty").setEmptyObject();
+        tree.get("list").add(1).add("two");
+        return tree;
+    }
+
+    /**
+     * Answers the read operations from a model, in which the keys with resource names are the child types.
+     */
+    private static class TestClient implements ModelControllerClient {
+
+        private static final Set<String> CHILD_TYPES = new TreeSet<String>();
+
+        static {
+            CHILD_TYPES.add("system-property");
+            CHILD_TYPES.add("child");
+            CHILD_TYPES.add("subsystem");
+        }
+
+        private final ModelNode tree;
+        private final List<ModelNode> operations = new ArrayList<ModelNode>();
+
+        TestClient(final ModelNode tree) {
+            this.tree = tree;
+        }
+
+        @Override
+        public ModelNode execute(final ModelNode operation) {
+            operations.add(operation);
+            ModelNode resource = tree;
+            for (Property element : operation.get(OP_ADDR).asPropertyList()) {
+                resource = resource.get(element.getName(), element.getValue().asString());
+            }
+            final ModelNode response = new ModelNode();
+            response.get(OUTCOME).set(SUCCESS);
+            final ModelNode result = response.get(RESULT);
+            if (READ_CHILDREN_TYPES_OPERATION.equals(operation.get(OP).asString())) {
+                result.setEmptyList();
+                for (String key : resource.keys()) {
+                    if (CHILD_TYPES.contains(key)) {
+                        result.add(key);
+                    }
+                }
+            } else {
+                result.setEmptyObject();
+                for (String key : resource.keys()) {
+                    if (!CHILD_TYPES.contains(key)) {
+                        result.get(key).set(resource.get(key));
+                    } else {
+                        for (String name : resource.get(key).keys()) {
+                            result.get(key, name);
+                        }
+                    }
+                }
+            }
+            return response;
+        }
+
+        @Override
+        public ModelNode execute(final Operation operation) {
+            return execute(operation.getOperation());
+        }
+
+        @Override
+        public ModelNode execute(final ModelNode operation, final OperationMessageHandler messageHandler) {
+            return execute(operation);
+        }
+
+        @Override
+        public ModelNode execute(final Operation operation, final OperationMessageHandler messageHandler) {
+            return execute(operation.getOperation());
+        }
+
+        @Override
+        public AsyncFuture<ModelNode> executeAsync(final ModelNode operation, final OperationMessageHandler messageHandler) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public AsyncFuture<ModelNode> executeAsync(final Operation operation, final OperationMessageHandler messageHandler) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -42,6 +42,7 @@ import org.jboss.as.server.deployment.module.ModuleRootMarker;
 import org.jboss.as.server.deployment.module.MountHandle;
 import org.jboss.as.server.deployment.module.ResourceRoot;
 import org.jboss.as.server.deployment.module.TempFileProviderService;
+import org.jboss.as.server.deployment.module.ZipDirectoryCache;
 import org.jboss.metadata.ear.spec.EarMetaData;
 import org.jboss.metadata.ear.spec.ModuleMetaData;
 import org.jboss.metadata.ear.spec.ModuleMetaData.ModuleType;
@@ -115,7 +116,7 @@ public class EarStructureProcessor implements DeploymentUnitProcessor {
                 if (libDir.exists()) {
                     List<VirtualFile> libArchives = libDir.getChildren(CHILD_ARCHIVE_FILTER);
                     for (final VirtualFile child : libArchives) {
-                        final Closeable closable = child.isFile() ? mount(child, false) : null;
+                        final Closeable closable = child.isFile() ? mount(deploymentUnit, child, false) : null;
                         final MountHandle mountHandle = new MountHandle(closable);
                         final ResourceRoot childResource = new ResourceRoot(child, mountHandle);
                         if (child.getName().toLowerCase(Locale.ENGLISH).endsWith(JAR_EXTENSION)) {
@@ -219,9 +220,9 @@ public class EarStructureProcessor implements DeploymentUnitProcessor {
         }
     }
 
-    private static Closeable mount(VirtualFile moduleFile, boolean explode) throws IOException {
+    private static Closeable mount(DeploymentUnit deploymentUnit, VirtualFile moduleFile, boolean explode) throws IOException {
         return explode ? VFS.mountZipExpanded(moduleFile, moduleFile, TempFileProviderService.provider())
-                : VFS.mountZip(moduleFile, moduleFile, TempFileProviderService.provider());
+                : ZipDirectoryCache.mountZip(moduleFile, moduleFile, TempFileProviderService.provider(), deploymentUnit);
     }
 
     /**
@@ -239,7 +240,7 @@ public class EarStructureProcessor implements DeploymentUnitProcessor {
      */
     private ResourceRoot createResourceRoot(final DeploymentUnit deploymentUnit, final VirtualFile file, final boolean markAsSubDeployment, final boolean explodeDuringMount) throws IOException {
         final boolean war = file.getName().toLowerCase(Locale.ENGLISH).endsWith(WAR_EXTENSION);
-        final Closeable closable = file.isFile() ? mount(file, explodeDuringMount) : null;
+        final Closeable closable = file.isFile() ? mount(deploymentUnit, file, explodeDuringMount) : null;
         final MountHandle mountHandle = new MountHandle(closable);
         final ResourceRoot resourceRoot = new ResourceRoot(file, mountHandle);
         deploymentUnit.addToAttachmentList(Attachments.RESOURCE_ROOTS, resourceRoot);
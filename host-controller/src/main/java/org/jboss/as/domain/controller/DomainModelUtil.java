@@ -106,6 +106,7 @@ import org.jboss.as.domain.controller.operations.ProcessTypeHandler;
 import org.jboss.as.domain.controller.operations.ProfileAddHandler;
 import org.jboss.as.domain.controller.operations.ProfileDescribeHandler;
 import org.jboss.as.domain.controller.operations.ProfileRemoveHandler;
+import org.jboss.as.domain.controller.operations.ReadDomainModelHashesHandler;
 import org.jboss.as.domain.controller.operations.ResolveExpressionOnDomainHandler;
 import org.jboss.as.domain.controller.operations.ServerGroupAddHandler;
 import org.jboss.as.domain.controller.operations.ServerGroupProfileWriteAttributeHandler;
@@ -331,6 +332,8 @@ public class DomainModelUtil {
             ApplyRemoteMasterDomainModelHandler armdmh = new ApplyRemoteMasterDomainModelHandler(fileRepository,
                     contentRepo, hostControllerInfo, ignoredDomainResourceRegistry);
             root.registerOperationHandler(ApplyRemoteMasterDomainModelHandler.OPERATION_NAME, armdmh, armdmh, false, OperationEntry.EntryType.PRIVATE);
+            root.registerOperationHandler(ReadDomainModelHashesHandler.OPERATION_NAME, ReadDomainModelHashesHandler.INSTANCE,
+                    ReadDomainModelHashesHandler.INSTANCE, false, OperationEntry.EntryType.PRIVATE, EnumSet.of(OperationEntry.Flag.READ_ONLY));
         } else {
             final SubsystemDescriptionDump dumper = new SubsystemDescriptionDump(extensionRegistry);
             root.registerOperationHandler(SubsystemDescriptionDump.DEFINITION, dumper, false);
@@ -63,7 +63,6 @@ import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.PathElement;
 import org.jboss.as.controller.ProxyController;
 import org.jboss.as.controller.descriptions.DescriptionProvider;
-import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
 import org.jboss.as.controller.registry.Resource;
 import org.jboss.as.domain.controller.LocalHostControllerInfo;
 import org.jboss.as.domain.controller.ServerIdentity;
@@ -84,6 +83,9 @@ import org.jboss.dmr.Property;
 public class ApplyRemoteMasterDomainModelHandler implements OperationStepHandler, DescriptionProvider {
     public static final String OPERATION_NAME = "apply-remote-domain-model";
 
+    /** The types of the domain resources replaced by the master model */
+    private static final String[] DOMAIN_CHILD_TYPES = {PATH, SYSTEM_PROPERTY, PROFILE, INTERFACE, SOCKET_BINDING_GROUP, DEPLOYMENT, SERVER_GROUP};
+
     private final HostFileRepository fileRepository;
     private final ContentRepository contentRepository;
     private final IgnoredDomainResourceRegistry ignoredResourceRegistry;
@@ -108,12 +110,19 @@ public class ApplyRemoteMasterDomainModelHandler implements OperationStepHandler
         final ModelNode startRoot = Resource.Tools.readModel(context.readResourceFromRoot(PathAddress.EMPTY_ADDRESS));
 
         final Set<String> ourServerGroups = getOurServerGroups(context);
-        final Map<String, Set<byte[]>> deploymentHashes = new HashMap<String, Set<byte[]>>();
         final Set<String> relevantDeployments = new HashSet<String>();
         final Set<byte[]> requiredContent = new HashSet<byte[]>();
 
+        // The subtrees the master found to be in sync with ours are kept as they are
+        final Set<PathAddress> unchanged = new HashSet<PathAddress>();
+        for (final ModelNode resourceDescription : domainModel.asList()) {
+            if (resourceDescription.hasDefined(DomainModelHashes.RESOURCE_UNCHANGED)) {
+                unchanged.add(PathAddress.pathAddress(resourceDescription.require("domain-resource-address")));
+            }
+        }
+
         final Resource rootResource = context.readResourceForUpdate(PathAddress.EMPTY_ADDRESS);
-        clearDomain(rootResource);
+        clearDomain(rootResource, unchanged);
 
         for (final ModelNode resourceDescription : domainModel.asList()) {
 
@@ -121,6 +130,14 @@ public class ApplyRemoteMasterDomainModelHandler implements OperationStepHandler
             if (ignoredResourceRegistry.isResourceExcluded(resourceAddress)) {
                 continue;
             }
+            if (unchanged.contains(resourceAddress)) {
+                if (resourceAddress.getElement(0).getKey().equals(SERVER_GROUP)
+                        && ourServerGroups.contains(resourceAddress.getElement(0).getValue())) {
+                    // the deployments of an unchanged server group may refer to changed content
+                    relevantDeployments.addAll(getServerGroupDeployments(rootResource, resourceAddress));
+                }
+                continue;
+            }
 
             final Resource resource = getResource(resourceAddress, rootResource, context);
             if (resourceAddress.size() == 1 && resourceAddress.getElement(0).getKey().equals(EXTENSION)) {
@@ -129,26 +146,11 @@ public class ApplyRemoteMasterDomainModelHandler implements OperationStepHandler
             }
             resource.writeModel(resourceDescription.get("domain-resource-model"));
 
-            // Track deployment and management content hashes and server group deployments so we can pull over the content we need
+            // Track management content hashes and server group deployments so we can pull over the content we need
             if (resourceAddress.size() == 1) {
                 PathElement pe = resourceAddress.getElement(0);
                 String peKey = pe.getKey();
-                if (peKey.equals(DEPLOYMENT)) {
-                    ModelNode model = resource.getModel();
-                    String id = resourceAddress.getElement(0).getValue();
-                    if (model.hasDefined(CONTENT)) {
-                        for (ModelNode contentItem : model.get(CONTENT).asList()) {
-                            if (contentItem.hasDefined(HASH)) {
-                                Set<byte[]> hashes = deploymentHashes.get(id);
-                                if (hashes == null) {
-                                    hashes = new HashSet<byte[]>();
-                                    deploymentHashes.put(id, hashes);
-                                }
-                                hashes.add(contentItem.get(HASH).asBytes());
-                            }
-                        }
-                    }
-                } else if (peKey.equals(MANAGEMENT_CLIENT_CONTENT)) {
+                if (peKey.equals(MANAGEMENT_CLIENT_CONTENT)) {
                     // We need to pull over management content from the master HC's repo
                     ModelNode model = resource.getModel();
                     if (model.hasDefined(HASH)) {
@@ -163,12 +165,24 @@ public class ApplyRemoteMasterDomainModelHandler implements OperationStepHandler
                 relevantDeployments.add(resourceAddress.getElement(1).getValue());
             }
         }
+        if (!unchanged.isEmpty()) {
+            ROOT_LOGGER.debugf("Kept %d unchanged subtrees of the domain model", unchanged.size());
+        }
 
-        // Make sure we have all needed deployment and management client content
+        // Make sure we have all needed deployment and management client content, the deployments
+        // themselves may have been sent or kept
         for (String id : relevantDeployments) {
-            Set<byte[]> hashes = deploymentHashes.remove(id);
-            if (hashes != null) {
-                requiredContent.addAll(hashes);
+            final Resource deployment = rootResource.getChild(PathElement.pathElement(DEPLOYMENT, id));
+            if (deployment == null) {
+                continue;
+            }
+            final ModelNode model = deployment.getModel();
+            if (model.hasDefined(CONTENT)) {
+                for (ModelNode contentItem : model.get(CONTENT).asList()) {
+                    if (contentItem.hasDefined(HASH)) {
+                        requiredContent.add(contentItem.get(HASH).asBytes());
+                    }
+                }
             }
         }
         for (byte[] hash : requiredContent) {
@@ -326,29 +340,53 @@ public class ApplyRemoteMasterDomainModelHandler implements OperationStepHandler
         context.completeStep();
     }
 
-    private void clearDomain(final Resource rootResource) {
+    private void clearDomain(final Resource rootResource, final Set<PathAddress> unchanged) {
         // Extensions are handled in ApplyExtensionsHandler
-        for(Resource.ResourceEntry entry : rootResource.getChildren(ModelDescriptionConstants.PATH)) {
-            rootResource.removeChild(entry.getPathElement());
+        for (final String type : DOMAIN_CHILD_TYPES) {
+            for(Resource.ResourceEntry entry : rootResource.getChildren(type)) {
+                clearResource(rootResource, PathAddress.pathAddress(entry.getPathElement()), entry, unchanged);
+            }
         }
-        for(Resource.ResourceEntry entry : rootResource.getChildren(ModelDescriptionConstants.SYSTEM_PROPERTY)) {
-            rootResource.removeChild(entry.getPathElement());
+    }
+
+    /**
+     * Remove a resource unless it is unchanged. A resource with unchanged descendants is kept, with only its
+     * other children removed; its model is rewritten from the master description.
+     */
+    private static void clearResource(final Resource parent, final PathAddress address, final Resource resource, final Set<PathAddress> unchanged) {
+        if (unchanged.contains(address)) {
+            return;
         }
-        for(Resource.ResourceEntry entry : rootResource.getChildren(ModelDescriptionConstants.PROFILE)) {
-            rootResource.removeChild(entry.getPathElement());
+        if (!hasUnchangedDescendant(address, unchanged)) {
+            parent.removeChild(address.getLastElement());
+            return;
         }
-        for(Resource.ResourceEntry entry : rootResource.getChildren(ModelDescriptionConstants.INTERFACE)) {
-            rootResource.removeChild(entry.getPathElement());
+        for (final String childType : resource.getChildTypes()) {
+            for (final Resource.ResourceEntry child : resource.getChildren(childType)) {
+                clearResource(resource, address.append(child.getPathElement()), child, unchanged);
+            }
         }
-        for(Resource.ResourceEntry entry : rootResource.getChildren(ModelDescriptionConstants.SOCKET_BINDING_GROUP)) {
-            rootResource.removeChild(entry.getPathElement());
+    }
+
+    private static boolean hasUnchangedDescendant(final PathAddress address, final Set<PathAddress> unchanged) {
+        for (final PathAddress candidate : unchanged) {
+            if (candidate.size() > address.size() && candidate.subAddress(0, address.size()).equals(address)) {
+                return true;
+            }
         }
-        for(Resource.ResourceEntry entry : rootResource.getChildren(ModelDescriptionConstants.DEPLOYMENT)) {
-            rootResource.removeChild(entry.getPathElement());
+        return false;
+    }
+
+    private static Set<String> getServerGroupDeployments(final Resource rootResource, final PathAddress address) {
+        final Resource serverGroup = rootResource.getChild(address.getElement(0));
+        if (serverGroup == null) {
+            return Collections.emptySet();
         }
-        for(Resource.ResourceEntry entry : rootResource.getChildren(ModelDescriptionConstants.SERVER_GROUP)) {
-            rootResource.removeChild(entry.getPathElement());
+        if (address.size() > 1) {
+            return address.getElement(1).getKey().equals(DEPLOYMENT)
+                    ? Collections.singleton(address.getElement(1).getValue()) : Collections.<String>emptySet();
         }
+        return serverGroup.getChildrenNames(DEPLOYMENT);
     }
 
     private Resource getResource(PathAddress resourceAddress, Resource rootResource, OperationContext context) {
@@ -0,0 +1,185 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.domain.controller.operations;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.EXTENSION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.HOST;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.MANAGEMENT_CLIENT_CONTENT;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.registry.Resource;
+import org.jboss.dmr.ModelNode;
+
+/**
+ * Hash tree of the domain model, used to only send the parts of the domain model that changed to a host controller
+ * registering with the master.
+ * <p/>
+ * The hash of a resource covers its model and the hashes of its children, so equal hashes mean equal subtrees. The
+ * registering host sends the hashes of the subtrees of its domain model up to {@link #MAX_DEPTH}, e.g. a profile and
+ * each of its subsystems; the master then describes the subtrees that differ and only marks the other ones as
+ * unchanged, which the host keeps instead of rebuilding them.
+ */
+public final class DomainModelHashes {
+
+    /** The key of the hashes in the host info sent when registering with the master */
+    public static final String DOMAIN_MODEL_HASHES = "domain-model-hashes";
+    /** The key of the hash of a resource in the hash descriptions */
+    static final String RESOURCE_HASH = "domain-resource-hash";
+    /** The key marking a resource description as unchanged, in which case it has no model */
+    static final String RESOURCE_UNCHANGED = "domain-resource-unchanged";
+    static final String RESOURCE_ADDRESS = "domain-resource-address";
+
+    /** The depth up to which the hashes of the subtrees are exchanged */
+    static final int MAX_DEPTH = 2;
+
+    /** Changes whenever the way the hashes are computed changes, so that hashes of different versions never match */
+    private static final byte VERSION = 1;
+
+    private static final OutputStream NULL_OUTPUT = new OutputStream() {
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+    };
+
+    private DomainModelHashes() {
+    }
+
+    /**
+     * Describe the hashes of the subtrees of the domain model.
+     *
+     * @param root the root resource
+     * @return the list of addresses and hashes
+     */
+    public static ModelNode describeHashes(final Resource root) {
+        final ModelNode hashes = new ModelNode().setEmptyList();
+        describeHashes(PathAddress.EMPTY_ADDRESS, root, hashes);
+        return hashes;
+    }
+
+    private static void describeHashes(final PathAddress base, final Resource resource, final ModelNode hashes) {
+        for (final String childType : resource.getChildTypes()) {
+            for (final Resource.ResourceEntry entry : resource.getChildren(childType)) {
+                final PathAddress address = base.append(entry.getPathElement());
+                if (!isSynchronized(address, entry)) {
+                    continue;
+                }
+                final ModelNode description = new ModelNode();
+                description.get(RESOURCE_ADDRESS).set(address.toModelNode());
+                description.get(RESOURCE_HASH).set(hash(entry));
+                hashes.add(description);
+                if (address.size() < MAX_DEPTH) {
+                    describeHashes(address, entry, hashes);
+                }
+            }
+        }
+    }
+
+    /**
+     * Read the hashes described by {@link #describeHashes(Resource)}.
+     *
+     * @param hashes the described hashes, may be undefined
+     * @return the hashes by address
+     */
+    static Map<PathAddress, byte[]> readHashes(final ModelNode hashes) {
+        final Map<PathAddress, byte[]> result = new HashMap<PathAddress, byte[]>();
+        if (hashes.isDefined()) {
+            for (final ModelNode description : hashes.asList()) {
+                result.put(PathAddress.pathAddress(description.require(RESOURCE_ADDRESS)), description.require(RESOURCE_HASH).asBytes());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Whether the subtree at the given address is in sync with the given hash.
+     */
+    static boolean isUnchanged(final PathAddress address, final Resource resource, final byte[] hash) {
+        return hash != null && isSynchronized(address, resource) && Arrays.equals(hash, hash(resource));
+    }
+
+    /**
+     * Whether the subtree at the given address takes part in the hash exchange. Hosts and runtime resources are no
+     * part of the domain model sent to the hosts, extensions are applied separately and the management client content
+     * is small and always sent as it is backed by the content repository.
+     */
+    private static boolean isSynchronized(final PathAddress address, final Resource resource) {
+        if (address.size() == 0 || address.size() > MAX_DEPTH || resource.isProxy() || resource.isRuntime()) {
+            return false;
+        }
+        final String type = address.getElement(0).getKey();
+        return !type.equals(HOST) && !type.equals(EXTENSION) && !type.equals(MANAGEMENT_CLIENT_CONTENT);
+    }
+
+    static byte[] hash(final Resource resource) {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        final DataOutputStream output = new DataOutputStream(new DigestOutputStream(NULL_OUTPUT, digest));
+        try {
+            output.writeByte(VERSION);
+            hash(resource, output);
+            output.flush();
+        } catch (IOException e) {
+            // not thrown when writing to the null output
+            throw new IllegalStateException(e);
+        }
+        return digest.digest();
+    }
+
+    private static void hash(final Resource resource, final DataOutputStream output) throws IOException {
+        resource.getModel().writeExternal(output);
+        // the children are ordered so the hash does not depend on the order they were added in
+        for (final String childType : new TreeSet<String>(resource.getChildTypes())) {
+            final Set<String> names = new TreeSet<String>(resource.getChildrenNames(childType));
+            for (final String name : names) {
+                final Resource child = resource.getChild(PathElement.pathElement(childType, name));
+                if (child == null || child.isProxy() || child.isRuntime()) {
+                    continue;
+                }
+                output.writeUTF(childType);
+                output.writeUTF(name);
+                hash(child, output);
+            }
+        }
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.domain.controller.operations;
+
+import java.util.Locale;
+
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.OperationStepHandler;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.descriptions.DescriptionProvider;
+import org.jboss.as.controller.registry.Resource;
+import org.jboss.dmr.ModelNode;
+
+/**
+ * Step handler reading the {@link DomainModelHashes hashes} of the local domain model, which a slave host controller
+ * sends when registering with the master so that only the changed parts of the domain model are sent back.
+ */
+public class ReadDomainModelHashesHandler implements OperationStepHandler, DescriptionProvider {
+
+    public static final String OPERATION_NAME = "read-domain-model-hashes";
+
+    public static final ReadDomainModelHashesHandler INSTANCE = new ReadDomainModelHashesHandler();
+
+    private ReadDomainModelHashesHandler() {
+    }
+
+    public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
+        final Resource root = context.readResourceFromRoot(PathAddress.EMPTY_ADDRESS, true);
+        context.getResult().set(DomainModelHashes.describeHashes(root));
+        context.completeStep();
+    }
+
+    public ModelNode getModelDescription(Locale locale) {
+        return new ModelNode(); // PRIVATE operation requires no description
+    }
+}
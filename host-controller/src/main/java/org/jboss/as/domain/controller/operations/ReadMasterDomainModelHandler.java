@@ -35,6 +35,7 @@ import org.jboss.dmr.ModelNode;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 
 /**
  * Step handler responsible for collecting a complete description of the domain model,
@@ -47,8 +48,19 @@ public class ReadMasterDomainModelHandler implements OperationStepHandler, Descr
     public static final String OPERATION_NAME = "read-master-domain-model";
 
     private final Transformers transformers;
+    private final Map<PathAddress, byte[]> hostHashes;
+
     public ReadMasterDomainModelHandler(final Transformers transformers) {
+        this(transformers, new ModelNode());
+    }
+
+    /**
+     * @param hostHashes the {@link DomainModelHashes hashes} of the domain model of the registering host, undefined if
+     *                   it did not send any, in which case the complete model is described
+     */
+    public ReadMasterDomainModelHandler(final Transformers transformers, final ModelNode hostHashes) {
         this.transformers = transformers;
+        this.hostHashes = DomainModelHashes.readHashes(hostHashes);
     }
 
     private Resource transformResource(final OperationContext context, Resource root) throws OperationFailedException {
@@ -62,7 +74,7 @@ public class ReadMasterDomainModelHandler implements OperationStepHandler, Descr
         final Resource untransformedRoot = context.readResource(PathAddress.EMPTY_ADDRESS,true);
         final Resource root = transformResource(context, untransformedRoot);
         // Get the list of all resources registered in this model
-        context.getResult().set(describeAsNodeList(root));
+        context.getResult().set(describeAsNodeList(root, hostHashes));
         // The HC registration process will hijack the operationPrepared call and push
         // the model to a registering host-controller
         context.completeStep();
@@ -73,17 +85,21 @@ public class ReadMasterDomainModelHandler implements OperationStepHandler, Descr
      * the HC can directly apply to create the model. Although the format might appear
      * similar as the operations generated at boot-time this description is only useful
      * to create the resource tree and cannot be used to invoke any operation.
+     * <p/>
+     * Subtrees whose hash matches the one of the host are not described, they are only
+     * marked as unchanged so the host keeps its copy.
      *
      * @param resource the root resource
+     * @param hostHashes the hashes of the subtrees of the host domain model
      * @return the list of resources
      */
-    private static List<ModelNode> describeAsNodeList(final Resource resource) {
+    private static List<ModelNode> describeAsNodeList(final Resource resource, final Map<PathAddress, byte[]> hostHashes) {
         final List<ModelNode> list = new ArrayList<ModelNode>();
-        describe(PathAddress.EMPTY_ADDRESS, resource, list);
+        describe(PathAddress.EMPTY_ADDRESS, resource, hostHashes, list);
         return list;
     }
 
-    private static void describe(final PathAddress base, final Resource resource, List<ModelNode> nodes) {
+    private static void describe(final PathAddress base, final Resource resource, final Map<PathAddress, byte[]> hostHashes, List<ModelNode> nodes) {
         if (resource.isProxy() || resource.isRuntime()) {
             return; // ignore runtime and proxies
         } else if (base.size() >= 1 && base.getElement(0).getKey().equals(ModelDescriptionConstants.HOST)) {
@@ -91,11 +107,16 @@ public class ReadMasterDomainModelHandler implements OperationStepHandler, Descr
         }
         final ModelNode description = new ModelNode();
         description.get("domain-resource-address").set(base.toModelNode());
+        if (DomainModelHashes.isUnchanged(base, resource, hostHashes.get(base))) {
+            description.get(DomainModelHashes.RESOURCE_UNCHANGED).set(true);
+            nodes.add(description);
+            return;
+        }
         description.get("domain-resource-model").set(resource.getModel());
         nodes.add(description);
         for (final String childType : resource.getChildTypes()) {
             for (final Resource.ResourceEntry entry : resource.getChildren(childType)) {
-                describe(base.append(entry.getPathElement()), entry, nodes);
+                describe(base.append(entry.getPathElement()), entry, hostHashes, nodes);
             }
         }
     }
@@ -33,11 +33,13 @@ import static org.jboss.as.domain.controller.DomainControllerMessages.MESSAGES;
 
 import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 
 import org.jboss.as.controller.OperationContext;
 import org.jboss.as.controller.OperationFailedException;
@@ -45,22 +47,45 @@ import org.jboss.as.controller.OperationStepHandler;
 import org.jboss.as.controller.ProxyController;
 import org.jboss.as.controller.remote.TransactionalProtocolClient;
 import org.jboss.dmr.ModelNode;
-import org.jboss.threads.AsyncFuture;
 
 /**
  * Executes the first phase of a two phase operation on one or more remote, slave host controllers.
+ * <p/>
+ * By default the operation is pushed to all the hosts at once. The number of hosts that are concurrently preparing
+ * the operation can be bounded with the {@code jboss.domain.rollout.max-concurrent-hosts} system property, in which
+ * case the operation is pushed to the next host as soon as one of the hosts has prepared it, the hosts that were the
+ * slowest to prepare the previous operations being contacted first. Every host is contacted, even once a host
+ * failed to prepare the operation, as whether the other hosts roll back depends on the rollout plan.
+ * <p/>
+ * The time each host took to prepare and to commit the operation is reported in the {@code host-rollout-timings}
+ * response header.
  *
  * @author Brian Stansberry (c) 2011 Red Hat Inc.
  */
 public class DomainSlaveHandler implements OperationStepHandler {
 
+    /** The system property bounding the number of hosts concurrently preparing an operation */
+    public static final String MAX_CONCURRENT_HOSTS_PROPERTY = "jboss.domain.rollout.max-concurrent-hosts";
+    /** The response header holding the prepare and commit time of each host */
+    public static final String HOST_ROLLOUT_TIMINGS = "host-rollout-timings";
+    public static final String PREPARE_TIME = "prepare-time";
+    public static final String COMMIT_TIME = "commit-time";
+
     private final DomainOperationContext domainOperationContext;
     private final Map<String, ProxyController> hostProxies;
+    private final HostRolloutLatencies hostLatencies;
 
     public DomainSlaveHandler(final Map<String, ProxyController> hostProxies,
                               final DomainOperationContext domainOperationContext) {
+        this(hostProxies, domainOperationContext, new HostRolloutLatencies());
+    }
+
+    DomainSlaveHandler(final Map<String, ProxyController> hostProxies,
+                       final DomainOperationContext domainOperationContext,
+                       final HostRolloutLatencies hostLatencies) {
         this.hostProxies = hostProxies;
         this.domainOperationContext = domainOperationContext;
+        this.hostLatencies = hostLatencies;
     }
 
     @Override
@@ -73,28 +98,20 @@ public class DomainSlaveHandler implements OperationStepHandler {
             return;
         }
 
-        final Set<String> outstanding = new HashSet<String>(hostProxies.keySet());
+        final HostRolloutQueue queue = new HostRolloutQueue(hostProxies.keySet(), getMaxConcurrentHosts(), hostLatencies);
         final List<TransactionalProtocolClient.PreparedOperation<HostControllerUpdateTask.ProxyOperation>> results = new ArrayList<TransactionalProtocolClient.PreparedOperation<HostControllerUpdateTask.ProxyOperation>>();
         final Map<String, HostControllerUpdateTask.ExecutedHostRequest> finalResults = new HashMap<String, HostControllerUpdateTask.ExecutedHostRequest>();
-        final HostControllerUpdateTask.ProxyOperationListener listener = new HostControllerUpdateTask.ProxyOperationListener();
-        for (Map.Entry<String, ProxyController> entry : hostProxies.entrySet()) {
-            // Create the proxy task
-            final String host = entry.getKey();
-            final TransformingProxyController proxyController = (TransformingProxyController) entry.getValue();
-            final HostControllerUpdateTask task = new HostControllerUpdateTask(host, operation.clone(), context, proxyController);
-            // Execute the operation on the remote host
-            final HostControllerUpdateTask.ExecutedHostRequest finalResult = task.execute(listener);
-            finalResults.put(host, finalResult);
-        }
+        final TimingOperationListener listener = new TimingOperationListener();
+        pushToHosts(queue, context, operation, listener, finalResults);
 
         // Wait for all hosts to reach the prepared state
         boolean interrupted = false;
         try {
             try {
-                while(outstanding.size() > 0) {
+                while(queue.hasOutstanding()) {
                     final TransactionalProtocolClient.PreparedOperation<HostControllerUpdateTask.ProxyOperation> prepared = listener.retrievePreparedOperation();
                     final String hostName = prepared.getOperation().getName();
-                    if(! outstanding.remove(hostName)) {
+                    if(! queue.prepared(hostName)) {
                         continue;
                     }
                     final ModelNode preparedResult = prepared.getPreparedResult();
@@ -103,6 +120,11 @@ public class DomainSlaveHandler implements OperationStepHandler {
                     }
                     domainOperationContext.addHostControllerResult(hostName, preparedResult);
                     results.add(prepared);
+                    final long prepareTime = listener.getPrepareTime(hostName);
+                    if (prepareTime >= 0) {
+                        hostLatencies.record(hostName, prepareTime);
+                    }
+                    pushToHosts(queue, context, operation, listener, finalResults);
                 }
             } catch (InterruptedException ie) {
                 interrupted = true;
@@ -145,6 +167,7 @@ public class DomainSlaveHandler implements OperationStepHandler {
                     if(prepared.isDone()) {
                         continue;
                     }
+                    listener.commitStarted(prepared.getOperation().getName());
                     if(! rollback) {
                         prepared.commit();
                     } else {
@@ -168,6 +191,7 @@ public class DomainSlaveHandler implements OperationStepHandler {
                         CONTROLLER_LOGGER.caughtExceptionAwaitingFinalResponse(e.getCause(), hostName);
                     }
                 }
+                reportTimings(context, listener, finalResults.keySet());
             } finally {
                 if (interrupted) {
                     Thread.currentThread().interrupt();
@@ -176,4 +200,103 @@ public class DomainSlaveHandler implements OperationStepHandler {
         }
     }
 
+    /**
+     * Get the maximum number of hosts concurrently preparing an operation, read for each operation so that it can be
+     * changed at runtime.
+     *
+     * @return the maximum number of hosts, {@code 0} if unbounded
+     */
+    static int getMaxConcurrentHosts() {
+        final String value = SecurityActions.getSystemProperty(MAX_CONCURRENT_HOSTS_PROPERTY, "0");
+        try {
+            final int max = Integer.parseInt(value);
+            return max > 0 ? max : 0;
+        } catch (NumberFormatException e) {
+            HOST_CONTROLLER_LOGGER.debugf("Ignoring invalid value %s of %s", value, MAX_CONCURRENT_HOSTS_PROPERTY);
+            return 0;
+        }
+    }
+
+    private void pushToHosts(final HostRolloutQueue queue, final OperationContext context, final ModelNode operation,
+                             final TimingOperationListener listener,
+                             final Map<String, HostControllerUpdateTask.ExecutedHostRequest> finalResults) {
+        String host;
+        while ((host = queue.next()) != null) {
+            // Create the proxy task
+            final TransformingProxyController proxyController = (TransformingProxyController) hostProxies.get(host);
+            final HostControllerUpdateTask task = new HostControllerUpdateTask(host, operation.clone(), context, proxyController);
+            listener.prepareStarted(host);
+            // Execute the operation on the remote host
+            final HostControllerUpdateTask.ExecutedHostRequest finalResult = task.execute(listener);
+            finalResults.put(host, finalResult);
+        }
+    }
+
+    private static void reportTimings(final OperationContext context, final TimingOperationListener listener, final Set<String> hosts) {
+        if (hosts.isEmpty()) {
+            return;
+        }
+        final ModelNode timings = context.getResponseHeaders().get(HOST_ROLLOUT_TIMINGS);
+        for (String host : hosts) {
+            final ModelNode hostTimings = timings.get(host);
+            final long prepareTime = listener.getPrepareTime(host);
+            if (prepareTime >= 0) {
+                hostTimings.get(PREPARE_TIME).set(TimeUnit.NANOSECONDS.toMillis(prepareTime));
+            }
+            final long commitTime = listener.getCommitTime(host);
+            if (commitTime >= 0) {
+                hostTimings.get(COMMIT_TIME).set(TimeUnit.NANOSECONDS.toMillis(commitTime));
+            }
+        }
+    }
+
+    /**
+     * Records when each host was asked to prepare and to commit the operation and when it answered. The events are
+     * recorded as they are received, rather than when they are processed by the thread executing the operation.
+     */
+    private static class TimingOperationListener extends HostControllerUpdateTask.ProxyOperationListener {
+
+        private final ConcurrentMap<String, Long> prepareStarted = new ConcurrentHashMap<String, Long>();
+        private final ConcurrentMap<String, Long> prepared = new ConcurrentHashMap<String, Long>();
+        private final ConcurrentMap<String, Long> commitStarted = new ConcurrentHashMap<String, Long>();
+        private final ConcurrentMap<String, Long> completed = new ConcurrentHashMap<String, Long>();
+
+        void prepareStarted(final String hostName) {
+            prepareStarted.put(hostName, System.nanoTime());
+        }
+
+        void commitStarted(final String hostName) {
+            commitStarted.put(hostName, System.nanoTime());
+        }
+
+        long getPrepareTime(final String hostName) {
+            return elapsed(prepareStarted.get(hostName), prepared.get(hostName));
+        }
+
+        long getCommitTime(final String hostName) {
+            return elapsed(commitStarted.get(hostName), completed.get(hostName));
+        }
+
+        @Override
+        public void operationPrepared(final TransactionalProtocolClient.PreparedOperation<HostControllerUpdateTask.ProxyOperation> preparedOperation) {
+            prepared.put(preparedOperation.getOperation().getName(), System.nanoTime());
+            super.operationPrepared(preparedOperation);
+        }
+
+        @Override
+        public void operationFailed(final HostControllerUpdateTask.ProxyOperation operation, final ModelNode result) {
+            prepared.put(operation.getName(), System.nanoTime());
+            super.operationFailed(operation, result);
+        }
+
+        @Override
+        public void operationComplete(final HostControllerUpdateTask.ProxyOperation operation, final ModelNode result) {
+            completed.put(operation.getName(), System.nanoTime());
+            super.operationComplete(operation, result);
+        }
+
+        private static long elapsed(final Long start, final Long end) {
+            return start == null || end == null ? -1 : Math.max(0, end - start);
+        }
+    }
 }
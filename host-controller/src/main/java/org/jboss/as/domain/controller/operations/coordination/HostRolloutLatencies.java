@@ -0,0 +1,115 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.domain.controller.operations.coordination;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Tracks the latency of the prepare phase of the slave host controllers across domain operations.
+ * <p/>
+ * The latency of each host is kept as an exponentially weighted moving average, so a single slow operation does not
+ * dominate it. When the number of hosts an operation is pushed to concurrently is bounded, the slowest hosts are
+ * contacted first so that they do not end up at the tail of the rollout.
+ */
+class HostRolloutLatencies {
+
+    /** The weight of the latest sample in the moving average */
+    private static final double WEIGHT = 0.3;
+
+    private final ConcurrentMap<String, Long> latencies = new ConcurrentHashMap<String, Long>();
+
+    /**
+     * Record the prepare latency of a host.
+     *
+     * @param hostName the name of the host
+     * @param nanos the time it took the host to prepare the operation, in nanoseconds
+     */
+    void record(final String hostName, final long nanos) {
+        for (;;) {
+            final Long current = latencies.get(hostName);
+            if (current == null) {
+                if (latencies.putIfAbsent(hostName, nanos) == null) {
+                    return;
+                }
+            } else {
+                final long average = (long) (WEIGHT * nanos + (1 - WEIGHT) * current);
+                if (latencies.replace(hostName, current, average)) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Get the average prepare latency of a host.
+     *
+     * @param hostName the name of the host
+     * @return the average latency in nanoseconds, or {@code -1} if nothing was recorded for the host yet
+     */
+    long getLatency(final String hostName) {
+        final Long latency = latencies.get(hostName);
+        return latency == null ? -1 : latency;
+    }
+
+    /**
+     * Order the given hosts by decreasing latency. Hosts without a recorded latency come first, as nothing is known
+     * about them.
+     *
+     * @param hostNames the names of the hosts
+     * @return the ordered host names
+     */
+    List<String> slowestFirst(final Collection<String> hostNames) {
+        final List<String> ordered = new ArrayList<String>(hostNames);
+        final Map<String, Long> snapshot = new HashMap<String, Long>();
+        for (String hostName : ordered) {
+            final Long latency = latencies.get(hostName);
+            snapshot.put(hostName, latency == null ? Long.MAX_VALUE : latency);
+        }
+        Collections.sort(ordered, new Comparator<String>() {
+            @Override
+            public int compare(final String o1, final String o2) {
+                final long l1 = snapshot.get(o1);
+                final long l2 = snapshot.get(o2);
+                return l1 < l2 ? 1 : l1 == l2 ? 0 : -1;
+            }
+        });
+        return ordered;
+    }
+
+    /**
+     * Forget the hosts that are no longer part of the domain.
+     *
+     * @param hostNames the names of the hosts that are still registered
+     */
+    void retain(final Collection<String> hostNames) {
+        latencies.keySet().retainAll(hostNames);
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.domain.controller.operations.coordination;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Decides which slave host controllers an operation is pushed to next. If the number of hosts concurrently preparing
+ * the operation is bounded, the slowest hosts are contacted first and a further host is contacted each time one of the
+ * outstanding hosts has prepared the operation. Every host is eventually contacted.
+ */
+class HostRolloutQueue {
+
+    private final Deque<String> pending;
+    private final Set<String> outstanding = new HashSet<String>();
+    private final int fanOut;
+
+    /**
+     * @param hostNames the names of the hosts to push the operation to
+     * @param maxConcurrentHosts the maximum number of hosts concurrently preparing the operation, {@code 0} if unbounded
+     * @param latencies the latencies of the hosts
+     */
+    HostRolloutQueue(final Collection<String> hostNames, final int maxConcurrentHosts, final HostRolloutLatencies latencies) {
+        final boolean bounded = maxConcurrentHosts > 0 && maxConcurrentHosts < hostNames.size();
+        this.pending = new ArrayDeque<String>(bounded ? latencies.slowestFirst(hostNames) : hostNames);
+        this.fanOut = bounded ? maxConcurrentHosts : pending.size();
+    }
+
+    /**
+     * Get the next host to push the operation to.
+     *
+     * @return the name of the host, or {@code null} if no further host may be contacted until an outstanding host
+     *         has prepared the operation
+     */
+    String next() {
+        if (outstanding.size() >= fanOut || pending.isEmpty()) {
+            return null;
+        }
+        final String hostName = pending.poll();
+        outstanding.add(hostName);
+        return hostName;
+    }
+
+    /**
+     * Record that a host prepared the operation, successfully or not.
+     *
+     * @param hostName the name of the host
+     * @return {@code true} if the host was outstanding
+     */
+    boolean prepared(final String hostName) {
+        return outstanding.remove(hostName);
+    }
+
+    /**
+     * @return whether hosts are still preparing the operation
+     */
+    boolean hasOutstanding() {
+        return !outstanding.isEmpty();
+    }
+}
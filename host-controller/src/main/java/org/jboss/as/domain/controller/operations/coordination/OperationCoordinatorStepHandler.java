@@ -72,6 +72,7 @@ public class OperationCoordinatorStepHandler {
     private final Map<String, ProxyController> hostProxies;
     private final Map<String, ProxyController> serverProxies;
     private final OperationSlaveStepHandler localSlaveHandler;
+    private final HostRolloutLatencies hostLatencies = new HostRolloutLatencies();
     private volatile ExecutorService executorService;
 
     OperationCoordinatorStepHandler(final LocalHostControllerInfo localHostControllerInfo,
@@ -203,6 +204,7 @@ public class OperationCoordinatorStepHandler {
 
                 if (global) {
                     remoteHosts.addAll(hostProxies.keySet());
+                    hostLatencies.retain(remoteHosts);
                 }
 
                 Map<String, ProxyController> remoteProxies = new HashMap<String, ProxyController>();
@@ -215,7 +217,7 @@ public class OperationCoordinatorStepHandler {
                     }
                 }
 
-                context.addStep(slaveOp.clone(), new DomainSlaveHandler(remoteProxies, overallContext), OperationContext.Stage.DOMAIN);
+                context.addStep(slaveOp.clone(), new DomainSlaveHandler(remoteProxies, overallContext, hostLatencies), OperationContext.Stage.DOMAIN);
             }
         }
 
@@ -88,6 +88,7 @@ import org.jboss.as.domain.controller.operations.coordination.PrepareStepHandler
 import org.jboss.as.host.controller.RemoteDomainConnectionService.RemoteFileRepository;
 import org.jboss.as.host.controller.ignored.IgnoredDomainResourceRegistry;
 import org.jboss.as.host.controller.mgmt.HostControllerRegistrationHandler;
+import org.jboss.as.host.controller.mgmt.ContentTransferStatistics;
 import org.jboss.as.host.controller.mgmt.MasterDomainControllerOperationHandlerService;
 import org.jboss.as.host.controller.mgmt.ServerToHostOperationHandlerFactoryService;
 import org.jboss.as.host.controller.mgmt.SlaveHostPinger;
@@ -159,6 +160,7 @@ public class DomainModelControllerService extends AbstractControllerService impl
     private final ControlledProcessState processState;
     private final IgnoredDomainResourceRegistry ignoredRegistry;
     private final PathManagerService pathManager;
+    private final ContentTransferStatistics contentTransferStatistics = new ContentTransferStatistics();
 
     private volatile ServerInventory serverInventory;
 
@@ -453,7 +455,7 @@ public class DomainModelControllerService extends AbstractControllerService impl
                                         return internalExecute(operation, handler, control, attachments, step);
                                     }
 
-                                }),
+                                }, contentTransferStatistics),
                                 DomainModelControllerService.SERVICE_NAME, ManagementRemotingServices.DOMAIN_CHANNEL, null, null);
                         serverInventory = getFuture(inventoryFuture);
                     }
@@ -567,7 +569,7 @@ public class DomainModelControllerService extends AbstractControllerService impl
     public void registerHostModel(String hostName, ManagementResourceRegistration root) {
         HostModelUtil.createHostRegistry(hostName, root, hostControllerConfigurationPersister, environment, runningModeControl,
                 localFileRepository, hostControllerInfo, new DelegatingServerInventory(), remoteFileRepository, contentRepository,
-                this, extensionRegistry,vaultReader, ignoredRegistry, processState, pathManager);
+                this, extensionRegistry,vaultReader, ignoredRegistry, processState, pathManager, contentTransferStatistics);
     }
 
     private static class HostRegistration {
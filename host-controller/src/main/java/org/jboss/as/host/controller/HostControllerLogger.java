@@ -396,4 +396,16 @@ public interface HostControllerLogger extends BasicLogger {
     @LogMessage(level = Level.WARN)
     @Message(id=10939, value="The slave host controller \"%s\"  could not be reached in the last [%d] milliseconds. Unregistering.")
     void slaveHostControllerUnreachable(String hostName, long timeout);
+
+    /**
+     * Logs a debug message about content sent to a slave host controller.
+     *
+     * @param bytes     the number of bytes sent.
+     * @param hostName  the name of the slave host controller.
+     * @param time      the time it took, in ms.
+     * @param throughput the throughput, in KiB/s.
+     */
+    @LogMessage(level = Level.DEBUG)
+    @Message(id=10940, value="Sent %d bytes of content to slave host controller \"%s\" in %d ms (%d KiB/s)")
+    void contentSentToSlave(long bytes, String hostName, long time, long throughput);
 }
@@ -24,6 +24,7 @@ package org.jboss.as.host.controller;
 
 import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
 import org.jboss.as.domain.controller.SlaveRegistrationException;
+import org.jboss.as.domain.controller.operations.DomainModelHashes;
 import org.jboss.as.domain.management.CallbackHandlerFactory;
 import org.jboss.as.domain.management.SecurityRealm;
 import org.jboss.as.host.controller.mgmt.DomainControllerProtocol;
@@ -282,6 +283,13 @@ class RemoteDomainConnection extends FutureManagementChannel {
          */
         ModelNode resolveSubsystemVersions(ModelNode extensions);
 
+        /**
+         * Read the hashes of the local domain model, sent to the master so it only sends back what changed.
+         *
+         * @return the hashes, undefined if they could not be read
+         */
+        ModelNode readDomainModelHashes();
+
         /**
          * Apply the remote domain model.
          *
@@ -315,6 +323,10 @@ class RemoteDomainConnection extends FutureManagementChannel {
              output.writeUTF(localHostName);
              ModelNode hostInfo = localHostInfo.clone();
              hostInfo.get(RemoteDomainConnectionService.DOMAIN_CONNECTION_ID).set(pongHandler.getConnectionId());
+             final ModelNode domainModelHashes = callback.readDomainModelHashes();
+             if (domainModelHashes.isDefined()) {
+                 hostInfo.get(DomainModelHashes.DOMAIN_MODEL_HASHES).set(domainModelHashes);
+             }
              hostInfo.writeExternal(output);
          }
 
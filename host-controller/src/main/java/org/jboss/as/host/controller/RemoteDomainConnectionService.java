@@ -37,6 +37,7 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.PRO
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.PRODUCT_VERSION;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RELEASE_CODENAME;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RELEASE_VERSION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RESULT;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUCCESS;
 import org.jboss.as.controller.extension.ExtensionRegistry;
 import org.jboss.as.domain.controller.operations.ApplyExtensionsHandler;
@@ -61,6 +62,7 @@ import javax.security.sasl.SaslException;
 
 import org.jboss.as.controller.HashUtil;
 import org.jboss.as.controller.ModelController;
+import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.client.ModelControllerClient;
 import org.jboss.as.controller.client.Operation;
 import org.jboss.as.controller.client.OperationAttachments;
@@ -70,6 +72,7 @@ import org.jboss.as.controller.remote.TransactionalProtocolOperationHandler;
 import org.jboss.as.domain.controller.LocalHostControllerInfo;
 import org.jboss.as.domain.controller.SlaveRegistrationException;
 import org.jboss.as.domain.controller.operations.ApplyRemoteMasterDomainModelHandler;
+import org.jboss.as.domain.controller.operations.ReadDomainModelHashesHandler;
 import org.jboss.as.domain.management.SecurityRealm;
 import org.jboss.as.domain.management.security.SecurityRealmService;
 import org.jboss.as.host.controller.mgmt.DomainControllerProtocol;
@@ -86,6 +89,7 @@ import org.jboss.as.remoting.management.ManagementRemotingServices;
 import org.jboss.as.repository.HostFileRepository;
 import org.jboss.as.repository.RemoteFileRequestAndHandler.CannotCreateLocalDirectoryException;
 import org.jboss.as.repository.RemoteFileRequestAndHandler.DidNotReadEntireFileException;
+import org.jboss.as.repository.RemoteFileRequestAndHandler.Transfer;
 import org.jboss.as.version.ProductConfig;
 import org.jboss.as.version.Version;
 import org.jboss.dmr.ModelNode;
@@ -118,6 +122,10 @@ public class RemoteDomainConnectionService implements MasterDomainControllerClie
 
     private static final ModelNode APPLY_EXTENSIONS = new ModelNode();
     private static final ModelNode APPLY_DOMAIN_MODEL = new ModelNode();
+    private static final ModelNode READ_DOMAIN_MODEL_HASHES = new ModelNode();
+    /** The first management version of a master that can resume a file transfer from an offset */
+    private static final int FILE_OFFSET_MAJOR_VERSION = 1;
+    private static final int FILE_OFFSET_MINOR_VERSION = 4;
     static {
         APPLY_EXTENSIONS.get(OP).set(ApplyExtensionsHandler.OPERATION_NAME);
         APPLY_EXTENSIONS.get(OPERATION_HEADERS, "execute-for-coordinator").set(true);
@@ -129,6 +137,11 @@ public class RemoteDomainConnectionService implements MasterDomainControllerClie
         APPLY_DOMAIN_MODEL.get(OPERATION_HEADERS, "execute-for-coordinator").set(true);
         APPLY_DOMAIN_MODEL.get(OP_ADDR).setEmptyList();
         APPLY_DOMAIN_MODEL.protect();
+
+        READ_DOMAIN_MODEL_HASHES.get(OP).set(ReadDomainModelHashesHandler.OPERATION_NAME);
+        READ_DOMAIN_MODEL_HASHES.get(OPERATION_HEADERS, "execute-for-coordinator").set(true);
+        READ_DOMAIN_MODEL_HASHES.get(OP_ADDR).setEmptyList();
+        READ_DOMAIN_MODEL_HASHES.protect();
     }
 
     private final ExtensionRegistry extensionRegistry;
@@ -139,6 +152,8 @@ public class RemoteDomainConnectionService implements MasterDomainControllerClie
 
     /** Used to invoke ModelController ops on the master */
     private volatile ModelControllerClient masterProxy;
+    /** Whether the master understands {@link DomainControllerProtocol#PARAM_FILE_OFFSET} */
+    private volatile boolean masterSupportsFileOffset;
 
     private final FutureClient futureClient = new FutureClient();
     private final InjectedValue<Endpoint> endpointInjector = new InjectedValue<Endpoint>();
@@ -300,6 +315,11 @@ public class RemoteDomainConnectionService implements MasterDomainControllerClie
                     return resolveSubsystems(extensions.asList());
                 }
 
+                @Override
+                public ModelNode readDomainModelHashes() {
+                    return readLocalDomainModelHashes();
+                }
+
                         @Override
                 public boolean applyDomainModel(final List<ModelNode> bootOperations) {
                     // Apply the model..
@@ -349,6 +369,24 @@ public class RemoteDomainConnectionService implements MasterDomainControllerClie
         return subsystems;
     }
 
+    /**
+     * Read the hashes of the local domain model.
+     *
+     * @return the hashes, undefined if they could not be read
+     */
+    private ModelNode readLocalDomainModelHashes() {
+        try {
+            final ModelNode result = controller.execute(READ_DOMAIN_MODEL_HASHES, OperationMessageHandler.logging, ModelController.OperationTransactionControl.COMMIT, OperationAttachments.EMPTY);
+            if (SUCCESS.equals(result.get(OUTCOME).asString())) {
+                return result.get(RESULT);
+            }
+        } catch (Exception e) {
+            ROOT_LOGGER.debugf(e, "Failed to read the hashes of the domain model");
+        }
+        // the master sends the complete model
+        return new ModelNode();
+    }
+
     /**
      * Apply the remote domain model to the local host controller.
      *
@@ -356,6 +394,7 @@ public class RemoteDomainConnectionService implements MasterDomainControllerClie
      * @return {@code true} if the model was applied successfully, {@code false} otherwise
      */
     private boolean applyRemoteDomainModel(final List<ModelNode> bootOperations) {
+        masterSupportsFileOffset = supportsFileOffset(bootOperations);
         final ModelNode result;
         try {
             // Create the apply-domain-model operation
@@ -370,6 +409,27 @@ public class RemoteDomainConnectionService implements MasterDomainControllerClie
         return SUCCESS.equals(result.get(OUTCOME).asString());
     }
 
+    /**
+     * Check the management version of the master, which is part of the model of the domain root.
+     *
+     * @param bootOperations the domain model sent by the master
+     * @return {@code true} if the master can resume a file transfer from an offset
+     */
+    private static boolean supportsFileOffset(final List<ModelNode> bootOperations) {
+        for (final ModelNode resourceDescription : bootOperations) {
+            if (PathAddress.pathAddress(resourceDescription.require("domain-resource-address")).size() == 0) {
+                final ModelNode model = resourceDescription.get("domain-resource-model");
+                if (!model.hasDefined(MANAGEMENT_MAJOR_VERSION) || !model.hasDefined(MANAGEMENT_MINOR_VERSION)) {
+                    return false;
+                }
+                final int major = model.get(MANAGEMENT_MAJOR_VERSION).asInt();
+                final int minor = model.get(MANAGEMENT_MINOR_VERSION).asInt();
+                return major > FILE_OFFSET_MAJOR_VERSION || (major == FILE_OFFSET_MAJOR_VERSION && minor >= FILE_OFFSET_MINOR_VERSION);
+            }
+        }
+        return false;
+    }
+
     /** {@inheritDoc} */
     @Override
     public synchronized void stop(final StopContext context) {
@@ -404,6 +464,7 @@ public class RemoteDomainConnectionService implements MasterDomainControllerClie
         private final byte rootId;
         private final String filePath;
         private final HostFileRepository localFileRepository;
+        private volatile Transfer transfer;
 
         private GetFileRequest(final byte rootId, final String filePath, final HostFileRepository localFileRepository) {
             this.rootId = rootId;
@@ -420,37 +481,50 @@ public class RemoteDomainConnectionService implements MasterDomainControllerClie
         protected void sendRequest(ActiveOperation.ResultHandler<File> resultHandler, ManagementRequestContext<Void> context, FlushableDataOutput output) throws IOException {
             output.write(DomainControllerProtocol.PARAM_HOST_ID);
             output.writeUTF(localHostInfo.getLocalHostName());
-            DomainRemoteFileRequestAndHandler.INSTANCE.sendRequest(output, rootId, filePath);
+            // deployment content is addressed by its hash, so an interrupted transfer of it can be resumed if the
+            // master understands the offset
+            final File resumePath = rootId == DomainControllerProtocol.PARAM_ROOT_ID_DEPLOYMENT && masterSupportsFileOffset ? getLocalPath() : null;
+            transfer = DomainRemoteFileRequestAndHandler.INSTANCE.sendRequest(output, rootId, filePath, resumePath);
         }
 
         @Override
         public void handleRequest(DataInput input, ActiveOperation.ResultHandler<File> resultHandler, ManagementRequestContext<Void> context) throws IOException {
-            final File localPath;
+            final File localPath = getLocalPath();
+            try {
+                DomainRemoteFileRequestAndHandler.INSTANCE.handleResponse(input, localPath, transfer, ROOT_LOGGER, resultHandler, context);
+            } catch (CannotCreateLocalDirectoryException e) {
+                throw MESSAGES.cannotCreateLocalDirectory(e.getDir());
+            } catch (DidNotReadEntireFileException e) {
+                throw MESSAGES.didNotReadEntireFile(e.getMissing());
+            }
+        }
+
+        /**
+         * Release the transfer in case the response was not handled.
+         */
+        private void releaseTransfer() {
+            final Transfer transfer = this.transfer;
+            if (transfer != null) {
+                transfer.release();
+            }
+        }
+
+        private File getLocalPath() {
             switch (rootId) {
                 case DomainControllerProtocol.PARAM_ROOT_ID_FILE: {
-                    localPath = localFileRepository.getFile(filePath);
-                    break;
+                    return localFileRepository.getFile(filePath);
                 }
                 case DomainControllerProtocol.PARAM_ROOT_ID_CONFIGURATION: {
-                    localPath = localFileRepository.getConfigurationFile(filePath);
-                    break;
+                    return localFileRepository.getConfigurationFile(filePath);
                 }
                 case DomainControllerProtocol.PARAM_ROOT_ID_DEPLOYMENT: {
                     byte[] hash = HashUtil.hexStringToByteArray(filePath);
-                    localPath = localFileRepository.getDeploymentRoot(hash);
-                    break;
+                    return localFileRepository.getDeploymentRoot(hash);
                 }
                 default: {
-                    localPath = null;
+                    return null;
                 }
             }
-            try {
-                DomainRemoteFileRequestAndHandler.INSTANCE.handleResponse(input, localPath, ROOT_LOGGER, resultHandler, context);
-            } catch (CannotCreateLocalDirectoryException e) {
-                throw MESSAGES.cannotCreateLocalDirectory(e.getDir());
-            } catch (DidNotReadEntireFileException e) {
-                throw MESSAGES.didNotReadEntireFile(e.getMissing());
-            }
         }
     }
 
@@ -509,10 +583,13 @@ public class RemoteDomainConnectionService implements MasterDomainControllerClie
     private final RemoteFileRepositoryExecutor remoteFileRepositoryExecutor = new RemoteFileRepositoryExecutor() {
         public File getFile(final String relativePath, final byte repoId, HostFileRepository localFileRepository) {
             if(connection.isConnected()) {
+                final GetFileRequest request = new GetFileRequest(repoId, relativePath, localFileRepository);
                 try {
-                    return handler.executeRequest(new GetFileRequest(repoId, relativePath, localFileRepository), null).getResult().get();
+                    return handler.executeRequest(request, null).getResult().get();
                 } catch (Exception e) {
                     throw MESSAGES.failedToGetFileFromRemoteRepository(e);
+                } finally {
+                    request.releaseTransfer();
                 }
             } else {
                 return localFileRepository.getFile(relativePath);
@@ -83,6 +83,7 @@ import org.jboss.as.controller.descriptions.common.CommonDescriptions;
 import org.jboss.as.controller.operations.validation.EnumValidator;
 import org.jboss.as.controller.registry.AttributeAccess.Flag;
 import org.jboss.as.host.controller.DirectoryGrouping;
+import org.jboss.as.host.controller.operations.ContentTransferStatisticsHandler;
 import org.jboss.as.host.controller.operations.HostShutdownHandler;
 import org.jboss.as.host.controller.operations.LocalDomainControllerAddHandler;
 import org.jboss.as.host.controller.operations.RemoteDomainControllerAddHandler;
@@ -197,6 +198,9 @@ public class HostRootDescription {
         root.get(ATTRIBUTES, MASTER, DESCRIPTION).set(bundle.getString("host.master"));
         root.get(ATTRIBUTES, MASTER, TYPE).set(ModelType.BOOLEAN);
 
+        root.get(ATTRIBUTES, ContentTransferStatisticsHandler.ATTRIBUTE_NAME, DESCRIPTION).set(bundle.getString("host.content-transfer-statistics"));
+        root.get(ATTRIBUTES, ContentTransferStatisticsHandler.ATTRIBUTE_NAME, TYPE).set(ModelType.OBJECT);
+
         DIRECTORY_GROUPING.addResourceAttributeDescription(bundle, "host", root);
 
         root.get(OPERATIONS).setEmptyObject();
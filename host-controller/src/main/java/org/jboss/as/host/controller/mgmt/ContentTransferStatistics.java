@@ -0,0 +1,90 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.host.controller.mgmt;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.jboss.as.repository.RemoteFileRequestAndHandler;
+import org.jboss.dmr.ModelNode;
+
+/**
+ * The amount of content the domain controller sent to each slave host, and how long sending it took.
+ */
+public class ContentTransferStatistics {
+
+    static final String TRANSFER_COUNT = "transfer-count";
+    static final String BYTES_TRANSFERRED = "bytes-transferred";
+    static final String TRANSFER_TIME = "transfer-time";
+    static final String THROUGHPUT = "throughput";
+
+    private final ConcurrentMap<String, HostStatistics> hosts = new ConcurrentHashMap<String, HostStatistics>();
+
+    /**
+     * Record a completed transfer.
+     *
+     * @param hostName the name of the host the content was sent to
+     * @param bytes the number of bytes sent
+     * @param nanos the time it took to send them, in nanoseconds
+     */
+    void transferCompleted(final String hostName, final long bytes, final long nanos) {
+        HostStatistics statistics = hosts.get(hostName);
+        if (statistics == null) {
+            final HostStatistics newStatistics = new HostStatistics();
+            statistics = hosts.putIfAbsent(hostName, newStatistics);
+            if (statistics == null) {
+                statistics = newStatistics;
+            }
+        }
+        statistics.transfers.incrementAndGet();
+        statistics.bytes.addAndGet(bytes);
+        statistics.nanos.addAndGet(nanos);
+    }
+
+    /**
+     * @return the statistics keyed by host name, the time in milliseconds and the throughput in bytes per second
+     */
+    public ModelNode toModelNode() {
+        final ModelNode result = new ModelNode();
+        result.setEmptyObject();
+        for (Map.Entry<String, HostStatistics> entry : hosts.entrySet()) {
+            final HostStatistics statistics = entry.getValue();
+            final long bytes = statistics.bytes.get();
+            final long nanos = statistics.nanos.get();
+            final ModelNode host = result.get(entry.getKey());
+            host.get(TRANSFER_COUNT).set(statistics.transfers.get());
+            host.get(BYTES_TRANSFERRED).set(bytes);
+            host.get(TRANSFER_TIME).set(TimeUnit.NANOSECONDS.toMillis(nanos));
+            host.get(THROUGHPUT).set(RemoteFileRequestAndHandler.getThroughput(bytes, nanos));
+        }
+        return result;
+    }
+
+    private static final class HostStatistics {
+        private final AtomicLong transfers = new AtomicLong();
+        private final AtomicLong bytes = new AtomicLong();
+        private final AtomicLong nanos = new AtomicLong();
+    }
+}
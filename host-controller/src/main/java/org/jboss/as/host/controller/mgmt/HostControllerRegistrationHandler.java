@@ -60,6 +60,7 @@ import org.jboss.as.controller.transform.Transformers;
 import org.jboss.as.domain.controller.DomainController;
 import org.jboss.as.domain.controller.DomainControllerMessages;
 import org.jboss.as.domain.controller.SlaveRegistrationException;
+import org.jboss.as.domain.controller.operations.DomainModelHashes;
 import org.jboss.as.domain.controller.operations.ReadMasterDomainModelHandler;
 import org.jboss.as.host.controller.HostControllerMessages;
 import org.jboss.as.host.controller.RemoteDomainConnectionService;
@@ -313,7 +314,9 @@ public class HostControllerRegistrationHandler implements ManagementRequestHandl
             // Remotely resolve the subsystem versions and create the transformation
             registrationContext.processSubsystems(transformers, extensions);
             // Now run the read-domain model operation
-            final ReadMasterDomainModelHandler handler = new ReadMasterDomainModelHandler(transformers);
+            // Only the parts of the model that differ from the one of the host are sent
+            final ModelNode hostHashes = hostInfo.has(DomainModelHashes.DOMAIN_MODEL_HASHES) ? hostInfo.get(DomainModelHashes.DOMAIN_MODEL_HASHES) : new ModelNode();
+            final ReadMasterDomainModelHandler handler = new ReadMasterDomainModelHandler(transformers, hostHashes);
             context.addStep(READ_DOMAIN_MODEL, handler, OperationContext.Stage.MODEL);
             // Complete
             context.completeStep(OperationContext.RollbackHandler.NOOP_ROLLBACK_HANDLER);
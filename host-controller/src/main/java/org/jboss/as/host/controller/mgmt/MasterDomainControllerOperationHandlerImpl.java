@@ -19,12 +19,14 @@
 package org.jboss.as.host.controller.mgmt;
 
 import static org.jboss.as.host.controller.HostControllerMessages.MESSAGES;
+import static org.jboss.as.host.controller.HostControllerLogger.ROOT_LOGGER;
 import static org.jboss.as.process.protocol.ProtocolUtils.expectHeader;
 
 import java.io.DataInput;
 import java.io.File;
 import java.io.IOException;
 import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 
 import org.jboss.as.controller.HashUtil;
 import org.jboss.as.domain.controller.DomainController;
@@ -39,7 +41,9 @@ import org.jboss.as.protocol.mgmt.ManagementRequestHeader;
 import org.jboss.as.protocol.mgmt.ManagementResponseHeader;
 import org.jboss.as.protocol.mgmt.RequestProcessingException;
 import org.jboss.as.repository.HostFileRepository;
+import org.jboss.as.repository.RemoteFileRequestAndHandler;
 import org.jboss.as.repository.RemoteFileRequestAndHandler.RootFileReader;
+import org.jboss.as.repository.RemoteFileRequestAndHandler.TransferListener;
 import org.jboss.dmr.ModelNode;
 import org.jboss.remoting3.Channel;
 
@@ -52,10 +56,13 @@ class MasterDomainControllerOperationHandlerImpl implements ManagementRequestHan
 
     private final DomainController domainController;
     private final Executor asyncExecutor;
+    private final ContentTransferStatistics transferStatistics;
 
-    public MasterDomainControllerOperationHandlerImpl(final DomainController domainController, final Executor asyncExecutor) {
+    public MasterDomainControllerOperationHandlerImpl(final DomainController domainController, final Executor asyncExecutor,
+                                                      final ContentTransferStatistics transferStatistics) {
         this.domainController = domainController;
         this.asyncExecutor = asyncExecutor;
+        this.transferStatistics = transferStatistics;
     }
 
     @Override
@@ -117,7 +124,17 @@ class MasterDomainControllerOperationHandlerImpl implements ManagementRequestHan
                 }
             };
 
-            remoteSupport.handleRequest(input, reader, context);
+            final TransferListener listener = new TransferListener() {
+                @Override
+                public void transferCompleted(File localPath, long bytes, long nanos) {
+                    transferStatistics.transferCompleted(hostId, bytes, nanos);
+                    if (bytes > 0) {
+                        ROOT_LOGGER.contentSentToSlave(bytes, hostId, TimeUnit.NANOSECONDS.toMillis(nanos),
+                                RemoteFileRequestAndHandler.getThroughput(bytes, nanos) / 1024);
+                    }
+                }
+            };
+            remoteSupport.handleRequest(input, reader, context, listener);
         }
     }
 
@@ -58,13 +58,16 @@ public class MasterDomainControllerOperationHandlerService extends AbstractModel
 
     private final DomainController domainController;
     private final HostControllerRegistrationHandler.OperationExecutor operationExecutor;
+    private final ContentTransferStatistics transferStatistics;
     private final ManagementPongRequestHandler pongRequestHandler = new ManagementPongRequestHandler();
     private final ThreadFactory threadFactory = new JBossThreadFactory(new ThreadGroup("slave-request-threads"), Boolean.FALSE, null, "%G - %t", null, null, AccessController.getContext());
     private volatile ExecutorService slaveRequestExecutor;
 
-    public MasterDomainControllerOperationHandlerService(final DomainController domainController, final HostControllerRegistrationHandler.OperationExecutor operationExecutor) {
+    public MasterDomainControllerOperationHandlerService(final DomainController domainController, final HostControllerRegistrationHandler.OperationExecutor operationExecutor,
+                                                         final ContentTransferStatistics transferStatistics) {
         this.domainController = domainController;
         this.operationExecutor = operationExecutor;
+        this.transferStatistics = transferStatistics;
     }
 
     protected String getThreadGroupName() {
@@ -93,7 +96,7 @@ public class MasterDomainControllerOperationHandlerService extends AbstractModel
         // Assemble the request handlers for the domain channel
         handler.addHandlerFactory(new HostControllerRegistrationHandler(handler, domainController, operationExecutor, slaveRequestExecutor));
         handler.addHandlerFactory(new ModelControllerClientOperationHandler(getController(), handler));
-        handler.addHandlerFactory(new MasterDomainControllerOperationHandlerImpl(domainController, slaveRequestExecutor));
+        handler.addHandlerFactory(new MasterDomainControllerOperationHandlerImpl(domainController, slaveRequestExecutor, transferStatistics));
         handler.addHandlerFactory(pongRequestHandler);
         final Channel.Key key = channel.addCloseHandler(new CloseHandler<Channel>() {
             @Override
@@ -22,6 +22,9 @@
 
 package org.jboss.as.domain.controller.operations;
 
+import static junit.framework.Assert.assertNotNull;
+import static junit.framework.Assert.assertNull;
+import static junit.framework.Assert.assertSame;
 import static junit.framework.Assert.assertTrue;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.DOMAIN_MODEL;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.EXTENSION;
@@ -35,6 +38,7 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SER
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SERVER_CONFIG;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SERVER_GROUP;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SOCKET_BINDING_GROUP;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUBSYSTEM;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SYSTEM_PROPERTY;
 
 import org.jboss.as.controller.OperationContext;
@@ -490,4 +494,32 @@ public class ApplyRemoteMasterDomainModelHandlerTestCase extends AbstractOperati
         assertTrue(r instanceof ManagedDMRContentTypeResource);
     }
 
+    @Test
+    public void testUnchangedSubtreeKept() throws Exception {
+        final MockOperationContext operationContext = getOperationContext(true);
+        final Resource profile = Resource.Factory.create();
+        final Resource subsystem = Resource.Factory.create();
+        subsystem.getModel().get("attribute").set("value");
+        profile.registerChild(PathElement.pathElement(SUBSYSTEM, "kept"), subsystem);
+        profile.registerChild(PathElement.pathElement(SUBSYSTEM, "removed"), Resource.Factory.create());
+        operationContext.root.registerChild(PathElement.pathElement(PROFILE, "some-profile"), profile);
+        operationContext.root.registerChild(PathElement.pathElement(PATH, "some-path"), Resource.Factory.create());
+
+        final ModelNode operation = new ModelNode();
+        ModelNode change = new ModelNode();
+        change.get("domain-resource-address").set(PathAddress.pathAddress(PathElement.pathElement(PROFILE, "some-profile")).toModelNode());
+        change.get("domain-resource-model").set(new ModelNode());
+        operation.get(DOMAIN_MODEL).add(change);
+        change = new ModelNode();
+        change.get("domain-resource-address").set(PathAddress.pathAddress(PathElement.pathElement(PROFILE, "some-profile"), PathElement.pathElement(SUBSYSTEM, "kept")).toModelNode());
+        change.get(DomainModelHashes.RESOURCE_UNCHANGED).set(true);
+        operation.get(DOMAIN_MODEL).add(change);
+        handler.execute(operationContext, operation);
+
+        final Resource newProfile = operationContext.root.getChild(PathElement.pathElement(PROFILE, "some-profile"));
+        assertNotNull(newProfile);
+        assertSame(subsystem, newProfile.getChild(PathElement.pathElement(SUBSYSTEM, "kept")));
+        assertNull(newProfile.getChild(PathElement.pathElement(SUBSYSTEM, "removed")));
+        assertNull(operationContext.root.getChild(PathElement.pathElement(PATH, "some-path")));
+    }
 }
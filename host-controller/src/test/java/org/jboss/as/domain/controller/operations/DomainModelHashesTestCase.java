@@ -0,0 +1,93 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.domain.controller.operations;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.HOST;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.PROFILE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUBSYSTEM;
+
+import java.util.Arrays;
+import java.util.Map;
+
+import junit.framework.Assert;
+
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.registry.Resource;
+import org.junit.Test;
+
+/**
+ * Unit tests of {@link DomainModelHashes}.
+ */
+public class DomainModelHashesTestCase {
+
+    @Test
+    public void testChildOrderIgnored() {
+        final Resource first = Resource.Factory.create();
+        first.registerChild(PathElement.pathElement(SUBSYSTEM, "a"), createSubsystem("a"));
+        first.registerChild(PathElement.pathElement(SUBSYSTEM, "b"), createSubsystem("b"));
+        final Resource second = Resource.Factory.create();
+        second.registerChild(PathElement.pathElement(SUBSYSTEM, "b"), createSubsystem("b"));
+        second.registerChild(PathElement.pathElement(SUBSYSTEM, "a"), createSubsystem("a"));
+        Assert.assertTrue(Arrays.equals(DomainModelHashes.hash(first), DomainModelHashes.hash(second)));
+    }
+
+    @Test
+    public void testDescendantChangeDetected() {
+        final Resource profile = Resource.Factory.create();
+        final Resource subsystem = createSubsystem("a");
+        profile.registerChild(PathElement.pathElement(SUBSYSTEM, "a"), subsystem);
+        final byte[] hash = DomainModelHashes.hash(profile);
+        subsystem.getModel().get("attribute").set("changed");
+        Assert.assertFalse(Arrays.equals(hash, DomainModelHashes.hash(profile)));
+    }
+
+    @Test
+    public void testDescribedHashes() {
+        final Resource root = Resource.Factory.create();
+        final Resource profile = Resource.Factory.create();
+        final Resource subsystem = createSubsystem("a");
+        subsystem.registerChild(PathElement.pathElement("child", "deep"), Resource.Factory.create());
+        profile.registerChild(PathElement.pathElement(SUBSYSTEM, "a"), subsystem);
+        root.registerChild(PathElement.pathElement(PROFILE, "default"), profile);
+        root.registerChild(PathElement.pathElement(HOST, "local"), Resource.Factory.create());
+
+        final Map<PathAddress, byte[]> hashes = DomainModelHashes.readHashes(DomainModelHashes.describeHashes(root));
+        final PathAddress profileAddress = PathAddress.pathAddress(PathElement.pathElement(PROFILE, "default"));
+        final PathAddress subsystemAddress = profileAddress.append(PathElement.pathElement(SUBSYSTEM, "a"));
+        // hosts are not part of the domain model and the hashes stop at the maximum depth
+        Assert.assertEquals(2, hashes.size());
+        Assert.assertTrue(DomainModelHashes.isUnchanged(profileAddress, profile, hashes.get(profileAddress)));
+        Assert.assertTrue(DomainModelHashes.isUnchanged(subsystemAddress, subsystem, hashes.get(subsystemAddress)));
+
+        subsystem.getModel().get("attribute").set("changed");
+        Assert.assertFalse(DomainModelHashes.isUnchanged(profileAddress, profile, hashes.get(profileAddress)));
+        Assert.assertFalse(DomainModelHashes.isUnchanged(subsystemAddress, subsystem, hashes.get(subsystemAddress)));
+    }
+
+    private static Resource createSubsystem(final String value) {
+        final Resource subsystem = Resource.Factory.create();
+        subsystem.getModel().get("attribute").set(value);
+        return subsystem;
+    }
+}
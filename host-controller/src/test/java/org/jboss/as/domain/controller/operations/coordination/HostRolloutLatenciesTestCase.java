@@ -0,0 +1,67 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.domain.controller.operations.coordination;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+/**
+ * Unit tests of {@link HostRolloutLatencies}.
+ */
+public class HostRolloutLatenciesTestCase {
+
+    @Test
+    public void testMovingAverage() {
+        final HostRolloutLatencies latencies = new HostRolloutLatencies();
+        Assert.assertEquals(-1, latencies.getLatency("a"));
+        latencies.record("a", 1000);
+        Assert.assertEquals(1000, latencies.getLatency("a"));
+        latencies.record("a", 2000);
+        // 0.3 * 2000 + 0.7 * 1000
+        Assert.assertEquals(1300, latencies.getLatency("a"));
+    }
+
+    @Test
+    public void testSlowestFirst() {
+        final HostRolloutLatencies latencies = new HostRolloutLatencies();
+        latencies.record("fast", 10);
+        latencies.record("slow", 1000);
+        latencies.record("medium", 100);
+        Assert.assertEquals(Arrays.asList("unknown", "slow", "medium", "fast"),
+                latencies.slowestFirst(Arrays.asList("fast", "medium", "unknown", "slow")));
+    }
+
+    @Test
+    public void testRetain() {
+        final HostRolloutLatencies latencies = new HostRolloutLatencies();
+        latencies.record("a", 10);
+        latencies.record("b", 20);
+        latencies.retain(Collections.singleton("b"));
+        Assert.assertEquals(-1, latencies.getLatency("a"));
+        Assert.assertEquals(20, latencies.getLatency("b"));
+    }
+}
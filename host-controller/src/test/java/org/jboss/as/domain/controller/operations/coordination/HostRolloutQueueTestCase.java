@@ -0,0 +1,111 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.domain.controller.operations.coordination;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+
+/**
+ * Unit tests of {@link HostRolloutQueue} and of the bound read by {@link DomainSlaveHandler}.
+ */
+public class HostRolloutQueueTestCase {
+
+    private static final List<String> HOSTS = Arrays.asList("a", "b", "c", "d", "e");
+
+    @Test
+    public void testUnbounded() {
+        final HostRolloutQueue queue = new HostRolloutQueue(HOSTS, 0, new HostRolloutLatencies());
+        Assert.assertEquals(new HashSet<String>(HOSTS), new HashSet<String>(drain(queue)));
+        Assert.assertTrue(queue.hasOutstanding());
+    }
+
+    @Test
+    public void testBoundLargerThanHosts() {
+        final HostRolloutQueue queue = new HostRolloutQueue(HOSTS, 10, new HostRolloutLatencies());
+        Assert.assertEquals(HOSTS.size(), drain(queue).size());
+    }
+
+    @Test
+    public void testBoundedDispatch() {
+        final HostRolloutLatencies latencies = new HostRolloutLatencies();
+        latencies.record("a", 10);
+        latencies.record("b", 50);
+        latencies.record("c", 40);
+        latencies.record("d", 30);
+        latencies.record("e", 20);
+        final HostRolloutQueue queue = new HostRolloutQueue(HOSTS, 2, latencies);
+
+        Assert.assertEquals(Arrays.asList("b", "c"), drain(queue));
+        Assert.assertFalse(queue.prepared("a"));
+        Assert.assertTrue(drain(queue).isEmpty());
+
+        // a host failing to prepare the operation does not stop the rollout
+        Assert.assertTrue(queue.prepared("c"));
+        Assert.assertEquals(Arrays.asList("d"), drain(queue));
+        Assert.assertTrue(queue.prepared("b"));
+        Assert.assertEquals(Arrays.asList("e"), drain(queue));
+        Assert.assertTrue(queue.prepared("d"));
+        Assert.assertEquals(Arrays.asList("a"), drain(queue));
+        Assert.assertTrue(queue.prepared("e"));
+        Assert.assertTrue(queue.prepared("a"));
+        Assert.assertFalse(queue.prepared("a"));
+        Assert.assertFalse(queue.hasOutstanding());
+        Assert.assertNull(queue.next());
+    }
+
+    @Test
+    public void testMaxConcurrentHostsReadAtRuntime() {
+        final String previous = System.getProperty(DomainSlaveHandler.MAX_CONCURRENT_HOSTS_PROPERTY);
+        try {
+            System.clearProperty(DomainSlaveHandler.MAX_CONCURRENT_HOSTS_PROPERTY);
+            Assert.assertEquals(0, DomainSlaveHandler.getMaxConcurrentHosts());
+            System.setProperty(DomainSlaveHandler.MAX_CONCURRENT_HOSTS_PROPERTY, "3");
+            Assert.assertEquals(3, DomainSlaveHandler.getMaxConcurrentHosts());
+            System.setProperty(DomainSlaveHandler.MAX_CONCURRENT_HOSTS_PROPERTY, "-1");
+            Assert.assertEquals(0, DomainSlaveHandler.getMaxConcurrentHosts());
+            System.setProperty(DomainSlaveHandler.MAX_CONCURRENT_HOSTS_PROPERTY, "many");
+            Assert.assertEquals(0, DomainSlaveHandler.getMaxConcurrentHosts());
+        } finally {
+            if (previous == null) {
+                System.clearProperty(DomainSlaveHandler.MAX_CONCURRENT_HOSTS_PROPERTY);
+            } else {
+                System.setProperty(DomainSlaveHandler.MAX_CONCURRENT_HOSTS_PROPERTY, previous);
+            }
+        }
+    }
+
+    private static List<String> drain(final HostRolloutQueue queue) {
+        final List<String> hosts = new ArrayList<String>();
+        String host;
+        while ((host = queue.next()) != null) {
+            hosts.add(host);
+        }
+        return hosts;
+    }
+}
@@ -29,8 +29,21 @@ import static org.jboss.as.messaging.MessagingMessages.MESSAGES;
 
 import java.util.EnumSet;
 import java.util.Locale;
+import java.util.Map;
 
+import org.hornetq.api.core.SimpleString;
+import org.hornetq.core.filter.Filter;
+import org.hornetq.core.postoffice.Binding;
+import org.hornetq.core.postoffice.QueueBinding;
 import org.hornetq.core.server.HornetQServer;
+import org.hornetq.core.server.MessageReference;
+import org.hornetq.core.server.Queue;
+import org.hornetq.jms.client.HornetQMessage;
+import org.hornetq.utils.Base64;
+import org.hornetq.utils.LinkedListIterator;
+import org.hornetq.utils.json.JSONArray;
+import org.hornetq.utils.json.JSONException;
+import org.hornetq.utils.json.JSONObject;
 import org.jboss.as.controller.AbstractRuntimeOnlyHandler;
 import org.jboss.as.controller.OperationContext;
 import org.jboss.as.controller.OperationFailedException;
@@ -86,8 +99,11 @@ public abstract class AbstractQueueControlHandler<T> extends AbstractRuntimeOnly
     public static final String NEW_PRIORITY = "new-priority";
     public static final String OTHER_QUEUE_NAME = "other-queue-name";
     public static final String REJECT_DUPLICATES = "reject-duplicates";
+    public static final String OFFSET = "offset";
+    public static final String LIMIT = "limit";
 
     private final ParametersValidator singleOptionalFilterValidator = new ParametersValidator();
+    private final ParametersValidator listMessagesValidator = new ParametersValidator();
     private final ParametersValidator singleMessageIdValidator = new ParametersValidator();
     private final ParametersValidator changeMessagePriorityValidator = new ParametersValidator();
     private final ParametersValidator changeMessagesPriorityValidator = new ParametersValidator();
@@ -103,6 +119,9 @@ public abstract class AbstractQueueControlHandler<T> extends AbstractRuntimeOnly
         final ParameterValidator priorityValidator = new IntRangeValidator(0, 9, false, false);
 
         singleOptionalFilterValidator.registerValidator(FILTER.getName(), filterValidator);
+        listMessagesValidator.registerValidator(FILTER.getName(), filterValidator);
+        listMessagesValidator.registerValidator(OFFSET, new IntRangeValidator(0, Integer.MAX_VALUE, true, false));
+        listMessagesValidator.registerValidator(LIMIT, new IntRangeValidator(1, Integer.MAX_VALUE, true, false));
         singleMessageIdValidator.registerValidator(MESSAGE_ID, messageIdValidator);
         changeMessagePriorityValidator.registerValidator(MESSAGE_ID, messageIdValidator);
         changeMessagePriorityValidator.registerValidator(NEW_PRIORITY, priorityValidator);
@@ -285,6 +304,7 @@ public abstract class AbstractQueueControlHandler<T> extends AbstractRuntimeOnly
         final ServiceName hqServiceName = MessagingServices.getHornetQServiceName(PathAddress.pathAddress(operation.get(ModelDescriptionConstants.OP_ADDR)));
         ServiceController<?> hqService = context.getServiceRegistry(false).getService(hqServiceName);
         HornetQServer hqServer = HornetQServer.class.cast(hqService.getValue());
+        MessageCursors cursors = HornetQService.class.cast(hqService.getService()).getMessageCursors();
         DelegatingQueueControl<T> control = getQueueControl(hqServer, queueName);
 
         if (control == null) {
@@ -296,10 +316,24 @@ public abstract class AbstractQueueControlHandler<T> extends AbstractRuntimeOnly
         Object handback = null;
         try {
             if (LIST_MESSAGES.equals(operationName)) {
-                String json = control.listMessagesAsJSON(getFilter(operation));
-                context.getResult().set(ModelNode.fromJSONString(json));
+                if (isPaged(operation)) {
+                    String json = listMessagesPage(control, cursors, operation);
+                    if (json != null) {
+                        context.getResult().set(ModelNode.fromJSONString(json));
+                    }
+                } else {
+                    String json = control.listMessagesAsJSON(getFilter(operation));
+                    context.getResult().set(ModelNode.fromJSONString(json));
+                }
             } else if (LIST_MESSAGES_AS_JSON.equals(operationName)) {
-                context.getResult().set(control.listMessagesAsJSON(getFilter(operation)));
+                if (isPaged(operation)) {
+                    String json = listMessagesPage(control, cursors, operation);
+                    if (json != null) {
+                        context.getResult().set(json);
+                    }
+                } else {
+                    context.getResult().set(control.listMessagesAsJSON(getFilter(operation)));
+                }
             } else if (COUNT_MESSAGES.equals(operationName)) {
                 context.getResult().set(control.countMessages(getFilter(operation)));
             } else if (REMOVE_MESSAGE.equals(operationName)) {
@@ -412,6 +446,101 @@ public abstract class AbstractQueueControlHandler<T> extends AbstractRuntimeOnly
         throw MESSAGES.unsupportedOperation(operationName);
     }
 
+    private boolean isPaged(ModelNode operation) {
+        return operation.hasDefined(OFFSET) || operation.hasDefined(LIMIT);
+    }
+
+    private String listMessagesPage(DelegatingQueueControl<T> control, MessageCursors cursors, ModelNode operation) throws Exception {
+        listMessagesValidator.validate(operation);
+        final String filter = operation.hasDefined(FILTER.getName()) ? operation.get(FILTER.getName()).asString() : null;
+        final int offset = operation.hasDefined(OFFSET) ? operation.get(OFFSET).asInt() : 0;
+        final int limit = operation.hasDefined(LIMIT) ? operation.get(LIMIT).asInt() : Integer.MAX_VALUE;
+        return control.listMessagesAsJSON(cursors, filter, offset, limit);
+    }
+
+    /**
+     * Walks the messages of a queue and lists at most {@code limit} messages matching the filter, skipping the
+     * first {@code offset} matching messages.
+     * <p/>
+     * Unlike {@code listMessagesAsJSON}, only the requested page of messages is held in memory. The messages are
+     * listed with the JSON layout of {@code listMessagesAsJSON}, except that {@code byte[]} values are encoded in
+     * Base64. A page ending before the last message keeps its position in the queue in the {@link MessageCursors},
+     * so the next page starts from there instead of skipping {@code offset} messages again.
+     *
+     * @param hqServer the HornetQ server
+     * @param cursors the positions of the pages listed from the queues of the server
+     * @param coreQueueName the name of the core queue
+     * @param filterString the core filter string, {@code null} to select all messages
+     * @param filter the filter created from {@code filterString}
+     * @param offset the number of matching messages to skip
+     * @param limit the maximum number of messages to return
+     * @param forJMS {@code true} to describe the messages with JMS properties
+     *
+     * @return a JSON array where each element is an object mapping message properties to their value or
+     * {@code null} if the queue does not exist
+     */
+    protected static String listMessagesAsJSON(final HornetQServer hqServer, final MessageCursors cursors, final String coreQueueName, final String filterString,
+                                               final Filter filter, final int offset, final int limit, final boolean forJMS) throws Exception {
+        final Binding binding = hqServer.getPostOffice().getBinding(new SimpleString(coreQueueName));
+        if (!(binding instanceof QueueBinding)) {
+            return null;
+        }
+        final Queue queue = ((QueueBinding) binding).getQueue();
+
+        final JSONArray result = new JSONArray();
+        LinkedListIterator<MessageReference> iterator = cursors.resume(queue, filterString, offset);
+        int skipped = 0;
+        if (iterator == null) {
+            iterator = queue.iterator();
+        } else {
+            skipped = offset;
+        }
+        int listed = 0;
+        boolean keep = false;
+        try {
+            while (listed < limit && iterator.hasNext()) {
+                final MessageReference ref = iterator.next();
+                if (filter != null && !filter.match(ref.getMessage())) {
+                    continue;
+                }
+                if (skipped < offset) {
+                    skipped++;
+                    continue;
+                }
+                Map<String, Object> properties = ref.getMessage().toMap();
+                if (forJMS) {
+                    properties = HornetQMessage.coreMaptoJMSMap(properties);
+                }
+                result.put(toJSON(properties));
+                listed++;
+            }
+            if (listed == limit && iterator.hasNext()) {
+                cursors.suspend(queue, filterString, offset + listed, iterator);
+                keep = true;
+            }
+        } finally {
+            if (!keep) {
+                iterator.close();
+            }
+        }
+        return result.toString();
+    }
+
+    private static JSONObject toJSON(final Map<String, Object> properties) throws JSONException {
+        final JSONObject message = new JSONObject();
+        for (Map.Entry<String, Object> entry : properties.entrySet()) {
+            final Object value = entry.getValue();
+            if (value instanceof byte[]) {
+                message.put(entry.getKey(), Base64.encodeBytes((byte[]) value));
+            } else if (value instanceof SimpleString) {
+                message.put(entry.getKey(), value.toString());
+            } else {
+                message.put(entry.getKey(), value);
+            }
+        }
+        return message;
+    }
+
     private String getFilter(ModelNode operation) throws OperationFailedException {
         singleOptionalFilterValidator.validate(operation);
         String filter = operation.hasDefined(FILTER.getName()) ? operation.get(FILTER.getName()).asString() : null;
@@ -428,6 +557,18 @@ public abstract class AbstractQueueControlHandler<T> extends AbstractRuntimeOnly
 
         String listMessagesAsJSON(String filter) throws Exception;
 
+        /**
+         * List a page of the messages matching the filter, with the JSON layout of
+         * {@link #listMessagesAsJSON(String)}.
+         *
+         * @param cursors the positions of the pages listed from the queues of the server
+         * @param filter the filter or selector, {@code null} to list all messages
+         * @param offset the number of matching messages to skip
+         * @param limit the maximum number of messages to list
+         * @return a JSON array where each element is an object mapping message properties to their value
+         */
+        String listMessagesAsJSON(MessageCursors cursors, String filter, int offset, int limit) throws Exception;
+
         long countMessages(String filter) throws Exception;
 
         boolean removeMessage(ModelNode id) throws Exception;
@@ -241,6 +241,7 @@ public enum Element {
    SUBSCRIPTION_NAME(JMSBridgeDefinition.SUBSCRIPTION_NAME),
    ADD_MESSAGE_ID_IN_HEADER(JMSBridgeDefinition.ADD_MESSAGE_ID_IN_HEADER),
    MODULE(JMSBridgeDefinition.MODULE),
+   PARALLELISM(JMSBridgeDefinition.PARALLELISM),
    ;
 
    private final String name;
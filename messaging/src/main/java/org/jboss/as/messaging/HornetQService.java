@@ -62,6 +62,7 @@ class HornetQService implements Service<HornetQServer> {
     private final InjectedValue<MBeanServer> mbeanServer = new InjectedValue<MBeanServer>();
     private final InjectedValue<SecurityDomainContext> securityDomainContextValue = new InjectedValue<SecurityDomainContext>();
     private final PathConfig pathConfig;
+    private final MessageCursors messageCursors = new MessageCursors();
 
     public HornetQService(PathConfig pathConfig) {
         this.pathConfig = pathConfig;
@@ -223,6 +224,7 @@ class HornetQService implements Service<HornetQServer> {
                 // FIXME stopped by the JMSService
                 // server.stop();
             }
+            messageCursors.closeAll();
             pathConfig.closeCallbacks(pathManager.getValue());
         } catch (Exception e) {
             throw MESSAGES.failedToShutdownServer(e, "HornetQ");
@@ -237,6 +239,13 @@ class HornetQService implements Service<HornetQServer> {
         return server;
     }
 
+    /**
+     * @return the positions of the pages of messages listed from the queues of the server
+     */
+    MessageCursors getMessageCursors() {
+        return messageCursors;
+    }
+
     public Configuration getConfiguration() {
         return configuration;
     }
@@ -0,0 +1,171 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.messaging;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.hornetq.core.server.MessageReference;
+import org.hornetq.core.server.Queue;
+import org.hornetq.utils.LinkedListIterator;
+
+/**
+ * The positions in their queue of the pages of messages listed with an offset and a limit, so that listing the next
+ * page resumes the queue iterator instead of walking past all the previous messages again.
+ * <p/>
+ * A position is kept for a page ending at offset {@code n} of the messages matching a filter, and is taken back by the
+ * first listing of the same queue and filter starting at offset {@code n}. The iterators of the queue are not
+ * invalidated by the messages added to or removed from it, so the next page starts after the last message listed even
+ * if the offset of that message changed in between. At most {@value #MAX_CURSORS} positions are kept, for at most
+ * {@value #TIMEOUT_SECONDS} seconds, and their iterators are closed when they are discarded.
+ * <p/>
+ * The cursors belong to the {@link HornetQService} of the queues, which closes them all when it stops so that no
+ * iterator or queue of a stopped server is kept.
+ */
+public final class MessageCursors {
+
+    private static final int MAX_CURSORS = 16;
+    private static final long TIMEOUT_SECONDS = 60;
+
+    // protected by "this"
+    private final Map<Key, Cursor> cursors = new LinkedHashMap<Key, Cursor>();
+
+    MessageCursors() {
+    }
+
+    /**
+     * Takes back the position of the page of messages ending at an offset.
+     *
+     * @param queue the queue
+     * @param filter the filter of the messages, or {@code null}
+     * @param offset the offset the next page starts at
+     * @return the iterator positioned at the offset, or {@code null} if there is none. The caller owns the iterator.
+     */
+    LinkedListIterator<MessageReference> resume(final Queue queue, final String filter, final int offset) {
+        final Cursor cursor;
+        synchronized (this) {
+            expire();
+            cursor = cursors.remove(new Key(queue, filter, offset));
+        }
+        return cursor == null ? null : cursor.iterator;
+    }
+
+    /**
+     * Keeps the position of a page of messages. The cursors own the iterator from then on.
+     *
+     * @param queue the queue
+     * @param filter the filter of the messages, or {@code null}
+     * @param offset the offset the next page starts at
+     * @param iterator the iterator positioned at the offset
+     */
+    void suspend(final Queue queue, final String filter, final int offset, final LinkedListIterator<MessageReference> iterator) {
+        LinkedListIterator<MessageReference> discarded = null;
+        synchronized (this) {
+            expire();
+            final Key key = new Key(queue, filter, offset);
+            // removed first so that the cursors stay in creation order
+            final Cursor previous = cursors.remove(key);
+            cursors.put(key, new Cursor(iterator));
+            if (previous != null) {
+                discarded = previous.iterator;
+            } else if (cursors.size() > MAX_CURSORS) {
+                final Iterator<Cursor> eldest = cursors.values().iterator();
+                discarded = eldest.next().iterator;
+                eldest.remove();
+            }
+        }
+        if (discarded != null) {
+            discarded.close();
+        }
+    }
+
+    /**
+     * Closes the iterators of all the positions kept.
+     */
+    void closeAll() {
+        final List<Cursor> discarded;
+        synchronized (this) {
+            discarded = new ArrayList<Cursor>(cursors.values());
+            cursors.clear();
+        }
+        for (Cursor cursor : discarded) {
+            cursor.iterator.close();
+        }
+    }
+
+    // call with "this" held
+    private void expire() {
+        final long now = System.nanoTime();
+        final Iterator<Cursor> iterator = cursors.values().iterator();
+        while (iterator.hasNext()) {
+            final Cursor cursor = iterator.next();
+            if (now - cursor.created < TimeUnit.SECONDS.toNanos(TIMEOUT_SECONDS)) {
+                // the cursors are kept in creation order
+                break;
+            }
+            iterator.remove();
+            cursor.iterator.close();
+        }
+    }
+
+    private static final class Cursor {
+        private final LinkedListIterator<MessageReference> iterator;
+        private final long created = System.nanoTime();
+
+        private Cursor(final LinkedListIterator<MessageReference> iterator) {
+            this.iterator = iterator;
+        }
+    }
+
+    private static final class Key {
+        private final Queue queue;
+        private final String filter;
+        private final int offset;
+
+        private Key(final Queue queue, final String filter, final int offset) {
+            this.queue = queue;
+            this.filter = filter;
+            this.offset = offset;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            final Key other = (Key) o;
+            // queues are compared by identity, a queue deleted and created again with the same name is another queue
+            return queue == other.queue && offset == other.offset
+                    && (filter == null ? other.filter == null : filter.equals(other.filter));
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (31 * System.identityHashCode(queue) + (filter == null ? 0 : filter.hashCode())) + offset;
+        }
+    }
+}
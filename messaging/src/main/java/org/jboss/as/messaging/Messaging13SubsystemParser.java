@@ -315,6 +315,7 @@ public class Messaging13SubsystemParser extends Messaging12SubsystemParser {
                 case SUBSCRIPTION_NAME:
                 case CLIENT_ID:
                 case ADD_MESSAGE_ID_IN_HEADER:
+                case PARALLELISM:
                     handleElementText(reader, element, operation);
                     break;
                 case SELECTOR:
@@ -229,6 +229,20 @@ public class MessagingDescriptions {
 
         populateFilterParam(bundle, result.get(REQUEST_PROPERTIES, FILTER.getName()));
 
+        final ModelNode offset = result.get(REQUEST_PROPERTIES, AbstractQueueControlHandler.OFFSET);
+        offset.get(DESCRIPTION).set(bundle.getString("queue.list-messages.offset"));
+        offset.get(TYPE).set(ModelType.INT);
+        offset.get(REQUIRED).set(false);
+        offset.get(NILLABLE).set(true);
+        offset.get(MIN).set(0);
+
+        final ModelNode limit = result.get(REQUEST_PROPERTIES, AbstractQueueControlHandler.LIMIT);
+        limit.get(DESCRIPTION).set(bundle.getString("queue.list-messages.limit"));
+        limit.get(TYPE).set(ModelType.INT);
+        limit.get(REQUIRED).set(false);
+        limit.get(NILLABLE).set(true);
+        limit.get(MIN).set(1);
+
         final ModelNode repProps = result.get(REPLY_PROPERTIES);
         repProps.get(DESCRIPTION).set(bundle.getString("queue.list-messages.reply"));
         if (json) {
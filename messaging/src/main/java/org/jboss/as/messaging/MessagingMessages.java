@@ -487,4 +487,29 @@ public interface MessagingMessages {
     @Message(id = 11671, value = "Failed to recover %s")
     OperationFailedException failedToRecover(@Cause Throwable cause, String name);
 
+
+    /**
+     * Create an exception indicating that a JMS bridge can not forward messages with several lanes
+     * when the given attribute is defined.
+     *
+     * @param parallelism the name of the parallelism attribute.
+     * @param attribute the name of the attribute that prevents parallel forwarding.
+     *
+     * @return an {@link OperationFailedException} for the error.
+     */
+    @Message(id = 11672, value = "%s must be 1 when %s is defined")
+    OperationFailedException parallelismRequiresSingleLane(String parallelism, String attribute);
+
+    /**
+     * Create an exception indicating that a JMS bridge can not forward messages with several lanes
+     * from a topic, as every lane would receive and forward every message.
+     *
+     * @param parallelism the name of the parallelism attribute.
+     * @param bridgeName the name of the JMS bridge.
+     *
+     * @return an {@link IllegalStateException} for the error.
+     */
+    @Message(id = 11673, value = "%s must be 1 when the source destination of JMS bridge %s is a topic")
+    IllegalStateException parallelismRequiresQueueSource(String parallelism, String bridgeName);
+
 }
@@ -27,6 +27,7 @@ import java.util.Locale;
 
 import org.hornetq.api.core.management.QueueControl;
 import org.hornetq.api.core.management.ResourceNames;
+import org.hornetq.core.filter.impl.FilterImpl;
 import org.hornetq.core.server.HornetQServer;
 import org.jboss.as.controller.OperationContext;
 import org.jboss.as.controller.OperationFailedException;
@@ -108,7 +109,7 @@ public class QueueControlHandler extends AbstractQueueControlHandler<QueueContro
     }
 
     @Override
-    protected DelegatingQueueControl<QueueControl> getQueueControl(HornetQServer hqServer, String queueName) {
+    protected DelegatingQueueControl<QueueControl> getQueueControl(final HornetQServer hqServer, final String queueName) {
         final QueueControl control = QueueControl.class.cast(hqServer.getManagementService().getResource(ResourceNames.CORE_QUEUE + queueName));
         return new DelegatingQueueControl<QueueControl>() {
 
@@ -120,6 +121,11 @@ public class QueueControlHandler extends AbstractQueueControlHandler<QueueContro
                 return control.listMessagesAsJSON(filter);
             }
 
+            @Override
+            public String listMessagesAsJSON(MessageCursors cursors, String filter, int offset, int limit) throws Exception {
+                return AbstractQueueControlHandler.listMessagesAsJSON(hqServer, cursors, queueName, filter, FilterImpl.createFilter(filter), offset, limit, false);
+            }
+
             @Override
             public long countMessages(String filter) throws Exception {
                 return control.countMessages(filter);
@@ -24,11 +24,15 @@ package org.jboss.as.messaging.jms;
 
 import org.hornetq.api.core.management.ResourceNames;
 import org.hornetq.api.jms.management.JMSQueueControl;
+import org.hornetq.core.filter.impl.FilterImpl;
 import org.hornetq.core.server.HornetQServer;
+import org.hornetq.jms.client.HornetQDestination;
+import org.hornetq.jms.client.SelectorTranslator;
 import org.jboss.as.controller.OperationContext;
 import org.jboss.as.controller.OperationFailedException;
 import org.jboss.as.controller.operations.validation.StringLengthValidator;
 import org.jboss.as.messaging.AbstractQueueControlHandler;
+import org.jboss.as.messaging.MessageCursors;
 import org.jboss.dmr.ModelNode;
 
 /**
@@ -49,7 +53,7 @@ public class JMSQueueControlHandler extends AbstractQueueControlHandler<JMSQueue
         return true;
     }
 
-    protected AbstractQueueControlHandler.DelegatingQueueControl<JMSQueueControl> getQueueControl(HornetQServer hqServer, String queueName){
+    protected AbstractQueueControlHandler.DelegatingQueueControl<JMSQueueControl> getQueueControl(final HornetQServer hqServer, final String queueName){
         final JMSQueueControl control = JMSQueueControl.class.cast(hqServer.getManagementService().getResource(ResourceNames.JMS_QUEUE + queueName));
         return new AbstractQueueControlHandler.DelegatingQueueControl<JMSQueueControl>() {
 
@@ -63,6 +67,13 @@ public class JMSQueueControlHandler extends AbstractQueueControlHandler<JMSQueue
                 return control.listMessagesAsJSON(filter);
             }
 
+            @Override
+            public String listMessagesAsJSON(MessageCursors cursors, String filter, int offset, int limit) throws Exception {
+                final String coreFilter = SelectorTranslator.convertToHornetQFilterString(filter);
+                return AbstractQueueControlHandler.listMessagesAsJSON(hqServer, cursors, HornetQDestination.JMS_QUEUE_ADDRESS_PREFIX + queueName,
+                        coreFilter, FilterImpl.createFilter(coreFilter), offset, limit, true);
+            }
+
             @Override
             public long countMessages(String filter) throws Exception {
                 return control.countMessages(filter);
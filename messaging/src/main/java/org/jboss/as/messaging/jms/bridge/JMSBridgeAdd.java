@@ -25,6 +25,7 @@ package org.jboss.as.messaging.jms.bridge;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
 import static org.jboss.as.server.Services.addServerExecutorDependency;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Properties;
 
@@ -76,6 +77,7 @@ public class JMSBridgeAdd extends AbstractAddStepHandler {
         for (final AttributeDefinition attributeDefinition : JMSBridgeDefinition.JMS_SOURCE_ATTRIBUTES) {
             attributeDefinition.validateAndSet(operation, model);
         }
+        JMSBridgeDefinition.validateParallelism(model);
     }
 
     @Override
@@ -89,10 +91,18 @@ public class JMSBridgeAdd extends AbstractAddStepHandler {
                 final PathAddress address = PathAddress.pathAddress(operation.get(OP_ADDR));
 
                 String moduleName = resolveAttribute(JMSBridgeDefinition.MODULE, context, model);
-                final JMSBridge bridge = createJMSBridge(context, model);
+                final int parallelism = JMSBridgeDefinition.PARALLELISM.resolveModelAttribute(context, model).asInt();
+                final List<JMSBridge> lanes = new ArrayList<JMSBridge>(parallelism);
+                final List<LaneStatistics> statistics = new ArrayList<LaneStatistics>(parallelism);
+                for (int i = 0; i < parallelism; i++) {
+                    final LaneStatistics laneStatistics = new LaneStatistics();
+                    lanes.add(createJMSBridge(context, model, laneStatistics));
+                    statistics.add(laneStatistics);
+                }
 
                 final String bridgeName = address.getLastElement().getValue();
-                final JMSBridgeService bridgeService = new JMSBridgeService(moduleName, bridgeName, bridge);
+                final JMSBridgeService bridgeService = new JMSBridgeService(moduleName, bridgeName, lanes, statistics,
+                        createSourceDestinationFactory(context, model));
                 final ServiceName bridgeServiceName = MessagingServices.getJMSBridgeServiceName(bridgeName);
 
                 final ServiceBuilder<JMSBridge> jmsBridgeServiceBuilder = context.getServiceTarget().addService(bridgeServiceName, bridgeService)
@@ -129,16 +139,21 @@ public class JMSBridgeAdd extends AbstractAddStepHandler {
         builder.addDependency(ContextNames.bindInfoFor(jndiName).getBinderServiceName());
     }
 
-    private JMSBridge createJMSBridge(OperationContext context, ModelNode model) throws OperationFailedException {
+    private DestinationFactory createSourceDestinationFactory(OperationContext context, ModelNode model) throws OperationFailedException {
         final Properties sourceContextProperties = resolveContextProperties(JMSBridgeDefinition.SOURCE_CONTEXT, context, model);
-        final String sourceConnectionFactoryName = JMSBridgeDefinition.SOURCE_CONNECTION_FACTORY.resolveModelAttribute(context, model).asString();
-        final ConnectionFactoryFactory sourceCff = new JNDIConnectionFactoryFactory(sourceContextProperties , sourceConnectionFactoryName);
         final String sourceDestinationName = JMSBridgeDefinition.SOURCE_DESTINATION.resolveModelAttribute(context, model).asString();
-        final DestinationFactory sourceDestinationFactory = new JNDIDestinationFactory(sourceContextProperties, sourceDestinationName);
+        return new JNDIDestinationFactory(sourceContextProperties, sourceDestinationName);
+    }
+
+    private JMSBridge createJMSBridge(OperationContext context, ModelNode model, LaneStatistics statistics) throws OperationFailedException {
+        final Properties sourceContextProperties = resolveContextProperties(JMSBridgeDefinition.SOURCE_CONTEXT, context, model);
+        final String sourceConnectionFactoryName = JMSBridgeDefinition.SOURCE_CONNECTION_FACTORY.resolveModelAttribute(context, model).asString();
+        final ConnectionFactoryFactory sourceCff = statistics.countReceived(new JNDIConnectionFactoryFactory(sourceContextProperties , sourceConnectionFactoryName));
+        final DestinationFactory sourceDestinationFactory = createSourceDestinationFactory(context, model);
 
         final Properties targetContextProperties = resolveContextProperties(JMSBridgeDefinition.TARGET_CONTEXT, context, model);
         final String targetConnectionFactoryName = JMSBridgeDefinition.TARGET_CONNECTION_FACTORY.resolveModelAttribute(context, model).asString();
-        final ConnectionFactoryFactory targetCff = new JNDIConnectionFactoryFactory(targetContextProperties, targetConnectionFactoryName);
+        final ConnectionFactoryFactory targetCff = statistics.countForwarded(new JNDIConnectionFactoryFactory(targetContextProperties, targetConnectionFactoryName));
         final String targetDestinationName = JMSBridgeDefinition.TARGET_DESTINATION.resolveModelAttribute(context, model).asString();
         final DestinationFactory targetDestinationFactory = new JNDIDestinationFactory(targetContextProperties, targetDestinationName);
 
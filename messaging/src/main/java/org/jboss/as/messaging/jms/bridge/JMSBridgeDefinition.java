@@ -25,7 +25,9 @@ package org.jboss.as.messaging.jms.bridge;
 import static org.jboss.as.controller.SimpleAttributeDefinitionBuilder.create;
 import static org.jboss.as.controller.client.helpers.MeasurementUnit.MILLISECONDS;
 import static org.jboss.as.messaging.CommonAttributes.JMS_BRIDGE;
+import static org.jboss.as.messaging.MessagingMessages.MESSAGES;
 import static org.jboss.dmr.ModelType.BOOLEAN;
+import static org.jboss.dmr.ModelType.DOUBLE;
 import static org.jboss.dmr.ModelType.INT;
 import static org.jboss.dmr.ModelType.LONG;
 import static org.jboss.dmr.ModelType.STRING;
@@ -33,6 +35,9 @@ import static org.jboss.dmr.ModelType.STRING;
 import java.util.Locale;
 
 import org.hornetq.jms.bridge.QualityOfServiceMode;
+import org.jboss.as.controller.AttributeDefinition;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.PrimitiveListAttributeDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinition;
 import org.jboss.as.controller.SimpleResourceDefinition;
 import org.jboss.as.controller.descriptions.DescriptionProvider;
@@ -119,12 +124,33 @@ public class JMSBridgeDefinition extends SimpleResourceDefinition {
             .setAllowNull(true)
             .setDefaultValue(new ModelNode().set(false))
             .build();
+    public static final SimpleAttributeDefinition PARALLELISM = create("parallelism", INT)
+            .setAllowNull(true)
+            .setDefaultValue(new ModelNode().set(1))
+            .setValidator(new IntRangeValidator(1, Integer.MAX_VALUE, true, false))
+            .build();
     public static final SimpleAttributeDefinition STARTED = create(CommonAttributes.STARTED, BOOLEAN)
             .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
             .build();
     public static final SimpleAttributeDefinition PAUSED = create(CommonAttributes.PAUSED, BOOLEAN)
             .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
             .build();
+    public static final SimpleAttributeDefinition ACTIVE_LANES = create("active-lanes", INT)
+            .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
+            .build();
+    public static final PrimitiveListAttributeDefinition LANE_MESSAGES_FORWARDED = PrimitiveListAttributeDefinition.Builder.of("lane-messages-forwarded", LONG)
+            .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
+            .build();
+    public static final PrimitiveListAttributeDefinition LANE_THROUGHPUT = PrimitiveListAttributeDefinition.Builder.of("lane-throughput", DOUBLE)
+            .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
+            .build();
+    public static final PrimitiveListAttributeDefinition LANE_BACKLOG = PrimitiveListAttributeDefinition.Builder.of("lane-backlog", LONG)
+            .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
+            .build();
+
+    public static final AttributeDefinition[] METRICS = {
+        ACTIVE_LANES, LANE_MESSAGES_FORWARDED, LANE_THROUGHPUT, LANE_BACKLOG
+    };
 
     public static final SimpleAttributeDefinition[] JMS_BRIDGE_ATTRIBUTES = {
         MODULE,
@@ -133,7 +159,8 @@ public class JMSBridgeDefinition extends SimpleResourceDefinition {
         FAILURE_RETRY_INTERVAL, MAX_RETRIES,
         MAX_BATCH_SIZE, MAX_BATCH_TIME,
         SUBSCRIPTION_NAME, CommonAttributes.CLIENT_ID,
-        ADD_MESSAGE_ID_IN_HEADER
+        ADD_MESSAGE_ID_IN_HEADER,
+        PARALLELISM
     };
 
     public static final SimpleAttributeDefinition[] JMS_SOURCE_ATTRIBUTES = {
@@ -164,6 +191,23 @@ public class JMSBridgeDefinition extends SimpleResourceDefinition {
                 JMSBridgeRemove.INSTANCE);
     }
 
+    /**
+     * Checks that a bridge forwarding messages with several lanes does not define a durable subscription or a
+     * client ID. Lanes are competing consumers on the source destination and can not share them.
+     *
+     * @param model the model of the bridge
+     * @throws OperationFailedException if the parallelism is greater than 1 and one of these attributes is defined
+     */
+    static void validateParallelism(final ModelNode model) throws OperationFailedException {
+        if (model.hasDefined(PARALLELISM.getName()) && model.get(PARALLELISM.getName()).asInt() > 1) {
+            for (final AttributeDefinition attr : new AttributeDefinition[] { SUBSCRIPTION_NAME, CommonAttributes.CLIENT_ID }) {
+                if (model.hasDefined(attr.getName())) {
+                    throw MESSAGES.parallelismRequiresSingleLane(PARALLELISM.getName(), attr.getName());
+                }
+            }
+        }
+    }
+
     @Override
     public void registerAttributes(ManagementResourceRegistration registry) {
         super.registerAttributes(registry);
@@ -179,6 +223,9 @@ public class JMSBridgeDefinition extends SimpleResourceDefinition {
         for (SimpleAttributeDefinition attr : READONLY_ATTRIBUTES) {
             registry.registerReadOnlyAttribute(attr, JMSBridgeHandler.INSTANCE);
         }
+        for (AttributeDefinition metric : METRICS) {
+            registry.registerMetric(metric, JMSBridgeHandler.INSTANCE);
+        }
     }
 
     @Override
@@ -35,7 +35,6 @@ import static org.jboss.as.messaging.MessagingMessages.MESSAGES;
 import static org.jboss.as.messaging.jms.bridge.JMSBridgeDefinition.PAUSE;
 import static org.jboss.as.messaging.jms.bridge.JMSBridgeDefinition.RESUME;
 
-import org.hornetq.jms.bridge.JMSBridge;
 import org.jboss.as.controller.AbstractRuntimeOnlyHandler;
 import org.jboss.as.controller.ControllerMessages;
 import org.jboss.as.controller.OperationContext;
@@ -80,15 +79,32 @@ public class JMSBridgeHandler extends AbstractRuntimeOnlyHandler {
             throw new OperationFailedException(ControllerMessages.MESSAGES.noHandler(READ_ATTRIBUTE_OPERATION, PathAddress.pathAddress(operation.require(OP_ADDR))));
         }
 
-        JMSBridge bridge = JMSBridge.class.cast(bridgeService.getValue());
+        JMSBridgeService service = (JMSBridgeService) bridgeService.getService();
 
         if (READ_ATTRIBUTE_OPERATION.equals(operationName)) {
             readAttributeValidator.validate(operation);
             final String name = operation.require(NAME).asString();
             if (STARTED.equals(name)) {
-                context.getResult().set(bridge.isStarted());
+                context.getResult().set(service.isStarted());
             } else if (PAUSED.equals(name)) {
-                context.getResult().set(bridge.isPaused());
+                context.getResult().set(service.isPaused());
+            } else if (JMSBridgeDefinition.ACTIVE_LANES.getName().equals(name)) {
+                context.getResult().set(service.getActiveLanes());
+            } else if (JMSBridgeDefinition.LANE_MESSAGES_FORWARDED.getName().equals(name)) {
+                final ModelNode result = context.getResult().setEmptyList();
+                for (long forwarded : service.getLaneMessagesForwarded()) {
+                    result.add(forwarded);
+                }
+            } else if (JMSBridgeDefinition.LANE_THROUGHPUT.getName().equals(name)) {
+                final ModelNode result = context.getResult().setEmptyList();
+                for (double throughput : service.getLaneThroughputs()) {
+                    result.add(throughput);
+                }
+            } else if (JMSBridgeDefinition.LANE_BACKLOG.getName().equals(name)) {
+                final ModelNode result = context.getResult().setEmptyList();
+                for (long backlog : service.getLaneBacklogs()) {
+                    result.add(backlog);
+                }
             } else {
                 throw MESSAGES.unsupportedAttribute(name);
             }
@@ -97,26 +113,25 @@ public class JMSBridgeHandler extends AbstractRuntimeOnlyHandler {
             try {
                 // we do not start the bridge directly but call startBridge() instead
                 // to ensure the class loader will be able to load any external resources
-                JMSBridgeService service = (JMSBridgeService) bridgeService.getService();
                 service.startBridge();
             } catch (Exception e) {
                 context.getFailureDescription().set(e.getLocalizedMessage());
             }
         } else if (STOP.equals(operationName)) {
             try {
-                bridge.stop();
+                service.stopBridge();
             } catch (Exception e) {
                 context.getFailureDescription().set(e.getLocalizedMessage());
             }
         } else if (PAUSE.equals(operationName)) {
             try {
-                bridge.pause();
+                service.pauseBridge();
             } catch (Exception e) {
                 context.getFailureDescription().set(e.getLocalizedMessage());
             }
         } else if (RESUME.equals(operationName)) {
             try {
-                bridge.resume();
+                service.resumeBridge();
             } catch (Exception e) {
                 context.getFailureDescription().set(e.getLocalizedMessage());
             }
@@ -127,14 +142,13 @@ public class JMSBridgeHandler extends AbstractRuntimeOnlyHandler {
         if (context.completeStep() != OperationContext.ResultAction.KEEP) {
             try {
                 if (START.equals(operationName)) {
-                    bridge.stop();
+                    service.stopBridge();
                 } else if (STOP.equals(operationName)) {
-                    JMSBridgeService service = (JMSBridgeService) bridgeService.getService();
                     service.startBridge();
                 } else if (PAUSE.equals(operationName)) {
-                    bridge.resume();
+                    service.resumeBridge();
                 } else if (RESUME.equals(operationName)) {
-                    bridge.pause();
+                    service.pauseBridge();
                 }
             } catch (Exception e) {
                 ROOT_LOGGER.revertOperationFailed(e, getClass().getSimpleName(), operation
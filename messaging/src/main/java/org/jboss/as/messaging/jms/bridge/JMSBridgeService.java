@@ -25,10 +25,14 @@ package org.jboss.as.messaging.jms.bridge;
 import static org.jboss.as.messaging.MessagingLogger.MESSAGING_LOGGER;
 import static org.jboss.as.messaging.MessagingMessages.MESSAGES;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.ExecutorService;
 
+import javax.jms.Topic;
 import javax.transaction.TransactionManager;
 
+import org.hornetq.jms.bridge.DestinationFactory;
 import org.hornetq.jms.bridge.JMSBridge;
 import org.jboss.as.messaging.MessagingLogger;
 import org.jboss.as.messaging.jms.SecurityActions;
@@ -45,21 +49,44 @@ import org.jboss.msc.value.InjectedValue;
 /**
  * Service responsible for JMS Bridges.
  *
+ * A bridge is made of one or more lanes. Each lane is a {@link JMSBridge} with its own source and target
+ * sessions, forwarding messages concurrently from the same source destination. The lanes are competing
+ * consumers, so a bridge with several lanes only starts if its source destination is a queue: each lane
+ * subscribed to a topic would forward every message. Per-group ordering is only preserved if the source
+ * server delivers the messages with the same {@code JMSXGroupID} to a single consumer, as a HornetQ queue
+ * with message grouping does. The messages each lane forwards are counted by its {@link LaneStatistics}.
+ *
  * @author Jeff Mesnil (c) 2012 Red Hat Inc.
  */
 class JMSBridgeService implements Service<JMSBridge> {
-    private final JMSBridge bridge;
+    private final List<JMSBridge> lanes;
+    private final List<LaneStatistics> statistics;
+    private final DestinationFactory sourceDestinationFactory;
     private final String bridgeName;
     private final String moduleName;
     private final InjectedValue<ExecutorService> executorInjector = new InjectedValue<ExecutorService>();
 
-    public JMSBridgeService(final String moduleName, final String bridgeName, final JMSBridge bridge) {
-        if(bridge == null) {
+    public JMSBridgeService(final String moduleName, final String bridgeName, final List<JMSBridge> lanes,
+            final List<LaneStatistics> statistics, final DestinationFactory sourceDestinationFactory) {
+        if(lanes == null || lanes.isEmpty()) {
             throw MESSAGES.nullVar("bridge");
         }
+        if (statistics == null || statistics.size() != lanes.size()) {
+            throw MESSAGES.nullVar("statistics");
+        }
+        if (sourceDestinationFactory == null) {
+            throw MESSAGES.nullVar("sourceDestinationFactory");
+        }
+        for (JMSBridge lane : lanes) {
+            if (lane == null) {
+                throw MESSAGES.nullVar("bridge");
+            }
+        }
         this.moduleName = moduleName;
         this.bridgeName = bridgeName;
-        this.bridge = bridge;
+        this.lanes = lanes;
+        this.statistics = statistics;
+        this.sourceDestinationFactory = sourceDestinationFactory;
     }
 
     public static TransactionManager getTransactionManager(StartContext context) {
@@ -74,7 +101,10 @@ class JMSBridgeService implements Service<JMSBridge> {
             @Override
             public void run() {
                 try {
-                    bridge.setTransactionManager(getTransactionManager(context));
+                    final TransactionManager tm = getTransactionManager(context);
+                    for (JMSBridge lane : lanes) {
+                        lane.setTransactionManager(tm);
+                    }
                     startBridge();
 
                     context.complete();
@@ -89,14 +119,14 @@ class JMSBridgeService implements Service<JMSBridge> {
 
     public void startBridge() throws Exception {
         if (moduleName == null) {
-            bridge.start();
+            startLanes();
         } else {
             ClassLoader cl = SecurityActions.getContextClassLoader();
             try {
                 ModuleIdentifier moduleID = ModuleIdentifier.create(moduleName);
                 Module module = Module.getCallerModuleLoader().loadModule(moduleID);
                 SecurityActions.setContextClassLoader(module.getClassLoader());
-                bridge.start();
+                startLanes();
             } finally {
                 SecurityActions.setContextClassLoader(cl);
             }
@@ -104,13 +134,134 @@ class JMSBridgeService implements Service<JMSBridge> {
         MessagingLogger.MESSAGING_LOGGER.startedService("JMS Bridge", bridgeName);
     }
 
+    private void startLanes() throws Exception {
+        if (lanes.size() > 1) {
+            // a durable subscription is rejected by the model, but whether the destination is a topic is only
+            // known once it is looked up
+            if (sourceDestinationFactory.createDestination() instanceof Topic) {
+                throw MESSAGES.parallelismRequiresQueueSource(JMSBridgeDefinition.PARALLELISM.getName(), bridgeName);
+            }
+        }
+        final List<JMSBridge> started = new ArrayList<JMSBridge>(lanes.size());
+        try {
+            for (int i = 0; i < lanes.size(); i++) {
+                final JMSBridge lane = lanes.get(i);
+                lane.start();
+                statistics.get(i).started();
+                started.add(lane);
+            }
+        } catch (Exception e) {
+            // do not leave the lanes that started forwarding messages while the service fails
+            for (JMSBridge lane : started) {
+                try {
+                    lane.stop();
+                } catch (Exception stopFailure) {
+                    MESSAGING_LOGGER.failedToDestroy(stopFailure, "bridge", bridgeName);
+                }
+            }
+            throw e;
+        }
+    }
+
+    public void stopBridge() throws Exception {
+        Exception failure = null;
+        for (JMSBridge lane : lanes) {
+            try {
+                lane.stop();
+            } catch (Exception e) {
+                // keep stopping the other lanes
+                failure = e;
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    public void pauseBridge() throws Exception {
+        for (JMSBridge lane : lanes) {
+            lane.pause();
+        }
+    }
+
+    public void resumeBridge() throws Exception {
+        for (JMSBridge lane : lanes) {
+            lane.resume();
+        }
+    }
+
+    /**
+     * @return {@code true} if at least one lane of the bridge is started
+     */
+    public boolean isStarted() {
+        return getActiveLanes() > 0;
+    }
+
+    /**
+     * @return {@code true} if every lane of the bridge is paused
+     */
+    public boolean isPaused() {
+        for (JMSBridge lane : lanes) {
+            if (!lane.isPaused()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the number of lanes that are started
+     */
+    public int getActiveLanes() {
+        int active = 0;
+        for (JMSBridge lane : lanes) {
+            if (lane.isStarted()) {
+                active++;
+            }
+        }
+        return active;
+    }
+
+    /**
+     * @return the number of messages forwarded by each lane
+     */
+    public long[] getLaneMessagesForwarded() {
+        final long[] result = new long[lanes.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = statistics.get(i).getMessagesForwarded();
+        }
+        return result;
+    }
+
+    /**
+     * @return the average number of messages forwarded per second by each lane since it was started
+     */
+    public double[] getLaneThroughputs() {
+        final double[] result = new double[lanes.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = statistics.get(i).getThroughput(lanes.get(i).isStarted());
+        }
+        return result;
+    }
+
+    /**
+     * @return the number of messages each lane received and has not forwarded yet
+     */
+    public long[] getLaneBacklogs() {
+        final long[] result = new long[lanes.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = statistics.get(i).getBacklog();
+        }
+        return result;
+    }
+
     @Override
     public synchronized void stop(final StopContext context) {
         final Runnable r = new Runnable() {
             @Override
             public void run() {
                 try {
-                    bridge.stop();
+                    stopBridge();
                     MessagingLogger.MESSAGING_LOGGER.stoppedService("JMS Bridge", bridgeName);
 
                     context.complete();
@@ -125,7 +276,7 @@ class JMSBridgeService implements Service<JMSBridge> {
 
     @Override
     public JMSBridge getValue() throws IllegalStateException {
-        return bridge;
+        return lanes.get(0);
     }
 
     public InjectedValue<ExecutorService> getExecutorInjector() {
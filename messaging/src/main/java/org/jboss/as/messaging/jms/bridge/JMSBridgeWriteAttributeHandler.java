@@ -62,6 +62,7 @@ public class JMSBridgeWriteAttributeHandler extends WriteAttributeHandlers.Write
     @Override
     protected void modelChanged(final OperationContext context, final ModelNode operation, final String attributeName,
                                 final ModelNode newValue, final ModelNode currentValue) throws OperationFailedException {
+        JMSBridgeDefinition.validateParallelism(context.readResource(PathAddress.EMPTY_ADDRESS).getModel());
         context.addStep(new OperationStepHandler() {
             @Override
             public void execute(final OperationContext context, final ModelNode operation) throws OperationFailedException {
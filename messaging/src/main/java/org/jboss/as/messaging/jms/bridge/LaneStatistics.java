@@ -0,0 +1,207 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.messaging.jms.bridge;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.jms.Connection;
+import javax.jms.Message;
+import javax.jms.MessageConsumer;
+import javax.jms.MessageListener;
+import javax.jms.MessageProducer;
+import javax.jms.Session;
+
+import org.hornetq.jms.bridge.ConnectionFactoryFactory;
+
+/**
+ * Counts the messages a lane of a JMS bridge receives from the source destination and forwards to the target
+ * destination.
+ * <p/>
+ * The connection factories the lane gets from its {@link ConnectionFactoryFactory factories} are wrapped, so that the
+ * consumers of its source sessions and the producers of its target sessions count the messages. The backlog of a lane
+ * is the number of messages it received and has not forwarded yet, i.e. its current batch. It is reset when the lane
+ * connects to the source again, as the messages of a failed batch are redelivered.
+ */
+class LaneStatistics {
+
+    private final AtomicLong forwarded = new AtomicLong();
+    private final AtomicLong backlog = new AtomicLong();
+    private volatile long startTime;
+    private volatile long forwardedAtStart;
+
+    /**
+     * @param factory the factory of the source connection factory of the lane
+     * @return a factory whose connection factories count the messages received by the lane
+     */
+    ConnectionFactoryFactory countReceived(final ConnectionFactoryFactory factory) {
+        return wrap(factory, true);
+    }
+
+    /**
+     * @param factory the factory of the target connection factory of the lane
+     * @return a factory whose connection factories count the messages forwarded by the lane
+     */
+    ConnectionFactoryFactory countForwarded(final ConnectionFactoryFactory factory) {
+        return wrap(factory, false);
+    }
+
+    /**
+     * Record that the lane was started.
+     */
+    void started() {
+        forwardedAtStart = forwarded.get();
+        startTime = System.currentTimeMillis();
+    }
+
+    /**
+     * @return the number of messages forwarded by the lane
+     */
+    long getMessagesForwarded() {
+        return forwarded.get();
+    }
+
+    /**
+     * @return the number of messages received by the lane that it has not forwarded yet
+     */
+    long getBacklog() {
+        return backlog.get();
+    }
+
+    /**
+     * @param started {@code true} if the lane is started
+     * @return the average number of messages forwarded per second since the lane was started, or 0 if it is not
+     */
+    double getThroughput(final boolean started) {
+        final long start = startTime;
+        if (!started || start == 0) {
+            return 0;
+        }
+        final long elapsed = Math.max(1, System.currentTimeMillis() - start);
+        return (forwarded.get() - forwardedAtStart) * 1000.0 / elapsed;
+    }
+
+    void received() {
+        backlog.incrementAndGet();
+    }
+
+    void forwarded() {
+        forwarded.incrementAndGet();
+        // a message sent outside of a batch, e.g. by another client of the session, does not make it negative
+        long current;
+        do {
+            current = backlog.get();
+        } while (current > 0 && !backlog.compareAndSet(current, current - 1));
+    }
+
+    private ConnectionFactoryFactory wrap(final ConnectionFactoryFactory factory, final boolean source) {
+        return new ConnectionFactoryFactory() {
+            @Override
+            public Object createConnectionFactory() throws Exception {
+                return proxy(factory.createConnectionFactory(), new Handler(source));
+            }
+        };
+    }
+
+    private static Object proxy(final Object delegate, final Handler handler) {
+        handler.delegate = delegate;
+        final Set<Class<?>> interfaces = new LinkedHashSet<Class<?>>();
+        for (Class<?> c = delegate.getClass(); c != null; c = c.getSuperclass()) {
+            addInterfaces(c, interfaces);
+        }
+        return Proxy.newProxyInstance(delegate.getClass().getClassLoader(),
+                interfaces.toArray(new Class<?>[interfaces.size()]), handler);
+    }
+
+    private static void addInterfaces(final Class<?> type, final Set<Class<?>> interfaces) {
+        for (Class<?> i : type.getInterfaces()) {
+            if (interfaces.add(i)) {
+                addInterfaces(i, interfaces);
+            }
+        }
+    }
+
+    /**
+     * Wraps the connection factories, connections, sessions, consumers and producers of one side of a lane.
+     */
+    private class Handler implements InvocationHandler {
+        private final boolean source;
+        private Object delegate;
+
+        Handler(final boolean source) {
+            this.source = source;
+        }
+
+        @Override
+        public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+            final String name = method.getName();
+            if ("equals".equals(name) && args != null && args.length == 1) {
+                return proxy == args[0];
+            } else if ("hashCode".equals(name) && args == null) {
+                return System.identityHashCode(proxy);
+            }
+            if (source && "setMessageListener".equals(name) && delegate instanceof MessageConsumer && args[0] != null) {
+                final MessageListener listener = (MessageListener) args[0];
+                args[0] = new MessageListener() {
+                    @Override
+                    public void onMessage(final Message message) {
+                        received();
+                        listener.onMessage(message);
+                    }
+                };
+            }
+            final Object result;
+            try {
+                result = method.invoke(delegate, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            if (delegate instanceof MessageConsumer) {
+                if (source && result instanceof Message) {
+                    // receive(), receive(long) or receiveNoWait()
+                    received();
+                }
+                return result;
+            } else if (delegate instanceof MessageProducer) {
+                if (!source && name.startsWith("send")) {
+                    forwarded();
+                }
+                return result;
+            }
+            if (source && result instanceof Connection) {
+                // the messages of a batch that failed with the previous connection are received again
+                backlog.set(0);
+            }
+            if (result instanceof Connection || result instanceof Session || result instanceof MessageConsumer
+                    || result instanceof MessageProducer) {
+                return proxy(result, new Handler(source));
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,213 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.messaging.jms.bridge;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.jms.Connection;
+import javax.jms.ConnectionFactory;
+import javax.jms.Destination;
+import javax.jms.Message;
+import javax.jms.MessageConsumer;
+import javax.jms.MessageListener;
+import javax.jms.MessageProducer;
+import javax.jms.Queue;
+import javax.jms.Session;
+import javax.jms.Topic;
+
+import org.hornetq.jms.bridge.ConnectionFactoryFactory;
+import org.hornetq.jms.bridge.DestinationFactory;
+import org.hornetq.jms.bridge.JMSBridge;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests the lanes of the {@link JMSBridgeService}.
+ */
+public class JMSBridgeServiceTestCase {
+
+    @Test
+    public void testStartAndStopLanes() throws Exception {
+        final List<JMSBridge> lanes = new ArrayList<JMSBridge>();
+        for (int i = 0; i < 3; i++) {
+            lanes.add(createLane(false));
+        }
+        final JMSBridgeService service = new JMSBridgeService(null, "bridge", lanes, statistics(lanes), destination(Queue.class));
+        service.startBridge();
+        Assert.assertEquals(3, service.getActiveLanes());
+        Assert.assertTrue(service.isStarted());
+
+        service.stopBridge();
+        Assert.assertEquals(0, service.getActiveLanes());
+        Assert.assertFalse(service.isStarted());
+    }
+
+    @Test
+    public void testFailedLaneStopsStartedLanes() throws Exception {
+        final List<JMSBridge> lanes = new ArrayList<JMSBridge>();
+        lanes.add(createLane(false));
+        lanes.add(createLane(false));
+        lanes.add(createLane(true));
+        lanes.add(createLane(false));
+        final JMSBridgeService service = new JMSBridgeService(null, "bridge", lanes, statistics(lanes), destination(Queue.class));
+        try {
+            service.startBridge();
+            Assert.fail("the bridge should not start");
+        } catch (IllegalStateException expected) {
+        }
+        Assert.assertEquals(0, service.getActiveLanes());
+        for (JMSBridge lane : lanes) {
+            Assert.assertFalse(lane.isStarted());
+        }
+    }
+
+    @Test
+    public void testTopicSourceRequiresSingleLane() throws Exception {
+        final List<JMSBridge> lanes = new ArrayList<JMSBridge>();
+        lanes.add(createLane(false));
+        lanes.add(createLane(false));
+        final JMSBridgeService service = new JMSBridgeService(null, "bridge", lanes, statistics(lanes), destination(Topic.class));
+        try {
+            service.startBridge();
+            Assert.fail("every lane would forward every message of the topic");
+        } catch (IllegalStateException expected) {
+        }
+        Assert.assertEquals(0, service.getActiveLanes());
+
+        final List<JMSBridge> single = new ArrayList<JMSBridge>();
+        single.add(createLane(false));
+        final JMSBridgeService singleLane = new JMSBridgeService(null, "bridge", single, statistics(single), destination(Topic.class));
+        singleLane.startBridge();
+        Assert.assertEquals(1, singleLane.getActiveLanes());
+    }
+
+    @Test
+    public void testLaneStatistics() throws Exception {
+        final FakeJMS source = new FakeJMS();
+        final FakeJMS target = new FakeJMS();
+        final LaneStatistics statistics = new LaneStatistics();
+        final ConnectionFactory sourceFactory = (ConnectionFactory) statistics.countReceived(source).createConnectionFactory();
+        final ConnectionFactory targetFactory = (ConnectionFactory) statistics.countForwarded(target).createConnectionFactory();
+        final Message message = proxy(Message.class, new FakeJMS());
+
+        final MessageConsumer consumer = sourceFactory.createConnection().createSession(true, Session.SESSION_TRANSACTED).createConsumer(null);
+        final MessageProducer producer = targetFactory.createConnection().createSession(true, Session.SESSION_TRANSACTED).createProducer(null);
+        consumer.setMessageListener(new MessageListener() {
+            @Override
+            public void onMessage(final Message message) {
+            }
+        });
+        source.listener.onMessage(message);
+        source.listener.onMessage(message);
+        Assert.assertEquals(2, statistics.getBacklog());
+        Assert.assertEquals(0, statistics.getMessagesForwarded());
+
+        producer.send(message);
+        Assert.assertEquals(1, statistics.getBacklog());
+        Assert.assertEquals(1, statistics.getMessagesForwarded());
+
+        // the lane reconnects after a failure and the batch is received again
+        sourceFactory.createConnection();
+        Assert.assertEquals(0, statistics.getBacklog());
+        producer.send(message);
+        Assert.assertEquals(0, statistics.getBacklog());
+        Assert.assertEquals(2, statistics.getMessagesForwarded());
+        Assert.assertEquals(0.0, statistics.getThroughput(false), 0.0);
+    }
+
+    private static List<LaneStatistics> statistics(final List<JMSBridge> lanes) {
+        final List<LaneStatistics> statistics = new ArrayList<LaneStatistics>();
+        for (int i = 0; i < lanes.size(); i++) {
+            statistics.add(new LaneStatistics());
+        }
+        return statistics;
+    }
+
+    private static DestinationFactory destination(final Class<? extends Destination> type) {
+        return new DestinationFactory() {
+            @Override
+            public Destination createDestination() {
+                return proxy(type, new FakeJMS());
+            }
+        };
+    }
+
+    private static <T> T proxy(final Class<T> type, final InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, handler));
+    }
+
+    /**
+     * Connection factories, connections, sessions, consumers and producers that remember the last message listener.
+     */
+    private static final class FakeJMS implements InvocationHandler, ConnectionFactoryFactory {
+        private MessageListener listener;
+
+        @Override
+        public Object createConnectionFactory() {
+            return proxy(ConnectionFactory.class, this);
+        }
+
+        @Override
+        public Object invoke(final Object proxy, final Method method, final Object[] args) {
+            final Class<?> type = method.getReturnType();
+            if ("setMessageListener".equals(method.getName())) {
+                listener = (MessageListener) args[0];
+            } else if (type == Connection.class || type == Session.class || type == MessageConsumer.class
+                    || type == MessageProducer.class) {
+                return proxy(type, this);
+            } else if (type == boolean.class) {
+                return false;
+            }
+            return null;
+        }
+    }
+
+    private static JMSBridge createLane(final boolean failToStart) {
+        return (JMSBridge) Proxy.newProxyInstance(JMSBridge.class.getClassLoader(), new Class<?>[] {JMSBridge.class},
+                new InvocationHandler() {
+                    private boolean started;
+
+                    @Override
+                    public Object invoke(final Object proxy, final Method method, final Object[] args) {
+                        final String name = method.getName();
+                        if ("start".equals(name)) {
+                            if (failToStart) {
+                                throw new IllegalStateException("lane failed to start");
+                            }
+                            started = true;
+                        } else if ("stop".equals(name)) {
+                            started = false;
+                        } else if ("isStarted".equals(name)) {
+                            return started;
+                        } else if ("isPaused".equals(name)) {
+                            return false;
+                        }
+                        return null;
+                    }
+                });
+    }
+}
@@ -22,11 +22,27 @@
 
 package org.jboss.as.messaging.test;
 
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILED;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OUTCOME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUCCESS;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.VALUE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.WRITE_ATTRIBUTE_OPERATION;
+
 import java.io.IOException;
 
+import junit.framework.Assert;
+
+import org.jboss.as.messaging.CommonAttributes;
 import org.jboss.as.messaging.MessagingExtension;
+import org.jboss.as.messaging.jms.bridge.JMSBridgeDefinition;
 import org.jboss.as.subsystem.test.AbstractSubsystemBaseTest;
 import org.jboss.as.subsystem.test.AdditionalInitialization;
+import org.jboss.as.subsystem.test.KernelServices;
+import org.jboss.dmr.ModelNode;
+import org.junit.Test;
 
 /**
  * @author Jeff Mesnil (c) 2012 Red Hat inc
@@ -46,4 +62,33 @@ public class JMSBridge13ParsingUnitTestCase extends AbstractSubsystemBaseTest {
     protected AdditionalInitialization createAdditionalInitialization() {
         return AdditionalInitialization.MANAGEMENT;
     }
+
+    @Test
+    public void testParallelLanesRejectClientID() throws Exception {
+        final KernelServices services = installInController(createAdditionalInitialization(), getSubsystemXml());
+
+        // bridgeB forwards messages with 4 lanes
+        ModelNode result = services.executeOperation(writeAttribute("bridgeB", CommonAttributes.CLIENT_ID.getName(), new ModelNode("myClientID")));
+        Assert.assertEquals(result.toString(), FAILED, result.get(OUTCOME).asString());
+        result = services.executeOperation(writeAttribute("bridgeB", JMSBridgeDefinition.SUBSCRIPTION_NAME.getName(), new ModelNode("mySubscription")));
+        Assert.assertEquals(result.toString(), FAILED, result.get(OUTCOME).asString());
+
+        result = services.executeOperation(writeAttribute("bridgeB", JMSBridgeDefinition.PARALLELISM.getName(), new ModelNode(1)));
+        Assert.assertEquals(result.toString(), SUCCESS, result.get(OUTCOME).asString());
+        result = services.executeOperation(writeAttribute("bridgeB", CommonAttributes.CLIENT_ID.getName(), new ModelNode("myClientID")));
+        Assert.assertEquals(result.toString(), SUCCESS, result.get(OUTCOME).asString());
+        result = services.executeOperation(writeAttribute("bridgeB", JMSBridgeDefinition.PARALLELISM.getName(), new ModelNode(2)));
+        Assert.assertEquals(result.toString(), FAILED, result.get(OUTCOME).asString());
+
+        services.shutdown();
+    }
+
+    private static ModelNode writeAttribute(final String bridgeName, final String name, final ModelNode value) {
+        final ModelNode operation = new ModelNode();
+        operation.get(OP).set(WRITE_ATTRIBUTE_OPERATION);
+        operation.get(OP_ADDR).add("subsystem", MessagingExtension.SUBSYSTEM_NAME).add(CommonAttributes.JMS_BRIDGE, bridgeName);
+        operation.get(NAME).set(name);
+        operation.get(VALUE).set(value);
+        return operation;
+    }
 }
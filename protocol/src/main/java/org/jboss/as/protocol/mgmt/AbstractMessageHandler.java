@@ -129,6 +129,24 @@ public abstract class AbstractMessageHandler extends ActiveOperationSupport impl
         }
     }
 
+    /**
+     * Get the key ordering the handling of a message received by a pipelined receiver, see
+     * {@link ManagementChannelReceiver#createPipelined(AbstractMessageHandler)}. The messages of an operation are
+     * handled in order, the messages of different operations concurrently.
+     *
+     * @param header the management protocol header
+     * @return the ordering key, {@code null} if the message has to be handled before receiving the next one
+     */
+    protected Object getOrderingKey(final ManagementProtocolHeader header) {
+        if(header.getType() == ManagementProtocol.TYPE_RESPONSE) {
+            final ActiveRequest<?, ?> request = requests.get(((ManagementResponseHeader) header).getResponseId());
+            return request == null ? null : request.context;
+        } else if(header instanceof ManagementRequestHeader) {
+            return ((ManagementRequestHeader) header).getBatchId();
+        }
+        return null;
+    }
+
     /**
      * Execute a request.
      *
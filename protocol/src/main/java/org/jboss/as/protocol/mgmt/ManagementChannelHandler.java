@@ -62,10 +62,24 @@ public final class ManagementChannelHandler extends AbstractMessageHandler imple
     }
 
     public ManagementChannelHandler(final ManagementClientChannelStrategy strategy, final ExecutorService executorService, final ManagementRequestHandlerFactory... initial) {
+        this(strategy, executorService, false, initial);
+    }
+
+    /**
+     * Create a new handler.
+     *
+     * @param strategy the channel strategy
+     * @param executorService the executor service
+     * @param pipelined whether the payload of a request should be read on a separate thread, so that a large request
+     *                  does not block the smaller ones sent after it on the same channel. Both sides of the channel
+     *                  must be prepared to handle requests out of order, so this is only enabled on request.
+     * @param initial the initial request handler factories
+     */
+    public ManagementChannelHandler(final ManagementClientChannelStrategy strategy, final ExecutorService executorService, final boolean pipelined, final ManagementRequestHandlerFactory... initial) {
         super(executorService);
         this.strategy = strategy;
         this.handlers = initial;
-        this.receiver = ManagementChannelReceiver.createDelegating(this);
+        this.receiver = pipelined ? ManagementChannelReceiver.createPipelined(this) : ManagementChannelReceiver.createDelegating(this);
     }
 
     public long getLastMessageReceivedTime() {
@@ -34,10 +34,20 @@ import java.io.DataInput;
 import java.io.DataInputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 /**
  * Base receiver class for the management protocol support.
+ * <p/>
+ * By default a message is completely handled before the next one is received from the channel. A receiver returning
+ * an ordering key for a message, see {@link #getOrderingKey(ManagementProtocolHeader)}, receives the next message
+ * before handling it instead, so that a large message which is still being transferred does not hold back the
+ * messages sent after it. Messages with the same ordering key are still handled one after the other, in the order
+ * they were received. Pings are always handled as soon as they are received.
  *
  * @author Emanuel Muckenhuber
  */
@@ -60,10 +70,35 @@ public abstract class ManagementChannelReceiver implements ManagementMessageHand
         };
     }
 
+    /**
+     * Create a {@code ManagementChannelReceiver} which is delegating protocol messages to an
+     * {@code AbstractMessageHandler}, handling the messages of different operations concurrently.
+     *
+     * @param handler the handler
+     * @return the receiver
+     */
+    public static ManagementChannelReceiver createPipelined(final AbstractMessageHandler handler) {
+        assert handler != null;
+        return new ManagementChannelReceiver() {
+            @Override
+            public void handleMessage(Channel channel, DataInput input, ManagementProtocolHeader header) throws IOException {
+                handler.handleMessage(channel, input, header);
+            }
+
+            @Override
+            protected Object getOrderingKey(ManagementProtocolHeader header) {
+                return handler.getOrderingKey(header);
+            }
+        };
+    }
+
     private volatile long lastMessageTime;
+    // the messages waiting for the message with the same ordering key currently being handled
+    private final Map<Object, Deque<Runnable>> pending = new HashMap<Object, Deque<Runnable>>();
 
     @Override
     public void handleMessage(final Channel channel, final MessageInputStream message) {
+        boolean pipelined = false;
         try {
             ROOT_LOGGER.tracef("%s handling incoming data", this);
             lastMessageTime = System.currentTimeMillis();
@@ -82,6 +117,19 @@ public abstract class ManagementChannelReceiver implements ManagementMessageHand
                 ROOT_LOGGER.tracef("Received bye bye on %s, closing", this);
                 handleChannelReset(channel);
             } else {
+                final Object key = getOrderingKey(header);
+                if (key != null) {
+                    // Receive the next message while this one is still being read
+                    pipelined = true;
+                    receiveNext(channel);
+                    handleOrdered(key, new Runnable() {
+                        @Override
+                        public void run() {
+                            handlePipelined(channel, message, input, header);
+                        }
+                    });
+                    return;
+                }
                 // Handle a message
                 handleMessage(channel, input, header);
             }
@@ -90,10 +138,58 @@ public abstract class ManagementChannelReceiver implements ManagementMessageHand
             handleError(channel, e);
         } catch (Exception e) {
             handleError(channel, new IOException(e));
+        } finally {
+            if (!pipelined) {
+                StreamUtils.safeClose(message);
+                ROOT_LOGGER.tracef("%s done handling incoming data", this);
+            }
+        }
+        receiveNext(channel);
+    }
+
+    private void handlePipelined(final Channel channel, final MessageInputStream message, final DataInput input, final ManagementProtocolHeader header) {
+        try {
+            handleMessage(channel, input, header);
+            message.close();
+        } catch(IOException e) {
+            handleError(channel, e);
+        } catch (Exception e) {
+            handleError(channel, new IOException(e));
         } finally {
             StreamUtils.safeClose(message);
             ROOT_LOGGER.tracef("%s done handling incoming data", this);
         }
+    }
+
+    /**
+     * Run the task unless a message with the same ordering key is being handled, in which case the task is queued and
+     * run by the thread handling that message once it is done.
+     *
+     * @param key the ordering key
+     * @param task the task handling the message
+     */
+    private void handleOrdered(final Object key, final Runnable task) {
+        synchronized (pending) {
+            final Deque<Runnable> queue = pending.get(key);
+            if (queue != null) {
+                queue.addLast(task);
+                return;
+            }
+            pending.put(key, new ArrayDeque<Runnable>());
+        }
+        Runnable next = task;
+        while (next != null) {
+            next.run();
+            synchronized (pending) {
+                next = pending.get(key).pollFirst();
+                if (next == null) {
+                    pending.remove(key);
+                }
+            }
+        }
+    }
+
+    private void receiveNext(final Channel channel) {
         final Channel.Receiver next = next();
         if(next != null) {
             channel.receiveMessage(next);
@@ -113,6 +209,17 @@ public abstract class ManagementChannelReceiver implements ManagementMessageHand
         return this;
     }
 
+    /**
+     * Get the key ordering the handling of a message. Messages with the same key are handled in the order they were
+     * received, messages with different keys may be handled concurrently.
+     *
+     * @param header the protocol header of the message
+     * @return the ordering key, {@code null} to handle the message before receiving the next one
+     */
+    protected Object getOrderingKey(final ManagementProtocolHeader header) {
+        return null;
+    }
+
     @Override
     public void handleError(final Channel channel, final IOException error) {
         ROOT_LOGGER.tracef(error, "%s error handling incoming data", this);
@@ -0,0 +1,123 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.protocol.mgmt;
+
+import java.io.IOException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.Assert;
+
+import org.jboss.as.protocol.mgmt.support.RemoteChannelPairSetup;
+import org.jboss.as.protocol.mgmt.support.SimpleHandlers;
+import org.jboss.as.protocol.mgmt.support.SimpleHandlers.SimpleClient;
+import org.jboss.threads.AsyncFuture;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests management channels that opted in to pipelined message handling.
+ */
+public class PipelinedRemoteChannelManagementTestCase {
+
+    private RemoteChannelPairSetup channels;
+
+    @Before
+    public void start() throws Exception {
+        channels = new RemoteChannelPairSetup();
+        channels.setupPipelinedRemoting(new SimpleHandlers.OperationHandler());
+        channels.startChannels();
+    }
+
+    @After
+    public void stop() throws Exception {
+        channels.stopChannels();
+        channels.shutdownRemoting();
+    }
+
+    @Test
+    public void testSimpleRequest() throws Exception {
+        final SimpleClient client = SimpleClient.createPipelined(channels);
+
+        SimpleHandlers.Request request = new SimpleHandlers.Request(SimpleHandlers.SIMPLE_REQUEST, 600);
+        Assert.assertEquals(Integer.valueOf(1200), client.executeForResult(request));
+    }
+
+    @Test
+    public void testLargeRequest() throws Exception {
+        final SimpleClient client = SimpleClient.createPipelined(channels);
+        final int size = 1024 * 1024;
+        Assert.assertEquals(Integer.valueOf(size), client.execute(new SimpleHandlers.LargeRequest(size)).get(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testSmallRequestNotBlockedByLargeRequest() throws Exception {
+        final SimpleClient client = SimpleClient.createPipelined(channels);
+        final int size = 1024 * 1024;
+        final CountDownLatch halfSent = new CountDownLatch(1);
+        final CountDownLatch resume = new CountDownLatch(1);
+        final SimpleHandlers.LargeRequest large = new SimpleHandlers.LargeRequest(size) {
+
+            @Override
+            protected void sendRequest(ActiveOperation.ResultHandler<Integer> resultHandler, ManagementRequestContext<Void> context, FlushableDataOutput output) throws IOException {
+                output.writeInt(size);
+                writePayload(output, 0, size / 2);
+                output.flush();
+                halfSent.countDown();
+                try {
+                    resume.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException(e);
+                }
+                writePayload(output, size / 2, size);
+            }
+        };
+        // sending a request blocks until it is written
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final Future<AsyncFuture<Integer>> largeFuture = executor.submit(new Callable<AsyncFuture<Integer>>() {
+                @Override
+                public AsyncFuture<Integer> call() throws Exception {
+                    return client.execute(large);
+                }
+            });
+            Assert.assertTrue(halfSent.await(10, TimeUnit.SECONDS));
+
+            // the server is still reading the large request
+            final SimpleHandlers.Request small = new SimpleHandlers.Request(SimpleHandlers.SIMPLE_REQUEST, 600);
+            Assert.assertEquals(Integer.valueOf(1200), client.execute(small).get(10, TimeUnit.SECONDS));
+
+            resume.countDown();
+            Assert.assertEquals(Integer.valueOf(size), largeFuture.get(10, TimeUnit.SECONDS).get(10, TimeUnit.SECONDS));
+        } finally {
+            resume.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+}
@@ -0,0 +1,145 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.protocol.mgmt;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import junit.framework.Assert;
+
+import org.jboss.as.protocol.mgmt.support.RemoteChannelPairSetup;
+import org.jboss.as.protocol.mgmt.support.SimpleHandlers;
+import org.jboss.as.protocol.mgmt.support.SimpleHandlers.SimpleClient;
+import org.jboss.logging.Logger;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Measures the latency of small requests over a local Remoting connection, once on an idle channel and once while
+ * large requests are transferred on the same channel, which uses pipelined message handling.
+ * <p/>
+ * The number of small requests, the number of concurrent large requests and their size in KiB can be changed with
+ * the {@code benchmark.protocol.requests}, {@code benchmark.protocol.large.threads} and
+ * {@code benchmark.protocol.large.size} system properties.
+ */
+public class ProtocolMixedWorkloadBenchmarkTestCase {
+
+    private static final Logger log = Logger.getLogger(ProtocolMixedWorkloadBenchmarkTestCase.class);
+
+    private static final int REQUESTS = Integer.getInteger("benchmark.protocol.requests", 500);
+    private static final int LARGE_THREADS = Integer.getInteger("benchmark.protocol.large.threads", 2);
+    private static final int LARGE_SIZE = Integer.getInteger("benchmark.protocol.large.size", 4096) * 1024;
+
+    private RemoteChannelPairSetup channels;
+
+    @Before
+    public void start() throws Exception {
+        channels = new RemoteChannelPairSetup();
+        channels.setupPipelinedRemoting(new SimpleHandlers.OperationHandler());
+        channels.startChannels();
+    }
+
+    @After
+    public void stop() throws Exception {
+        channels.stopChannels();
+        channels.shutdownRemoting();
+    }
+
+    @Test
+    public void testMixedWorkload() throws Exception {
+        final SimpleClient client = SimpleClient.createPipelined(channels);
+        // warm up
+        runSmallRequests(client, REQUESTS / 10);
+
+        final long[] idle = runSmallRequests(client, REQUESTS);
+
+        final AtomicBoolean done = new AtomicBoolean();
+        final ExecutorService executor = Executors.newFixedThreadPool(LARGE_THREADS);
+        final long[] loaded;
+        final List<Future<Integer>> futures = new ArrayList<Future<Integer>>();
+        try {
+            for (int i = 0; i < LARGE_THREADS; i++) {
+                futures.add(executor.submit(new Callable<Integer>() {
+                    @Override
+                    public Integer call() throws Exception {
+                        int count = 0;
+                        while (!done.get()) {
+                            final Integer size = client.execute(new SimpleHandlers.LargeRequest(LARGE_SIZE)).get();
+                            Assert.assertEquals(Integer.valueOf(LARGE_SIZE), size);
+                            count++;
+                        }
+                        return count;
+                    }
+                }));
+            }
+            loaded = runSmallRequests(client, REQUESTS);
+        } finally {
+            done.set(true);
+            executor.shutdown();
+        }
+        int largeCount = 0;
+        for (Future<Integer> future : futures) {
+            largeCount += future.get(1, TimeUnit.MINUTES);
+        }
+
+        log.info(String.format("Protocol mixed workload benchmark results:%n%s%n%s%n%-50s %10d",
+                format("small requests, idle channel", idle),
+                format(String.format("small requests, %d x %dKiB transfers", LARGE_THREADS, LARGE_SIZE / 1024), loaded),
+                "large requests completed", largeCount));
+    }
+
+    private static long[] runSmallRequests(final SimpleClient client, final int count) throws Exception {
+        final long[] latencies = new long[count];
+        for (int i = 0; i < count; i++) {
+            final long start = System.nanoTime();
+            final Integer result = client.execute(new SimpleHandlers.Request(SimpleHandlers.SIMPLE_REQUEST, i)).get(1, TimeUnit.MINUTES);
+            latencies[i] = System.nanoTime() - start;
+            Assert.assertEquals(Integer.valueOf(i * 2), result);
+        }
+        Arrays.sort(latencies);
+        return latencies;
+    }
+
+    private static String format(final String name, final long[] sorted) {
+        long total = 0;
+        for (long latency : sorted) {
+            total += latency;
+        }
+        return String.format("%-50s mean %8.2fms p50 %8.2fms p99 %8.2fms max %8.2fms", name,
+                toMillis(total / sorted.length), toMillis(sorted[sorted.length / 2]),
+                toMillis(sorted[(int) Math.min(sorted.length - 1, Math.ceil(sorted.length * 0.99) - 1)]),
+                toMillis(sorted[sorted.length - 1]));
+    }
+
+    private static double toMillis(final long nanos) {
+        return nanos / 1000000d;
+    }
+}
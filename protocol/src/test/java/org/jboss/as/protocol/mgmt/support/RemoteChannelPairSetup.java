@@ -32,6 +32,7 @@ import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 
 import org.jboss.as.protocol.ProtocolChannelClient;
+import org.jboss.as.protocol.mgmt.AbstractMessageHandler;
 import org.jboss.as.protocol.mgmt.ManagementChannelReceiver;
 import org.jboss.as.protocol.mgmt.ManagementMessageHandler;
 import org.jboss.remoting3.Channel;
@@ -80,6 +81,14 @@ public class RemoteChannelPairSetup implements RemotingChannelPairSetup {
     }
 
     public void setupRemoting(final ManagementMessageHandler handler) throws IOException {
+        setupRemoting(ManagementChannelReceiver.createDelegating(handler));
+    }
+
+    public void setupPipelinedRemoting(final AbstractMessageHandler handler) throws IOException {
+        setupRemoting(ManagementChannelReceiver.createPipelined(handler));
+    }
+
+    private void setupRemoting(final Channel.Receiver receiver) throws IOException {
         //executorService = new ThreadPoolExecutor(16, 16, 1L, TimeUnit.DAYS, new LinkedBlockingQueue<Runnable>());
         ThreadFactory threadFactory = new JBossThreadFactory(new ThreadGroup("Remoting"), Boolean.FALSE, null, "Remoting %f thread %t", null, null, AccessController.getContext());
         executorService = new QueueExecutor(EXECUTOR_MAX_THREADS / 4 + 1, EXECUTOR_MAX_THREADS, EXECUTOR_KEEP_ALIVE_TIME, TimeUnit.MILLISECONDS, 500, threadFactory, true, null);
@@ -91,8 +100,6 @@ public class RemoteChannelPairSetup implements RemotingChannelPairSetup {
         configuration.setExecutor(executorService);
         channelServer = ChannelServer.create(configuration);
 
-        final Channel.Receiver receiver = ManagementChannelReceiver.createDelegating(handler);
-
         channelServer.addChannelOpenListener(TEST_CHANNEL, new OpenListener() {
 
             @Override
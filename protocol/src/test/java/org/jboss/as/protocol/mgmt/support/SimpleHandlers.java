@@ -56,6 +56,7 @@ public class SimpleHandlers {
     public static final byte REQUEST_WITH_BAD_READ = 104;
     public static final byte REQUEST_WITH_BAD_WRITE = 105;
     public static final byte REQUEST_WITH_NO_RESPONSE = 106;
+    public static final byte LARGE_REQUEST = 107;
 
     public static class Request extends AbstractManagementRequest<Integer, Void> {
         final int sentData;
@@ -82,6 +83,42 @@ public class SimpleHandlers {
         }
     }
 
+    /**
+     * A request sending a payload of the given size, the response echoes a payload of the same size.
+     */
+    public static class LargeRequest extends AbstractManagementRequest<Integer, Void> {
+        final int size;
+
+        public LargeRequest(int size) {
+            this.size = size;
+        }
+
+        @Override
+        protected void sendRequest(ActiveOperation.ResultHandler<Integer> resultHandler, ManagementRequestContext<Void> context, FlushableDataOutput output) throws IOException {
+            output.writeInt(size);
+            writePayload(output, 0, size);
+        }
+
+        @Override
+        public byte getOperationType() {
+            return LARGE_REQUEST;
+        }
+
+        @Override
+        public void handleRequest(DataInput input, ActiveOperation.ResultHandler<Integer> resultHandler, ManagementRequestContext<Void> context) throws IOException {
+            final int size = input.readInt();
+            readPayload(input, size);
+            resultHandler.done(size);
+        }
+
+        protected static void writePayload(final FlushableDataOutput output, final int from, final int to) throws IOException {
+            final byte[] buffer = new byte[8192];
+            for (int i = from; i < to; i += buffer.length) {
+                output.write(buffer, 0, Math.min(buffer.length, to - i));
+            }
+        }
+    }
+
     public static class OperationHandler extends AbstractMessageHandler {
 
         public OperationHandler() {
@@ -107,6 +144,8 @@ public class SimpleHandlers {
                     return new BadWriteRequestHandler();
                 case REQUEST_WITH_NO_RESPONSE:
                     return new NoResponseHandler();
+                case LARGE_REQUEST:
+                    return new LargeRequestHandler();
                 case REQUEST_WITH_NO_HANDLER:
                     //No handler for this
                 default:
@@ -180,6 +219,22 @@ public class SimpleHandlers {
         }
     }
 
+    public static class LargeRequestHandler extends AbstractHandler {
+
+        @Override
+        public int readRequest(DataInput input) throws IOException {
+            final int size = input.readInt();
+            readPayload(input, size);
+            return size;
+        }
+
+        @Override
+        public void writeResponse(FlushableDataOutput output, int size) throws IOException {
+            output.writeInt(size);
+            LargeRequest.writePayload(output, 0, size);
+        }
+    }
+
     public static class NoResponseHandler implements ManagementRequestHandler<Void, Void> {
         @Override
         public void handleRequest(DataInput input, ActiveOperation.ResultHandler<Void> voidResultHandler, ManagementRequestContext<Void> voidManagementRequestContext) throws IOException {
@@ -205,6 +260,14 @@ public class SimpleHandlers {
         }
 
         public static SimpleClient create(final Channel channel, final ExecutorService executorService) {
+            return create(channel, executorService, false);
+        }
+
+        public static SimpleClient createPipelined(final Channel channel, final ExecutorService executorService) {
+            return create(channel, executorService, true);
+        }
+
+        private static SimpleClient create(final Channel channel, final ExecutorService executorService, final boolean pipelined) {
             final SimpleClient client = new SimpleClient(channel, executorService);
             channel.addCloseHandler(new CloseHandler<Channel>() {
                 @Override
@@ -212,7 +275,7 @@ public class SimpleHandlers {
                     client.shutdownNow();
                 }
             });
-            channel.receiveMessage(ManagementChannelReceiver.createDelegating(client));
+            channel.receiveMessage(pipelined ? ManagementChannelReceiver.createPipelined(client) : ManagementChannelReceiver.createDelegating(client));
             return client;
         }
 
@@ -229,6 +292,18 @@ public class SimpleHandlers {
             return create(channel, setup.getExecutorService());
         }
 
+        public static SimpleClient createPipelined(final RemotingChannelPairSetup setup) {
+            final Channel channel = setup.getClientChannel();
+            return createPipelined(channel, setup.getExecutorService());
+        }
+
+    }
+
+    static void readPayload(final DataInput input, final int size) throws IOException {
+        final byte[] buffer = new byte[8192];
+        for (int i = 0; i < size; i += buffer.length) {
+            input.readFully(buffer, 0, Math.min(buffer.length, size - i));
+        }
     }
 
 }
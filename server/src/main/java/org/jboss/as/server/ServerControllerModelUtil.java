@@ -58,6 +58,7 @@ import static org.jboss.as.server.controller.descriptions.ServerDescriptionConst
 
 import java.util.EnumSet;
 
+import org.jboss.as.controller.BootProfile;
 import org.jboss.as.controller.CompositeOperationHandler;
 import org.jboss.as.controller.ControlledProcessState;
 import org.jboss.as.controller.PathElement;
@@ -66,6 +67,7 @@ import org.jboss.as.controller.RunningModeControl;
 import org.jboss.as.controller.descriptions.common.CommonProviders;
 import org.jboss.as.controller.extension.ExtensionRegistry;
 import org.jboss.as.controller.extension.ExtensionResourceDefinition;
+import org.jboss.as.controller.operations.common.BootProfileAttributeHandler;
 import org.jboss.as.controller.operations.common.InterfaceCriteriaWriteHandler;
 import org.jboss.as.controller.operations.common.NamespaceAddHandler;
 import org.jboss.as.controller.operations.common.NamespaceRemoveHandler;
@@ -106,9 +108,11 @@ import org.jboss.as.server.ServerEnvironment.LaunchType;
 import org.jboss.as.server.controller.descriptions.ServerDescriptionConstants;
 import org.jboss.as.server.controller.descriptions.ServerDescriptionProviders;
 import org.jboss.as.server.controller.descriptions.ServerDescriptions;
+import org.jboss.as.server.deployment.ClassLoadingStatisticsHandler;
 import org.jboss.as.server.deployment.DeploymentAddHandler;
 import org.jboss.as.server.deployment.DeploymentDeployHandler;
 import org.jboss.as.server.deployment.DeploymentFullReplaceHandler;
+import org.jboss.as.server.deployment.DeploymentProfileHandler;
 import org.jboss.as.server.deployment.DeploymentRedeployHandler;
 import org.jboss.as.server.deployment.DeploymentRemoveHandler;
 import org.jboss.as.server.deployment.DeploymentReplaceHandler;
@@ -198,7 +202,8 @@ public class ServerControllerModelUtil {
                                       final ExtensionRegistry extensionRegistry,
                                       final boolean parallelBoot,
                                       final DeploymentFileRepository remoteFileRepository,
-                                      final PathManagerService pathManager) {
+                                      final PathManagerService pathManager,
+                                      final BootProfile bootProfile) {
 
         boolean isDomain = serverEnvironment == null || serverEnvironment.getLaunchType() == LaunchType.DOMAIN;
 
@@ -268,6 +273,9 @@ public class ServerControllerModelUtil {
         root.registerOperationHandler(ServerRestartRequiredHandler.OPERATION_NAME, ServerRestartRequiredHandler.INSTANCE, ServerRestartRequiredHandler.INSTANCE, false);
         root.registerReadOnlyAttribute(ServerDescriptionConstants.PROCESS_STATE, new ProcessStateAttributeHandler(processState), Storage.RUNTIME);
         root.registerReadOnlyAttribute(ServerDescriptionConstants.PROCESS_TYPE, ProcessTypeHandler.INSTANCE, Storage.RUNTIME);
+        if (bootProfile != null) {
+            root.registerReadOnlyAttribute(ServerDescriptionConstants.BOOT_PROFILE, new BootProfileAttributeHandler(bootProfile), Storage.RUNTIME);
+        }
         RunningModeReadHandler.createAndRegister(runningModeControl, root);
         root.registerOperationHandler(ResolveExpressionHandler.OPERATION_NAME, ResolveExpressionHandler.INSTANCE,
                 ResolveExpressionHandler.INSTANCE, EnumSet.of(OperationEntry.Flag.READ_ONLY, OperationEntry.Flag.RUNTIME_ONLY));
@@ -364,9 +372,14 @@ public class ServerControllerModelUtil {
         final DeploymentRedeployHandler drdh = new DeploymentRedeployHandler(vaultReader);
         deployments.registerOperationHandler(DeploymentRedeployHandler.OPERATION_NAME, drdh, drdh, false);
         deployments.registerMetric(DeploymentStatusHandler.ATTRIBUTE_NAME, DeploymentStatusHandler.INSTANCE);
+        deployments.registerOperationHandler(DeploymentProfileHandler.OPERATION_NAME, DeploymentProfileHandler.INSTANCE, DeploymentProfileHandler.INSTANCE, false, runtimeOnlyFlag);
 
         // The sub-deployments registry
-        deployments.registerSubModel(PathElement.pathElement(SUBDEPLOYMENT), ServerDescriptionProviders.SUBDEPLOYMENT_PROVIDER);
+        ManagementResourceRegistration subDeployments = deployments.registerSubModel(PathElement.pathElement(SUBDEPLOYMENT), ServerDescriptionProviders.SUBDEPLOYMENT_PROVIDER);
+
+        // The class loading statistics of deployment modules
+        registerClassLoadingStatistics(deployments);
+        registerClassLoadingStatistics(subDeployments);
 
         // Extensions
         root.registerSubModel(new ExtensionResourceDefinition(extensionRegistry, parallelBoot, false));
@@ -377,6 +390,13 @@ public class ServerControllerModelUtil {
         root.registerOperationHandler(DeployerChainAddHandler.NAME, DeployerChainAddHandler.INSTANCE, DeployerChainAddHandler.INSTANCE, false, EntryType.PRIVATE);
     }
 
+    private static void registerClassLoadingStatistics(final ManagementResourceRegistration deployment) {
+        final ManagementResourceRegistration statistics = deployment.registerSubModel(ClassLoadingStatisticsHandler.PATH, ClassLoadingStatisticsHandler.INSTANCE);
+        for (String attributeName : ClassLoadingStatisticsHandler.ATTRIBUTES) {
+            statistics.registerMetric(attributeName, ClassLoadingStatisticsHandler.INSTANCE);
+        }
+    }
+
     static ProcessType getProcessType(ServerEnvironment serverEnvironment) {
         if (serverEnvironment != null) {
             switch (serverEnvironment.getLaunchType()) {
@@ -223,6 +223,24 @@ public class ServerEnvironment extends ProcessEnvironment implements Serializabl
      */
     public static final String BOOTSTRAP_MAX_THREADS = "org.jboss.server.bootstrap.maxThreads";
 
+    /**
+     * Constant that holds the name of the system property for specifying the max threads used to process sub deployments
+     * concurrently.
+     */
+    public static final String SUBDEPLOYMENT_MAX_THREADS = "org.jboss.server.deployment.subdeployment.maxThreads";
+
+    /**
+     * Constant that holds the name of the system property for mounting archived deployment content from the content
+     * repository in place from a memory mapping, instead of from a temporary copy.
+     */
+    public static final String MAPPED_DEPLOYMENT_CONTENT = "org.jboss.server.deployment.mappedContent";
+
+    /**
+     * Constant that holds the name of the system property for recording the class loading statistics of deployment
+     * modules.
+     */
+    public static final String DEPLOYMENT_CLASS_LOADING_STATISTICS = "org.jboss.server.deployment.classLoadingStatistics";
+
     /**
      * The default system property used to store bind address information from the command-line (-b).
      */
@@ -931,6 +949,47 @@ public class ServerEnvironment extends ProcessEnvironment implements Serializabl
         return defaultThreads;
     }
 
+    /**
+     * Determine the number of threads to use to process the parse, dependencies and post module phases of sub deployments
+     * concurrently. This reads the {@link #SUBDEPLOYMENT_MAX_THREADS} system property and if not set, defaults to 0, in
+     * which case the phases run on the threads of the service container.
+     *
+     * @return the maximum number of threads to use for processing sub deployments, or 0
+     */
+    public static int getSubDeploymentMaxThreads() {
+        String maxThreads = SecurityActions.getSystemProperty(SUBDEPLOYMENT_MAX_THREADS);
+        if (maxThreads != null && maxThreads.length() > 0) {
+            try {
+                return Math.max(Integer.decode(maxThreads), 0);
+            } catch(NumberFormatException ex) {
+                ServerLogger.ROOT_LOGGER.failedToParseCommandLineInteger(SUBDEPLOYMENT_MAX_THREADS, maxThreads);
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Determine whether archived deployment content from the content repository is mounted from a memory mapping. This
+     * reads the {@link #MAPPED_DEPLOYMENT_CONTENT} system property when a deployment is mounted, and defaults to
+     * {@code false}.
+     *
+     * @return {@code true} if the content should be memory mapped
+     */
+    public static boolean isMappedDeploymentContent() {
+        return Boolean.parseBoolean(SecurityActions.getSystemProperty(MAPPED_DEPLOYMENT_CONTENT));
+    }
+
+    /**
+     * Determine whether the class loading statistics of deployment modules are recorded. This reads the
+     * {@link #DEPLOYMENT_CLASS_LOADING_STATISTICS} system property when the module of a deployment is created, and
+     * defaults to {@code false}.
+     *
+     * @return {@code true} if the statistics should be recorded
+     */
+    public static boolean isDeploymentClassLoadingStatistics() {
+        return Boolean.parseBoolean(SecurityActions.getSystemProperty(DEPLOYMENT_CLASS_LOADING_STATISTICS));
+    }
+
     @Override
     protected String getProcessName() {
         return serverName;
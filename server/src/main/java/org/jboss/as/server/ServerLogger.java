@@ -39,6 +39,7 @@ import org.jboss.logging.Message;
 import org.jboss.logging.MessageLogger;
 import org.jboss.modules.ModuleIdentifier;
 
+import static org.jboss.logging.Logger.Level.DEBUG;
 import static org.jboss.logging.Logger.Level.ERROR;
 import static org.jboss.logging.Logger.Level.INFO;
 import static org.jboss.logging.Logger.Level.WARN;
@@ -384,4 +385,24 @@ public interface ServerLogger extends BasicLogger {
     @LogMessage(level = WARN)
     @Message(id = 15967, value= "Cannot install reflection index for unresolved bundle: %s")
     void warnCannotInstallReflectionIndexForUnresolvedBundle(String bundle);
+
+    @LogMessage(level = INFO)
+    @Message(id = 15968, value = "Deployed \"%s\" in %d ms, slowest deployment unit processors: %s")
+    void deploymentDeployedWithProfile(String deploymentUnitName, long millis, String hotSpots);
+
+    @LogMessage(level = DEBUG)
+    @Message(id = 15969, value = "Deployment \"%s\" cache hit rates: %s")
+    void deploymentCacheStatistics(String deploymentUnitName, String cacheStatistics);
+
+    @LogMessage(level = DEBUG)
+    @Message(id = 15970, value = "Deployment \"%s\" defined %d classes in %d ms, most linked modules: %s")
+    void deploymentClassLoadingStatistics(String deploymentUnitName, int classes, long millis, String linkedModules);
+
+    @LogMessage(level = INFO)
+    @Message(id = 15971, value = "Redeployed \"%s\" in %d ms, slowest deployment unit processors: %s")
+    void deploymentRedeployedWithProfile(String deploymentName, long millis, String hotSpots);
+
+    @LogMessage(level = INFO)
+    @Message(id = 15972, value = "Replaced deployment \"%s\" with deployment \"%s\" in %d ms, slowest deployment unit processors: %s")
+    void deploymentReplacedWithProfile(String replaced, String deployment, long millis, String hotSpots);
 }
@@ -60,6 +60,7 @@ import org.jboss.as.server.deployment.DeploymentUnitProcessingException;
 import org.jboss.as.server.deployment.DeploymentUnitProcessor;
 import org.jboss.as.server.deployment.Phase;
 import org.jboss.as.server.deployment.ServiceLoaderProcessor;
+import org.jboss.as.server.deployment.SubDeploymentExecutorService;
 import org.jboss.as.server.deployment.SubDeploymentProcessor;
 import org.jboss.as.server.deployment.annotation.AnnotationIndexProcessor;
 import org.jboss.as.server.deployment.annotation.CleanupAnnotationIndexProcessor;
@@ -185,6 +186,10 @@ public final class ServerService extends AbstractControllerService {
 //        serverExecutorService.getThreadFactoryInjector().inject(threadFactory);
         final ServerExecutorService serverExecutorService = new ServerExecutorService(threadFactory);
         serviceTarget.addService(Services.JBOSS_SERVER_EXECUTOR, serverExecutorService).install();
+        final int subDeploymentMaxThreads = ServerEnvironment.getSubDeploymentMaxThreads();
+        if (subDeploymentMaxThreads > 0) {
+            SubDeploymentExecutorService.addService(serviceTarget, subDeploymentMaxThreads);
+        }
 
         ServerService service = new ServerService(configuration, processState, null, bootstrapListener, runningModeControl, vaultReader, remoteFileRepository);
         ServiceBuilder<?> serviceBuilder = serviceTarget.addService(Services.JBOSS_SERVER_CONTROLLER, service);
@@ -322,7 +327,7 @@ public final class ServerService extends AbstractControllerService {
                 extensibleConfigurationPersister, configuration.getServerEnvironment(), processState,
                 runningModeControl, vaultReader, configuration.getExtensionRegistry(),
                 getExecutorServiceInjector().getOptionalValue() != null, remoteFileRepository,
-                (PathManagerService)injectedPathManagerService.getValue());
+                (PathManagerService)injectedPathManagerService.getValue(), getBootProfile());
 
         // TODO maybe make creating of empty nodes part of the MNR description
         rootResource.registerChild(PathElement.pathElement(ModelDescriptionConstants.CORE_SERVICE, ModelDescriptionConstants.MANAGEMENT), Resource.Factory.create());
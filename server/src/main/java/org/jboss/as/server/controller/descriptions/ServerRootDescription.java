@@ -61,6 +61,8 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUB
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SYSTEM_PROPERTY;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.TAIL_COMMENT_ALLOWED;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.TYPE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.VALUE_TYPE;
+import static org.jboss.as.server.controller.descriptions.ServerDescriptionConstants.BOOT_PROFILE;
 import static org.jboss.as.server.controller.descriptions.ServerDescriptionConstants.LAUNCH_TYPE;
 import static org.jboss.as.server.controller.descriptions.ServerDescriptionConstants.PROCESS_TYPE;
 import static org.jboss.as.server.controller.descriptions.ServerDescriptionConstants.PROFILE_NAME;
@@ -70,6 +72,7 @@ import java.util.Locale;
 import java.util.ResourceBundle;
 
 import org.jboss.as.controller.descriptions.common.CommonDescriptions;
+import org.jboss.as.controller.operations.common.BootProfileAttributeHandler;
 import org.jboss.as.server.ServerEnvironment;
 import org.jboss.as.server.operations.ServerRestartRequiredHandler;
 import org.jboss.dmr.ModelNode;
@@ -172,6 +175,28 @@ public class ServerRootDescription {
         root.get(ATTRIBUTES, LAUNCH_TYPE, ALLOWED).add(ServerEnvironment.LaunchType.STANDALONE.toString());
         root.get(ATTRIBUTES, LAUNCH_TYPE, ALLOWED).add(ServerEnvironment.LaunchType.EMBEDDED.toString());
 
+        root.get(ATTRIBUTES, BOOT_PROFILE, DESCRIPTION).set(bundle.getString("server.boot-profile"));
+        root.get(ATTRIBUTES, BOOT_PROFILE, TYPE).set(ModelType.OBJECT);
+        root.get(ATTRIBUTES, BOOT_PROFILE, REQUIRED).set(false);
+        root.get(ATTRIBUTES, BOOT_PROFILE, NILLABLE).set(true);
+        final ModelNode bootProfile = root.get(ATTRIBUTES, BOOT_PROFILE, VALUE_TYPE);
+        bootProfile.get(BootProfileAttributeHandler.MODEL_STAGE_TIME, DESCRIPTION).set(bundle.getString("server.boot-profile.model-stage-time"));
+        bootProfile.get(BootProfileAttributeHandler.MODEL_STAGE_TIME, TYPE).set(ModelType.LONG);
+        bootProfile.get(BootProfileAttributeHandler.RUNTIME_STAGE_TIME, DESCRIPTION).set(bundle.getString("server.boot-profile.runtime-stage-time"));
+        bootProfile.get(BootProfileAttributeHandler.RUNTIME_STAGE_TIME, TYPE).set(ModelType.LONG);
+        bootProfile.get(BootProfileAttributeHandler.CONTAINER_STABILITY_TIME, DESCRIPTION).set(bundle.getString("server.boot-profile.container-stability-time"));
+        bootProfile.get(BootProfileAttributeHandler.CONTAINER_STABILITY_TIME, TYPE).set(ModelType.LONG);
+        bootProfile.get(BootProfileAttributeHandler.SUBSYSTEMS, DESCRIPTION).set(bundle.getString("server.boot-profile.subsystems"));
+        bootProfile.get(BootProfileAttributeHandler.SUBSYSTEMS, TYPE).set(ModelType.OBJECT);
+        final ModelNode subsystemProfile = bootProfile.get(BootProfileAttributeHandler.SUBSYSTEMS, VALUE_TYPE);
+        for (String time : new String[] {BootProfileAttributeHandler.MODEL_TIME, BootProfileAttributeHandler.MODEL_WAIT_TIME,
+                BootProfileAttributeHandler.RUNTIME_TIME, BootProfileAttributeHandler.RUNTIME_WAIT_TIME, BootProfileAttributeHandler.SERVICE_START_TIME}) {
+            subsystemProfile.get(time, DESCRIPTION).set(bundle.getString("server.boot-profile.subsystems." + time));
+            subsystemProfile.get(time, TYPE).set(ModelType.LONG);
+        }
+        subsystemProfile.get(BootProfileAttributeHandler.SERVICES_STARTED, DESCRIPTION).set(bundle.getString("server.boot-profile.subsystems.services-started"));
+        subsystemProfile.get(BootProfileAttributeHandler.SERVICES_STARTED, TYPE).set(ModelType.INT);
+
         root.get(OPERATIONS);
 
         root.get(CHILDREN, EXTENSION, DESCRIPTION).set(bundle.getString("server.extension"));
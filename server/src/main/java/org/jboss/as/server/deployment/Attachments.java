@@ -88,9 +88,9 @@ public final class Attachments {
     public static final AttachmentKey<VirtualFile> DEPLOYMENT_CONTENTS = AttachmentKey.create(VirtualFile.class);
 
     /**
-     * The deployment hash
+     * The deployment hash, if the deployment contents are managed by the content repository
      */
-    //public static final AttachmentKey<byte[]> DEPLOYMENT_HASH = AttachmentKey.create(byte[].class);
+    public static final AttachmentKey<byte[]> DEPLOYMENT_HASH = AttachmentKey.create(byte[].class);
 
     /**
      * The special status listener attachment.
@@ -292,6 +292,11 @@ public final class Attachments {
      */
     public static final AttachmentKey<AttachmentList<SetupAction>> SETUP_ACTIONS = AttachmentKey.createList(SetupAction.class);
 
+    /**
+     * The time spent by the deployment unit processors on the deployment unit
+     */
+    public static final AttachmentKey<DeploymentProfile> DEPLOYMENT_PROFILE = AttachmentKey.create(DeploymentProfile.class);
+
     //
     // CLEANUP
     //
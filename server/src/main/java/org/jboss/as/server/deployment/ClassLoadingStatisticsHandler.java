@@ -0,0 +1,151 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.DEPLOYMENT;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RUNTIME_NAME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUBDEPLOYMENT;
+import static org.jboss.as.controller.descriptions.common.DeploymentDescription.CLASSES_DEFINED;
+import static org.jboss.as.controller.descriptions.common.DeploymentDescription.CLASS_LOOKUPS;
+import static org.jboss.as.controller.descriptions.common.DeploymentDescription.DEFINE_TIME;
+import static org.jboss.as.controller.descriptions.common.DeploymentDescription.FAILED_CLASS_LOOKUPS;
+import static org.jboss.as.controller.descriptions.common.DeploymentDescription.FAILED_RESOURCE_LOOKUPS;
+import static org.jboss.as.controller.descriptions.common.DeploymentDescription.LINKED_CLASSES;
+import static org.jboss.as.controller.descriptions.common.DeploymentDescription.RESOURCE_LOOKUPS;
+import static org.jboss.as.controller.descriptions.common.DeploymentDescription.RESOURCE_ROOTS;
+
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.OperationStepHandler;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.descriptions.DescriptionProvider;
+import org.jboss.as.controller.descriptions.common.DeploymentDescription;
+import org.jboss.as.server.deployment.module.ClassLoadingStatistics;
+import org.jboss.dmr.ModelNode;
+
+/**
+ * Reads the {@link ClassLoadingStatistics} of the module of a deployment or sub deployment.
+ */
+public class ClassLoadingStatisticsHandler implements OperationStepHandler, DescriptionProvider {
+
+    public static final PathElement PATH = PathElement.pathElement(DeploymentDescription.CLASS_LOADING, DeploymentDescription.CLASS_LOADING_STATISTICS);
+    public static final String[] ATTRIBUTES = {CLASSES_DEFINED, DEFINE_TIME, CLASS_LOOKUPS, FAILED_CLASS_LOOKUPS,
+            RESOURCE_LOOKUPS, FAILED_RESOURCE_LOOKUPS, RESOURCE_ROOTS, LINKED_CLASSES};
+    public static final ClassLoadingStatisticsHandler INSTANCE = new ClassLoadingStatisticsHandler();
+
+    private ClassLoadingStatisticsHandler() {
+    }
+
+    @Override
+    public ModelNode getModelDescription(Locale locale) {
+        return DeploymentDescription.getClassLoadingStatisticsDescription(locale);
+    }
+
+    @Override
+    public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
+        final PathAddress address = PathAddress.pathAddress(operation.get(OP_ADDR));
+        final String attributeName = operation.require(NAME).asString();
+        String deploymentName = null;
+        String subDeploymentName = null;
+        for (PathElement element : address) {
+            if (DEPLOYMENT.equals(element.getKey())) {
+                deploymentName = element.getValue();
+            } else if (SUBDEPLOYMENT.equals(element.getKey())) {
+                subDeploymentName = element.getValue();
+            }
+        }
+        final ModelNode deployment = context.readResourceFromRoot(PathAddress.pathAddress(PathElement.pathElement(DEPLOYMENT, deploymentName)), false).getModel();
+        final String runtimeName = deployment.require(RUNTIME_NAME).asString();
+        final String subDeployment = subDeploymentName;
+        context.addStep(new OperationStepHandler() {
+            @Override
+            public void execute(final OperationContext context, final ModelNode operation) throws OperationFailedException {
+                DeploymentUnit deploymentUnit = DeploymentHandlerUtil.getDeploymentUnit(context.getServiceRegistry(false), runtimeName);
+                if (deploymentUnit != null && subDeployment != null) {
+                    deploymentUnit = getSubDeployment(deploymentUnit, subDeployment);
+                }
+                final ClassLoadingStatistics statistics = deploymentUnit == null ? null : deploymentUnit.getAttachment(ClassLoadingStatistics.ATTACHMENT_KEY);
+                if (statistics != null) {
+                    writeAttribute(context.getResult(), attributeName, statistics);
+                }
+                context.completeStep();
+            }
+        }, OperationContext.Stage.RUNTIME);
+        context.completeStep();
+    }
+
+    private static DeploymentUnit getSubDeployment(final DeploymentUnit deploymentUnit, final String name) {
+        for (DeploymentUnit subDeployment : deploymentUnit.getAttachmentList(Attachments.SUB_DEPLOYMENTS)) {
+            if (name.equals(subDeployment.getName())) {
+                return subDeployment;
+            }
+        }
+        return null;
+    }
+
+    private static void writeAttribute(final ModelNode result, final String attributeName, final ClassLoadingStatistics statistics) {
+        if (CLASSES_DEFINED.equals(attributeName)) {
+            result.set(statistics.getClassesDefined());
+        } else if (DEFINE_TIME.equals(attributeName)) {
+            result.set(TimeUnit.NANOSECONDS.toMillis(statistics.getDefineTime()));
+        } else if (RESOURCE_ROOTS.equals(attributeName)) {
+            result.setEmptyObject();
+            for (Map.Entry<String, ClassLoadingStatistics.ResourceRootStatistics> entry : statistics.getResourceRoots().entrySet()) {
+                final ClassLoadingStatistics.ResourceRootStatistics root = entry.getValue();
+                final ModelNode node = result.get(entry.getKey());
+                node.get(CLASS_LOOKUPS).set(root.getClassLookups());
+                node.get(FAILED_CLASS_LOOKUPS).set(root.getFailedClassLookups());
+                node.get(RESOURCE_LOOKUPS).set(root.getResourceLookups());
+                node.get(FAILED_RESOURCE_LOOKUPS).set(root.getFailedResourceLookups());
+            }
+        } else if (LINKED_CLASSES.equals(attributeName)) {
+            result.setEmptyObject();
+            for (Map.Entry<String, Integer> entry : statistics.getLinkedClasses().entrySet()) {
+                result.get(entry.getKey()).set(entry.getValue());
+            }
+        } else {
+            final Collection<ClassLoadingStatistics.ResourceRootStatistics> roots = statistics.getResourceRoots().values();
+            long total = 0;
+            for (ClassLoadingStatistics.ResourceRootStatistics root : roots) {
+                if (CLASS_LOOKUPS.equals(attributeName)) {
+                    total += root.getClassLookups();
+                } else if (FAILED_CLASS_LOOKUPS.equals(attributeName)) {
+                    total += root.getFailedClassLookups();
+                } else if (RESOURCE_LOOKUPS.equals(attributeName)) {
+                    total += root.getResourceLookups();
+                } else {
+                    total += root.getFailedResourceLookups();
+                }
+            }
+            result.set(total);
+        }
+    }
+}
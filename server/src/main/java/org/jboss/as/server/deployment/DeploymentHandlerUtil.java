@@ -29,7 +29,12 @@ import static org.jboss.msc.service.ServiceController.Mode.REMOVE;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.jboss.as.controller.OperationContext;
@@ -42,6 +47,7 @@ import org.jboss.as.controller.registry.ImmutableManagementResourceRegistration;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.as.controller.registry.Resource;
 import org.jboss.as.server.ServerLogger;
+import org.jboss.as.server.deployment.module.ClassLoadingStatistics;
 import org.jboss.dmr.ModelNode;
 import org.jboss.msc.service.AbstractServiceListener;
 import org.jboss.msc.service.ServiceController;
@@ -86,6 +92,9 @@ public class DeploymentHandlerUtil {
         }
     }
 
+    /** The number of processors listed in the deployment profile log message */
+    private static final int HOT_SPOTS = 5;
+
     private DeploymentHandlerUtil() {
     }
 
@@ -130,7 +139,13 @@ public class DeploymentHandlerUtil {
                                 ServerLogger.ROOT_LOGGER.deploymentRolledBackWithNoMessage(deploymentUnitName);
                             }
                         } else {
-                            ServerLogger.ROOT_LOGGER.deploymentDeployed(deploymentUnitName);
+                            final List<DeploymentProfile> profiles = getDeploymentProfiles(context, deploymentUnitName);
+                            if (profiles.isEmpty()) {
+                                ServerLogger.ROOT_LOGGER.deploymentDeployed(deploymentUnitName);
+                            } else {
+                                ServerLogger.ROOT_LOGGER.deploymentDeployedWithProfile(deploymentUnitName, getTotalMillis(profiles), getHotSpots(profiles));
+                            }
+                            logDeploymentStatistics(context, deploymentUnitName, profiles);
                         }
                     }
                 }
@@ -156,7 +171,7 @@ public class DeploymentHandlerUtil {
         }
         controllers.add(contentService);
 
-        final RootDeploymentUnitService service = new RootDeploymentUnitService(deploymentUnitName, managementName, null, registration, mutableRegistration, deploymentResource, verificationHandler, vaultReader);
+        final RootDeploymentUnitService service = new RootDeploymentUnitService(deploymentUnitName, managementName, contents[0].hash, null, registration, mutableRegistration, deploymentResource, verificationHandler, vaultReader);
         final ServiceController<DeploymentUnit> deploymentUnitController = serviceTarget.addService(deploymentUnitServiceName, service)
                 .addDependency(Services.JBOSS_DEPLOYMENT_CHAINS, DeployerChains.class, service.getDeployerChainsInjector())
                 .addDependency(DeploymentMountProvider.SERVICE_NAME, DeploymentMountProvider.class, service.getServerDeploymentRepositoryInjector())
@@ -177,6 +192,134 @@ public class DeploymentHandlerUtil {
         return controllers;
     }
 
+    /**
+     * Get the deployment unit of a deployment.
+     *
+     * @param serviceRegistry the service registry
+     * @param deploymentUnitName the runtime name of the deployment
+     * @return the deployment unit, or {@code null} if the deployment is not deployed
+     */
+    static DeploymentUnit getDeploymentUnit(final ServiceRegistry serviceRegistry, final String deploymentUnitName) {
+        final ServiceController<?> controller = serviceRegistry.getService(Services.deploymentUnitName(deploymentUnitName));
+        if (controller == null || !(controller.getService() instanceof AbstractDeploymentUnitService)) {
+            return null;
+        }
+        return ((AbstractDeploymentUnitService) controller.getService()).getValue();
+    }
+
+    private static List<DeploymentProfile> getDeploymentProfiles(final OperationContext context, final String deploymentUnitName) {
+        final DeploymentUnit deploymentUnit = getDeploymentUnit(context.getServiceRegistry(false), deploymentUnitName);
+        if (deploymentUnit == null) {
+            return Collections.emptyList();
+        }
+        return DeploymentProfile.getProfiles(deploymentUnit);
+    }
+
+    private static long getTotalMillis(final List<DeploymentProfile> profiles) {
+        long total = 0;
+        for (DeploymentProfile profile : profiles) {
+            total += profile.getTotalTime();
+        }
+        return TimeUnit.NANOSECONDS.toMillis(total);
+    }
+
+    /**
+     * @param profiles the profiles of a deployment and of its sub deployments
+     * @return the slowest deployment unit processors, with their phase, deployment and time
+     */
+    private static String getHotSpots(final List<DeploymentProfile> profiles) {
+        final StringBuilder hotSpots = new StringBuilder();
+        for (DeploymentProfile.ProcessorTime hotSpot : DeploymentProfile.getHotSpots(profiles, HOT_SPOTS)) {
+            if (hotSpots.length() > 0) {
+                hotSpots.append(", ");
+            }
+            final String processorName = hotSpot.getProcessorName();
+            hotSpots.append(processorName.substring(processorName.lastIndexOf('.') + 1))
+                    .append(" (").append(hotSpot.getPhase()).append(", ").append(hotSpot.getDeploymentName()).append(") ")
+                    .append(TimeUnit.NANOSECONDS.toMillis(hotSpot.getTime())).append(" ms");
+        }
+        return hotSpots.toString();
+    }
+
+    private static void logDeploymentStatistics(final OperationContext context, final String deploymentUnitName,
+                                                final List<DeploymentProfile> profiles) {
+        logCacheStatistics(deploymentUnitName, profiles);
+        final DeploymentUnit deploymentUnit = getDeploymentUnit(context.getServiceRegistry(false), deploymentUnitName);
+        if (deploymentUnit != null) {
+            logClassLoadingStatistics(deploymentUnit, deploymentUnitName);
+        }
+    }
+
+    private static void logCacheStatistics(final String deploymentUnitName, final List<DeploymentProfile> profiles) {
+        if (!ServerLogger.ROOT_LOGGER.isDebugEnabled()) {
+            return;
+        }
+        final Map<String, DeploymentProfile.CacheStatistics> caches = new TreeMap<String, DeploymentProfile.CacheStatistics>();
+        for (DeploymentProfile profile : profiles) {
+            for (Map.Entry<String, DeploymentProfile.CacheStatistics> entry : profile.getCacheStatistics().entrySet()) {
+                final DeploymentProfile.CacheStatistics previous = caches.get(entry.getKey());
+                caches.put(entry.getKey(), previous == null ? entry.getValue() : previous.add(entry.getValue()));
+            }
+        }
+        if (!caches.isEmpty()) {
+            final StringBuilder cacheStatistics = new StringBuilder();
+            for (Map.Entry<String, DeploymentProfile.CacheStatistics> entry : caches.entrySet()) {
+                if (cacheStatistics.length() > 0) {
+                    cacheStatistics.append(", ");
+                }
+                final DeploymentProfile.CacheStatistics statistics = entry.getValue();
+                cacheStatistics.append(entry.getKey()).append(' ').append(statistics.getHitRate()).append("% (")
+                        .append(statistics.getHits()).append('/').append(statistics.getHits() + statistics.getMisses()).append(')');
+            }
+            ServerLogger.ROOT_LOGGER.deploymentCacheStatistics(deploymentUnitName, cacheStatistics.toString());
+        }
+    }
+
+    private static void logClassLoadingStatistics(final DeploymentUnit deploymentUnit, final String deploymentUnitName) {
+        if (!ServerLogger.ROOT_LOGGER.isDebugEnabled()) {
+            return;
+        }
+        final List<ClassLoadingStatistics> statistics = new ArrayList<ClassLoadingStatistics>();
+        if (deploymentUnit.hasAttachment(ClassLoadingStatistics.ATTACHMENT_KEY)) {
+            statistics.add(deploymentUnit.getAttachment(ClassLoadingStatistics.ATTACHMENT_KEY));
+        }
+        for (DeploymentUnit subDeployment : deploymentUnit.getAttachmentList(Attachments.SUB_DEPLOYMENTS)) {
+            if (subDeployment.hasAttachment(ClassLoadingStatistics.ATTACHMENT_KEY)) {
+                statistics.add(subDeployment.getAttachment(ClassLoadingStatistics.ATTACHMENT_KEY));
+            }
+        }
+        if (statistics.isEmpty()) {
+            return;
+        }
+        int classes = 0;
+        long defineTime = 0;
+        final Map<String, Integer> linkedClasses = new TreeMap<String, Integer>();
+        for (ClassLoadingStatistics moduleStatistics : statistics) {
+            classes += moduleStatistics.getClassesDefined();
+            defineTime += moduleStatistics.getDefineTime();
+            for (Map.Entry<String, Integer> entry : moduleStatistics.getLinkedClasses().entrySet()) {
+                final Integer previous = linkedClasses.get(entry.getKey());
+                linkedClasses.put(entry.getKey(), previous == null ? entry.getValue() : previous + entry.getValue());
+            }
+        }
+        final List<Map.Entry<String, Integer>> sorted = new ArrayList<Map.Entry<String, Integer>>(linkedClasses.entrySet());
+        Collections.sort(sorted, new Comparator<Map.Entry<String, Integer>>() {
+            @Override
+            public int compare(final Map.Entry<String, Integer> o1, final Map.Entry<String, Integer> o2) {
+                return o2.getValue().compareTo(o1.getValue());
+            }
+        });
+        final StringBuilder linkedModules = new StringBuilder();
+        for (Map.Entry<String, Integer> entry : sorted.subList(0, Math.min(HOT_SPOTS, sorted.size()))) {
+            if (linkedModules.length() > 0) {
+                linkedModules.append(", ");
+            }
+            linkedModules.append(entry.getKey()).append(" (").append(entry.getValue()).append(')');
+        }
+        ServerLogger.ROOT_LOGGER.deploymentClassLoadingStatistics(deploymentUnitName, classes,
+                TimeUnit.NANOSECONDS.toMillis(defineTime), linkedModules.toString());
+    }
+
     public static void redeploy(final OperationContext context, final String deploymentUnitName,
                                 final String managementName, final AbstractVaultReader vaultReader, final ContentItem... contents) throws OperationFailedException {
         assert contents != null : "contents is null";
@@ -210,7 +353,13 @@ public class DeploymentHandlerUtil {
                                     logged.set(true);
                                 }
                             } else {
-                                ServerLogger.ROOT_LOGGER.deploymentRedeployed(deploymentUnitName);
+                                final List<DeploymentProfile> profiles = getDeploymentProfiles(context, deploymentUnitName);
+                                if (profiles.isEmpty()) {
+                                    ServerLogger.ROOT_LOGGER.deploymentRedeployed(deploymentUnitName);
+                                } else {
+                                    ServerLogger.ROOT_LOGGER.deploymentRedeployedWithProfile(deploymentUnitName, getTotalMillis(profiles), getHotSpots(profiles));
+                                }
+                                logDeploymentStatistics(context, deploymentUnitName, profiles);
                             }
                         }
                     }, OperationContext.Stage.IMMEDIATE);
@@ -274,7 +423,14 @@ public class DeploymentHandlerUtil {
                             ServerLogger.ROOT_LOGGER.replaceRolledBackWithNoMessage(replacedDeploymentUnitName, deploymentUnitName);
                         }
                     } else {
-                        ServerLogger.ROOT_LOGGER.deploymentReplaced(replacedDeploymentUnitName, deploymentUnitName);
+                        final List<DeploymentProfile> profiles = getDeploymentProfiles(context, deploymentUnitName);
+                        if (profiles.isEmpty()) {
+                            ServerLogger.ROOT_LOGGER.deploymentReplaced(replacedDeploymentUnitName, deploymentUnitName);
+                        } else {
+                            ServerLogger.ROOT_LOGGER.deploymentReplacedWithProfile(replacedDeploymentUnitName, deploymentUnitName,
+                                    getTotalMillis(profiles), getHotSpots(profiles));
+                        }
+                        logDeploymentStatistics(context, deploymentUnitName, profiles);
                     }
                 }
             }, OperationContext.Stage.RUNTIME);
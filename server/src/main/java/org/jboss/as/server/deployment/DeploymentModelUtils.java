@@ -25,6 +25,7 @@ package org.jboss.as.server.deployment;
 import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.PathElement;
 import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
+import org.jboss.as.controller.descriptions.common.DeploymentDescription;
 import org.jboss.as.controller.registry.ImmutableManagementResourceRegistration;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.as.controller.registry.Resource;
@@ -43,6 +44,7 @@ public class DeploymentModelUtils {
 
     static final String SUBSYSTEM = ModelDescriptionConstants.SUBSYSTEM;
     static final String SUB_DEPLOYMENT = "subdeployment";
+    static final String CLASS_LOADING = DeploymentDescription.CLASS_LOADING;
 
     static ModelNode getSubsystemRoot(final String subsystemName, final DeploymentUnit unit) {
         final Resource root = unit.getAttachment(DEPLOYMENT_RESOURCE);
@@ -69,6 +71,18 @@ public class DeploymentModelUtils {
         return getOrCreate(root, PathElement.pathElement(SUB_DEPLOYMENT, deploymentName));
     }
 
+    /**
+     * Creates the runtime resource exposing the class loading statistics of the module of a deployment.
+     *
+     * @param unit the deployment unit
+     */
+    public static void createClassLoadingStatistics(final DeploymentUnit unit) {
+        final Resource root = unit.getAttachment(DEPLOYMENT_RESOURCE);
+        if (root != null) {
+            getOrCreate(root, PathElement.pathElement(CLASS_LOADING, DeploymentDescription.CLASS_LOADING_STATISTICS));
+        }
+    }
+
     static Resource getOrCreate(final Resource parent, final PathElement element) {
         synchronized(parent) {
             if(parent.hasChild(element)) {
@@ -89,6 +103,9 @@ public class DeploymentModelUtils {
             for(final Resource.ResourceEntry entry : resource.getChildren(SUB_DEPLOYMENT)) {
                 resource.removeChild(entry.getPathElement());
             }
+            for(final Resource.ResourceEntry entry : resource.getChildren(CLASS_LOADING)) {
+                resource.removeChild(entry.getPathElement());
+            }
         }
     }
 
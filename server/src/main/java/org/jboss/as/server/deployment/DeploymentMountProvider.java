@@ -30,6 +30,7 @@ import java.util.concurrent.Executors;
 
 import org.jboss.as.server.ServerLogger;
 import org.jboss.as.server.ServerMessages;
+import org.jboss.as.server.deployment.module.ZipDirectoryCache;
 import org.jboss.msc.service.Service;
 import org.jboss.msc.service.ServiceName;
 import org.jboss.msc.service.ServiceTarget;
@@ -92,9 +93,11 @@ public interface DeploymentMountProvider {
                 assert contents != null : "null contents";
                 switch (type) {
                     case ZIP:
-                        return VFS.mountZip(contents, mountPoint, tempFileProvider);
+                        return ZipDirectoryCache.mountZip(contents, mountPoint, tempFileProvider);
                     case EXPANDED:
                         return VFS.mountZipExpanded(contents, mountPoint, tempFileProvider);
+                    case MAPPED:
+                        return ZipDirectoryCache.mountMapped(contents, mountPoint, tempFileProvider);
                     case REAL:
                         return VFS.mountReal(contents.getPhysicalFile(), mountPoint);
                     default:
@@ -0,0 +1,283 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The time spent by the deployment unit processors on a deployment unit, per phase and per processor. The profile of
+ * a deployment unit is attached to it with the {@link Attachments#DEPLOYMENT_PROFILE} key; the profile of a sub
+ * deployment is attached to the sub deployment unit.
+ * <p/>
+ * The times only cover the {@link DeploymentUnitProcessor#deploy(DeploymentPhaseContext)} calls, the time spent
+ * waiting for the services a phase depends on is not included. Processors looking up the results of their work in a
+ * cache shared by deployments can also record their cache hits and misses in the profile.
+ */
+public final class DeploymentProfile {
+
+    private final String deploymentName;
+    private final Map<Phase, Long> phaseTimes = new EnumMap<Phase, Long>(Phase.class);
+    private final List<ProcessorTime> processorTimes = new ArrayList<ProcessorTime>();
+    private final Map<String, CacheStatistics> cacheStatistics = new TreeMap<String, CacheStatistics>();
+
+    DeploymentProfile(final String deploymentName) {
+        this.deploymentName = deploymentName;
+    }
+
+    /**
+     * Get the profile of a deployment unit, creating it if it was not profiled yet.
+     *
+     * @param deploymentUnit the deployment unit
+     * @return the profile
+     */
+    static DeploymentProfile getOrCreate(final DeploymentUnit deploymentUnit) {
+        DeploymentProfile profile = deploymentUnit.getAttachment(Attachments.DEPLOYMENT_PROFILE);
+        if (profile == null) {
+            profile = new DeploymentProfile(deploymentUnit.getName());
+            deploymentUnit.putAttachment(Attachments.DEPLOYMENT_PROFILE, profile);
+        }
+        return profile;
+    }
+
+    /**
+     * Get the profiles of a deployment unit and of its sub deployments.
+     *
+     * @param deploymentUnit the deployment unit
+     * @return the profiles, the profile of the deployment unit first
+     */
+    static List<DeploymentProfile> getProfiles(final DeploymentUnit deploymentUnit) {
+        final List<DeploymentProfile> profiles = new ArrayList<DeploymentProfile>();
+        final DeploymentProfile profile = deploymentUnit.getAttachment(Attachments.DEPLOYMENT_PROFILE);
+        if (profile != null) {
+            profiles.add(profile);
+        }
+        for (DeploymentUnit subDeployment : deploymentUnit.getAttachmentList(Attachments.SUB_DEPLOYMENTS)) {
+            final DeploymentProfile subProfile = subDeployment.getAttachment(Attachments.DEPLOYMENT_PROFILE);
+            if (subProfile != null) {
+                profiles.add(subProfile);
+            }
+        }
+        return profiles;
+    }
+
+    /**
+     * Called when a phase starts. The deployment unit outlives the restarts of its phase services, so the times
+     * recorded by a previous run of the phase and of the phases after it are discarded; a restart of the first phase
+     * also discards the cache lookups.
+     *
+     * @param phase the phase
+     */
+    synchronized void phaseStarted(final Phase phase) {
+        final Iterator<ProcessorTime> iterator = processorTimes.iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().phase.compareTo(phase) >= 0) {
+                iterator.remove();
+            }
+        }
+        phaseTimes.keySet().removeAll(EnumSet.range(phase, Phase.CLEANUP));
+        if (phase == Phase.STRUCTURE) {
+            cacheStatistics.clear();
+        }
+    }
+
+    synchronized void processorCompleted(final Phase phase, final RegisteredDeploymentUnitProcessor processor, final long nanos) {
+        processorTimes.add(new ProcessorTime(deploymentName, phase, processor.getSubsystemName(),
+                processor.getProcessor().getClass().getName(), nanos));
+    }
+
+    synchronized void phaseCompleted(final Phase phase, final long nanos) {
+        phaseTimes.put(phase, nanos);
+    }
+
+    /**
+     * Record lookups in a cache made while processing the deployment unit.
+     *
+     * @param cacheName the name of the cache
+     * @param hits the number of lookups which found the value in the cache
+     * @param misses the number of lookups which did not find the value in the cache
+     */
+    public synchronized void cacheAccessed(final String cacheName, final int hits, final int misses) {
+        final CacheStatistics previous = cacheStatistics.get(cacheName);
+        if (previous == null) {
+            cacheStatistics.put(cacheName, new CacheStatistics(hits, misses));
+        } else {
+            cacheStatistics.put(cacheName, new CacheStatistics(previous.hits + hits, previous.misses + misses));
+        }
+    }
+
+    /**
+     * @return the name of the profiled deployment unit
+     */
+    public String getDeploymentName() {
+        return deploymentName;
+    }
+
+    /**
+     * @return the time spent in all the phases, in nanoseconds
+     */
+    public synchronized long getTotalTime() {
+        long total = 0;
+        for (Long time : phaseTimes.values()) {
+            total += time;
+        }
+        return total;
+    }
+
+    /**
+     * @return the time spent in each phase that ran, in nanoseconds, in the order of the phases
+     */
+    public synchronized Map<Phase, Long> getPhaseTimes() {
+        return new EnumMap<Phase, Long>(phaseTimes);
+    }
+
+    /**
+     * @return the time spent in each processor, in the order the processors ran
+     */
+    public synchronized List<ProcessorTime> getProcessorTimes() {
+        return new ArrayList<ProcessorTime>(processorTimes);
+    }
+
+    /**
+     * @return the lookups in each cache used while processing the deployment unit, keyed by cache name
+     */
+    public synchronized Map<String, CacheStatistics> getCacheStatistics() {
+        return new TreeMap<String, CacheStatistics>(cacheStatistics);
+    }
+
+    /**
+     * Get the processors that took the most time over a set of profiles, typically those of a deployment and of its
+     * sub deployments.
+     *
+     * @param profiles the profiles
+     * @param count the maximum number of processors returned
+     * @return the slowest processors, the slowest first
+     */
+    public static List<ProcessorTime> getHotSpots(final Collection<DeploymentProfile> profiles, final int count) {
+        final List<ProcessorTime> all = new ArrayList<ProcessorTime>();
+        for (DeploymentProfile profile : profiles) {
+            all.addAll(profile.getProcessorTimes());
+        }
+        Collections.sort(all, SLOWEST_FIRST);
+        return all.size() > count ? all.subList(0, count) : all;
+    }
+
+    private static final Comparator<ProcessorTime> SLOWEST_FIRST = new Comparator<ProcessorTime>() {
+        @Override
+        public int compare(final ProcessorTime o1, final ProcessorTime o2) {
+            return o1.time < o2.time ? 1 : o1.time == o2.time ? 0 : -1;
+        }
+    };
+
+    /**
+     * The time spent by a processor on a deployment unit.
+     */
+    public static final class ProcessorTime {
+        private final String deploymentName;
+        private final Phase phase;
+        private final String subsystemName;
+        private final String processorName;
+        private final long time;
+
+        ProcessorTime(final String deploymentName, final Phase phase, final String subsystemName, final String processorName, final long time) {
+            this.deploymentName = deploymentName;
+            this.phase = phase;
+            this.subsystemName = subsystemName;
+            this.processorName = processorName;
+            this.time = time;
+        }
+
+        public String getDeploymentName() {
+            return deploymentName;
+        }
+
+        public Phase getPhase() {
+            return phase;
+        }
+
+        /**
+         * @return the name of the subsystem that registered the processor, {@code null} for the processors of the server
+         */
+        public String getSubsystemName() {
+            return subsystemName;
+        }
+
+        public String getProcessorName() {
+            return processorName;
+        }
+
+        /**
+         * @return the time spent in the processor, in nanoseconds
+         */
+        public long getTime() {
+            return time;
+        }
+    }
+
+    /**
+     * The lookups in a cache made while processing a deployment unit.
+     */
+    public static final class CacheStatistics {
+        private final long hits;
+        private final long misses;
+
+        CacheStatistics(final long hits, final long misses) {
+            this.hits = hits;
+            this.misses = misses;
+        }
+
+        public long getHits() {
+            return hits;
+        }
+
+        public long getMisses() {
+            return misses;
+        }
+
+        /**
+         * @return the percentage of the lookups which found the value in the cache, 0 if there was no lookup
+         */
+        public int getHitRate() {
+            final long lookups = hits + misses;
+            return lookups == 0 ? 0 : (int) (hits * 100 / lookups);
+        }
+
+        /**
+         * Sum the lookups in a cache over several deployment units.
+         *
+         * @param other the lookups in the same cache for another deployment unit
+         * @return the sum of the lookups
+         */
+        public CacheStatistics add(final CacheStatistics other) {
+            return new CacheStatistics(hits + other.hits, misses + other.misses);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RUNTIME_NAME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUBSYSTEM;
+import static org.jboss.as.controller.descriptions.common.DeploymentDescription.CACHES;
+import static org.jboss.as.controller.descriptions.common.DeploymentDescription.HITS;
+import static org.jboss.as.controller.descriptions.common.DeploymentDescription.HIT_RATE;
+import static org.jboss.as.controller.descriptions.common.DeploymentDescription.MISSES;
+import static org.jboss.as.controller.descriptions.common.DeploymentDescription.PHASE;
+import static org.jboss.as.controller.descriptions.common.DeploymentDescription.PHASES;
+import static org.jboss.as.controller.descriptions.common.DeploymentDescription.PROCESSOR;
+import static org.jboss.as.controller.descriptions.common.DeploymentDescription.PROCESSORS;
+import static org.jboss.as.controller.descriptions.common.DeploymentDescription.SUBDEPLOYMENTS;
+import static org.jboss.as.controller.descriptions.common.DeploymentDescription.TIME;
+import static org.jboss.as.controller.descriptions.common.DeploymentDescription.TOTAL_TIME;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.OperationStepHandler;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.descriptions.DescriptionProvider;
+import org.jboss.as.controller.descriptions.common.DeploymentDescription;
+import org.jboss.dmr.ModelNode;
+
+/**
+ * Reads the {@link DeploymentProfile} of a deployment and of its sub deployments.
+ */
+public class DeploymentProfileHandler implements OperationStepHandler, DescriptionProvider {
+
+    public static final String OPERATION_NAME = DeploymentDescription.READ_DEPLOYMENT_PROFILE;
+    public static final DeploymentProfileHandler INSTANCE = new DeploymentProfileHandler();
+
+    private DeploymentProfileHandler() {
+    }
+
+    @Override
+    public ModelNode getModelDescription(Locale locale) {
+        return DeploymentDescription.getReadDeploymentProfileOperation(locale);
+    }
+
+    @Override
+    public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
+        final ModelNode model = context.readModel(PathAddress.EMPTY_ADDRESS);
+        final String runtimeName = model.require(RUNTIME_NAME).asString();
+        context.addStep(new OperationStepHandler() {
+            @Override
+            public void execute(final OperationContext context, final ModelNode operation) throws OperationFailedException {
+                final DeploymentUnit deploymentUnit = DeploymentHandlerUtil.getDeploymentUnit(context.getServiceRegistry(false), runtimeName);
+                final DeploymentProfile profile = deploymentUnit == null ? null : deploymentUnit.getAttachment(Attachments.DEPLOYMENT_PROFILE);
+                if (profile != null) {
+                    final ModelNode result = context.getResult();
+                    writeProfile(result, profile);
+                    final ModelNode subDeployments = result.get(SUBDEPLOYMENTS).setEmptyObject();
+                    for (DeploymentUnit subDeployment : deploymentUnit.getAttachmentList(Attachments.SUB_DEPLOYMENTS)) {
+                        final DeploymentProfile subProfile = subDeployment.getAttachment(Attachments.DEPLOYMENT_PROFILE);
+                        if (subProfile != null) {
+                            writeProfile(subDeployments.get(subDeployment.getName()), subProfile);
+                        }
+                    }
+                }
+                context.completeStep();
+            }
+        }, OperationContext.Stage.RUNTIME);
+        context.completeStep();
+    }
+
+    private static void writeProfile(final ModelNode node, final DeploymentProfile profile) {
+        node.get(TOTAL_TIME).set(toMillis(profile.getTotalTime()));
+        final ModelNode phases = node.get(PHASES).setEmptyObject();
+        for (Map.Entry<Phase, Long> entry : profile.getPhaseTimes().entrySet()) {
+            phases.get(entry.getKey().name()).set(toMillis(entry.getValue()));
+        }
+        final ModelNode processors = node.get(PROCESSORS).setEmptyList();
+        final List<DeploymentProfile.ProcessorTime> processorTimes = DeploymentProfile.getHotSpots(Collections.singleton(profile), Integer.MAX_VALUE);
+        for (DeploymentProfile.ProcessorTime processorTime : processorTimes) {
+            final ModelNode processor = new ModelNode();
+            processor.get(PHASE).set(processorTime.getPhase().name());
+            if (processorTime.getSubsystemName() != null) {
+                processor.get(SUBSYSTEM).set(processorTime.getSubsystemName());
+            } else {
+                processor.get(SUBSYSTEM);
+            }
+            processor.get(PROCESSOR).set(processorTime.getProcessorName());
+            processor.get(TIME).set(toMillis(processorTime.getTime()));
+            processors.add(processor);
+        }
+        final ModelNode caches = node.get(CACHES).setEmptyObject();
+        for (Map.Entry<String, DeploymentProfile.CacheStatistics> entry : profile.getCacheStatistics().entrySet()) {
+            final ModelNode cache = caches.get(entry.getKey());
+            cache.get(HITS).set(entry.getValue().getHits());
+            cache.get(MISSES).set(entry.getValue().getMisses());
+            cache.get(HIT_RATE).set(entry.getValue().getHitRate());
+        }
+    }
+
+    private static long toMillis(final long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+}
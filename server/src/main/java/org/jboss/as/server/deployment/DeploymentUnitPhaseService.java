@@ -26,6 +26,8 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
 
 import org.jboss.as.server.ServerLogger;
 import org.jboss.as.server.ServerMessages;
@@ -50,6 +52,7 @@ import org.jboss.msc.value.InjectedValue;
 final class DeploymentUnitPhaseService<T> implements Service<T> {
 
     private final InjectedValue<DeployerChains> deployerChainsInjector = new InjectedValue<DeployerChains>();
+    private final InjectedValue<ExecutorService> executorInjector = new InjectedValue<ExecutorService>();
     private final DeploymentUnit deploymentUnit;
     private final Phase phase;
     private final AttachmentKey<T> valueKey;
@@ -69,8 +72,36 @@ final class DeploymentUnitPhaseService<T> implements Service<T> {
         return create(deploymentUnit, phase, phase.getPhaseKey());
     }
 
-    @SuppressWarnings("unchecked")
     public synchronized void start(final StartContext context) throws StartException {
+        final ExecutorService executor = executorInjector.getOptionalValue();
+        if (executor == null) {
+            doStart(context);
+            return;
+        }
+        // a sub deployment processed concurrently with its siblings
+        context.asynchronous();
+        final Runnable task = new Runnable() {
+            public void run() {
+                try {
+                    doStart(context);
+                    context.complete();
+                } catch (StartException e) {
+                    context.failed(e);
+                } catch (Throwable t) {
+                    context.failed(ServerMessages.MESSAGES.deploymentPhaseFailed(phase, deploymentUnit, t));
+                }
+            }
+        };
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            // the executor is shutting down
+            task.run();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void doStart(final StartContext context) throws StartException {
         final DeployerChains chains = deployerChainsInjector.getValue();
         final DeploymentUnit deploymentUnit = this.deploymentUnit;
         final List<RegisteredDeploymentUnitProcessor> list = chains.getChain(phase);
@@ -86,6 +117,10 @@ final class DeploymentUnitPhaseService<T> implements Service<T> {
             final ServiceName serviceName = parent == null ? Services.deploymentUnitName(name, nextPhase) : Services.deploymentUnitName(parent.getName(), name, nextPhase);
             phaseService = DeploymentUnitPhaseService.create(deploymentUnit, nextPhase);
             phaseServiceBuilder = serviceTarget.addService(serviceName, phaseService);
+            if (parent != null && SubDeploymentExecutorService.isConcurrentPhase(nextPhase)) {
+                phaseServiceBuilder.addDependency(ServiceBuilder.DependencyType.OPTIONAL, Services.JBOSS_DEPLOYMENT_SUB_UNIT_EXECUTOR,
+                        ExecutorService.class, phaseService.getExecutorInjector());
+            }
         } else {
             phaseServiceBuilder = null;
             phaseService = null;
@@ -109,11 +144,16 @@ final class DeploymentUnitPhaseService<T> implements Service<T> {
             }
         }
 
+        final DeploymentProfile profile = DeploymentProfile.getOrCreate(deploymentUnit);
+        profile.phaseStarted(phase);
+        final long phaseStart = System.nanoTime();
         while (iterator.hasNext()) {
             final RegisteredDeploymentUnitProcessor processor = iterator.next();
             try {
                 if(shouldRun(deploymentUnit, processor)) {
+                    final long start = System.nanoTime();
                     processor.getProcessor().deploy(processorContext);
+                    profile.processorCompleted(phase, processor, System.nanoTime() - start);
                 }
             } catch (Throwable e) {
                 while (iterator.hasPrevious()) {
@@ -123,6 +163,7 @@ final class DeploymentUnitPhaseService<T> implements Service<T> {
                 throw ServerMessages.MESSAGES.deploymentPhaseFailed(phase, deploymentUnit, e);
             }
         }
+        profile.phaseCompleted(phase, System.nanoTime() - phaseStart);
         if (nextPhase != null) {
             phaseServiceBuilder.addDependency(Services.JBOSS_DEPLOYMENT_CHAINS, DeployerChains.class, phaseService.getDeployerChainsInjector());
             phaseServiceBuilder.addDependency(context.getController().getName());
@@ -184,6 +225,10 @@ final class DeploymentUnitPhaseService<T> implements Service<T> {
         return deployerChainsInjector;
     }
 
+    InjectedValue<ExecutorService> getExecutorInjector() {
+        return executorInjector;
+    }
+
     private static boolean shouldRun(final DeploymentUnit unit, final RegisteredDeploymentUnitProcessor deployer) {
         Set<String> shouldNotRun = unit.getAttachment(Attachments.EXCLUDED_SUBSYSTEMS);
         if(shouldNotRun == null) {
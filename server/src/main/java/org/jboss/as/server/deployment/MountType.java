@@ -6,5 +6,10 @@ package org.jboss.as.server.deployment;
 public enum MountType {
     ZIP,
     EXPANDED,
-    REAL;
+    REAL,
+    /**
+     * A zip file mounted in place from a memory mapping of the file. Only suitable for content which is not modified
+     * while it is mounted.
+     */
+    MAPPED;
 }
@@ -41,6 +41,7 @@ final class RootDeploymentUnitService extends AbstractDeploymentUnitService {
     private final InjectedValue<DeploymentMountProvider> serverDeploymentRepositoryInjector = new InjectedValue<DeploymentMountProvider>();
     private final String name;
     private final String managementName;
+    private final byte[] hash;
     final InjectedValue<VirtualFile> contentsInjector = new InjectedValue<VirtualFile>();
     private final DeploymentUnit parent;
     private final ImmutableManagementResourceRegistration registration;
@@ -54,6 +55,7 @@ final class RootDeploymentUnitService extends AbstractDeploymentUnitService {
      *
      * @param name the deployment unit simple name
      * @param managementName the deployment's domain-wide unique name
+     * @param hash the hash of the deployment contents in the content repository, or {@code null} for unmanaged contents
      * @param parent the parent deployment unit
      * @param registration the registration
      * @param mutableRegistration the mutable registration
@@ -61,11 +63,12 @@ final class RootDeploymentUnitService extends AbstractDeploymentUnitService {
      * @param serviceVerificationHandler
      * @param vaultReader
      */
-    public RootDeploymentUnitService(final String name, final String managementName, final DeploymentUnit parent, final ImmutableManagementResourceRegistration registration, final ManagementResourceRegistration mutableRegistration, Resource resource, final ServiceVerificationHandler serviceVerificationHandler, final AbstractVaultReader vaultReader) {
+    public RootDeploymentUnitService(final String name, final String managementName, final byte[] hash, final DeploymentUnit parent, final ImmutableManagementResourceRegistration registration, final ManagementResourceRegistration mutableRegistration, Resource resource, final ServiceVerificationHandler serviceVerificationHandler, final AbstractVaultReader vaultReader) {
         this.serviceVerificationHandler = serviceVerificationHandler;
         assert name != null : "name is null";
         this.name = name;
         this.managementName = managementName;
+        this.hash = hash;
         this.parent = parent;
         this.registration = registration;
         this.mutableRegistration = mutableRegistration;
@@ -78,6 +81,9 @@ final class RootDeploymentUnitService extends AbstractDeploymentUnitService {
         deploymentUnit.putAttachment(Attachments.RUNTIME_NAME, name);
         deploymentUnit.putAttachment(Attachments.MANAGEMENT_NAME, managementName);
         deploymentUnit.putAttachment(Attachments.DEPLOYMENT_CONTENTS, contentsInjector.getValue());
+        if (hash != null) {
+            deploymentUnit.putAttachment(Attachments.DEPLOYMENT_HASH, hash);
+        }
         deploymentUnit.putAttachment(DeploymentModelUtils.REGISTRATION_ATTACHMENT, registration);
         deploymentUnit.putAttachment(DeploymentModelUtils.MUTABLE_REGISTRATION_ATTACHMENT, mutableRegistration);
         deploymentUnit.putAttachment(DeploymentModelUtils.DEPLOYMENT_RESOURCE, resource);
@@ -47,6 +47,10 @@ public final class Services {
      * The service name of the deployment chains service.
      */
     public static final ServiceName JBOSS_DEPLOYMENT_CHAINS = JBOSS_DEPLOYMENT.append("chains");
+    /**
+     * The service name of the executor running the concurrent phases of sub-deployments.
+     */
+    public static final ServiceName JBOSS_DEPLOYMENT_SUB_UNIT_EXECUTOR = JBOSS_DEPLOYMENT.append("subunit-executor");
     /**
      * The service name of the deployment extension index service.
      */
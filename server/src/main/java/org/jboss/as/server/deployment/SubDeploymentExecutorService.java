@@ -0,0 +1,81 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment;
+
+import java.security.AccessController;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.msc.service.Service;
+import org.jboss.msc.service.ServiceTarget;
+import org.jboss.msc.service.StartContext;
+import org.jboss.msc.service.StartException;
+import org.jboss.msc.service.StopContext;
+import org.jboss.threads.JBossThreadFactory;
+
+/**
+ * Service providing the bounded executor which runs the {@link Phase#PARSE}, {@link Phase#DEPENDENCIES} and
+ * {@link Phase#POST_MODULE} phases of sub deployments, instead of the service container threads.
+ * <p/>
+ * The sub deployments of a deployment are independent of each other in these phases, so they are processed
+ * concurrently, up to the number of threads of the executor. The service is only installed if the
+ * {@link org.jboss.as.server.ServerEnvironment#SUBDEPLOYMENT_MAX_THREADS} system property is set.
+ */
+public final class SubDeploymentExecutorService implements Service<ExecutorService> {
+
+    private final int maxThreads;
+    private ExecutorService executorService;
+
+    private SubDeploymentExecutorService(final int maxThreads) {
+        this.maxThreads = maxThreads;
+    }
+
+    public static void addService(final ServiceTarget serviceTarget, final int maxThreads) {
+        serviceTarget.addService(Services.JBOSS_DEPLOYMENT_SUB_UNIT_EXECUTOR, new SubDeploymentExecutorService(maxThreads))
+            .install();
+    }
+
+    static boolean isConcurrentPhase(final Phase phase) {
+        return phase == Phase.PARSE || phase == Phase.DEPENDENCIES || phase == Phase.POST_MODULE;
+    }
+
+    public synchronized void start(final StartContext context) throws StartException {
+        final JBossThreadFactory threadFactory = new JBossThreadFactory(new ThreadGroup("SubDeploymentExecutor-threads"), Boolean.TRUE, null,
+                "%G - %t", null, null, AccessController.getContext());
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(maxThreads, maxThreads, 30L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>(), threadFactory);
+        executor.allowCoreThreadTimeOut(true);
+        executorService = executor;
+    }
+
+    public synchronized void stop(final StopContext context) {
+        executorService.shutdown();
+        executorService = null;
+    }
+
+    public synchronized ExecutorService getValue() throws IllegalStateException, IllegalArgumentException {
+        return executorService;
+    }
+}
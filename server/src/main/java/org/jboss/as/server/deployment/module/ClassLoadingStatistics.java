@@ -0,0 +1,159 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment.module;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.jboss.as.server.deployment.AttachmentKey;
+
+/**
+ * The class loading statistics of the module of a deployment unit, recorded when the
+ * {@link org.jboss.as.server.ServerEnvironment#DEPLOYMENT_CLASS_LOADING_STATISTICS} system property is set.
+ * <p/>
+ * The statistics record the classes defined by the module class loader and the time spent defining them, the lookups
+ * of classes and resources made in each resource root of the module, and for each module the classes of the deployment
+ * link to, the number of classes whose superclass or interfaces were loaded from it. All times are in nanoseconds.
+ */
+public final class ClassLoadingStatistics {
+
+    public static final AttachmentKey<ClassLoadingStatistics> ATTACHMENT_KEY = AttachmentKey.create(ClassLoadingStatistics.class);
+
+    private final AtomicInteger classesDefined = new AtomicInteger();
+    private final AtomicLong defineTime = new AtomicLong();
+    private final ConcurrentMap<String, ResourceRootStatistics> resourceRoots = new ConcurrentHashMap<String, ResourceRootStatistics>();
+    private final ConcurrentMap<String, AtomicInteger> linkedClasses = new ConcurrentHashMap<String, AtomicInteger>();
+
+    /**
+     * @return the number of classes defined by the module class loader
+     */
+    public int getClassesDefined() {
+        return classesDefined.get();
+    }
+
+    /**
+     * @return the time spent defining classes, not including the time spent defining the classes they link to
+     */
+    public long getDefineTime() {
+        return defineTime.get();
+    }
+
+    /**
+     * @return the statistics of the resource roots of the module, keyed by root name
+     */
+    public Map<String, ResourceRootStatistics> getResourceRoots() {
+        return new TreeMap<String, ResourceRootStatistics>(resourceRoots);
+    }
+
+    /**
+     * @return the number of classes of the module whose superclass or interfaces were loaded from another module, keyed
+     *         by the identifier of that module
+     */
+    public Map<String, Integer> getLinkedClasses() {
+        final Map<String, Integer> result = new TreeMap<String, Integer>();
+        for (Map.Entry<String, AtomicInteger> entry : linkedClasses.entrySet()) {
+            result.put(entry.getKey(), entry.getValue().get());
+        }
+        return result;
+    }
+
+    /**
+     * Get the statistics of a resource root, creating them if the root has none yet.
+     *
+     * @param rootName the name of the resource root
+     * @return the statistics
+     */
+    ResourceRootStatistics getResourceRoot(final String rootName) {
+        ResourceRootStatistics statistics = resourceRoots.get(rootName);
+        if (statistics == null) {
+            statistics = new ResourceRootStatistics();
+            final ResourceRootStatistics existing = resourceRoots.putIfAbsent(rootName, statistics);
+            if (existing != null) {
+                statistics = existing;
+            }
+        }
+        return statistics;
+    }
+
+    void classDefined(final long nanos) {
+        classesDefined.incrementAndGet();
+        defineTime.addAndGet(nanos);
+    }
+
+    void classLinked(final String moduleIdentifier) {
+        AtomicInteger count = linkedClasses.get(moduleIdentifier);
+        if (count == null) {
+            count = new AtomicInteger();
+            final AtomicInteger existing = linkedClasses.putIfAbsent(moduleIdentifier, count);
+            if (existing != null) {
+                count = existing;
+            }
+        }
+        count.incrementAndGet();
+    }
+
+    /**
+     * The lookups made in a resource root of the module. Classes are only looked up in the roots containing their
+     * package, so a failed class lookup means the package is split between several roots or dependencies.
+     */
+    public static final class ResourceRootStatistics {
+        private final AtomicLong classLookups = new AtomicLong();
+        private final AtomicLong failedClassLookups = new AtomicLong();
+        private final AtomicLong resourceLookups = new AtomicLong();
+        private final AtomicLong failedResourceLookups = new AtomicLong();
+
+        public long getClassLookups() {
+            return classLookups.get();
+        }
+
+        public long getFailedClassLookups() {
+            return failedClassLookups.get();
+        }
+
+        public long getResourceLookups() {
+            return resourceLookups.get();
+        }
+
+        public long getFailedResourceLookups() {
+            return failedResourceLookups.get();
+        }
+
+        void classLookedUp(final boolean found) {
+            classLookups.incrementAndGet();
+            if (!found) {
+                failedClassLookups.incrementAndGet();
+            }
+        }
+
+        void resourceLookedUp(final boolean found) {
+            resourceLookups.incrementAndGet();
+            if (!found) {
+                failedResourceLookups.incrementAndGet();
+            }
+        }
+    }
+}
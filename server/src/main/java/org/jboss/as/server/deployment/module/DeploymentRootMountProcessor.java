@@ -25,6 +25,7 @@ package org.jboss.as.server.deployment.module;
 import java.io.Closeable;
 import java.io.IOException;
 
+import org.jboss.as.server.ServerEnvironment;
 import org.jboss.as.server.ServerMessages;
 import org.jboss.as.server.deployment.Attachments;
 import org.jboss.as.server.deployment.DeploymentMountProvider;
@@ -82,6 +83,9 @@ public class DeploymentRootMountProcessor implements DeploymentUnitProcessor {
                     type = MountType.EXPANDED;
                 } else if (deploymentName.endsWith(".xml")) {
                     type = MountType.REAL;
+                } else if (deploymentUnit.hasAttachment(Attachments.DEPLOYMENT_HASH) && ServerEnvironment.isMappedDeploymentContent()) {
+                    // content repository files are never modified, so they can be mapped in place
+                    type = MountType.MAPPED;
                 } else {
                     type = MountType.ZIP;
                 }
@@ -45,7 +45,6 @@ import org.jboss.as.server.deployment.annotation.ResourceRootIndexer;
 import org.jboss.as.server.moduleservice.ExternalModuleService;
 import org.jboss.as.server.moduleservice.ServiceModuleLoader;
 import org.jboss.modules.ModuleIdentifier;
-import org.jboss.vfs.VFS;
 import org.jboss.vfs.VFSUtils;
 import org.jboss.vfs.VirtualFile;
 
@@ -258,7 +257,7 @@ public final class ManifestClassPathProcessor implements DeploymentUnitProcessor
      */
     private synchronized ResourceRoot createResourceRoot(final DeploymentUnit deploymentUnit, final VirtualFile file) throws DeploymentUnitProcessingException {
         try {
-            final Closeable closable = file.isFile() ? VFS.mountZip(file, file, TempFileProviderService.provider()) : null;
+            final Closeable closable = file.isFile() ? ZipDirectoryCache.mountZip(file, file, TempFileProviderService.provider(), deploymentUnit) : null;
             final MountHandle mountHandle = new MountHandle(closable);
             final ResourceRoot resourceRoot = new ResourceRoot(file, mountHandle);
             deploymentUnit.addToAttachmentList(Attachments.RESOURCE_ROOTS, resourceRoot);
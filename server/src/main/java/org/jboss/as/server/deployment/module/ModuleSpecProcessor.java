@@ -27,11 +27,13 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
+import org.jboss.as.server.ServerEnvironment;
 import org.jboss.as.server.ServerLogger;
 import org.jboss.as.server.ServerMessages;
 import org.jboss.as.server.deployment.AttachmentKey;
 import org.jboss.as.server.deployment.Attachments;
 import org.jboss.as.server.deployment.DeploymentPhaseContext;
+import org.jboss.as.server.deployment.DeploymentModelUtils;
 import org.jboss.as.server.deployment.DeploymentUnit;
 import org.jboss.as.server.deployment.DeploymentUnitProcessingException;
 import org.jboss.as.server.deployment.DeploymentUnitProcessor;
@@ -82,6 +84,7 @@ public class ModuleSpecProcessor implements DeploymentUnitProcessor {
     @Override
     public void undeploy(final DeploymentUnit deploymentUnit) {
         deploymentUnit.removeAttachment(MARKER);
+        deploymentUnit.removeAttachment(ClassLoadingStatistics.ATTACHMENT_KEY);
     }
 
     private void deployModuleSpec(final DeploymentPhaseContext phaseContext) throws DeploymentUnitProcessingException {
@@ -114,8 +117,15 @@ public class ModuleSpecProcessor implements DeploymentUnitProcessor {
             throw ServerMessages.MESSAGES.noModuleIdentifier(deploymentUnit.getName());
         }
 
+        ClassLoadingStatistics statistics = null;
+        if (ServerEnvironment.isDeploymentClassLoadingStatistics()) {
+            statistics = new ClassLoadingStatistics();
+            deploymentUnit.putAttachment(ClassLoadingStatistics.ATTACHMENT_KEY, statistics);
+            DeploymentModelUtils.createClassLoadingStatistics(deploymentUnit);
+        }
+
         // create the module service and set it to attach to the deployment in the next phase
-        final ServiceName moduleServiceName = createModuleService(phaseContext, deploymentUnit, resourceRoots, moduleSpec, moduleIdentifier);
+        final ServiceName moduleServiceName = createModuleService(phaseContext, deploymentUnit, resourceRoots, moduleSpec, moduleIdentifier, statistics);
         phaseContext.addDeploymentDependency(moduleServiceName, Attachments.MODULE);
 
         for (final DeploymentUnit subDeployment : deploymentUnit.getAttachmentList(Attachments.SUB_DEPLOYMENTS)) {
@@ -132,7 +142,7 @@ public class ModuleSpecProcessor implements DeploymentUnitProcessor {
         for (final AdditionalModuleSpecification module : additionalModules) {
             addSystemDependencies(moduleSpec, module);
             List<ResourceRoot> roots = module.getResourceRoots();
-            ServiceName serviceName = createModuleService(phaseContext, deploymentUnit, roots, module, module.getModuleIdentifier());
+            ServiceName serviceName = createModuleService(phaseContext, deploymentUnit, roots, module, module.getModuleIdentifier(), null);
             phaseContext.addToAttachmentList(Attachments.NEXT_PHASE_DEPS, serviceName);
         }
     }
@@ -152,9 +162,12 @@ public class ModuleSpecProcessor implements DeploymentUnitProcessor {
 
     private ServiceName createModuleService(final DeploymentPhaseContext phaseContext, final DeploymentUnit deploymentUnit,
                                             final List<ResourceRoot> resourceRoots, final ModuleSpecification moduleSpecification,
-                                            final ModuleIdentifier moduleIdentifier) throws DeploymentUnitProcessingException {
+                                            final ModuleIdentifier moduleIdentifier, final ClassLoadingStatistics statistics) throws DeploymentUnitProcessingException {
         logger.debug("Creating module: " + moduleIdentifier);
         final ModuleSpec.Builder specBuilder = ModuleSpec.build(moduleIdentifier);
+        if (statistics != null) {
+            specBuilder.setModuleClassLoaderFactory(new StatisticsModuleClassLoader.Factory(statistics));
+        }
         for (final DependencySpec dep : moduleSpecification.getModuleSystemDependencies()) {
             specBuilder.addDependency(dep);
         }
@@ -172,7 +185,7 @@ public class ModuleSpecProcessor implements DeploymentUnitProcessor {
 
         for (final ResourceRoot resourceRoot : resourceRoots) {
             logger.debug("Adding resource " + resourceRoot.getRoot() + " to module " + moduleIdentifier);
-            addResourceRoot(specBuilder, resourceRoot);
+            addResourceRoot(specBuilder, resourceRoot, statistics);
         }
 
         createDependencies(specBuilder, dependencies, moduleSpecification.isRequiresTransitiveDependencies());
@@ -256,19 +269,20 @@ public class ModuleSpecProcessor implements DeploymentUnitProcessor {
         }
     }
 
-    private void addResourceRoot(final ModuleSpec.Builder specBuilder, final ResourceRoot resource)
+    private void addResourceRoot(final ModuleSpec.Builder specBuilder, final ResourceRoot resource, final ClassLoadingStatistics statistics)
             throws DeploymentUnitProcessingException {
+        final ClassLoadingStatistics.ResourceRootStatistics rootStatistics = statistics == null ? null : statistics.getResourceRoot(resource.getRootName());
         try {
             if (resource.getExportFilters().isEmpty()) {
                 specBuilder.addResourceRoot(ResourceLoaderSpec.createResourceLoaderSpec(new VFSResourceLoader(resource
-                        .getRootName(), resource.getRoot(), resource.isUsePhysicalCodeSource())));
+                        .getRootName(), resource.getRoot(), resource.isUsePhysicalCodeSource(), rootStatistics)));
             } else {
                 final MultiplePathFilterBuilder filterBuilder = PathFilters.multiplePathFilterBuilder(true);
                 for (final FilterSpecification filter : resource.getExportFilters()) {
                     filterBuilder.addFilter(filter.getPathFilter(), filter.isInclude());
                 }
                 specBuilder.addResourceRoot(ResourceLoaderSpec.createResourceLoaderSpec(new VFSResourceLoader(resource
-                        .getRootName(), resource.getRoot(), resource.isUsePhysicalCodeSource()), filterBuilder.create()));
+                        .getRootName(), resource.getRoot(), resource.isUsePhysicalCodeSource(), rootStatistics), filterBuilder.create()));
             }
         } catch (IOException e) {
             throw ServerMessages.MESSAGES.failedToCreateVFSResourceLoader(resource.getRootName(), e);
@@ -0,0 +1,165 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment.module;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.jboss.modules.ClassSpec;
+import org.jboss.modules.ModuleClassLoader;
+import org.jboss.modules.ModuleClassLoaderFactory;
+
+/**
+ * A {@link ModuleClassLoader} recording the classes it defines in the {@link ClassLoadingStatistics} of a deployment.
+ */
+final class StatisticsModuleClassLoader extends ModuleClassLoader {
+
+    /**
+     * The class definitions in progress on the current thread, shared by the class loaders of all deployments so that
+     * the time spent defining a class does not include the time spent defining its superclass.
+     */
+    private static final ThreadLocal<List<Definition>> DEFINITIONS = new ThreadLocal<List<Definition>>() {
+        @Override
+        protected List<Definition> initialValue() {
+            return new ArrayList<Definition>();
+        }
+    };
+
+    private final ClassLoadingStatistics statistics;
+
+    StatisticsModuleClassLoader(final Configuration configuration, final ClassLoadingStatistics statistics) {
+        super(configuration);
+        this.statistics = statistics;
+    }
+
+    @Override
+    protected void preDefine(final ClassSpec classSpec, final String className) {
+        definitionStarted(className);
+    }
+
+    @Override
+    protected void postDefine(final ClassSpec classSpec, final Class<?> definedClass) {
+        final long elapsed = definitionFinished(definedClass.getName());
+        if (elapsed < 0) {
+            return;
+        }
+        statistics.classDefined(elapsed);
+        linked(definedClass.getSuperclass());
+        for (Class<?> type : definedClass.getInterfaces()) {
+            linked(type);
+        }
+    }
+
+    /**
+     * Record the start of the definition of a class on the current thread.
+     * <p/>
+     * A definition which fails is never finished, so the definitions left on the stack are discarded when the same
+     * class is defined again, or when a definition started before them finishes.
+     *
+     * @param className the name of the class
+     */
+    static void definitionStarted(final String className) {
+        final List<Definition> definitions = DEFINITIONS.get();
+        // a class is not defined while it is being defined, so a previous definition of it has failed
+        final int failed = indexOf(definitions, className);
+        if (failed >= 0) {
+            definitions.subList(failed, definitions.size()).clear();
+        }
+        definitions.add(new Definition(className, System.nanoTime()));
+    }
+
+    /**
+     * Record the end of the definition of a class on the current thread.
+     *
+     * @param className the name of the class
+     * @return the time spent defining the class, without the time spent defining other classes meanwhile, or -1 if its
+     *         definition was not started
+     */
+    static long definitionFinished(final String className) {
+        final List<Definition> definitions = DEFINITIONS.get();
+        final int index = indexOf(definitions, className);
+        if (index < 0) {
+            return -1;
+        }
+        final Definition definition = definitions.get(index);
+        // the definitions started after this one and still in progress have failed
+        definitions.subList(index, definitions.size()).clear();
+        final long elapsed = System.nanoTime() - definition.start;
+        if (index > 0) {
+            definitions.get(index - 1).nested += elapsed;
+        }
+        return elapsed - definition.nested;
+    }
+
+    /**
+     * @return the number of class definitions in progress on the current thread
+     */
+    static int definitionsInProgress() {
+        return DEFINITIONS.get().size();
+    }
+
+    private static int indexOf(final List<Definition> definitions, final String className) {
+        for (int i = definitions.size() - 1; i >= 0; i--) {
+            if (definitions.get(i).className.equals(className)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void linked(final Class<?> type) {
+        if (type == null) {
+            return;
+        }
+        final ClassLoader classLoader = type.getClassLoader();
+        if (classLoader != this && classLoader instanceof ModuleClassLoader) {
+            statistics.classLinked(((ModuleClassLoader) classLoader).getModule().getIdentifier().toString());
+        }
+    }
+
+    private static final class Definition {
+        private final String className;
+        private final long start;
+        // the time spent defining nested classes
+        private long nested;
+
+        Definition(final String className, final long start) {
+            this.className = className;
+            this.start = start;
+        }
+    }
+
+    static final class Factory implements ModuleClassLoaderFactory {
+
+        private final ClassLoadingStatistics statistics;
+
+        Factory(final ClassLoadingStatistics statistics) {
+            this.statistics = statistics;
+        }
+
+        @Override
+        public ModuleClassLoader create(final Configuration configuration) {
+            return new StatisticsModuleClassLoader(configuration, statistics);
+        }
+    }
+}
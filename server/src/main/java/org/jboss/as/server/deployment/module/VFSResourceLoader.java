@@ -60,6 +60,7 @@ public class VFSResourceLoader extends AbstractResourceLoader {
     private final String rootName;
     private final Manifest manifest;
     private final URL rootUrl;
+    private final ClassLoadingStatistics.ResourceRootStatistics statistics;
 
     /**
      * Construct new instance.
@@ -81,8 +82,23 @@ public class VFSResourceLoader extends AbstractResourceLoader {
      * @throws IOException if the manifest could not be read or the root URL is invalid
      */
     public VFSResourceLoader(final String rootName, final VirtualFile root, final boolean usePhysicalCodeSource) throws IOException {
+        this(rootName, root, usePhysicalCodeSource, null);
+    }
+
+    /**
+     * Construct new instance.
+     *
+     * @param rootName The module root name
+     * @param root The root virtual file
+     * @param usePhysicalCodeSource {@code true} to use the physical root URL for code sources, {@code false} to use the VFS URL
+     * @param statistics the statistics recording the lookups made in the root, or {@code null}
+     * @throws IOException if the manifest could not be read or the root URL is invalid
+     */
+    VFSResourceLoader(final String rootName, final VirtualFile root, final boolean usePhysicalCodeSource,
+                      final ClassLoadingStatistics.ResourceRootStatistics statistics) throws IOException {
         this.root = root;
         this.rootName = rootName;
+        this.statistics = statistics;
         manifest = VFSUtils.getManifest(root);
         rootUrl = usePhysicalCodeSource ? VFSUtils.getRootURL(root) : root.asFileURL();
     }
@@ -90,7 +106,11 @@ public class VFSResourceLoader extends AbstractResourceLoader {
     /** {@inheritDoc} */
     public ClassSpec getClassSpec(final String name) throws IOException {
         final VirtualFile file = root.getChild(name);
-        if (!file.exists()) {
+        final boolean exists = file.exists();
+        if (statistics != null) {
+            statistics.classLookedUp(exists);
+        }
+        if (!exists) {
             return null;
         }
         final long size = file.getSize();
@@ -141,7 +161,11 @@ public class VFSResourceLoader extends AbstractResourceLoader {
     public Resource getResource(final String name) {
         try {
             final VirtualFile file = root.getChild(PathUtils.canonicalize(name));
-            if (!file.exists()) {
+            final boolean exists = file.exists();
+            if (statistics != null) {
+                statistics.resourceLookedUp(exists);
+            }
+            if (!exists) {
                 return null;
             }
             return new VFSEntryResource(file, file.toURL());
@@ -0,0 +1,401 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment.module;
+
+import java.io.UnsupportedEncodingException;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * The central directory of a zip file, held in a few flat arrays instead of an object per entry.
+ * <p/>
+ * The entries are sorted by name, so that an entry is found with a binary search and the entries of a directory are
+ * contiguous. The names are stored UTF-8 encoded in a single array. Directories which have no entry in the zip file
+ * but contain entries are added. Instances are immutable, so one instance is shared by all the mounts of the same
+ * zip content.
+ */
+final class ZipDirectory {
+
+    static final int STORED = 0;
+    static final int DEFLATED = 8;
+
+    private static final int DIRECTORY = -1;
+    private static final int CENTRAL_HEADER_SIGNATURE = 0x02014b50;
+    private static final int CENTRAL_HEADER_SIZE = 46;
+
+    private final byte[] names;
+    private final int[] nameOffsets;
+    private final int[] parents;
+    private final byte[] methods;
+    private final int[] times;
+    private final int[] compressedSizes;
+    private final int[] sizes;
+    private final int[] localHeaderOffsets;
+    private final boolean signed;
+
+    private ZipDirectory(final byte[] names, final int[] nameOffsets, final int[] parents, final byte[] methods, final int[] times,
+            final int[] compressedSizes, final int[] sizes, final int[] localHeaderOffsets, final boolean signed) {
+        this.names = names;
+        this.nameOffsets = nameOffsets;
+        this.parents = parents;
+        this.methods = methods;
+        this.times = times;
+        this.compressedSizes = compressedSizes;
+        this.sizes = sizes;
+        this.localHeaderOffsets = localHeaderOffsets;
+        this.signed = signed;
+    }
+
+    /**
+     * Parse a central directory.
+     *
+     * @param centralDirectory the central directory records
+     * @param count the number of records, from the end of central directory record
+     * @return the directory, or {@code null} if the zip file uses features this class does not support, in which case
+     *         the zip file should be mounted by VFS
+     */
+    static ZipDirectory parse(final byte[] centralDirectory, final int count) {
+        final Map<String, Entry> entries = new HashMap<String, Entry>(count * 2);
+        int pos = 0;
+        for (int i = 0; i < count; i++) {
+            if (pos + CENTRAL_HEADER_SIZE > centralDirectory.length || readInt(centralDirectory, pos) != CENTRAL_HEADER_SIGNATURE) {
+                return null;
+            }
+            final int flags = readShort(centralDirectory, pos + 8);
+            final int method = readShort(centralDirectory, pos + 10);
+            final int nameLength = readShort(centralDirectory, pos + 28);
+            final int extraLength = readShort(centralDirectory, pos + 30);
+            final int commentLength = readShort(centralDirectory, pos + 32);
+            final int compressedSize = readInt(centralDirectory, pos + 20);
+            final int size = readInt(centralDirectory, pos + 24);
+            final int localHeaderOffset = readInt(centralDirectory, pos + 42);
+            if ((flags & 1) != 0 || (method != STORED && method != DEFLATED)
+                    || compressedSize < 0 || size < 0 || localHeaderOffset < 0) {
+                // encrypted, compressed with another method, or zip64
+                return null;
+            }
+            String name = decode(centralDirectory, pos + CENTRAL_HEADER_SIZE, nameLength);
+            final boolean directory = name.endsWith("/");
+            if (directory) {
+                name = name.substring(0, name.length() - 1);
+            }
+            if (name.length() > 0 && !entries.containsKey(name)) {
+                final int time = readInt(centralDirectory, pos + 12);
+                entries.put(name, directory ? new Entry(name, DIRECTORY, time, 0, 0, 0) : new Entry(name, method, time,
+                        compressedSize, size, localHeaderOffset));
+            }
+            pos += CENTRAL_HEADER_SIZE + nameLength + extraLength + commentLength;
+        }
+        // add the missing parent directories
+        for (String name : new ArrayList<String>(entries.keySet())) {
+            int slash = name.lastIndexOf('/');
+            while (slash > 0) {
+                final String parent = name.substring(0, slash);
+                if (entries.containsKey(parent)) {
+                    break;
+                }
+                entries.put(parent, new Entry(parent));
+                slash = parent.lastIndexOf('/');
+            }
+        }
+        return build(new ArrayList<Entry>(entries.values()));
+    }
+
+    private static ZipDirectory build(final List<Entry> entries) {
+        Collections.sort(entries, BY_NAME);
+        final int count = entries.size();
+        int namesLength = 0;
+        for (Entry entry : entries) {
+            namesLength += entry.encodedName.length;
+        }
+        final byte[] names = new byte[namesLength];
+        final int[] nameOffsets = new int[count + 1];
+        final int[] parents = new int[count];
+        final byte[] methods = new byte[count];
+        final int[] times = new int[count];
+        final int[] compressedSizes = new int[count];
+        final int[] sizes = new int[count];
+        final int[] localHeaderOffsets = new int[count];
+        boolean signed = false;
+        int offset = 0;
+        for (int i = 0; i < count; i++) {
+            final Entry entry = entries.get(i);
+            nameOffsets[i] = offset;
+            System.arraycopy(entry.encodedName, 0, names, offset, entry.encodedName.length);
+            offset += entry.encodedName.length;
+            methods[i] = (byte) entry.method;
+            times[i] = entry.time;
+            compressedSizes[i] = entry.compressedSize;
+            sizes[i] = entry.size;
+            localHeaderOffsets[i] = entry.localHeaderOffset;
+            signed |= entry.method != DIRECTORY && isSignatureFile(entry.name);
+        }
+        nameOffsets[count] = offset;
+        final ZipDirectory directory = new ZipDirectory(names, nameOffsets, parents, methods, times, compressedSizes, sizes,
+                localHeaderOffsets, signed);
+        for (int i = 0; i < count; i++) {
+            final String name = entries.get(i).name;
+            final int slash = name.lastIndexOf('/');
+            parents[i] = slash < 0 ? -1 : directory.find(name.substring(0, slash));
+        }
+        return directory;
+    }
+
+    /**
+     * @return the number of entries, including the added directories
+     */
+    int size() {
+        return parents.length;
+    }
+
+    /**
+     * Find an entry.
+     *
+     * @param path the path of the entry relative to the root of the zip file, without leading or trailing slash
+     * @return the index of the entry, or -1 if the zip file has no such entry
+     */
+    int find(final String path) {
+        final byte[] key = encode(path);
+        int low = 0;
+        int high = size() - 1;
+        while (low <= high) {
+            final int mid = (low + high) >>> 1;
+            final int cmp = compare(mid, key);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Get the names of the entries of a directory.
+     *
+     * @param directory the index of the directory, or -1 for the root of the zip file
+     * @return the names of the entries, relative to the directory
+     */
+    List<String> getChildren(final int directory) {
+        final List<String> children = new ArrayList<String>();
+        final int start;
+        final int end;
+        final int prefixLength;
+        if (directory < 0) {
+            start = 0;
+            end = size();
+            prefixLength = 0;
+        } else {
+            // the entries of a directory are contiguous, starting with the first name greater than "directory/"
+            final int dirStart = nameOffsets[directory];
+            final int dirLength = nameOffsets[directory + 1] - dirStart;
+            final byte[] prefix = new byte[dirLength + 1];
+            System.arraycopy(names, dirStart, prefix, 0, dirLength);
+            prefix[dirLength] = '/';
+            start = lowerBound(prefix);
+            int i = start;
+            while (i < size() && isInside(i, directory)) {
+                i++;
+            }
+            end = i;
+            prefixLength = prefix.length;
+        }
+        for (int i = start; i < end; i++) {
+            if (parents[i] == directory) {
+                children.add(decode(names, nameOffsets[i] + prefixLength, nameOffsets[i + 1] - nameOffsets[i] - prefixLength));
+            }
+        }
+        return children;
+    }
+
+    boolean isDirectory(final int entry) {
+        return methods[entry] == DIRECTORY;
+    }
+
+    int getMethod(final int entry) {
+        return methods[entry];
+    }
+
+    long getCompressedSize(final int entry) {
+        return compressedSizes[entry] & 0xffffffffL;
+    }
+
+    long getSize(final int entry) {
+        return isDirectory(entry) ? 0 : sizes[entry] & 0xffffffffL;
+    }
+
+    long getLocalHeaderOffset(final int entry) {
+        return localHeaderOffsets[entry] & 0xffffffffL;
+    }
+
+    /**
+     * @return the modification time of the entry in milliseconds, 0 for an added directory
+     */
+    long getLastModified(final int entry) {
+        final int time = times[entry];
+        if (time == 0) {
+            return 0;
+        }
+        final Calendar calendar = Calendar.getInstance();
+        calendar.clear();
+        calendar.set(((time >> 25) & 0x7f) + 1980, ((time >> 21) & 0x0f) - 1, (time >> 16) & 0x1f,
+                (time >> 11) & 0x1f, (time >> 5) & 0x3f, (time << 1) & 0x3e);
+        return calendar.getTimeInMillis();
+    }
+
+    /**
+     * @return {@code true} if the zip file is a signed jar, whose code signers are only known to {@link java.util.jar.JarFile}
+     */
+    boolean isSigned() {
+        return signed;
+    }
+
+    /**
+     * @return an estimate of the heap used by this instance, in bytes
+     */
+    long getRetainedSize() {
+        return names.length + 4L * nameOffsets.length + 21L * parents.length;
+    }
+
+    private int lowerBound(final byte[] key) {
+        int low = 0;
+        int high = size();
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            if (compare(mid, key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private boolean isInside(final int entry, final int directory) {
+        final int dirStart = nameOffsets[directory];
+        final int dirLength = nameOffsets[directory + 1] - dirStart;
+        final int start = nameOffsets[entry];
+        if (nameOffsets[entry + 1] - start <= dirLength || names[start + dirLength] != '/') {
+            return false;
+        }
+        for (int i = 0; i < dirLength; i++) {
+            if (names[start + i] != names[dirStart + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int compare(final int entry, final byte[] key) {
+        final int start = nameOffsets[entry];
+        final int length = nameOffsets[entry + 1] - start;
+        final int min = Math.min(length, key.length);
+        for (int i = 0; i < min; i++) {
+            final int cmp = (names[start + i] & 0xff) - (key[i] & 0xff);
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return length - key.length;
+    }
+
+    private static boolean isSignatureFile(final String name) {
+        if (!name.startsWith("META-INF/") || name.indexOf('/', 9) >= 0) {
+            return false;
+        }
+        final String upper = name.toUpperCase(Locale.ENGLISH);
+        return upper.endsWith(".SF") || upper.endsWith(".DSA") || upper.endsWith(".RSA") || upper.endsWith(".EC");
+    }
+
+    static int readShort(final byte[] bytes, final int pos) {
+        return (bytes[pos] & 0xff) | (bytes[pos + 1] & 0xff) << 8;
+    }
+
+    static int readInt(final byte[] bytes, final int pos) {
+        return readShort(bytes, pos) | readShort(bytes, pos + 2) << 16;
+    }
+
+    private static byte[] encode(final String name) {
+        try {
+            return name.getBytes("UTF-8");
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String decode(final byte[] bytes, final int offset, final int length) {
+        try {
+            return new String(bytes, offset, length, "UTF-8");
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final Comparator<Entry> BY_NAME = new Comparator<Entry>() {
+        @Override
+        public int compare(final Entry o1, final Entry o2) {
+            final byte[] n1 = o1.encodedName;
+            final byte[] n2 = o2.encodedName;
+            final int min = Math.min(n1.length, n2.length);
+            for (int i = 0; i < min; i++) {
+                final int cmp = (n1[i] & 0xff) - (n2[i] & 0xff);
+                if (cmp != 0) {
+                    return cmp;
+                }
+            }
+            return n1.length - n2.length;
+        }
+    };
+
+    private static final class Entry {
+        private final String name;
+        private final byte[] encodedName;
+        private final int method;
+        private final int time;
+        private final int compressedSize;
+        private final int size;
+        private final int localHeaderOffset;
+
+        Entry(final String name) {
+            this(name, DIRECTORY, 0, 0, 0, 0);
+        }
+
+        Entry(final String name, final int method, final int time, final int compressedSize, final int size, final int localHeaderOffset) {
+            this.name = name;
+            this.encodedName = encode(name);
+            this.method = method;
+            this.time = time;
+            this.compressedSize = compressedSize;
+            this.size = size;
+            this.localHeaderOffset = localHeaderOffset;
+        }
+    }
+}
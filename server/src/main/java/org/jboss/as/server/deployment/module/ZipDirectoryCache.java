@@ -0,0 +1,264 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment.module;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.security.AccessController;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.PrivilegedAction;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.jboss.as.controller.HashUtil;
+import org.jboss.as.server.deployment.Attachments;
+import org.jboss.as.server.deployment.DeploymentProfile;
+import org.jboss.as.server.deployment.DeploymentUnit;
+import org.jboss.vfs.TempDir;
+import org.jboss.vfs.TempFileProvider;
+import org.jboss.vfs.VFS;
+import org.jboss.vfs.VFSUtils;
+import org.jboss.vfs.VirtualFile;
+import org.jboss.vfs.spi.JavaZipFileSystem;
+
+/**
+ * Mounts zip files like {@link VFS#mountZip(VirtualFile, VirtualFile, TempFileProvider)}, sharing the directory of
+ * the entries of identical zip files between their mounts.
+ * <p/>
+ * The directories are kept in compact tables, and are looked up by the SHA-1 hash of the central directory of the
+ * zip file, so the same jar packaged in several deployments is only indexed once for as long as one of its mounts is
+ * open. Signed, encrypted and zip64 files are mounted by VFS.
+ * <p/>
+ * The cache is disabled unless the {@value #ENABLED_PROPERTY} system property is set to {@code true}. Zip files
+ * mounted in place with {@link #mountMapped(VirtualFile, VirtualFile, TempFileProvider)} always use it.
+ */
+public final class ZipDirectoryCache {
+
+    /** The system property enabling the zip directory cache */
+    public static final String ENABLED_PROPERTY = "org.jboss.server.deployment.zipDirectoryCache";
+
+    /** The name of the cache in the {@link DeploymentProfile} */
+    public static final String CACHE_NAME = "zip-directory";
+
+    private static final int END_HEADER_SIGNATURE = 0x06054b50;
+    private static final int END_HEADER_SIZE = 22;
+    private static final int MAX_COMMENT_SIZE = 0xffff;
+
+    private static final ConcurrentMap<String, DirectoryReference> directories = new ConcurrentHashMap<String, DirectoryReference>();
+    private static final ReferenceQueue<ZipDirectory> queue = new ReferenceQueue<ZipDirectory>();
+
+    private ZipDirectoryCache() {
+    }
+
+    /**
+     * Mount a zip file.
+     *
+     * @param zipFile the zip file
+     * @param mountPoint the point at which the file system should be mounted
+     * @param tempFileProvider the temporary file provider
+     * @return a handle
+     * @throws IOException if an error occurs
+     */
+    public static Closeable mountZip(final VirtualFile zipFile, final VirtualFile mountPoint, final TempFileProvider tempFileProvider) throws IOException {
+        return mountZip(zipFile, mountPoint, tempFileProvider, null);
+    }
+
+    /**
+     * Mount a zip file, recording the lookup in the cache in the profile of a deployment unit.
+     *
+     * @param zipFile the zip file
+     * @param mountPoint the point at which the file system should be mounted
+     * @param tempFileProvider the temporary file provider
+     * @param deploymentUnit the deployment unit the zip file belongs to, or {@code null}
+     * @return a handle
+     * @throws IOException if an error occurs
+     */
+    public static Closeable mountZip(final VirtualFile zipFile, final VirtualFile mountPoint, final TempFileProvider tempFileProvider,
+                                     final DeploymentUnit deploymentUnit) throws IOException {
+        if (!isEnabled()) {
+            return VFS.mountZip(zipFile, mountPoint, tempFileProvider);
+        }
+        final TempDir tempDir = tempFileProvider.createTempDir(zipFile.getName());
+        try {
+            final File file = tempDir.createFile(zipFile.getName(), zipFile.openStream());
+            final ZipDirectory directory = getDirectory(file, deploymentUnit);
+            final Closeable handle;
+            if (directory == null || directory.isSigned()) {
+                handle = VFS.mount(mountPoint, new JavaZipFileSystem(file, tempDir));
+            } else {
+                handle = VFS.mount(mountPoint, new ZipDirectoryFileSystem(file, directory, tempDir));
+            }
+            return handle;
+        } catch (IOException e) {
+            VFSUtils.safeClose(tempDir);
+            throw e;
+        } catch (RuntimeException e) {
+            VFSUtils.safeClose(tempDir);
+            throw e;
+        }
+    }
+
+    /**
+     * Mount a zip file in place, reading its entries from a memory mapping of the file instead of a temporary copy.
+     * <p/>
+     * The file must not be modified while it is mounted, so this is only suitable for immutable files such as the
+     * content of the content repository. The pages of the file are shared with any other process mapping or reading
+     * it. Files VFS has to mount itself, and files of 2GB or more, are mounted like
+     * {@link VFS#mountZip(VirtualFile, VirtualFile, TempFileProvider)} does.
+     * <p/>
+     * A mapping is only released when it is garbage collected, and Windows does not delete a mapped file, so there the
+     * file is read in place through its file channel instead, which is closed when the file is unmounted.
+     *
+     * @param zipFile the zip file, which must be a physical file
+     * @param mountPoint the point at which the file system should be mounted
+     * @param tempFileProvider the temporary file provider, for the entries whose physical file is requested
+     * @return a handle
+     * @throws IOException if an error occurs
+     */
+    public static Closeable mountMapped(final VirtualFile zipFile, final VirtualFile mountPoint, final TempFileProvider tempFileProvider) throws IOException {
+        final File file = zipFile.getPhysicalFile();
+        final ZipDirectory directory = file.length() < Integer.MAX_VALUE ? getDirectory(file, null) : null;
+        if (directory == null || directory.isSigned()) {
+            return VFS.mountZip(zipFile, mountPoint, tempFileProvider);
+        }
+        final TempDir tempDir = tempFileProvider.createTempDir(zipFile.getName());
+        try {
+            return VFS.mount(mountPoint, new ZipDirectoryFileSystem(file, directory, tempDir, !isWindows()));
+        } catch (IOException e) {
+            VFSUtils.safeClose(tempDir);
+            throw e;
+        } catch (RuntimeException e) {
+            VFSUtils.safeClose(tempDir);
+            throw e;
+        }
+    }
+
+    /**
+     * @return the number of zip directories currently cached
+     */
+    public static int size() {
+        purge();
+        return directories.size();
+    }
+
+    private static ZipDirectory getDirectory(final File file, final DeploymentUnit deploymentUnit) throws IOException {
+        final RandomAccessFile raf = new RandomAccessFile(file, "r");
+        final byte[] centralDirectory;
+        final int count;
+        try {
+            final long length = raf.length();
+            final byte[] tail = new byte[(int) Math.min(length, END_HEADER_SIZE + MAX_COMMENT_SIZE)];
+            raf.seek(length - tail.length);
+            raf.readFully(tail);
+            int end = tail.length - END_HEADER_SIZE;
+            while (end >= 0 && ZipDirectory.readInt(tail, end) != END_HEADER_SIGNATURE) {
+                end--;
+            }
+            if (end < 0) {
+                return null;
+            }
+            count = ZipDirectory.readShort(tail, end + 10);
+            final long size = ZipDirectory.readInt(tail, end + 12) & 0xffffffffL;
+            final long offset = ZipDirectory.readInt(tail, end + 16) & 0xffffffffL;
+            if (count == 0xffff || offset == 0xffffffffL || offset + size > length) {
+                // zip64
+                return null;
+            }
+            centralDirectory = new byte[(int) size];
+            raf.seek(offset);
+            raf.readFully(centralDirectory);
+        } finally {
+            VFSUtils.safeClose(raf);
+        }
+
+        purge();
+        final String key = hash(centralDirectory);
+        final DirectoryReference reference = directories.get(key);
+        ZipDirectory directory = reference == null ? null : reference.get();
+        if (directory != null) {
+            recordLookup(deploymentUnit, true);
+            return directory;
+        }
+        directory = ZipDirectory.parse(centralDirectory, count);
+        if (directory != null) {
+            directories.put(key, new DirectoryReference(key, directory));
+        }
+        recordLookup(deploymentUnit, false);
+        return directory;
+    }
+
+    private static void recordLookup(final DeploymentUnit deploymentUnit, final boolean hit) {
+        final DeploymentProfile profile = deploymentUnit == null ? null : deploymentUnit.getAttachment(Attachments.DEPLOYMENT_PROFILE);
+        if (profile != null) {
+            profile.cacheAccessed(CACHE_NAME, hit ? 1 : 0, hit ? 0 : 1);
+        }
+    }
+
+    private static void purge() {
+        DirectoryReference reference;
+        while ((reference = (DirectoryReference) queue.poll()) != null) {
+            directories.remove(reference.key, reference);
+        }
+    }
+
+    private static String hash(final byte[] bytes) {
+        try {
+            return HashUtil.bytesToHexString(MessageDigest.getInstance("SHA-1").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static boolean isWindows() {
+        return File.separatorChar == '\\';
+    }
+
+    private static boolean isEnabled() {
+        if (System.getSecurityManager() == null) {
+            return Boolean.getBoolean(ENABLED_PROPERTY);
+        }
+        return AccessController.doPrivileged(new PrivilegedAction<Boolean>() {
+            @Override
+            public Boolean run() {
+                return Boolean.getBoolean(ENABLED_PROPERTY);
+            }
+        });
+    }
+
+    /**
+     * A directory is only kept while the file systems of the mounts using it are reachable.
+     */
+    private static final class DirectoryReference extends WeakReference<ZipDirectory> {
+        private final String key;
+
+        DirectoryReference(final String key, final ZipDirectory directory) {
+            super(directory, queue);
+            this.key = key;
+        }
+    }
+}
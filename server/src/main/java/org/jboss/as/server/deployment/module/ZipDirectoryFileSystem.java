@@ -0,0 +1,474 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment.module;
+
+import java.io.BufferedOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.security.CodeSigner;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+import java.util.zip.ZipException;
+
+import org.jboss.vfs.TempDir;
+import org.jboss.vfs.VFSUtils;
+import org.jboss.vfs.VirtualFile;
+import org.jboss.vfs.spi.FileSystem;
+
+/**
+ * A read-only VFS file system serving the entries of a zip file described by a shared {@link ZipDirectory}.
+ * <p/>
+ * Entries are read with positional reads on a single channel, so concurrent reads do not block each other, or from a
+ * read-only memory mapping of the whole zip file, in which case the entries stored without compression are read
+ * straight from the mapped pages. As with the zip file systems of VFS, an entry is extracted to the temporary
+ * directory of the mount the first time its physical file is requested.
+ * <p/>
+ * A file channel is closed when a thread reading from it is interrupted, so the channel is reopened when a read finds it
+ * closed while the file system is still open. The interrupted thread still gets its
+ * {@link ClosedByInterruptException}, the reads of the other threads are retried on the new channel.
+ * <p/>
+ * Once the file system is closed, opening an entry or reading from an entry stream fails with a
+ * {@link ClosedChannelException}. Closing drops the reference to the memory mapping, but the mapping itself is only
+ * released when it is garbage collected, as there is no way to unmap a buffer. Some platforms, Windows in particular,
+ * do not delete a file while it is mapped, so a zip file that must be deletable right after it is unmounted should not
+ * be mapped.
+ */
+final class ZipDirectoryFileSystem implements FileSystem {
+
+    private static final int LOCAL_HEADER_SIGNATURE = 0x04034b50;
+    private static final int LOCAL_HEADER_SIZE = 30;
+
+    private final File archiveFile;
+    private final ZipDirectory directory;
+    private final TempDir tempDir;
+    private final Object channelLock = new Object();
+    // written under channelLock
+    private volatile ByteBuffer mapped;
+    private volatile RandomAccessFile file;
+    private volatile FileChannel channel;
+    private volatile boolean closed;
+    // protected by "this"
+    private File[] extractedFiles;
+
+    ZipDirectoryFileSystem(final File archiveFile, final ZipDirectory directory, final TempDir tempDir) throws IOException {
+        this(archiveFile, directory, tempDir, false);
+    }
+
+    /**
+     * Construct a new instance.
+     *
+     * @param archiveFile the zip file, which must not be modified while the file system is open
+     * @param directory the directory of the zip file
+     * @param tempDir the temporary directory the entries are extracted to
+     * @param map {@code true} to read the entries from a memory mapping of the zip file, which must then be smaller than
+     *            2GB, and cannot be deleted on some platforms until the mapping is garbage collected
+     * @throws IOException if the zip file cannot be opened
+     */
+    ZipDirectoryFileSystem(final File archiveFile, final ZipDirectory directory, final TempDir tempDir, final boolean map) throws IOException {
+        this.archiveFile = archiveFile;
+        this.directory = directory;
+        this.tempDir = tempDir;
+        final RandomAccessFile file = new RandomAccessFile(archiveFile, "r");
+        this.file = file;
+        this.channel = file.getChannel();
+        if (map) {
+            try {
+                // the mapping stays valid once the channel is closed, and is released when it is garbage collected
+                // after the file system is closed
+                mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()).order(ByteOrder.LITTLE_ENDIAN);
+            } catch (IOException e) {
+                VFSUtils.safeClose(file);
+                throw e;
+            }
+        } else {
+            mapped = null;
+        }
+    }
+
+    public File getFile(final VirtualFile mountPoint, final VirtualFile target) throws IOException {
+        final int entry = getEntry(mountPoint, target);
+        if (entry < -1) {
+            throw new FileNotFoundException(target.getPathName());
+        }
+        synchronized (this) {
+            if (extractedFiles == null) {
+                extractedFiles = new File[directory.size() + 1];
+            }
+            File extracted = extractedFiles[entry + 1];
+            if (extracted == null) {
+                if (entry == -1) {
+                    extracted = tempDir.getFile("contents");
+                    extracted.mkdirs();
+                } else {
+                    extracted = tempDir.getFile("contents/" + target.getPathNameRelativeTo(mountPoint));
+                    if (directory.isDirectory(entry)) {
+                        extracted.mkdirs();
+                    } else {
+                        extracted.getParentFile().mkdirs();
+                        VFSUtils.copyStreamAndClose(openEntry(entry), new BufferedOutputStream(new FileOutputStream(extracted)));
+                    }
+                }
+                extractedFiles[entry + 1] = extracted;
+            }
+            return extracted;
+        }
+    }
+
+    public InputStream openInputStream(final VirtualFile mountPoint, final VirtualFile target) throws IOException {
+        final int entry = getEntry(mountPoint, target);
+        if (entry < 0 || directory.isDirectory(entry)) {
+            throw new FileNotFoundException(target.getPathName());
+        }
+        return openEntry(entry);
+    }
+
+    public boolean isReadOnly() {
+        return true;
+    }
+
+    public boolean delete(final VirtualFile mountPoint, final VirtualFile target) {
+        return false;
+    }
+
+    public long getSize(final VirtualFile mountPoint, final VirtualFile target) {
+        final int entry = getEntry(mountPoint, target);
+        if (entry == -1) {
+            return archiveFile.length();
+        }
+        return entry < 0 ? 0 : directory.getSize(entry);
+    }
+
+    public long getLastModified(final VirtualFile mountPoint, final VirtualFile target) {
+        final int entry = getEntry(mountPoint, target);
+        if (entry == -1) {
+            return archiveFile.lastModified();
+        }
+        return entry < 0 ? 0 : directory.getLastModified(entry);
+    }
+
+    public boolean exists(final VirtualFile mountPoint, final VirtualFile target) {
+        return getEntry(mountPoint, target) >= -1;
+    }
+
+    public boolean isFile(final VirtualFile mountPoint, final VirtualFile target) {
+        final int entry = getEntry(mountPoint, target);
+        return entry >= 0 && !directory.isDirectory(entry);
+    }
+
+    public boolean isDirectory(final VirtualFile mountPoint, final VirtualFile target) {
+        final int entry = getEntry(mountPoint, target);
+        return entry == -1 || entry >= 0 && directory.isDirectory(entry);
+    }
+
+    public List<String> getDirectoryEntries(final VirtualFile mountPoint, final VirtualFile target) {
+        final int entry = getEntry(mountPoint, target);
+        if (entry == -1 || entry >= 0 && directory.isDirectory(entry)) {
+            return directory.getChildren(entry);
+        }
+        return Collections.emptyList();
+    }
+
+    public CodeSigner[] getCodeSigners(final VirtualFile mountPoint, final VirtualFile target) {
+        // signed jars are mounted by VFS
+        return null;
+    }
+
+    public File getMountSource() {
+        return archiveFile;
+    }
+
+    public URI getRootURI() throws URISyntaxException {
+        return new URI("jar", archiveFile.toURI().toString() + "!/", null);
+    }
+
+    public void close() throws IOException {
+        synchronized (channelLock) {
+            closed = true;
+            mapped = null;
+            VFSUtils.safeClose(file);
+        }
+        VFSUtils.safeClose(tempDir);
+    }
+
+    /**
+     * @return the index of the entry in the directory, -1 for the root of the zip file, -2 if there is no such entry
+     */
+    private int getEntry(final VirtualFile mountPoint, final VirtualFile target) {
+        if (mountPoint.equals(target)) {
+            return -1;
+        }
+        final int entry = directory.find(target.getPathNameRelativeTo(mountPoint));
+        return entry < 0 ? -2 : entry;
+    }
+
+    private InputStream openEntry(final int entry) throws IOException {
+        final ByteBuffer mapped = this.mapped;
+        ensureOpen();
+        if (mapped != null) {
+            return openMappedEntry(mapped, entry);
+        }
+        final long headerOffset = directory.getLocalHeaderOffset(entry);
+        final byte[] header = new byte[LOCAL_HEADER_SIZE];
+        readFully(ByteBuffer.wrap(header), headerOffset);
+        if (ZipDirectory.readInt(header, 0) != LOCAL_HEADER_SIGNATURE) {
+            throw new ZipException(archiveFile.getPath());
+        }
+        final long dataOffset = headerOffset + LOCAL_HEADER_SIZE + ZipDirectory.readShort(header, 26) + ZipDirectory.readShort(header, 28);
+        final InputStream data = new ChannelInputStream(dataOffset, directory.getCompressedSize(entry));
+        if (directory.getMethod(entry) == ZipDirectory.STORED) {
+            return data;
+        }
+        return new EntryInflaterInputStream(data, directory.getSize(entry));
+    }
+
+    private InputStream openMappedEntry(final ByteBuffer mapped, final int entry) throws IOException {
+        final int headerOffset = (int) directory.getLocalHeaderOffset(entry);
+        if (headerOffset + LOCAL_HEADER_SIZE > mapped.capacity() || mapped.getInt(headerOffset) != LOCAL_HEADER_SIGNATURE) {
+            throw new ZipException(archiveFile.getPath());
+        }
+        final int dataOffset = headerOffset + LOCAL_HEADER_SIZE + (mapped.getShort(headerOffset + 26) & 0xffff) + (mapped.getShort(headerOffset + 28) & 0xffff);
+        final long compressedSize = directory.getCompressedSize(entry);
+        if (dataOffset + compressedSize > mapped.capacity()) {
+            throw new ZipException(archiveFile.getPath());
+        }
+        final ByteBuffer data = mapped.duplicate();
+        data.limit((int) (dataOffset + compressedSize)).position(dataOffset);
+        final InputStream in = new ByteBufferInputStream(data.slice());
+        if (directory.getMethod(entry) == ZipDirectory.STORED) {
+            return in;
+        }
+        return new EntryInflaterInputStream(in, directory.getSize(entry));
+    }
+
+    private void ensureOpen() throws ClosedChannelException {
+        if (closed) {
+            throw new ClosedChannelException();
+        }
+    }
+
+    private void readFully(final ByteBuffer buffer, final long position) throws IOException {
+        long pos = position;
+        while (buffer.hasRemaining()) {
+            final int read = read(buffer, pos);
+            if (read < 0) {
+                throw new EOFException(archiveFile.getPath());
+            }
+            pos += read;
+        }
+    }
+
+    private int read(final ByteBuffer buffer, final long position) throws IOException {
+        final int start = buffer.position();
+        for (;;) {
+            final FileChannel current = channel;
+            try {
+                return current.read(buffer, position);
+            } catch (ClosedByInterruptException e) {
+                // closed by the interrupt of this thread
+                reopen(current);
+                throw e;
+            } catch (ClosedChannelException e) {
+                // closed by the interrupt of another thread
+                if (!reopen(current)) {
+                    throw e;
+                }
+                buffer.position(start);
+            }
+        }
+    }
+
+    /**
+     * Replace a closed channel with a new one, unless it has already been replaced.
+     *
+     * @param closedChannel the closed channel
+     * @return {@code false} if the file system is closed
+     * @throws IOException if the zip file cannot be opened again
+     */
+    private boolean reopen(final FileChannel closedChannel) throws IOException {
+        synchronized (channelLock) {
+            if (closed) {
+                return false;
+            }
+            if (channel == closedChannel) {
+                VFSUtils.safeClose(file);
+                final RandomAccessFile file = new RandomAccessFile(archiveFile, "r");
+                this.file = file;
+                channel = file.getChannel();
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Reads a region of the zip file with positional reads.
+     */
+    private final class ChannelInputStream extends InputStream {
+        private long position;
+        private long remaining;
+
+        ChannelInputStream(final long position, final long length) {
+            this.position = position;
+            this.remaining = length;
+        }
+
+        @Override
+        public int read() throws IOException {
+            final byte[] b = new byte[1];
+            return read(b, 0, 1) == -1 ? -1 : b[0] & 0xff;
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            final int read = ZipDirectoryFileSystem.this.read(ByteBuffer.wrap(b, off, (int) Math.min(len, remaining)), position);
+            if (read < 0) {
+                throw new EOFException();
+            }
+            position += read;
+            remaining -= read;
+            return read;
+        }
+
+        @Override
+        public long skip(final long n) {
+            final long skipped = Math.max(0, Math.min(n, remaining));
+            position += skipped;
+            remaining -= skipped;
+            return skipped;
+        }
+
+        @Override
+        public int available() {
+            return (int) Math.min(Integer.MAX_VALUE, remaining);
+        }
+    }
+
+    /**
+     * Reads the remaining bytes of a slice of the memory mapping, while the file system is open.
+     */
+    private final class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        ByteBufferInputStream(final ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() throws IOException {
+            ensureOpen();
+            return buffer.hasRemaining() ? buffer.get() & 0xff : -1;
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) throws IOException {
+            ensureOpen();
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            final int read = Math.min(len, buffer.remaining());
+            buffer.get(b, off, read);
+            return read;
+        }
+
+        @Override
+        public long skip(final long n) throws IOException {
+            ensureOpen();
+            final int skipped = (int) Math.max(0, Math.min(n, buffer.remaining()));
+            buffer.position(buffer.position() + skipped);
+            return skipped;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+
+    /**
+     * Inflates a deflated entry, feeding the inflater the extra byte it needs at the end of the input like
+     * {@link java.util.zip.ZipFile} does, and releasing the inflater when closed.
+     */
+    private static final class EntryInflaterInputStream extends InflaterInputStream {
+        private long remaining;
+        private boolean eof;
+        private boolean closed;
+
+        EntryInflaterInputStream(final InputStream in, final long size) {
+            super(in, new Inflater(true), (int) Math.max(64, Math.min(8192, size)));
+            this.remaining = size;
+        }
+
+        @Override
+        protected void fill() throws IOException {
+            if (eof) {
+                throw new EOFException();
+            }
+            len = in.read(buf, 0, buf.length);
+            if (len == -1) {
+                buf[0] = 0;
+                len = 1;
+                eof = true;
+            }
+            inf.setInput(buf, 0, len);
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) throws IOException {
+            final int read = super.read(b, off, len);
+            if (read > 0) {
+                remaining -= read;
+            }
+            return read;
+        }
+
+        @Override
+        public int available() throws IOException {
+            return closed ? 0 : (int) Math.min(Integer.MAX_VALUE, Math.max(0, remaining));
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!closed) {
+                closed = true;
+                inf.end();
+                super.close();
+            }
+        }
+    }
+}
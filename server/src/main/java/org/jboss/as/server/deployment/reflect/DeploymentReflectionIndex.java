@@ -23,18 +23,27 @@
 package org.jboss.as.server.deployment.reflect;
 
 import java.security.Permission;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.jboss.as.server.ServerMessages;
+import org.jboss.modules.Module;
+import org.jboss.modules.ModuleClassLoader;
 
 /**
  * A reflection index for a deployment.
+ * <p/>
+ * The index of a class of a static module, or of the JDK, is shared by the reflection indexes of all the deployments.
+ * The boot module loader never unloads its modules in a running server, so the shared indexes are kept for the life of
+ * the server. Other classes, such as those of the deployment modules, are indexed per deployment.
  *
  * @author <a href="mailto:david.lloyd@redhat.com">David M. Lloyd</a>
  */
 public final class DeploymentReflectionIndex {
-    private final Map<Class<?>, ClassReflectionIndex<?>> classes = new HashMap<Class<?>, ClassReflectionIndex<?>>();
+    private static final ConcurrentMap<Class<?>, ClassReflectionIndex<?>> SYSTEM_CLASSES = new ConcurrentHashMap<Class<?>, ClassReflectionIndex<?>>();
+    private static final ConcurrentMap<Module, ConcurrentMap<Class<?>, ClassReflectionIndex<?>>> MODULE_CLASSES = new ConcurrentHashMap<Module, ConcurrentMap<Class<?>, ClassReflectionIndex<?>>>();
+
+    private final ConcurrentMap<Class<?>, ClassReflectionIndex<?>> classes = new ConcurrentHashMap<Class<?>, ClassReflectionIndex<?>>();
 
     DeploymentReflectionIndex() {
     }
@@ -61,15 +70,60 @@ public final class DeploymentReflectionIndex {
      * @return the index
      */
     @SuppressWarnings({"unchecked"})
-    public synchronized <T> ClassReflectionIndex<T> getClassIndex(Class<T> clazz) {
+    public <T> ClassReflectionIndex<T> getClassIndex(Class<T> clazz) {
         try {
             ClassReflectionIndex<T> index = (ClassReflectionIndex<T>) classes.get(clazz);
             if (index == null) {
-                classes.put(clazz, index = new ClassReflectionIndex<T>(clazz, this));
+                final ConcurrentMap<Class<?>, ClassReflectionIndex<?>> shared = getSharedClasses(clazz);
+                index = getOrCreate(shared == null ? classes : shared, clazz);
+                if (shared != null) {
+                    classes.putIfAbsent(clazz, index);
+                }
             }
             return index;
         } catch (Throwable e) {
             throw ServerMessages.MESSAGES.errorGettingReflectiveInformation(clazz, clazz.getClassLoader(), e);
         }
     }
+
+    @SuppressWarnings({"unchecked"})
+    private static <T> ClassReflectionIndex<T> getOrCreate(final ConcurrentMap<Class<?>, ClassReflectionIndex<?>> classes, final Class<T> clazz) {
+        ClassReflectionIndex<T> index = (ClassReflectionIndex<T>) classes.get(clazz);
+        if (index == null) {
+            // cheap to create, the members are only indexed on first use
+            index = new ClassReflectionIndex<T>(clazz);
+            final ClassReflectionIndex<T> existing = (ClassReflectionIndex<T>) classes.putIfAbsent(clazz, index);
+            if (existing != null) {
+                index = existing;
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Get the shared indexes of the module of a class, if it is a class of the JDK or of a module of the boot module
+     * loader. Deployment modules are loaded by another module loader.
+     */
+    private static ConcurrentMap<Class<?>, ClassReflectionIndex<?>> getSharedClasses(final Class<?> clazz) {
+        final ClassLoader classLoader = clazz.getClassLoader();
+        if (classLoader == null) {
+            return SYSTEM_CLASSES;
+        }
+        if (!(classLoader instanceof ModuleClassLoader)) {
+            return null;
+        }
+        final Module module = ((ModuleClassLoader) classLoader).getModule();
+        if (module.getModuleLoader() != Module.getBootModuleLoader()) {
+            return null;
+        }
+        ConcurrentMap<Class<?>, ClassReflectionIndex<?>> classes = MODULE_CLASSES.get(module);
+        if (classes == null) {
+            classes = new ConcurrentHashMap<Class<?>, ClassReflectionIndex<?>>();
+            final ConcurrentMap<Class<?>, ClassReflectionIndex<?>> existing = MODULE_CLASSES.putIfAbsent(module, classes);
+            if (existing != null) {
+                classes = existing;
+            }
+        }
+        return classes;
+    }
 }
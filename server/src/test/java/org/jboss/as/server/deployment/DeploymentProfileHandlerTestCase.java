@@ -0,0 +1,125 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RUNTIME_NAME;
+import static org.jboss.as.controller.descriptions.common.DeploymentDescription.CACHES;
+import static org.jboss.as.controller.descriptions.common.DeploymentDescription.HIT_RATE;
+import static org.jboss.as.controller.descriptions.common.DeploymentDescription.PHASE;
+import static org.jboss.as.controller.descriptions.common.DeploymentDescription.PHASES;
+import static org.jboss.as.controller.descriptions.common.DeploymentDescription.PROCESSOR;
+import static org.jboss.as.controller.descriptions.common.DeploymentDescription.PROCESSORS;
+import static org.jboss.as.controller.descriptions.common.DeploymentDescription.SUBDEPLOYMENTS;
+import static org.jboss.as.controller.descriptions.common.DeploymentDescription.TIME;
+import static org.jboss.as.controller.descriptions.common.DeploymentDescription.TOTAL_TIME;
+
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationStepHandler;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.dmr.ModelNode;
+import org.jboss.msc.service.ServiceController;
+import org.jboss.msc.service.ServiceRegistry;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+/**
+ * Tests the result of the {@link DeploymentProfileHandler}.
+ */
+public class DeploymentProfileHandlerTestCase {
+
+    private static final long MILLIS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private OperationContext context;
+    private ServiceRegistry serviceRegistry;
+    private ModelNode result;
+
+    @Before
+    public void setUp() {
+        context = Mockito.mock(OperationContext.class);
+        serviceRegistry = Mockito.mock(ServiceRegistry.class);
+        result = new ModelNode();
+        final ModelNode model = new ModelNode();
+        model.get(RUNTIME_NAME).set("test.ear");
+        Mockito.when(context.readModel(PathAddress.EMPTY_ADDRESS)).thenReturn(model);
+        Mockito.when(context.getServiceRegistry(false)).thenReturn(serviceRegistry);
+        Mockito.when(context.getResult()).thenReturn(result);
+    }
+
+    @Test
+    public void testProfile() throws Exception {
+        final DeploymentUnit ear = new DeploymentUnitImpl(null, "test.ear", serviceRegistry);
+        final DeploymentProfile earProfile = DeploymentProfile.getOrCreate(ear);
+        earProfile.processorCompleted(Phase.PARSE, DeploymentProfileTestCase.processor(new DeploymentProfileTestCase.FastProcessor(), null), 2 * MILLIS);
+        earProfile.phaseCompleted(Phase.PARSE, 3 * MILLIS);
+        earProfile.cacheAccessed("tld", 1, 3);
+        final DeploymentUnit war = new DeploymentUnitImpl(ear, "test.war", serviceRegistry);
+        ear.addToAttachmentList(Attachments.SUB_DEPLOYMENTS, war);
+        final DeploymentProfile warProfile = DeploymentProfile.getOrCreate(war);
+        warProfile.processorCompleted(Phase.INSTALL, DeploymentProfileTestCase.processor(new DeploymentProfileTestCase.SlowProcessor(), "web"), 5 * MILLIS);
+        warProfile.phaseCompleted(Phase.INSTALL, 5 * MILLIS);
+        registerDeploymentUnit(ear);
+
+        execute();
+
+        Assert.assertEquals(3, result.get(TOTAL_TIME).asLong());
+        Assert.assertEquals(3, result.get(PHASES, Phase.PARSE.name()).asLong());
+        Assert.assertEquals(1, result.get(PROCESSORS).asList().size());
+        final ModelNode processor = result.get(PROCESSORS).get(0);
+        Assert.assertEquals(Phase.PARSE.name(), processor.get(PHASE).asString());
+        Assert.assertFalse(processor.get("subsystem").isDefined());
+        Assert.assertEquals(DeploymentProfileTestCase.FastProcessor.class.getName(), processor.get(PROCESSOR).asString());
+        Assert.assertEquals(2, processor.get(TIME).asLong());
+        Assert.assertEquals(25, result.get(CACHES, "tld", HIT_RATE).asInt());
+
+        final ModelNode subDeployment = result.get(SUBDEPLOYMENTS, "test.war");
+        Assert.assertEquals(5, subDeployment.get(TOTAL_TIME).asLong());
+        Assert.assertEquals("web", subDeployment.get(PROCESSORS).get(0).get("subsystem").asString());
+    }
+
+    @Test
+    public void testNotDeployed() throws Exception {
+        execute();
+
+        Assert.assertFalse(result.isDefined());
+    }
+
+    private void registerDeploymentUnit(final DeploymentUnit deploymentUnit) {
+        final AbstractDeploymentUnitService service = Mockito.mock(AbstractDeploymentUnitService.class);
+        Mockito.when(service.getValue()).thenReturn(deploymentUnit);
+        final ServiceController<?> controller = Mockito.mock(ServiceController.class);
+        Mockito.doReturn(service).when(controller).getService();
+        Mockito.doReturn(controller).when(serviceRegistry).getService(Services.deploymentUnitName(deploymentUnit.getName()));
+    }
+
+    private void execute() throws Exception {
+        DeploymentProfileHandler.INSTANCE.execute(context, new ModelNode());
+        final ArgumentCaptor<OperationStepHandler> step = ArgumentCaptor.forClass(OperationStepHandler.class);
+        Mockito.verify(context).addStep(step.capture(), Mockito.eq(OperationContext.Stage.RUNTIME));
+        step.getValue().execute(context, new ModelNode());
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests the times recorded by a {@link DeploymentProfile}.
+ */
+public class DeploymentProfileTestCase {
+
+    @Test
+    public void testProcessorAndPhaseTimes() {
+        final DeploymentProfile profile = new DeploymentProfile("test.ear");
+        profile.phaseStarted(Phase.STRUCTURE);
+        profile.processorCompleted(Phase.STRUCTURE, processor(new FastProcessor(), null), 10);
+        profile.phaseCompleted(Phase.STRUCTURE, 15);
+        profile.phaseStarted(Phase.PARSE);
+        profile.processorCompleted(Phase.PARSE, processor(new SlowProcessor(), "web"), 100);
+        profile.phaseCompleted(Phase.PARSE, 120);
+
+        Assert.assertEquals(135, profile.getTotalTime());
+        final Map<Phase, Long> phaseTimes = profile.getPhaseTimes();
+        Assert.assertEquals(2, phaseTimes.size());
+        Assert.assertEquals(Long.valueOf(15), phaseTimes.get(Phase.STRUCTURE));
+        Assert.assertEquals(Long.valueOf(120), phaseTimes.get(Phase.PARSE));
+
+        final List<DeploymentProfile.ProcessorTime> processorTimes = profile.getProcessorTimes();
+        Assert.assertEquals(2, processorTimes.size());
+        Assert.assertEquals(FastProcessor.class.getName(), processorTimes.get(0).getProcessorName());
+        Assert.assertNull(processorTimes.get(0).getSubsystemName());
+        Assert.assertEquals("web", processorTimes.get(1).getSubsystemName());
+        Assert.assertEquals("test.ear", processorTimes.get(1).getDeploymentName());
+    }
+
+    @Test
+    public void testPhaseRestart() {
+        final DeploymentProfile profile = new DeploymentProfile("test.ear");
+        profile.phaseStarted(Phase.STRUCTURE);
+        profile.processorCompleted(Phase.STRUCTURE, processor(new FastProcessor(), null), 10);
+        profile.phaseCompleted(Phase.STRUCTURE, 10);
+        profile.phaseStarted(Phase.PARSE);
+        profile.processorCompleted(Phase.PARSE, processor(new SlowProcessor(), null), 100);
+        profile.phaseCompleted(Phase.PARSE, 100);
+        profile.phaseStarted(Phase.POST_MODULE);
+        profile.processorCompleted(Phase.POST_MODULE, processor(new FastProcessor(), null), 20);
+        profile.phaseCompleted(Phase.POST_MODULE, 20);
+        profile.cacheAccessed("tld", 1, 1);
+
+        // the phase services from PARSE on are restarted
+        profile.phaseStarted(Phase.PARSE);
+        Assert.assertEquals(1, profile.getProcessorTimes().size());
+        Assert.assertEquals(Collections.singleton(Phase.STRUCTURE), profile.getPhaseTimes().keySet());
+        profile.processorCompleted(Phase.PARSE, processor(new SlowProcessor(), null), 50);
+        profile.phaseCompleted(Phase.PARSE, 50);
+
+        Assert.assertEquals(60, profile.getTotalTime());
+        Assert.assertEquals(2, profile.getProcessorTimes().size());
+        Assert.assertEquals(1, profile.getCacheStatistics().size());
+
+        // the whole deployment is restarted
+        profile.phaseStarted(Phase.STRUCTURE);
+        Assert.assertEquals(0, profile.getTotalTime());
+        Assert.assertTrue(profile.getProcessorTimes().isEmpty());
+        Assert.assertTrue(profile.getCacheStatistics().isEmpty());
+    }
+
+    @Test
+    public void testHotSpots() {
+        final DeploymentProfile ear = new DeploymentProfile("test.ear");
+        ear.processorCompleted(Phase.PARSE, processor(new FastProcessor(), null), 10);
+        ear.processorCompleted(Phase.INSTALL, processor(new SlowProcessor(), null), 30);
+        final DeploymentProfile war = new DeploymentProfile("test.war");
+        war.processorCompleted(Phase.PARSE, processor(new SlowProcessor(), null), 50);
+        war.processorCompleted(Phase.INSTALL, processor(new FastProcessor(), null), 20);
+
+        final List<DeploymentProfile.ProcessorTime> hotSpots = DeploymentProfile.getHotSpots(Arrays.asList(ear, war), 3);
+        Assert.assertEquals(3, hotSpots.size());
+        Assert.assertEquals(50, hotSpots.get(0).getTime());
+        Assert.assertEquals("test.war", hotSpots.get(0).getDeploymentName());
+        Assert.assertEquals(30, hotSpots.get(1).getTime());
+        Assert.assertEquals(20, hotSpots.get(2).getTime());
+    }
+
+    @Test
+    public void testCacheStatistics() {
+        final DeploymentProfile profile = new DeploymentProfile("test.war");
+        profile.cacheAccessed("tld", 3, 1);
+        profile.cacheAccessed("tld", 0, 0);
+        profile.cacheAccessed("tld", 1, 3);
+
+        final DeploymentProfile.CacheStatistics statistics = profile.getCacheStatistics().get("tld");
+        Assert.assertEquals(4, statistics.getHits());
+        Assert.assertEquals(4, statistics.getMisses());
+        Assert.assertEquals(50, statistics.getHitRate());
+        Assert.assertEquals(0, new DeploymentProfile.CacheStatistics(0, 0).getHitRate());
+    }
+
+    static RegisteredDeploymentUnitProcessor processor(final DeploymentUnitProcessor processor, final String subsystemName) {
+        return new RegisteredDeploymentUnitProcessor(0, processor, subsystemName);
+    }
+
+    static class FastProcessor implements DeploymentUnitProcessor {
+        @Override
+        public void deploy(DeploymentPhaseContext phaseContext) {
+        }
+
+        @Override
+        public void undeploy(DeploymentUnit context) {
+        }
+    }
+
+    static class SlowProcessor extends FastProcessor {
+    }
+}
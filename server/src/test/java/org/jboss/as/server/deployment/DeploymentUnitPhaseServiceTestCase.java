@@ -0,0 +1,235 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jboss.msc.service.AbstractServiceListener;
+import org.jboss.msc.service.ServiceBuilder;
+import org.jboss.msc.service.ServiceContainer;
+import org.jboss.msc.service.ServiceController;
+import org.jboss.msc.service.ServiceName;
+import org.jboss.msc.service.ValueService;
+import org.jboss.msc.value.ImmediateValue;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the processing of the phases of sibling sub deployments on the sub deployment executor.
+ */
+public class DeploymentUnitPhaseServiceTestCase {
+
+    private static final String EXECUTOR_THREAD = "sub-deployment-test-";
+    private static final Phase[] CONCURRENT_PHASES = {Phase.PARSE, Phase.DEPENDENCIES, Phase.POST_MODULE};
+
+    private ServiceContainer container;
+    private ExecutorService executor;
+    private DeploymentUnit ear;
+    private DeploymentUnit firstWar;
+    private DeploymentUnit secondWar;
+
+    @Before
+    public void setUp() {
+        container = ServiceContainer.Factory.create("test");
+        executor = Executors.newFixedThreadPool(2, new ThreadFactory() {
+            private final AtomicInteger count = new AtomicInteger();
+
+            @Override
+            public Thread newThread(final Runnable r) {
+                return new Thread(r, EXECUTOR_THREAD + count.incrementAndGet());
+            }
+        });
+        ear = new DeploymentUnitImpl(null, "test.ear", container);
+        firstWar = new DeploymentUnitImpl(ear, "first.war", container);
+        secondWar = new DeploymentUnitImpl(ear, "second.war", container);
+        ear.addToAttachmentList(Attachments.SUB_DEPLOYMENTS, firstWar);
+        ear.addToAttachmentList(Attachments.SUB_DEPLOYMENTS, secondWar);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        container.shutdown();
+        container.awaitTermination(5, TimeUnit.SECONDS);
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testSiblingsProcessedConcurrently() throws Exception {
+        // both sub deployments must be in the processor at the same time to get through the barrier
+        final CyclicBarrier barrier = new CyclicBarrier(2);
+        final RecordingProcessor processor = new RecordingProcessor() {
+            @Override
+            public void deploy(final DeploymentPhaseContext phaseContext) throws DeploymentUnitProcessingException {
+                super.deploy(phaseContext);
+                try {
+                    barrier.await(10, TimeUnit.SECONDS);
+                } catch (Exception e) {
+                    throw new DeploymentUnitProcessingException(e);
+                }
+            }
+        };
+        installDeployerChains(processor, CONCURRENT_PHASES);
+        installExecutor(executor);
+
+        for (Phase phase : CONCURRENT_PHASES) {
+            final StartedListener listener = new StartedListener(2);
+            final ServiceController<?> first = installPhase(firstWar, phase, listener);
+            final ServiceController<?> second = installPhase(secondWar, phase, listener);
+            listener.await();
+            Assert.assertEquals(phase.name(), ServiceController.State.UP, first.getState());
+            Assert.assertEquals(phase.name(), ServiceController.State.UP, second.getState());
+        }
+        Assert.assertEquals(6, processor.getThreads().size());
+        for (String thread : processor.getThreads()) {
+            Assert.assertTrue(thread, thread.startsWith(EXECUTOR_THREAD));
+        }
+    }
+
+    @Test
+    public void testFailingProcessorFailsPhase() throws Exception {
+        final RecordingProcessor processor = new RecordingProcessor() {
+            @Override
+            public void deploy(final DeploymentPhaseContext phaseContext) throws DeploymentUnitProcessingException {
+                super.deploy(phaseContext);
+                throw new DeploymentUnitProcessingException("test");
+            }
+        };
+        installDeployerChains(processor, Phase.PARSE);
+        installExecutor(executor);
+
+        final StartedListener listener = new StartedListener(1);
+        final ServiceController<?> controller = installPhase(firstWar, Phase.PARSE, listener);
+        listener.await();
+        Assert.assertEquals(ServiceController.State.START_FAILED, controller.getState());
+        Assert.assertNotNull(controller.getStartException());
+        Assert.assertTrue(processor.getThreads().get(0).startsWith(EXECUTOR_THREAD));
+    }
+
+    @Test
+    public void testRejectedExecutionRunsOnServiceThread() throws Exception {
+        final RecordingProcessor processor = new RecordingProcessor();
+        installDeployerChains(processor, Phase.PARSE);
+        final ExecutorService rejecting = Executors.newSingleThreadExecutor();
+        rejecting.shutdown();
+        installExecutor(rejecting);
+
+        final StartedListener listener = new StartedListener(1);
+        final ServiceController<?> controller = installPhase(firstWar, Phase.PARSE, listener);
+        listener.await();
+        Assert.assertEquals(ServiceController.State.UP, controller.getState());
+        Assert.assertEquals(1, processor.getThreads().size());
+        Assert.assertFalse(processor.getThreads().get(0).startsWith(EXECUTOR_THREAD));
+    }
+
+    @Test
+    public void testWithoutExecutor() throws Exception {
+        final RecordingProcessor processor = new RecordingProcessor();
+        installDeployerChains(processor, Phase.PARSE);
+
+        // the executor is an optional dependency, the phase runs on the service thread if it is not installed
+        final StartedListener listener = new StartedListener(1);
+        final ServiceController<?> controller = installPhase(firstWar, Phase.PARSE, listener);
+        listener.await();
+        Assert.assertEquals(ServiceController.State.UP, controller.getState());
+        Assert.assertEquals(1, processor.getThreads().size());
+        Assert.assertFalse(processor.getThreads().get(0).startsWith(EXECUTOR_THREAD));
+    }
+
+    private void installDeployerChains(final DeploymentUnitProcessor processor, final Phase... phases) {
+        final EnumMap<Phase, List<RegisteredDeploymentUnitProcessor>> chains = new EnumMap<Phase, List<RegisteredDeploymentUnitProcessor>>(Phase.class);
+        for (Phase phase : Phase.values()) {
+            chains.put(phase, Collections.<RegisteredDeploymentUnitProcessor>emptyList());
+        }
+        for (Phase phase : phases) {
+            chains.put(phase, Collections.singletonList(new RegisteredDeploymentUnitProcessor(0, processor, null)));
+        }
+        container.addService(Services.JBOSS_DEPLOYMENT_CHAINS, new ValueService<DeployerChains>(new ImmediateValue<DeployerChains>(new DeployerChains(chains))))
+                .install();
+    }
+
+    private void installExecutor(final ExecutorService executorService) {
+        container.addService(Services.JBOSS_DEPLOYMENT_SUB_UNIT_EXECUTOR, new ValueService<ExecutorService>(new ImmediateValue<ExecutorService>(executorService)))
+                .install();
+    }
+
+    /**
+     * Installs a phase service of a sub deployment the way the previous phase service does.
+     */
+    private ServiceController<?> installPhase(final DeploymentUnit deploymentUnit, final Phase phase, final StartedListener listener) {
+        final DeploymentUnitPhaseService<?> service = DeploymentUnitPhaseService.create(deploymentUnit, phase);
+        final ServiceBuilder<?> builder = container.addService(ServiceName.of("test", deploymentUnit.getName(), phase.name()), service);
+        builder.addDependency(Services.JBOSS_DEPLOYMENT_CHAINS, DeployerChains.class, service.getDeployerChainsInjector());
+        builder.addDependency(ServiceBuilder.DependencyType.OPTIONAL, Services.JBOSS_DEPLOYMENT_SUB_UNIT_EXECUTOR,
+                ExecutorService.class, service.getExecutorInjector());
+        builder.addListener(listener);
+        return builder.install();
+    }
+
+    private static class RecordingProcessor implements DeploymentUnitProcessor {
+        private final List<String> threads = Collections.synchronizedList(new ArrayList<String>());
+
+        @Override
+        public void deploy(final DeploymentPhaseContext phaseContext) throws DeploymentUnitProcessingException {
+            threads.add(Thread.currentThread().getName());
+        }
+
+        @Override
+        public void undeploy(final DeploymentUnit context) {
+        }
+
+        List<String> getThreads() {
+            return new ArrayList<String>(threads);
+        }
+    }
+
+    private static class StartedListener extends AbstractServiceListener<Object> {
+        private final CountDownLatch latch;
+
+        StartedListener(final int count) {
+            latch = new CountDownLatch(count);
+        }
+
+        @Override
+        public void transition(final ServiceController<? extends Object> controller, final ServiceController.Transition transition) {
+            if (transition.getAfter() == ServiceController.Substate.UP || transition.getAfter() == ServiceController.Substate.START_FAILED) {
+                latch.countDown();
+            }
+        }
+
+        void await() throws InterruptedException {
+            Assert.assertTrue(latch.await(10, TimeUnit.SECONDS));
+        }
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment.module;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import org.jboss.vfs.VFS;
+import org.jboss.vfs.VirtualFile;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the lookups recorded in the {@link ClassLoadingStatistics} by the {@link VFSResourceLoader}.
+ */
+public class ClassLoadingStatisticsTestCase {
+
+    private File dir;
+
+    @Before
+    public void setUp() throws Exception {
+        final File tgt = new File("target");
+        if (!tgt.exists()) {
+            Assert.fail("target/ does not exist");
+        }
+        dir = new File(tgt, "class-loading-statistics-test");
+        new File(dir, "org/jboss/test").mkdirs();
+        write(new File(dir, "org/jboss/test/Test.class"));
+        write(new File(dir, "org/jboss/test/test.properties"));
+    }
+
+    @After
+    public void tearDown() {
+        new File(dir, "org/jboss/test/Test.class").delete();
+        new File(dir, "org/jboss/test/test.properties").delete();
+        new File(dir, "org/jboss/test").delete();
+        new File(dir, "org/jboss").delete();
+        new File(dir, "org").delete();
+        dir.delete();
+    }
+
+    @Test
+    public void testLookups() throws Exception {
+        final ClassLoadingStatistics statistics = new ClassLoadingStatistics();
+        final VirtualFile root = VFS.getChild(dir.getAbsolutePath());
+        final VFSResourceLoader loader = new VFSResourceLoader("test.jar", root, false, statistics.getResourceRoot("test.jar"));
+
+        Assert.assertNotNull(loader.getClassSpec("org/jboss/test/Test.class"));
+        Assert.assertNull(loader.getClassSpec("org/jboss/test/Missing.class"));
+        Assert.assertNotNull(loader.getResource("org/jboss/test/test.properties"));
+        Assert.assertNull(loader.getResource("org/jboss/test/missing.properties"));
+        Assert.assertNull(loader.getResource("org/jboss/test/other.properties"));
+
+        final ClassLoadingStatistics.ResourceRootStatistics rootStatistics = statistics.getResourceRoots().get("test.jar");
+        Assert.assertNotNull(rootStatistics);
+        Assert.assertEquals(2, rootStatistics.getClassLookups());
+        Assert.assertEquals(1, rootStatistics.getFailedClassLookups());
+        Assert.assertEquals(3, rootStatistics.getResourceLookups());
+        Assert.assertEquals(2, rootStatistics.getFailedResourceLookups());
+    }
+
+    @Test
+    public void testLinkedClasses() {
+        final ClassLoadingStatistics statistics = new ClassLoadingStatistics();
+        statistics.classDefined(1000L);
+        statistics.classLinked("javax.api");
+        statistics.classDefined(2000L);
+        statistics.classLinked("javax.api");
+        statistics.classLinked("org.jboss.logging");
+
+        Assert.assertEquals(2, statistics.getClassesDefined());
+        Assert.assertEquals(3000L, statistics.getDefineTime());
+        Assert.assertEquals(Integer.valueOf(2), statistics.getLinkedClasses().get("javax.api"));
+        Assert.assertEquals(Integer.valueOf(1), statistics.getLinkedClasses().get("org.jboss.logging"));
+    }
+
+    private static void write(final File file) throws IOException {
+        final FileOutputStream out = new FileOutputStream(file);
+        try {
+            out.write(new byte[] {(byte) 0xca, (byte) 0xfe, (byte) 0xba, (byte) 0xbe});
+        } finally {
+            out.close();
+        }
+    }
+}
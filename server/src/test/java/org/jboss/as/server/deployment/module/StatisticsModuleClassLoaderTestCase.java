@@ -0,0 +1,62 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment.module;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests the class definitions in progress recorded by the {@link StatisticsModuleClassLoader}.
+ */
+public class StatisticsModuleClassLoaderTestCase {
+
+    @Test
+    public void testNestedDefinitions() {
+        StatisticsModuleClassLoader.definitionStarted("org.jboss.test.Outer");
+        StatisticsModuleClassLoader.definitionStarted("org.jboss.test.Super");
+        Assert.assertEquals(2, StatisticsModuleClassLoader.definitionsInProgress());
+        Assert.assertTrue(StatisticsModuleClassLoader.definitionFinished("org.jboss.test.Super") >= 0);
+        Assert.assertEquals(1, StatisticsModuleClassLoader.definitionsInProgress());
+        Assert.assertTrue(StatisticsModuleClassLoader.definitionFinished("org.jboss.test.Outer") >= 0);
+        Assert.assertEquals(0, StatisticsModuleClassLoader.definitionsInProgress());
+        Assert.assertEquals(-1, StatisticsModuleClassLoader.definitionFinished("org.jboss.test.Outer"));
+    }
+
+    @Test
+    public void testFailedNestedDefinitionIsDiscarded() {
+        StatisticsModuleClassLoader.definitionStarted("org.jboss.test.Outer");
+        StatisticsModuleClassLoader.definitionStarted("org.jboss.test.Failed");
+        Assert.assertTrue(StatisticsModuleClassLoader.definitionFinished("org.jboss.test.Outer") >= 0);
+        Assert.assertEquals(0, StatisticsModuleClassLoader.definitionsInProgress());
+    }
+
+    @Test
+    public void testFailedDefinitionIsDiscardedWhenDefinedAgain() {
+        StatisticsModuleClassLoader.definitionStarted("org.jboss.test.Failed");
+        StatisticsModuleClassLoader.definitionStarted("org.jboss.test.Super");
+        StatisticsModuleClassLoader.definitionStarted("org.jboss.test.Failed");
+        Assert.assertEquals(1, StatisticsModuleClassLoader.definitionsInProgress());
+        Assert.assertTrue(StatisticsModuleClassLoader.definitionFinished("org.jboss.test.Failed") >= 0);
+        Assert.assertEquals(0, StatisticsModuleClassLoader.definitionsInProgress());
+    }
+}
@@ -0,0 +1,249 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment.module;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.channels.ClosedChannelException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.jboss.vfs.TempFileProvider;
+import org.jboss.vfs.VFS;
+import org.jboss.vfs.VFSUtils;
+import org.jboss.vfs.VirtualFile;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the mounts of the {@link ZipDirectoryCache}.
+ */
+public class ZipDirectoryCacheTestCase {
+
+    private static final byte[] CLASS_BYTES = createContent(5000);
+    // the jars of each test have their own modification times, so their directories are not shared between tests
+    private static final long ENTRIES_TIME = 1325419200000L;
+    private static final long SHARED_TIME = 1325505600000L;
+
+    private File dir;
+    private ScheduledExecutorService executor;
+    private TempFileProvider provider;
+    private final List<Closeable> handles = new ArrayList<Closeable>();
+
+    @Before
+    public void setUp() throws Exception {
+        final File tgt = new File("target");
+        if (!tgt.exists()) {
+            Assert.fail("target/ does not exist");
+        }
+        dir = new File(tgt, "zip-directory-cache-test");
+        dir.mkdirs();
+        executor = Executors.newScheduledThreadPool(1);
+        provider = TempFileProvider.create("zip-directory-cache-test", executor);
+        System.setProperty(ZipDirectoryCache.ENABLED_PROPERTY, "true");
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        System.clearProperty(ZipDirectoryCache.ENABLED_PROPERTY);
+        for (Closeable handle : handles) {
+            VFSUtils.safeClose(handle);
+        }
+        VFSUtils.safeClose(provider);
+        executor.shutdown();
+        for (File file : dir.listFiles()) {
+            file.delete();
+        }
+        dir.delete();
+    }
+
+    @Test
+    public void testEntries() throws Exception {
+        final VirtualFile jar = mount(createJar("entries.jar", ENTRIES_TIME));
+        Assert.assertTrue(jar.isDirectory());
+        Assert.assertEquals(names("META-INF", "org", "org-test.properties"), names(jar.getChildren()));
+        Assert.assertEquals(names("a", "a-b", "a.b"), names(jar.getChild("org").getChildren()));
+        // parent directories without entries of their own
+        Assert.assertTrue(jar.getChild("org/a").isDirectory());
+        Assert.assertEquals(names("Test.class"), names(jar.getChild("org/a").getChildren()));
+
+        final VirtualFile stored = jar.getChild("org/a/Test.class");
+        Assert.assertTrue(stored.isFile());
+        Assert.assertEquals(CLASS_BYTES.length, stored.getSize());
+        Assert.assertEquals(ENTRIES_TIME, stored.getLastModified());
+        Assert.assertArrayEquals(CLASS_BYTES, read(stored));
+        Assert.assertArrayEquals("deflated".getBytes("UTF-8"), read(jar.getChild("org-test.properties")));
+        Assert.assertArrayEquals(CLASS_BYTES, read(jar.getChild("org/a.b/Test.class")));
+        Assert.assertFalse(jar.getChild("org/b").exists());
+
+        final File physical = stored.getPhysicalFile();
+        Assert.assertEquals(CLASS_BYTES.length, physical.length());
+    }
+
+    @Test
+    public void testIdenticalJarsShareDirectory() throws Exception {
+        final int size = ZipDirectoryCache.size();
+        final VirtualFile first = mount(createJar("first.jar", SHARED_TIME));
+        Assert.assertEquals(size + 1, ZipDirectoryCache.size());
+        final VirtualFile second = mount(createJar("second.jar", SHARED_TIME));
+        Assert.assertEquals(size + 1, ZipDirectoryCache.size());
+        Assert.assertArrayEquals(read(first.getChild("org/a/Test.class")), read(second.getChild("org/a/Test.class")));
+    }
+
+    @Test
+    public void testMappedEntries() throws Exception {
+        final File file = createJar("mapped.jar", ENTRIES_TIME);
+        final VirtualFile jar = VFS.getChild(file.getAbsolutePath());
+        handles.add(ZipDirectoryCache.mountMapped(jar, jar, provider));
+        Assert.assertTrue(jar.isDirectory());
+        Assert.assertArrayEquals(CLASS_BYTES, read(jar.getChild("org/a/Test.class")));
+        Assert.assertArrayEquals(CLASS_BYTES, read(jar.getChild("org/a-b/Test.class")));
+        Assert.assertArrayEquals("deflated".getBytes("UTF-8"), read(jar.getChild("org-test.properties")));
+        Assert.assertEquals(CLASS_BYTES.length, jar.getChild("org/a/Test.class").getPhysicalFile().length());
+    }
+
+    @Test
+    public void testReadAfterClose() throws Exception {
+        final File file = createJar("closed.jar", ENTRIES_TIME);
+        final VirtualFile jar = VFS.getChild(file.getAbsolutePath());
+        final Closeable handle = ZipDirectoryCache.mountMapped(jar, jar, provider);
+        final InputStream in = jar.getChild("org/a/Test.class").openStream();
+        try {
+            Assert.assertEquals(CLASS_BYTES[0], in.read());
+            handle.close();
+            try {
+                in.read();
+                Assert.fail("an entry should not be read once its file system is closed");
+            } catch (ClosedChannelException expected) {
+            }
+        } finally {
+            VFSUtils.safeClose(in);
+        }
+    }
+
+    @Test
+    public void testReadAfterInterrupt() throws Exception {
+        final VirtualFile jar = mount(createJar("interrupted.jar", ENTRIES_TIME));
+        Thread.currentThread().interrupt();
+        try {
+            read(jar.getChild("org/a/Test.class"));
+            Assert.fail("the read of an interrupted thread should fail");
+        } catch (ClosedByInterruptException expected) {
+        } finally {
+            Thread.interrupted();
+        }
+        // the channel closed by the interrupt has been replaced
+        Assert.assertArrayEquals(CLASS_BYTES, read(jar.getChild("org/a/Test.class")));
+        Assert.assertArrayEquals("deflated".getBytes("UTF-8"), read(jar.getChild("org-test.properties")));
+    }
+
+    private VirtualFile mount(final File jar) throws IOException {
+        final VirtualFile file = VFS.getChild(jar.getAbsolutePath());
+        handles.add(ZipDirectoryCache.mountZip(file, file, provider));
+        return file;
+    }
+
+    private File createJar(final String name, final long time) throws IOException {
+        final File jar = new File(dir, name);
+        final ZipOutputStream out = new ZipOutputStream(new FileOutputStream(jar));
+        try {
+            out.putNextEntry(entry("META-INF/", time));
+            out.putNextEntry(entry("META-INF/MANIFEST.MF", time));
+            out.write("Manifest-Version: 1.0\r\n".getBytes("UTF-8"));
+            writeStored(out, entry("org/a/Test.class", time), CLASS_BYTES);
+            out.putNextEntry(entry("org/a-b/Test.class", time));
+            out.write(CLASS_BYTES);
+            out.putNextEntry(entry("org/a.b/Test.class", time));
+            out.write(CLASS_BYTES);
+            out.putNextEntry(entry("org-test.properties", time));
+            out.write("deflated".getBytes("UTF-8"));
+            out.closeEntry();
+        } finally {
+            out.close();
+        }
+        return jar;
+    }
+
+    private static ZipEntry entry(final String name, final long time) {
+        final ZipEntry entry = new ZipEntry(name);
+        entry.setTime(time);
+        return entry;
+    }
+
+    private static void writeStored(final ZipOutputStream out, final ZipEntry entry, final byte[] bytes) throws IOException {
+        entry.setMethod(ZipEntry.STORED);
+        entry.setSize(bytes.length);
+        final CRC32 crc = new CRC32();
+        crc.update(bytes);
+        entry.setCrc(crc.getValue());
+        out.putNextEntry(entry);
+        out.write(bytes);
+    }
+
+    private static byte[] read(final VirtualFile file) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final InputStream in = file.openStream();
+        try {
+            VFSUtils.copyStream(in, out);
+        } finally {
+            VFSUtils.safeClose(in);
+        }
+        return out.toByteArray();
+    }
+
+    private static List<String> names(final String... names) {
+        final List<String> list = new ArrayList<String>();
+        Collections.addAll(list, names);
+        return list;
+    }
+
+    private static List<String> names(final List<VirtualFile> files) {
+        final List<String> list = new ArrayList<String>();
+        for (VirtualFile file : files) {
+            list.add(file.getName());
+        }
+        Collections.sort(list);
+        return list;
+    }
+
+    private static byte[] createContent(final int length) {
+        final byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = (byte) (i % 7);
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment.reflect;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests the lazy and concurrent indexing of the {@link ClassReflectionIndex} and the indexes shared by the
+ * {@link DeploymentReflectionIndex} of the deployments.
+ */
+public class DeploymentReflectionIndexTestCase {
+
+    private static final int THREADS = 16;
+
+    @Test
+    public void testSystemClassesAreShared() {
+        final DeploymentReflectionIndex first = DeploymentReflectionIndex.create();
+        final DeploymentReflectionIndex second = DeploymentReflectionIndex.create();
+        Assert.assertSame(first.getClassIndex(String.class), second.getClassIndex(String.class));
+        Assert.assertNotNull(first.getClassIndex(String.class).getMethod(int.class, "length"));
+    }
+
+    @Test
+    public void testOtherClassesAreIndexedPerDeployment() {
+        final DeploymentReflectionIndex first = DeploymentReflectionIndex.create();
+        final DeploymentReflectionIndex second = DeploymentReflectionIndex.create();
+        Assert.assertSame(first.getClassIndex(Holder.class), first.getClassIndex(Holder.class));
+        Assert.assertNotSame(first.getClassIndex(Holder.class), second.getClassIndex(Holder.class));
+    }
+
+    @Test
+    public void testMembersAreIndexedOnFirstUse() throws Exception {
+        final Class<?> holder = new IsolatingClassLoader().loadClass(Holder.class.getName());
+        // the index of a class whose methods cannot be resolved can still be created and used for its fields
+        final ClassReflectionIndex<?> index = DeploymentReflectionIndex.create().getClassIndex(holder);
+        Assert.assertNotNull(index.getField("name"));
+        try {
+            index.getMethods();
+            Assert.fail("Methods referencing a missing class were indexed");
+        } catch (RuntimeException expected) {
+            Assert.assertTrue(expected.getCause() instanceof NoClassDefFoundError);
+        }
+    }
+
+    @Test
+    public void testConcurrentLookups() throws Exception {
+        final DeploymentReflectionIndex deploymentIndex = DeploymentReflectionIndex.create();
+        final CountDownLatch start = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            final List<Future<ClassReflectionIndex<Holder>>> futures = new ArrayList<Future<ClassReflectionIndex<Holder>>>();
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(executor.submit(new Callable<ClassReflectionIndex<Holder>>() {
+                    @Override
+                    public ClassReflectionIndex<Holder> call() throws Exception {
+                        start.await();
+                        final ClassReflectionIndex<Holder> index = deploymentIndex.getClassIndex(Holder.class);
+                        Assert.assertEquals(2, index.getFields().size());
+                        Assert.assertEquals(1, index.getAllMethods("use").size());
+                        Assert.assertNotNull(index.getConstructor(new Class<?>[0]));
+                        return index;
+                    }
+                }));
+            }
+            start.countDown();
+            final ClassReflectionIndex<Holder> index = deploymentIndex.getClassIndex(Holder.class);
+            for (Future<ClassReflectionIndex<Holder>> future : futures) {
+                Assert.assertSame(index, future.get(10, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    public static class Holder {
+        private String name;
+        private int count;
+
+        public void use(final Missing missing) {
+        }
+    }
+
+    public static class Missing {
+    }
+
+    /**
+     * Loads its own copy of {@link Holder}, which cannot see the {@link Missing} class.
+     */
+    private static class IsolatingClassLoader extends ClassLoader {
+
+        IsolatingClassLoader() {
+            super(DeploymentReflectionIndexTestCase.class.getClassLoader());
+        }
+
+        @Override
+        protected synchronized Class<?> loadClass(final String name, final boolean resolve) throws ClassNotFoundException {
+            if (name.equals(Missing.class.getName())) {
+                throw new ClassNotFoundException(name);
+            }
+            if (!name.equals(Holder.class.getName())) {
+                return super.loadClass(name, resolve);
+            }
+            Class<?> loaded = findLoadedClass(name);
+            if (loaded == null) {
+                final byte[] bytes = readClass(name);
+                loaded = defineClass(name, bytes, 0, bytes.length);
+            }
+            return loaded;
+        }
+
+        private byte[] readClass(final String name) throws ClassNotFoundException {
+            final InputStream input = getParent().getResourceAsStream(name.replace('.', '/') + ".class");
+            if (input == null) {
+                throw new ClassNotFoundException(name);
+            }
+            try {
+                final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                final byte[] buffer = new byte[4096];
+                int read;
+                while ((read = input.read(buffer)) != -1) {
+                    bytes.write(buffer, 0, read);
+                }
+                return bytes.toByteArray();
+            } catch (IOException e) {
+                throw new ClassNotFoundException(name, e);
+            } finally {
+                try {
+                    input.close();
+                } catch (IOException ignored) {
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.test.benchmark;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records the latencies of a benchmark run and reports throughput and latency percentiles.
+ * <p/>
+ * This class is not thread safe, use one instance per thread and {@link #merge(LatencyRecorder) merge} them.
+ */
+public class LatencyRecorder {
+
+    private final String name;
+    private long[] samples;
+    private int count;
+    private long startTime;
+    private long endTime;
+
+    public LatencyRecorder(final String name, final int expectedSamples) {
+        this.name = name;
+        this.samples = new long[Math.max(16, expectedSamples)];
+    }
+
+    /**
+     * Mark the beginning of the measured run.
+     */
+    public void start() {
+        startTime = System.nanoTime();
+    }
+
+    /**
+     * Mark the end of the measured run.
+     */
+    public void stop() {
+        endTime = System.nanoTime();
+    }
+
+    /**
+     * Record a single latency sample.
+     *
+     * @param nanos the latency in nanoseconds
+     */
+    public void record(final long nanos) {
+        if (count == samples.length) {
+            samples = Arrays.copyOf(samples, samples.length * 2);
+        }
+        samples[count++] = nanos;
+    }
+
+    /**
+     * Add the samples of another recorder to this one. The measured run is extended to cover both runs.
+     */
+    public void merge(final LatencyRecorder other) {
+        for (int i = 0; i < other.count; i++) {
+            record(other.samples[i]);
+        }
+        if (startTime == 0 || (other.startTime != 0 && other.startTime < startTime)) {
+            startTime = other.startTime;
+        }
+        endTime = Math.max(endTime, other.endTime);
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * @return the elapsed time of the run in nanoseconds
+     */
+    public long getElapsedTime() {
+        return endTime - startTime;
+    }
+
+    /**
+     * @return the number of samples recorded per second during the run
+     */
+    public double getThroughput() {
+        final long elapsed = getElapsedTime();
+        return elapsed <= 0 ? 0 : count * (double) TimeUnit.SECONDS.toNanos(1) / elapsed;
+    }
+
+    /**
+     * @param percentile a percentile between 0 and 100
+     * @return the latency in nanoseconds for the given percentile
+     */
+    public long getPercentile(final double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        final long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        final int index = (int) Math.ceil(percentile / 100 * count) - 1;
+        return sorted[Math.min(count - 1, Math.max(0, index))];
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%-50s count=%8d throughput=%10.1f/s p50=%8.3fms p90=%8.3fms p99=%8.3fms p99.9=%8.3fms max=%8.3fms",
+                name, count, getThroughput(),
+                toMillis(getPercentile(50)), toMillis(getPercentile(90)),
+                toMillis(getPercentile(99)), toMillis(getPercentile(99.9)),
+                toMillis(getPercentile(100)));
+    }
+
+    private static double toMillis(final long nanos) {
+        return nanos / 1000000d;
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.test.benchmark.boot;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILURE_DESCRIPTION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OUTCOME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_ATTRIBUTE_OPERATION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RESULT;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUCCESS;
+
+import java.net.InetAddress;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.jboss.arquillian.container.test.api.ContainerController;
+import org.jboss.arquillian.container.test.api.RunAsClient;
+import org.jboss.arquillian.junit.Arquillian;
+import org.jboss.arquillian.test.api.ArquillianResource;
+import org.jboss.as.controller.client.ModelControllerClient;
+import org.jboss.as.controller.operations.common.BootProfileAttributeHandler;
+import org.jboss.as.test.benchmark.LatencyRecorder;
+import org.jboss.dmr.ModelNode;
+import org.jboss.logging.Logger;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * Boots a server with the {@code standalone-full-ha.xml} configuration repeatedly and reports the boot time, and the
+ * {@code boot-profile} of the root resource averaged over the boots, the subsystems taking the most time first.
+ * <p/>
+ * The number of measured boots can be changed with the {@code benchmark.boot.count} system property.
+ */
+@RunAsClient
+@RunWith(Arquillian.class)
+public class BootBenchmarkTestCase {
+
+    private static final Logger log = Logger.getLogger(BootBenchmarkTestCase.class);
+
+    private static final String CONTAINER = "jboss-full-ha";
+    private static final int MGMT_PORT = 10099;
+    private static final int BOOTS = Integer.getInteger("benchmark.boot.count", 10);
+    private static final int WARMUP = 1;
+
+    private static final String[] SUBSYSTEM_TIMES = {BootProfileAttributeHandler.MODEL_TIME, BootProfileAttributeHandler.MODEL_WAIT_TIME,
+            BootProfileAttributeHandler.RUNTIME_TIME, BootProfileAttributeHandler.RUNTIME_WAIT_TIME, BootProfileAttributeHandler.SERVICE_START_TIME};
+
+    @ArquillianResource
+    private ContainerController controller;
+
+    @Test
+    public void testBoot() throws Exception {
+        final LatencyRecorder recorder = new LatencyRecorder("boot standalone-full-ha.xml", BOOTS);
+        final long[] stages = new long[3];
+        final Map<String, long[]> subsystems = new LinkedHashMap<String, long[]>();
+        recorder.start();
+        for (int i = 0; i < WARMUP + BOOTS; i++) {
+            final long start = System.nanoTime();
+            controller.start(CONTAINER);
+            final long elapsed = System.nanoTime() - start;
+            try {
+                final ModelNode profile = readBootProfile();
+                if (i >= WARMUP) {
+                    recorder.record(elapsed);
+                    stages[0] += profile.get(BootProfileAttributeHandler.MODEL_STAGE_TIME).asLong();
+                    stages[1] += profile.get(BootProfileAttributeHandler.RUNTIME_STAGE_TIME).asLong();
+                    stages[2] += profile.get(BootProfileAttributeHandler.CONTAINER_STABILITY_TIME).asLong();
+                    for (String subsystem : profile.get(BootProfileAttributeHandler.SUBSYSTEMS).keys()) {
+                        long[] times = subsystems.get(subsystem);
+                        if (times == null) {
+                            times = new long[SUBSYSTEM_TIMES.length];
+                            subsystems.put(subsystem, times);
+                        }
+                        final ModelNode subsystemProfile = profile.get(BootProfileAttributeHandler.SUBSYSTEMS, subsystem);
+                        for (int t = 0; t < SUBSYSTEM_TIMES.length; t++) {
+                            times[t] += subsystemProfile.get(SUBSYSTEM_TIMES[t]).asLong();
+                        }
+                    }
+                }
+            } finally {
+                controller.stop(CONTAINER);
+            }
+        }
+        recorder.stop();
+        log.info(report(recorder, stages, subsystems));
+    }
+
+    private static String report(final LatencyRecorder recorder, final long[] stages, final Map<String, long[]> subsystems) {
+        final StringBuilder sb = new StringBuilder("Boot benchmark results:");
+        sb.append(String.format("%n%s", recorder));
+        sb.append(String.format("%n%-30s %10.1fms%n%-30s %10.1fms%n%-30s %10.1fms",
+                BootProfileAttributeHandler.MODEL_STAGE_TIME, (double) stages[0] / BOOTS,
+                BootProfileAttributeHandler.RUNTIME_STAGE_TIME, (double) stages[1] / BOOTS,
+                BootProfileAttributeHandler.CONTAINER_STABILITY_TIME, (double) stages[2] / BOOTS));
+        sb.append(String.format("%n%-30s", "subsystem (mean ms)"));
+        for (String time : SUBSYSTEM_TIMES) {
+            sb.append(String.format(" %18s", time));
+        }
+        final List<Map.Entry<String, long[]>> sorted = new ArrayList<Map.Entry<String, long[]>>(subsystems.entrySet());
+        Collections.sort(sorted, new Comparator<Map.Entry<String, long[]>>() {
+            @Override
+            public int compare(final Map.Entry<String, long[]> o1, final Map.Entry<String, long[]> o2) {
+                final long t1 = o1.getValue()[0] + o1.getValue()[2];
+                final long t2 = o2.getValue()[0] + o2.getValue()[2];
+                return t1 < t2 ? 1 : t1 == t2 ? 0 : -1;
+            }
+        });
+        for (Map.Entry<String, long[]> entry : sorted) {
+            sb.append(String.format("%n%-30s", entry.getKey()));
+            for (long time : entry.getValue()) {
+                sb.append(String.format(" %18.1f", (double) time / BOOTS));
+            }
+        }
+        return sb.toString();
+    }
+
+    private static ModelNode readBootProfile() throws Exception {
+        final ModelControllerClient client = ModelControllerClient.Factory.create(
+                InetAddress.getByName(System.getProperty("node0", "127.0.0.1")), MGMT_PORT);
+        try {
+            final ModelNode read = new ModelNode();
+            read.get(OP).set(READ_ATTRIBUTE_OPERATION);
+            read.get(OP_ADDR).setEmptyList();
+            read.get(NAME).set("boot-profile");
+            final ModelNode result = client.execute(read);
+            Assert.assertEquals(result.get(FAILURE_DESCRIPTION).asString(), SUCCESS, result.get(OUTCOME).asString());
+            return result.get(RESULT);
+        } finally {
+            client.close();
+        }
+    }
+}
@@ -0,0 +1,242 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.test.benchmark.deployment;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ADD;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.CONTENT;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.DEPLOYMENT;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ENABLED;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILURE_DESCRIPTION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.INPUT_STREAM_INDEX;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OUTCOME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.REMOVE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RESULT;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUCCESS;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SYSTEM_PROPERTY;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.VALUE;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+import org.jboss.arquillian.container.test.api.RunAsClient;
+import org.jboss.arquillian.junit.Arquillian;
+import org.jboss.as.arquillian.api.ContainerResource;
+import org.jboss.as.arquillian.container.ManagementClient;
+import org.jboss.as.controller.client.Operation;
+import org.jboss.as.controller.client.OperationBuilder;
+import org.jboss.as.test.benchmark.LatencyRecorder;
+import org.jboss.as.test.benchmark.deployment.classes.ClassLoadingListener;
+import org.jboss.as.test.benchmark.deployment.classes.ClassLoadingServlet;
+import org.jboss.as.test.integration.common.HttpRequest;
+import org.jboss.dmr.ModelNode;
+import org.jboss.logging.Logger;
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.shrinkwrap.api.asset.ByteArrayAsset;
+import org.jboss.shrinkwrap.api.exporter.ZipExporter;
+import org.jboss.shrinkwrap.api.spec.WebArchive;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * Measures the time it takes to deploy a WAR whose web module loads every class of its {@code WEB-INF/classes} when
+ * it starts, and the class loading throughput of the web module, with the deployment content mounted from a
+ * temporary copy or memory mapped in place ({@code org.jboss.server.deployment.mappedContent}), and with the entries
+ * of the WAR deflated or stored.
+ * <p/>
+ * The classes are those of the JUnit jar. The number of measured deployments can be changed with the
+ * {@code benchmark.deployment.classes.count} system property.
+ */
+@RunAsClient
+@RunWith(Arquillian.class)
+public class ClassLoadingBenchmarkTestCase {
+
+    private static final Logger log = Logger.getLogger(ClassLoadingBenchmarkTestCase.class);
+
+    private static final String DEPLOYMENT_NAME = "class-loading-benchmark.war";
+    private static final String MAPPED_CONTENT_PROPERTY = "org.jboss.server.deployment.mappedContent";
+    private static final Pattern RESULT_PATTERN = Pattern.compile("loaded=(\\d+) failed=(\\d+) nanos=(\\d+)");
+    private static final int DEPLOYS = Integer.getInteger("benchmark.deployment.classes.count", 20);
+    private static final int WARMUP = 3;
+
+    @ContainerResource
+    private ManagementClient managementClient;
+
+    @Test
+    public void testClassLoading() throws Exception {
+        final byte[] war = createWar();
+        final byte[] storedWar = repack(war, ZipEntry.STORED);
+        final byte[] deflatedWar = repack(war, ZipEntry.DEFLATED);
+        final StringBuilder sb = new StringBuilder("Class loading benchmark results:");
+        sb.append(runScenario("copied, deflated", false, deflatedWar));
+        sb.append(runScenario("copied, stored", false, storedWar));
+        sb.append(runScenario("mapped, deflated", true, deflatedWar));
+        sb.append(runScenario("mapped, stored", true, storedWar));
+        log.info(sb.toString());
+    }
+
+    private String runScenario(final String scenario, final boolean mapped, final byte[] war) throws Exception {
+        setMappedContent(mapped);
+        try {
+            final LatencyRecorder recorder = new LatencyRecorder("deploy " + scenario, DEPLOYS);
+            long classes = 0;
+            long loadTime = 0;
+            recorder.start();
+            for (int i = 0; i < WARMUP + DEPLOYS; i++) {
+                final long start = System.nanoTime();
+                deploy(war);
+                final long elapsed = System.nanoTime() - start;
+                try {
+                    final String url = "http://" + managementClient.getMgmtAddress() + ":8080/class-loading-benchmark/classes";
+                    final String result = HttpRequest.get(url, 10, TimeUnit.SECONDS);
+                    final Matcher matcher = RESULT_PATTERN.matcher(result);
+                    Assert.assertTrue(result, matcher.find());
+                    if (i >= WARMUP) {
+                        recorder.record(elapsed);
+                        classes += Long.parseLong(matcher.group(1));
+                        loadTime += Long.parseLong(matcher.group(3));
+                    }
+                } finally {
+                    undeploy();
+                }
+            }
+            recorder.stop();
+            return String.format("%n%s%n%-30s %10d%n%-30s %10.1fms%n%-30s %10.0f", recorder,
+                    "classes loaded", classes / DEPLOYS,
+                    "class loading time (mean)", (double) loadTime / DEPLOYS / 1000000,
+                    "classes loaded per second", classes / (loadTime / 1000000000.0));
+        } finally {
+            removeMappedContent();
+        }
+    }
+
+    private static byte[] createWar() throws Exception {
+        final WebArchive war = ShrinkWrap.create(WebArchive.class, DEPLOYMENT_NAME);
+        war.addClasses(ClassLoadingListener.class, ClassLoadingServlet.class);
+        final File junitJar = new File(Assert.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+        final ZipFile zip = new ZipFile(junitJar);
+        try {
+            for (ZipEntry entry : Collections.list(zip.entries())) {
+                if (entry.getName().endsWith(".class")) {
+                    war.add(new ByteArrayAsset(toBytes(zip.getInputStream(entry))), "WEB-INF/classes/" + entry.getName());
+                }
+            }
+        } finally {
+            zip.close();
+        }
+        return toBytes(war.as(ZipExporter.class).exportAsInputStream());
+    }
+
+    private static byte[] repack(final byte[] war, final int method) throws Exception {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final ZipInputStream in = new ZipInputStream(new ByteArrayInputStream(war));
+        final ZipOutputStream out = new ZipOutputStream(bytes);
+        try {
+            ZipEntry entry;
+            while ((entry = in.getNextEntry()) != null) {
+                final byte[] data = toBytes(in);
+                final ZipEntry copy = new ZipEntry(entry.getName());
+                copy.setMethod(method);
+                if (method == ZipEntry.STORED) {
+                    final CRC32 crc = new CRC32();
+                    crc.update(data);
+                    copy.setSize(data.length);
+                    copy.setCompressedSize(data.length);
+                    copy.setCrc(crc.getValue());
+                }
+                out.putNextEntry(copy);
+                out.write(data);
+                out.closeEntry();
+            }
+        } finally {
+            in.close();
+            out.close();
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Reads a stream to its end. The stream is not closed, so that the entries of a zip input stream can be read.
+     */
+    private static byte[] toBytes(final InputStream in) throws Exception {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final byte[] buffer = new byte[8192];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+        }
+        return out.toByteArray();
+    }
+
+    private void setMappedContent(final boolean mapped) throws Exception {
+        final ModelNode add = new ModelNode();
+        add.get(OP).set(ADD);
+        add.get(OP_ADDR).add(SYSTEM_PROPERTY, MAPPED_CONTENT_PROPERTY);
+        add.get(VALUE).set(Boolean.toString(mapped));
+        execute(OperationBuilder.create(add).build());
+    }
+
+    private void removeMappedContent() throws Exception {
+        final ModelNode remove = new ModelNode();
+        remove.get(OP).set(REMOVE);
+        remove.get(OP_ADDR).add(SYSTEM_PROPERTY, MAPPED_CONTENT_PROPERTY);
+        execute(OperationBuilder.create(remove).build());
+    }
+
+    private void deploy(final byte[] war) throws Exception {
+        final ModelNode add = new ModelNode();
+        add.get(OP).set(ADD);
+        add.get(OP_ADDR).add(DEPLOYMENT, DEPLOYMENT_NAME);
+        add.get(CONTENT).add().get(INPUT_STREAM_INDEX).set(0);
+        add.get(ENABLED).set(true);
+        final OperationBuilder builder = new OperationBuilder(add, true);
+        builder.addInputStream(new ByteArrayInputStream(war));
+        execute(builder.build());
+    }
+
+    private void undeploy() throws Exception {
+        final ModelNode remove = new ModelNode();
+        remove.get(OP).set(REMOVE);
+        remove.get(OP_ADDR).add(DEPLOYMENT, DEPLOYMENT_NAME);
+        execute(OperationBuilder.create(remove).build());
+    }
+
+    private ModelNode execute(final Operation operation) throws Exception {
+        final ModelNode result = managementClient.getControllerClient().execute(operation);
+        Assert.assertEquals(result.get(FAILURE_DESCRIPTION).asString(), SUCCESS, result.get(OUTCOME).asString());
+        return result.get(RESULT);
+    }
+}
@@ -0,0 +1,189 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.test.benchmark.deployment;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ADD;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.CONTENT;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.DEPLOYMENT;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILURE_DESCRIPTION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.INPUT_STREAM_INDEX;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OUTCOME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.REMOVE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUCCESS;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.jboss.arquillian.container.test.api.RunAsClient;
+import org.jboss.arquillian.junit.Arquillian;
+import org.jboss.as.arquillian.api.ContainerResource;
+import org.jboss.as.arquillian.container.ManagementClient;
+import org.jboss.as.controller.client.OperationBuilder;
+import org.jboss.as.test.benchmark.LatencyRecorder;
+import org.jboss.dmr.ModelNode;
+import org.jboss.logging.Logger;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * Measures the throughput of concurrent uploads of large deployment content to the content repository.
+ * <p/>
+ * Each client thread uploads its content with a deployment {@code add} operation, without deploying it. The scenario
+ * is run once with distinct content per thread and once with the same content for all threads, which the repository
+ * only stores once. The size of the content in MiB, the number of concurrent uploads and the number of uploads per
+ * thread can be changed with the {@code benchmark.deployment.upload.size}, {@code benchmark.deployment.upload.threads}
+ * and {@code benchmark.deployment.upload.count} system properties.
+ */
+@RunAsClient
+@RunWith(Arquillian.class)
+public class DeploymentUploadBenchmarkTestCase {
+
+    private static final Logger log = Logger.getLogger(DeploymentUploadBenchmarkTestCase.class);
+
+    private static final long CONTENT_SIZE = Long.getLong("benchmark.deployment.upload.size", 200) * 1024 * 1024;
+    private static final int THREADS = Integer.getInteger("benchmark.deployment.upload.threads", 4);
+    private static final int UPLOADS = Integer.getInteger("benchmark.deployment.upload.count", 3);
+
+    @ContainerResource
+    private ManagementClient managementClient;
+
+    @Test
+    public void testDistinctContent() throws Exception {
+        report(runScenario("distinct content", false));
+    }
+
+    @Test
+    public void testSharedContent() throws Exception {
+        report(runScenario("shared content", true));
+    }
+
+    private LatencyRecorder runScenario(final String scenario, final boolean sharedContent) throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            final List<Future<LatencyRecorder>> futures = new ArrayList<Future<LatencyRecorder>>();
+            for (int i = 0; i < THREADS; i++) {
+                final int thread = i;
+                futures.add(executor.submit(new Callable<LatencyRecorder>() {
+                    @Override
+                    public LatencyRecorder call() throws Exception {
+                        return upload(thread, sharedContent);
+                    }
+                }));
+            }
+            final LatencyRecorder result = new LatencyRecorder(String.format("upload %s, %d x %dMiB", scenario, THREADS,
+                    CONTENT_SIZE / 1024 / 1024), THREADS * UPLOADS);
+            for (Future<LatencyRecorder> future : futures) {
+                result.merge(future.get());
+            }
+            return result;
+        } finally {
+            executor.shutdownNow();
+            // only remove once all uploads are done, removing a deployment removes its content shared with the others
+            for (int thread = 0; thread < THREADS; thread++) {
+                for (int i = 0; i < UPLOADS; i++) {
+                    final ModelNode remove = new ModelNode();
+                    remove.get(OP).set(REMOVE);
+                    remove.get(OP_ADDR).add(DEPLOYMENT, getDeploymentName(thread, i));
+                    managementClient.getControllerClient().execute(remove);
+                }
+            }
+        }
+    }
+
+    private LatencyRecorder upload(final int thread, final boolean sharedContent) throws Exception {
+        final LatencyRecorder recorder = new LatencyRecorder("upload " + thread, UPLOADS);
+        recorder.start();
+        for (int i = 0; i < UPLOADS; i++) {
+            final String name = getDeploymentName(thread, i);
+            // distinct content for every upload unless shared
+            final long seed = sharedContent ? 0 : thread * UPLOADS + i + 1;
+            final ModelNode add = new ModelNode();
+            add.get(OP).set(ADD);
+            add.get(OP_ADDR).add(DEPLOYMENT, name);
+            add.get(CONTENT).add().get(INPUT_STREAM_INDEX).set(0);
+            final OperationBuilder builder = new OperationBuilder(add, true);
+            builder.addInputStream(new GeneratedContentStream(seed, CONTENT_SIZE));
+
+            final long start = System.nanoTime();
+            final ModelNode result = managementClient.getControllerClient().execute(builder.build());
+            recorder.record(System.nanoTime() - start);
+            Assert.assertEquals(result.get(FAILURE_DESCRIPTION).asString(), SUCCESS, result.get(OUTCOME).asString());
+        }
+        recorder.stop();
+        return recorder;
+    }
+
+    private static String getDeploymentName(final int thread, final int upload) {
+        return "upload-benchmark-" + thread + "-" + upload + ".jar";
+    }
+
+    private void report(final LatencyRecorder result) {
+        final double seconds = result.getElapsedTime() / 1000000000d;
+        final double megabytes = result.getCount() * (double) CONTENT_SIZE / 1024 / 1024;
+        log.info(String.format("Deployment upload benchmark results:%n%s%n%-50s %10.1fMiB/s", result, "content throughput",
+                seconds <= 0 ? 0 : megabytes / seconds));
+    }
+
+    /**
+     * Content of the given size generated from a seed, the same seed producing the same content.
+     */
+    private static class GeneratedContentStream extends InputStream {
+        private final byte[] block = new byte[64 * 1024];
+        private final long size;
+        private long position;
+
+        GeneratedContentStream(final long seed, final long size) {
+            new Random(seed).nextBytes(block);
+            this.size = size;
+        }
+
+        @Override
+        public int read() {
+            if (position == size) {
+                return -1;
+            }
+            return block[(int) (position++ % block.length)] & 0xff;
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) {
+            if (position == size) {
+                return -1;
+            }
+            final int offset = (int) (position % block.length);
+            final int count = (int) Math.min(Math.min(len, block.length - offset), size - position);
+            System.arraycopy(block, offset, b, off, count);
+            position += count;
+            return count;
+        }
+    }
+}
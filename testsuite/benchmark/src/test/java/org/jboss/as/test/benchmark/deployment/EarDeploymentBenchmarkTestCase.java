@@ -0,0 +1,158 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.test.benchmark.deployment;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ADD;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.CONTENT;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.DEPLOYMENT;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ENABLED;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILURE_DESCRIPTION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.INPUT_STREAM_INDEX;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OUTCOME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.REMOVE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RESULT;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUCCESS;
+import static org.jboss.as.controller.descriptions.common.DeploymentDescription.PHASES;
+import static org.jboss.as.controller.descriptions.common.DeploymentDescription.READ_DEPLOYMENT_PROFILE;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.jboss.arquillian.container.test.api.RunAsClient;
+import org.jboss.arquillian.junit.Arquillian;
+import org.jboss.as.arquillian.api.ContainerResource;
+import org.jboss.as.arquillian.container.ManagementClient;
+import org.jboss.as.controller.client.Operation;
+import org.jboss.as.controller.client.OperationBuilder;
+import org.jboss.as.test.benchmark.LatencyRecorder;
+import org.jboss.as.test.benchmark.deployment.ear.IndexedBean;
+import org.jboss.as.test.benchmark.deployment.ear.IndexedServlet;
+import org.jboss.dmr.ModelNode;
+import org.jboss.logging.Logger;
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.shrinkwrap.api.exporter.ZipExporter;
+import org.jboss.shrinkwrap.api.spec.EnterpriseArchive;
+import org.jboss.shrinkwrap.api.spec.WebArchive;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * Measures the time it takes to deploy an EAR containing many web modules, each with a servlet and a managed bean
+ * using resource injection, and reports the time spent in each deployment phase as read from the
+ * {@code read-deployment-profile} operation of the deployment.
+ * <p/>
+ * The number of web modules and the number of measured deployments can be changed with the
+ * {@code benchmark.deployment.ear.wars} and {@code benchmark.deployment.ear.count} system properties.
+ */
+@RunAsClient
+@RunWith(Arquillian.class)
+public class EarDeploymentBenchmarkTestCase {
+
+    private static final Logger log = Logger.getLogger(EarDeploymentBenchmarkTestCase.class);
+
+    private static final String DEPLOYMENT_NAME = "ear-benchmark.ear";
+    private static final int WARS = Integer.getInteger("benchmark.deployment.ear.wars", 30);
+    private static final int DEPLOYS = Integer.getInteger("benchmark.deployment.ear.count", 10);
+    private static final int WARMUP = 2;
+
+    @ContainerResource
+    private ManagementClient managementClient;
+
+    @Test
+    public void testDeployEar() throws Exception {
+        final EnterpriseArchive ear = createEar();
+        final LatencyRecorder recorder = new LatencyRecorder(String.format("deploy EAR with %d WARs", WARS), DEPLOYS);
+        final Map<String, Long> phases = new LinkedHashMap<String, Long>();
+        recorder.start();
+        for (int i = 0; i < WARMUP + DEPLOYS; i++) {
+            final long start = System.nanoTime();
+            deploy(ear);
+            final long elapsed = System.nanoTime() - start;
+            try {
+                final ModelNode profile = readDeploymentProfile();
+                if (i >= WARMUP) {
+                    recorder.record(elapsed);
+                    for (String phase : profile.get(PHASES).keys()) {
+                        final Long time = phases.get(phase);
+                        phases.put(phase, (time == null ? 0 : time) + profile.get(PHASES, phase).asLong());
+                    }
+                }
+            } finally {
+                undeploy();
+            }
+        }
+        recorder.stop();
+
+        final StringBuilder sb = new StringBuilder("EAR deployment benchmark results:");
+        sb.append(String.format("%n%s", recorder));
+        sb.append(String.format("%n%-30s", "phase (mean ms)"));
+        for (Map.Entry<String, Long> entry : phases.entrySet()) {
+            sb.append(String.format("%n%-30s %10.1f", entry.getKey(), (double) entry.getValue() / DEPLOYS));
+        }
+        log.info(sb.toString());
+    }
+
+    private static EnterpriseArchive createEar() {
+        final EnterpriseArchive ear = ShrinkWrap.create(EnterpriseArchive.class, DEPLOYMENT_NAME);
+        for (int i = 0; i < WARS; i++) {
+            final WebArchive war = ShrinkWrap.create(WebArchive.class, "web" + i + ".war");
+            war.addClasses(IndexedServlet.class, IndexedBean.class);
+            ear.addAsModule(war);
+        }
+        return ear;
+    }
+
+    private void deploy(final EnterpriseArchive ear) throws Exception {
+        final ModelNode add = new ModelNode();
+        add.get(OP).set(ADD);
+        add.get(OP_ADDR).add(DEPLOYMENT, DEPLOYMENT_NAME);
+        add.get(CONTENT).add().get(INPUT_STREAM_INDEX).set(0);
+        add.get(ENABLED).set(true);
+        final OperationBuilder builder = new OperationBuilder(add, true);
+        builder.addInputStream(ear.as(ZipExporter.class).exportAsInputStream());
+        execute(builder.build());
+    }
+
+    private void undeploy() throws Exception {
+        final ModelNode remove = new ModelNode();
+        remove.get(OP).set(REMOVE);
+        remove.get(OP_ADDR).add(DEPLOYMENT, DEPLOYMENT_NAME);
+        execute(OperationBuilder.create(remove).build());
+    }
+
+    private ModelNode readDeploymentProfile() throws Exception {
+        final ModelNode read = new ModelNode();
+        read.get(OP).set(READ_DEPLOYMENT_PROFILE);
+        read.get(OP_ADDR).add(DEPLOYMENT, DEPLOYMENT_NAME);
+        return execute(OperationBuilder.create(read).build());
+    }
+
+    private ModelNode execute(final Operation operation) throws Exception {
+        final ModelNode result = managementClient.getControllerClient().execute(operation);
+        Assert.assertEquals(result.get(FAILURE_DESCRIPTION).asString(), SUCCESS, result.get(OUTCOME).asString());
+        return result.get(RESULT);
+    }
+}
@@ -0,0 +1,243 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.test.benchmark.deployment;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ADD;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.CONTENT;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.DEPLOYMENT;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ENABLED;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILURE_DESCRIPTION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.INPUT_STREAM_INDEX;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OUTCOME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_ATTRIBUTE_OPERATION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.REMOVE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RESULT;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUCCESS;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SYSTEM_PROPERTY;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.VALUE;
+import static org.jboss.as.controller.descriptions.common.DeploymentDescription.CACHES;
+import static org.jboss.as.controller.descriptions.common.DeploymentDescription.HITS;
+import static org.jboss.as.controller.descriptions.common.DeploymentDescription.PHASES;
+import static org.jboss.as.controller.descriptions.common.DeploymentDescription.READ_DEPLOYMENT_PROFILE;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+
+import org.jboss.arquillian.container.test.api.RunAsClient;
+import org.jboss.arquillian.junit.Arquillian;
+import org.jboss.as.arquillian.api.ContainerResource;
+import org.jboss.as.arquillian.container.ManagementClient;
+import org.jboss.as.controller.client.Operation;
+import org.jboss.as.controller.client.OperationBuilder;
+import org.jboss.as.test.benchmark.LatencyRecorder;
+import org.jboss.dmr.ModelNode;
+import org.jboss.logging.Logger;
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.shrinkwrap.api.asset.ByteArrayAsset;
+import org.jboss.shrinkwrap.api.asset.StringAsset;
+import org.jboss.shrinkwrap.api.exporter.ZipExporter;
+import org.jboss.shrinkwrap.api.spec.JavaArchive;
+import org.jboss.shrinkwrap.api.spec.WebArchive;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * Measures the time it takes to deploy several WARs packaging the same library jars, and the heap they retain once
+ * deployed, with and without the zip directory cache enabled by the
+ * {@code org.jboss.server.deployment.zipDirectoryCache} system property. The time spent in the {@code STRUCTURE}
+ * phase, where the jars are mounted, is read from the {@code read-deployment-profile} operation of the deployments.
+ * <p/>
+ * The number of WARs, of jars in each WAR, of entries in each jar and of measured deployments can be changed with the
+ * {@code benchmark.deployment.zip.wars}, {@code benchmark.deployment.zip.jars}, {@code benchmark.deployment.zip.entries}
+ * and {@code benchmark.deployment.zip.count} system properties.
+ */
+@RunAsClient
+@RunWith(Arquillian.class)
+public class ZipMountBenchmarkTestCase {
+
+    private static final Logger log = Logger.getLogger(ZipMountBenchmarkTestCase.class);
+
+    private static final String CACHE_PROPERTY = "org.jboss.server.deployment.zipDirectoryCache";
+    private static final String CACHE_NAME = "zip-directory";
+    private static final int WARS = Integer.getInteger("benchmark.deployment.zip.wars", 10);
+    private static final int JARS = Integer.getInteger("benchmark.deployment.zip.jars", 50);
+    private static final int ENTRIES = Integer.getInteger("benchmark.deployment.zip.entries", 500);
+    private static final int DEPLOYS = Integer.getInteger("benchmark.deployment.zip.count", 5);
+    private static final int WARMUP = 1;
+
+    @ContainerResource
+    private ManagementClient managementClient;
+
+    @Test
+    public void testMountZips() throws Exception {
+        final byte[][] wars = createWars();
+        final StringBuilder sb = new StringBuilder("Zip mount benchmark results:");
+        for (boolean cached : new boolean[] {false, true}) {
+            setCacheEnabled(cached);
+            try {
+                final LatencyRecorder recorder = new LatencyRecorder(String.format("deploy %d WARs with %d jars, cache %s",
+                        WARS, JARS, cached ? "enabled" : "disabled"), DEPLOYS);
+                long structureTime = 0;
+                long hits = 0;
+                long heapUsed = 0;
+                recorder.start();
+                for (int i = 0; i < WARMUP + DEPLOYS; i++) {
+                    final long start = System.nanoTime();
+                    for (int w = 0; w < wars.length; w++) {
+                        deploy(w, wars[w]);
+                    }
+                    final long elapsed = System.nanoTime() - start;
+                    try {
+                        if (i >= WARMUP) {
+                            recorder.record(elapsed);
+                            for (int w = 0; w < wars.length; w++) {
+                                final ModelNode profile = readDeploymentProfile(w);
+                                structureTime += profile.get(PHASES, "STRUCTURE").asLong();
+                                if (profile.get(CACHES).has(CACHE_NAME)) {
+                                    hits += profile.get(CACHES, CACHE_NAME, HITS).asLong();
+                                }
+                            }
+                            heapUsed += readHeapUsed();
+                        }
+                    } finally {
+                        for (int w = 0; w < wars.length; w++) {
+                            undeploy(w);
+                        }
+                    }
+                }
+                recorder.stop();
+                sb.append(String.format("%n%s", recorder));
+                sb.append(String.format("%n%-30s %10.1fms%n%-30s %10d%n%-30s %10.1fMB",
+                        "STRUCTURE phase (mean)", (double) structureTime / DEPLOYS,
+                        "zip directory cache hits", hits / DEPLOYS,
+                        "heap used when deployed", (double) heapUsed / DEPLOYS / (1024 * 1024)));
+            } finally {
+                removeCacheProperty();
+            }
+        }
+        log.info(sb.toString());
+    }
+
+    private static byte[][] createWars() throws Exception {
+        final byte[][] wars = new byte[WARS][];
+        final byte[][] jars = new byte[JARS][];
+        for (int j = 0; j < JARS; j++) {
+            final JavaArchive jar = ShrinkWrap.create(JavaArchive.class, "lib" + j + ".jar");
+            for (int e = 0; e < ENTRIES; e++) {
+                jar.addAsResource(new StringAsset("lib" + j + " entry " + e), "org/jboss/benchmark/lib" + j + "/p" + e % 10 + "/entry" + e + ".txt");
+            }
+            jars[j] = toBytes(jar.as(ZipExporter.class).exportAsInputStream());
+        }
+        for (int w = 0; w < WARS; w++) {
+            final WebArchive war = ShrinkWrap.create(WebArchive.class, getDeploymentName(w));
+            war.addAsWebResource(new StringAsset("web" + w), "index.html");
+            for (int j = 0; j < JARS; j++) {
+                // the same bytes in every WAR
+                war.add(new ByteArrayAsset(jars[j]), "WEB-INF/lib/lib" + j + ".jar");
+            }
+            wars[w] = toBytes(war.as(ZipExporter.class).exportAsInputStream());
+        }
+        return wars;
+    }
+
+    private static byte[] toBytes(final InputStream in) throws Exception {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            final byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+        } finally {
+            in.close();
+        }
+        return out.toByteArray();
+    }
+
+    private static String getDeploymentName(final int index) {
+        return "zip-benchmark" + index + ".war";
+    }
+
+    private void setCacheEnabled(final boolean enabled) throws Exception {
+        final ModelNode add = new ModelNode();
+        add.get(OP).set(ADD);
+        add.get(OP_ADDR).add(SYSTEM_PROPERTY, CACHE_PROPERTY);
+        add.get(VALUE).set(Boolean.toString(enabled));
+        execute(OperationBuilder.create(add).build());
+    }
+
+    private void removeCacheProperty() throws Exception {
+        final ModelNode remove = new ModelNode();
+        remove.get(OP).set(REMOVE);
+        remove.get(OP_ADDR).add(SYSTEM_PROPERTY, CACHE_PROPERTY);
+        execute(OperationBuilder.create(remove).build());
+    }
+
+    private long readHeapUsed() throws Exception {
+        final ModelNode gc = new ModelNode();
+        gc.get(OP).set("gc");
+        gc.get(OP_ADDR).add("core-service", "platform-mbean").add("type", "memory");
+        execute(OperationBuilder.create(gc).build());
+        final ModelNode read = new ModelNode();
+        read.get(OP).set(READ_ATTRIBUTE_OPERATION);
+        read.get(OP_ADDR).add("core-service", "platform-mbean").add("type", "memory");
+        read.get(NAME).set("heap-memory-usage");
+        return execute(OperationBuilder.create(read).build()).get("used").asLong();
+    }
+
+    private void deploy(final int index, final byte[] war) throws Exception {
+        final ModelNode add = new ModelNode();
+        add.get(OP).set(ADD);
+        add.get(OP_ADDR).add(DEPLOYMENT, getDeploymentName(index));
+        add.get(CONTENT).add().get(INPUT_STREAM_INDEX).set(0);
+        add.get(ENABLED).set(true);
+        final OperationBuilder builder = new OperationBuilder(add, true);
+        builder.addInputStream(new ByteArrayInputStream(war));
+        execute(builder.build());
+    }
+
+    private void undeploy(final int index) throws Exception {
+        final ModelNode remove = new ModelNode();
+        remove.get(OP).set(REMOVE);
+        remove.get(OP_ADDR).add(DEPLOYMENT, getDeploymentName(index));
+        execute(OperationBuilder.create(remove).build());
+    }
+
+    private ModelNode readDeploymentProfile(final int index) throws Exception {
+        final ModelNode read = new ModelNode();
+        read.get(OP).set(READ_DEPLOYMENT_PROFILE);
+        read.get(OP_ADDR).add(DEPLOYMENT, getDeploymentName(index));
+        return execute(OperationBuilder.create(read).build());
+    }
+
+    private ModelNode execute(final Operation operation) throws Exception {
+        final ModelNode result = managementClient.getControllerClient().execute(operation);
+        Assert.assertEquals(result.get(FAILURE_DESCRIPTION).asString(), SUCCESS, result.get(OUTCOME).asString());
+        return result.get(RESULT);
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.test.benchmark.deployment.classes;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import javax.servlet.ServletContext;
+import javax.servlet.ServletContextEvent;
+import javax.servlet.ServletContextListener;
+import javax.servlet.annotation.WebListener;
+
+/**
+ * Loads every class packaged in {@code WEB-INF/classes} when the web module starts, and stores the number of classes
+ * loaded and the time it took in a context attribute, for the {@link ClassLoadingServlet} to report.
+ */
+@WebListener
+public class ClassLoadingListener implements ServletContextListener {
+
+    static final String RESULT = ClassLoadingListener.class.getName() + ".result";
+
+    private static final String CLASSES = "/WEB-INF/classes/";
+
+    @Override
+    public void contextInitialized(final ServletContextEvent sce) {
+        final ServletContext context = sce.getServletContext();
+        final List<String> classNames = new ArrayList<String>();
+        collectClassNames(context, CLASSES, classNames);
+        final ClassLoader classLoader = getClass().getClassLoader();
+        int loaded = 0;
+        int failed = 0;
+        final long start = System.nanoTime();
+        for (String className : classNames) {
+            try {
+                classLoader.loadClass(className);
+                loaded++;
+            } catch (ClassNotFoundException e) {
+                failed++;
+            } catch (LinkageError e) {
+                failed++;
+            }
+        }
+        final long elapsed = System.nanoTime() - start;
+        context.setAttribute(RESULT, "loaded=" + loaded + " failed=" + failed + " nanos=" + elapsed);
+    }
+
+    @Override
+    public void contextDestroyed(final ServletContextEvent sce) {
+    }
+
+    private static void collectClassNames(final ServletContext context, final String path, final List<String> classNames) {
+        final Set<String> paths = context.getResourcePaths(path);
+        if (paths == null) {
+            return;
+        }
+        for (String child : paths) {
+            if (child.endsWith("/")) {
+                collectClassNames(context, child, classNames);
+            } else if (child.endsWith(".class")) {
+                classNames.add(child.substring(CLASSES.length(), child.length() - ".class".length()).replace('/', '.'));
+            }
+        }
+    }
+}
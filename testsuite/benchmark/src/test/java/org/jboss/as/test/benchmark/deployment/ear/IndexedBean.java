@@ -0,0 +1,55 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.test.benchmark.deployment.ear;
+
+import javax.annotation.ManagedBean;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+
+/**
+ * A managed bean with lifecycle callbacks and an injection, deployed in every web module of the EAR deployment
+ * benchmark.
+ */
+@ManagedBean("IndexedBean")
+public class IndexedBean {
+
+    @Resource(lookup = "java:module/ModuleName")
+    private String moduleName;
+
+    private String prefix;
+
+    @PostConstruct
+    public void init() {
+        prefix = "Hello from " + moduleName + " to ";
+    }
+
+    @PreDestroy
+    public void destroy() {
+        prefix = null;
+    }
+
+    public String greet(final String name) {
+        return prefix + name;
+    }
+}
@@ -0,0 +1,221 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.test.benchmark.management;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ADD;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.CHILD_TYPE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.COMPOSITE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILURE_DESCRIPTION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OUTCOME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_ATTRIBUTE_OPERATION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_CHILDREN_NAMES_OPERATION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.REMOVE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RESULT;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.STEPS;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUCCESS;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SYSTEM_PROPERTY;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.VALUE;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.http.HttpResponse;
+import org.jboss.arquillian.container.test.api.RunAsClient;
+import org.jboss.arquillian.junit.Arquillian;
+import org.jboss.as.arquillian.api.ContainerResource;
+import org.jboss.as.arquillian.container.ManagementClient;
+import org.jboss.as.test.benchmark.LatencyRecorder;
+import org.jboss.as.test.integration.management.util.HttpMgmtProxy;
+import org.jboss.dmr.ModelNode;
+import org.jboss.logging.Logger;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * Measures recursive reads of a large model over the HTTP management API, with the result of a single recursive
+ * {@code read-resource} operation and with the resource tree streamed one resource at a time ({@code json.stream}).
+ * <p/>
+ * The model is inflated with system properties so that the result of the read holds about 100k nodes. Besides the
+ * latency, the peak usage of the heap memory pools of the server is reported for each scenario. The number of system
+ * properties and of reads can be changed with the {@code benchmark.management.read.resources} and
+ * {@code benchmark.management.read.count} system properties.
+ */
+@RunAsClient
+@RunWith(Arquillian.class)
+public class HttpReadResourceBenchmarkTestCase {
+
+    private static final Logger log = Logger.getLogger(HttpReadResourceBenchmarkTestCase.class);
+
+    private static final int MGMT_PORT = 9990;
+    private static final String MGMT_CTX = "/management";
+    private static final String PROPERTY_PREFIX = "read-benchmark-";
+    private static final int BATCH_SIZE = 1000;
+
+    private static final int RESOURCES = Integer.getInteger("benchmark.management.read.resources", 50000);
+    private static final int READS = Integer.getInteger("benchmark.management.read.count", 5);
+    private static final int WARMUP = 2;
+
+    @ContainerResource
+    private ManagementClient managementClient;
+
+    private HttpMgmtProxy httpMgmt;
+
+    @Before
+    public void setUp() throws Exception {
+        httpMgmt = new HttpMgmtProxy(new URL("http", managementClient.getMgmtAddress(), MGMT_PORT, MGMT_CTX));
+        for (int i = 0; i < RESOURCES; i += BATCH_SIZE) {
+            final ModelNode composite = createComposite();
+            for (int j = i; j < Math.min(RESOURCES, i + BATCH_SIZE); j++) {
+                final ModelNode add = composite.get(STEPS).add();
+                add.get(OP).set(ADD);
+                add.get(OP_ADDR).add(SYSTEM_PROPERTY, PROPERTY_PREFIX + j);
+                add.get(VALUE).set("value-" + j);
+            }
+            execute(composite);
+        }
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        for (int i = 0; i < RESOURCES; i += BATCH_SIZE) {
+            final ModelNode composite = createComposite();
+            for (int j = i; j < Math.min(RESOURCES, i + BATCH_SIZE); j++) {
+                final ModelNode remove = composite.get(STEPS).add();
+                remove.get(OP).set(REMOVE);
+                remove.get(OP_ADDR).add(SYSTEM_PROPERTY, PROPERTY_PREFIX + j);
+            }
+            managementClient.getControllerClient().execute(composite);
+        }
+    }
+
+    @Test
+    public void testRecursiveRead() throws Exception {
+        final StringBuilder sb = new StringBuilder("HTTP recursive read benchmark results:");
+        sb.append(runScenario("single operation", "?operation=resource&recursive=true"));
+        sb.append(runScenario("streamed", "?operation=resource&recursive=true&json.stream=true"));
+        log.info(sb.toString());
+    }
+
+    private String runScenario(final String scenario, final String request) throws Exception {
+        for (int i = 0; i < WARMUP; i++) {
+            read(request);
+        }
+        resetPeakHeapUsage();
+        final LatencyRecorder recorder = new LatencyRecorder(String.format("read %s, %d resources", scenario, RESOURCES), READS);
+        long bytes = 0;
+        recorder.start();
+        for (int i = 0; i < READS; i++) {
+            final long start = System.nanoTime();
+            bytes = read(request);
+            recorder.record(System.nanoTime() - start);
+        }
+        recorder.stop();
+        return String.format("%n%s%n%-50s %10dKiB%n%-50s %10dMiB", recorder, "response size", bytes / 1024,
+                "peak heap pool usage", getPeakHeapUsage() / 1024 / 1024);
+    }
+
+    private long read(final String request) throws Exception {
+        final HttpResponse response = httpMgmt.sendGetRequest(request);
+        Assert.assertEquals(200, response.getStatusLine().getStatusCode());
+        final InputStream in = response.getEntity().getContent();
+        try {
+            final byte[] buffer = new byte[8192];
+            long count = 0;
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                count += read;
+            }
+            return count;
+        } finally {
+            in.close();
+        }
+    }
+
+    private void resetPeakHeapUsage() throws IOException {
+        for (String pool : getHeapPools()) {
+            final ModelNode reset = new ModelNode();
+            reset.get(OP).set("reset-peak-usage");
+            reset.get(OP_ADDR).set(getPoolAddress(pool));
+            execute(reset);
+        }
+    }
+
+    private long getPeakHeapUsage() throws IOException {
+        long used = 0;
+        for (String pool : getHeapPools()) {
+            final ModelNode read = new ModelNode();
+            read.get(OP).set(READ_ATTRIBUTE_OPERATION);
+            read.get(OP_ADDR).set(getPoolAddress(pool));
+            read.get(NAME).set("peak-usage");
+            used += execute(read).get("used").asLong();
+        }
+        return used;
+    }
+
+    private List<String> getHeapPools() throws IOException {
+        final ModelNode readNames = new ModelNode();
+        readNames.get(OP).set(READ_CHILDREN_NAMES_OPERATION);
+        readNames.get(OP_ADDR).add("core-service", "platform-mbean").add("type", "memory-pool");
+        readNames.get(CHILD_TYPE).set("name");
+        final List<String> pools = new ArrayList<String>();
+        for (ModelNode name : execute(readNames).asList()) {
+            final ModelNode readType = new ModelNode();
+            readType.get(OP).set(READ_ATTRIBUTE_OPERATION);
+            readType.get(OP_ADDR).set(getPoolAddress(name.asString()));
+            readType.get(NAME).set("type");
+            if ("HEAP".equals(execute(readType).asString())) {
+                pools.add(name.asString());
+            }
+        }
+        return pools;
+    }
+
+    private static ModelNode getPoolAddress(final String pool) {
+        final ModelNode address = new ModelNode();
+        address.add("core-service", "platform-mbean").add("type", "memory-pool").add("name", pool);
+        return address;
+    }
+
+    private static ModelNode createComposite() {
+        final ModelNode composite = new ModelNode();
+        composite.get(OP).set(COMPOSITE);
+        composite.get(OP_ADDR).setEmptyList();
+        composite.get(STEPS).setEmptyList();
+        return composite;
+    }
+
+    private ModelNode execute(final ModelNode operation) throws IOException {
+        final ModelNode result = managementClient.getControllerClient().execute(operation);
+        Assert.assertEquals(result.get(FAILURE_DESCRIPTION).asString(), SUCCESS, result.get(OUTCOME).asString());
+        return result.get(RESULT);
+    }
+}
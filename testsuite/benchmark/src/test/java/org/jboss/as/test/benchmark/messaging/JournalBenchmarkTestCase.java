@@ -0,0 +1,301 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.test.benchmark.messaging;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ADD;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILURE_DESCRIPTION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OUTCOME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.REMOVE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUCCESS;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.UNDEFINE_ATTRIBUTE_OPERATION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.VALUE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.WRITE_ATTRIBUTE_OPERATION;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.jms.BytesMessage;
+import javax.jms.DeliveryMode;
+import javax.jms.MessageConsumer;
+import javax.jms.MessageProducer;
+import javax.jms.Queue;
+import javax.jms.QueueConnection;
+import javax.jms.QueueSession;
+import javax.jms.Session;
+
+import org.hornetq.api.core.TransportConfiguration;
+import org.hornetq.api.jms.HornetQJMSClient;
+import org.hornetq.api.jms.JMSFactoryType;
+import org.hornetq.core.remoting.impl.netty.NettyConnectorFactory;
+import org.hornetq.jms.client.HornetQConnectionFactory;
+import org.jboss.arquillian.container.test.api.RunAsClient;
+import org.jboss.arquillian.junit.Arquillian;
+import org.jboss.as.arquillian.api.ContainerResource;
+import org.jboss.as.arquillian.container.ManagementClient;
+import org.jboss.as.test.benchmark.LatencyRecorder;
+import org.jboss.as.test.integration.common.jms.JMSOperations;
+import org.jboss.as.test.integration.common.jms.JMSOperationsProvider;
+import org.jboss.as.test.shared.TestSuiteEnvironment;
+import org.jboss.as.test.shared.TimeoutUtil;
+import org.jboss.dmr.ModelNode;
+import org.jboss.logging.Logger;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * Measures the throughput and latency percentiles of the messaging subsystem for several journal configurations
+ * and a paging scenario.
+ * <p/>
+ * Each journal configuration is applied with the management API on the {@code default} HornetQ server followed by
+ * a reload of the server. Persistent and non-persistent messages of several sizes are then sent and received from
+ * a remote client. The number of messages per run can be changed with the {@code benchmark.messaging.count}
+ * system property.
+ */
+@RunAsClient
+@RunWith(Arquillian.class)
+public class JournalBenchmarkTestCase {
+
+    private static final Logger log = Logger.getLogger(JournalBenchmarkTestCase.class);
+
+    private static final int MESSAGE_COUNT = Integer.getInteger("benchmark.messaging.count", 2000);
+    private static final int[] MESSAGE_SIZES = { 1024, 10 * 1024, 100 * 1024 };
+
+    private static final String QUEUE_NAME = "benchmarkQueue";
+    private static final String QUEUE_ADDRESS = "jms.queue." + QUEUE_NAME;
+
+    private static final String[] JOURNAL_ATTRIBUTES = { "journal-type", "journal-buffer-size", "journal-buffer-timeout", "journal-max-io" };
+
+    /**
+     * The journal configurations to compare. Attributes that are not listed are reset to their default value.
+     */
+    private static final JournalConfiguration[] JOURNAL_CONFIGURATIONS = {
+            new JournalConfiguration("NIO").set("journal-type", "NIO"),
+            new JournalConfiguration("NIO, 1MiB buffer, 1ms timeout")
+                    .set("journal-type", "NIO")
+                    .set("journal-buffer-size", "1048576")
+                    .set("journal-buffer-timeout", "1000000"),
+            // HornetQ falls back to NIO if libaio is not available on the host
+            new JournalConfiguration("ASYNCIO")
+                    .set("journal-type", "ASYNCIO"),
+            new JournalConfiguration("ASYNCIO, max-io 1000")
+                    .set("journal-type", "ASYNCIO")
+                    .set("journal-max-io", "1000"),
+    };
+
+    @ContainerResource
+    private ManagementClient managementClient;
+
+    private final List<LatencyRecorder> results = new ArrayList<LatencyRecorder>();
+
+    @After
+    public void restoreConfiguration() throws Exception {
+        for (String attribute : JOURNAL_ATTRIBUTES) {
+            execute(undefineAttribute(getServerAddress(), attribute));
+        }
+        reload();
+    }
+
+    @Test
+    public void testJournalConfigurations() throws Exception {
+        for (JournalConfiguration configuration : JOURNAL_CONFIGURATIONS) {
+            for (String attribute : JOURNAL_ATTRIBUTES) {
+                final String value = configuration.attributes.get(attribute);
+                execute(value == null ? undefineAttribute(getServerAddress(), attribute) : writeAttribute(getServerAddress(), attribute, value));
+            }
+            reload();
+            runScenario(configuration.name);
+        }
+        report();
+    }
+
+    @Test
+    public void testPaging() throws Exception {
+        // keep at most 1MiB of messages in memory for the benchmark queue, the rest is paged to disk
+        final ModelNode addressSetting = getServerAddress().add("address-setting", QUEUE_ADDRESS);
+        final ModelNode add = new ModelNode();
+        add.get(OP).set(ADD);
+        add.get(OP_ADDR).set(addressSetting);
+        add.get("address-full-policy").set("PAGE");
+        add.get("max-size-bytes").set(1024 * 1024);
+        add.get("page-size-bytes").set(512 * 1024);
+        execute(add);
+        try {
+            runScenario("paging");
+        } finally {
+            final ModelNode remove = new ModelNode();
+            remove.get(OP).set(REMOVE);
+            remove.get(OP_ADDR).set(addressSetting);
+            execute(remove);
+        }
+        report();
+    }
+
+    private void runScenario(final String scenario) throws Exception {
+        final JMSOperations jmsOperations = JMSOperationsProvider.getInstance(managementClient);
+        jmsOperations.createJmsQueue(QUEUE_NAME, "java:jboss/exported/queue/" + QUEUE_NAME);
+        final HornetQConnectionFactory connectionFactory = createConnectionFactory();
+        try {
+            final QueueConnection connection = connectionFactory.createQueueConnection("guest", "guest");
+            try {
+                connection.start();
+                final QueueSession session = connection.createQueueSession(false, Session.AUTO_ACKNOWLEDGE);
+                final Queue queue = HornetQJMSClient.createQueue(QUEUE_NAME);
+                for (int size : MESSAGE_SIZES) {
+                    for (int deliveryMode : new int[] { DeliveryMode.PERSISTENT, DeliveryMode.NON_PERSISTENT }) {
+                        final String name = String.format("%s, %dKiB, %s", scenario, size / 1024,
+                                deliveryMode == DeliveryMode.PERSISTENT ? "persistent" : "non-persistent");
+                        send(session, queue, name, size, deliveryMode);
+                        receive(session, queue, name);
+                    }
+                }
+            } finally {
+                connection.close();
+            }
+        } finally {
+            connectionFactory.close();
+            jmsOperations.removeJmsQueue(QUEUE_NAME);
+            jmsOperations.close();
+        }
+    }
+
+    private void send(final QueueSession session, final Queue queue, final String name, final int size, final int deliveryMode) throws Exception {
+        final MessageProducer producer = session.createProducer(queue);
+        producer.setDeliveryMode(deliveryMode);
+        final byte[] payload = new byte[size];
+        final LatencyRecorder recorder = new LatencyRecorder("send    " + name, MESSAGE_COUNT);
+        recorder.start();
+        for (int i = 0; i < MESSAGE_COUNT; i++) {
+            final BytesMessage message = session.createBytesMessage();
+            message.writeBytes(payload);
+            final long start = System.nanoTime();
+            producer.send(message);
+            recorder.record(System.nanoTime() - start);
+        }
+        recorder.stop();
+        producer.close();
+        results.add(recorder);
+    }
+
+    private void receive(final QueueSession session, final Queue queue, final String name) throws Exception {
+        final MessageConsumer consumer = session.createConsumer(queue);
+        final LatencyRecorder recorder = new LatencyRecorder("receive " + name, MESSAGE_COUNT);
+        recorder.start();
+        for (int i = 0; i < MESSAGE_COUNT; i++) {
+            final long start = System.nanoTime();
+            Assert.assertNotNull("message " + i + " was not received", consumer.receive(TimeoutUtil.adjust(5000)));
+            recorder.record(System.nanoTime() - start);
+        }
+        recorder.stop();
+        consumer.close();
+        results.add(recorder);
+    }
+
+    private void report() {
+        final StringBuilder report = new StringBuilder("Messaging journal benchmark results:");
+        for (LatencyRecorder result : results) {
+            report.append('\n').append(result);
+        }
+        log.info(report);
+        results.clear();
+    }
+
+    private static HornetQConnectionFactory createConnectionFactory() {
+        final Map<String, Object> params = new HashMap<String, Object>();
+        params.put("host", TestSuiteEnvironment.getServerAddress());
+        final TransportConfiguration transportConfiguration = new TransportConfiguration(NettyConnectorFactory.class.getName(), params);
+        final HornetQConnectionFactory connectionFactory = HornetQJMSClient.createConnectionFactoryWithoutHA(JMSFactoryType.QUEUE_CF, transportConfiguration);
+        // measure the round trip of every send, including the journal sync for persistent messages
+        connectionFactory.setBlockOnDurableSend(true);
+        connectionFactory.setBlockOnNonDurableSend(true);
+        return connectionFactory;
+    }
+
+    private static ModelNode getServerAddress() {
+        final ModelNode address = new ModelNode();
+        address.add("subsystem", "messaging");
+        address.add("hornetq-server", "default");
+        return address;
+    }
+
+    private static ModelNode writeAttribute(final ModelNode address, final String name, final String value) {
+        final ModelNode operation = new ModelNode();
+        operation.get(OP).set(WRITE_ATTRIBUTE_OPERATION);
+        operation.get(OP_ADDR).set(address);
+        operation.get(NAME).set(name);
+        operation.get(VALUE).set(value);
+        return operation;
+    }
+
+    private static ModelNode undefineAttribute(final ModelNode address, final String name) {
+        final ModelNode operation = new ModelNode();
+        operation.get(OP).set(UNDEFINE_ATTRIBUTE_OPERATION);
+        operation.get(OP_ADDR).set(address);
+        operation.get(NAME).set(name);
+        return operation;
+    }
+
+    private ModelNode execute(final ModelNode operation) throws Exception {
+        final ModelNode result = managementClient.getControllerClient().execute(operation);
+        Assert.assertEquals(result.get(FAILURE_DESCRIPTION).asString(), SUCCESS, result.get(OUTCOME).asString());
+        return result;
+    }
+
+    private void reload() throws Exception {
+        final ModelNode operation = new ModelNode();
+        operation.get(OP).set("reload");
+        execute(operation);
+        final long deadline = System.currentTimeMillis() + TimeoutUtil.adjust(60000);
+        while (System.currentTimeMillis() < deadline) {
+            Thread.sleep(500);
+            try {
+                if (managementClient.isServerInRunningState()) {
+                    return;
+                }
+            } catch (Throwable t) {
+                // the server is still reloading
+            }
+        }
+        Assert.fail("Server did not reload");
+    }
+
+    private static class JournalConfiguration {
+        private final String name;
+        private final Map<String, String> attributes = new HashMap<String, String>();
+
+        JournalConfiguration(final String name) {
+            this.name = name;
+        }
+
+        JournalConfiguration set(final String attribute, final String value) {
+            attributes.put(attribute, value);
+            return this;
+        }
+    }
+}
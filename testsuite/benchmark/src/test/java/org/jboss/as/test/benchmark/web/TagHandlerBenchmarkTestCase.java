@@ -0,0 +1,237 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.test.benchmark.web;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ADD;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.CONTENT;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.DEPLOYMENT;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ENABLED;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILURE_DESCRIPTION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.INPUT_STREAM_INDEX;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OUTCOME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.REMOVE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RESULT;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUCCESS;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SYSTEM_PROPERTY;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.VALUE;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.jboss.arquillian.container.test.api.RunAsClient;
+import org.jboss.arquillian.junit.Arquillian;
+import org.jboss.as.arquillian.api.ContainerResource;
+import org.jboss.as.arquillian.container.ManagementClient;
+import org.jboss.as.controller.client.Operation;
+import org.jboss.as.controller.client.OperationBuilder;
+import org.jboss.as.test.benchmark.LatencyRecorder;
+import org.jboss.as.test.benchmark.web.tags.AllocationCounter;
+import org.jboss.as.test.benchmark.web.tags.InjectedTag;
+import org.jboss.as.test.benchmark.web.tags.PlainTag;
+import org.jboss.as.test.integration.common.HttpRequest;
+import org.jboss.dmr.ModelNode;
+import org.jboss.logging.Logger;
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.shrinkwrap.api.asset.StringAsset;
+import org.jboss.shrinkwrap.api.exporter.ZipExporter;
+import org.jboss.shrinkwrap.api.spec.WebArchive;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * Measures the throughput of a JSP using many classic tag handlers, half of them with a resource injection, and the
+ * bytes allocated by the request thread to render it, with and without the pooling of the injected tag handlers by
+ * the web injection container ({@code org.jboss.as.web.tagHandlerPoolSize}).
+ * <p/>
+ * The deployment disables the tag handler pooling of the JSP engine, so that every tag handler instance goes through
+ * the injection container, and the server has to be started with
+ * {@code -Dorg.apache.jasper.Constants.USE_INSTANCE_MANAGER_FOR_TAGS=true} so that the JSP engine asks the container to
+ * create the tag handlers, as it can only hand out a pooled instance then. The number of injected tag handlers reused
+ * from the pool is reported with the results. The number of requests, of client threads, of tags rendered by the page and the size of
+ * the pool can be changed with the {@code benchmark.web.tags.requests}, {@code benchmark.web.tags.threads},
+ * {@code benchmark.web.tags.iterations} and {@code benchmark.web.tags.pool} system properties.
+ */
+@RunAsClient
+@RunWith(Arquillian.class)
+public class TagHandlerBenchmarkTestCase {
+
+    private static final Logger log = Logger.getLogger(TagHandlerBenchmarkTestCase.class);
+
+    private static final String DEPLOYMENT_NAME = "tag-benchmark.war";
+    private static final String POOL_SIZE_PROPERTY = "org.jboss.as.web.tagHandlerPoolSize";
+    private static final Pattern ALLOCATED = Pattern.compile("allocated=(-?\\d+)");
+    private static final Pattern CREATED = Pattern.compile("created=(\\d+)");
+
+    private static final int REQUESTS = Integer.getInteger("benchmark.web.tags.requests", 5000);
+    private static final int THREADS = Integer.getInteger("benchmark.web.tags.threads", 8);
+    private static final int ITERATIONS = Integer.getInteger("benchmark.web.tags.iterations", 100);
+    private static final int POOL_SIZE = Integer.getInteger("benchmark.web.tags.pool", 32);
+    private static final int WARMUP = 500;
+
+    @ContainerResource
+    private ManagementClient managementClient;
+
+    @Test
+    public void testTagHeavyPage() throws Exception {
+        final WebArchive war = createWar();
+        final StringBuilder sb = new StringBuilder("Tag handler benchmark results:");
+        sb.append(runScenario(war, "not pooled", 0));
+        sb.append(runScenario(war, "pooled", POOL_SIZE));
+        log.info(sb.toString());
+    }
+
+    private String runScenario(final WebArchive war, final String scenario, final int poolSize) throws Exception {
+        setPoolSize(poolSize);
+        deploy(war);
+        try {
+            final String url = "http://" + managementClient.getMgmtAddress() + ":8080/tag-benchmark/tags.jsp";
+            String page = null;
+            for (int i = 0; i < WARMUP; i++) {
+                page = request(url);
+            }
+            final long createdBefore = parse(page, CREATED);
+            final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+            try {
+                final List<Future<Long>> results = new ArrayList<Future<Long>>();
+                final List<LatencyRecorder> recorders = new ArrayList<LatencyRecorder>();
+                for (int t = 0; t < THREADS; t++) {
+                    final LatencyRecorder recorder = new LatencyRecorder(scenario, REQUESTS / THREADS);
+                    recorders.add(recorder);
+                    results.add(executor.submit(new Callable<Long>() {
+                        @Override
+                        public Long call() throws Exception {
+                            long allocated = 0;
+                            recorder.start();
+                            for (int i = 0; i < REQUESTS / THREADS; i++) {
+                                final long start = System.nanoTime();
+                                allocated += parse(request(url), ALLOCATED);
+                                recorder.record(System.nanoTime() - start);
+                            }
+                            recorder.stop();
+                            return allocated;
+                        }
+                    }));
+                }
+                long allocated = 0;
+                for (Future<Long> result : results) {
+                    allocated += result.get();
+                }
+                final LatencyRecorder total = new LatencyRecorder(String.format("%s, %d threads, %d tags per page",
+                        scenario, THREADS, ITERATIONS * 2), REQUESTS);
+                for (LatencyRecorder recorder : recorders) {
+                    total.merge(recorder);
+                }
+                // the tags rendered by the measured requests and by one more request reading the instance count
+                final long rendered = (total.getCount() + 1L) * ITERATIONS;
+                final long reused = rendered - (parse(request(url), CREATED) - createdBefore);
+                return String.format("%n%s%n%-50s %10d%n%-50s %10d of %d", total, "allocated bytes per page",
+                        allocated / total.getCount(), "injected tag handlers reused", reused, rendered);
+            } finally {
+                executor.shutdownNow();
+            }
+        } finally {
+            undeploy();
+            setPoolSize(0);
+        }
+    }
+
+    private static String request(final String url) throws Exception {
+        return HttpRequest.get(url, 10, TimeUnit.SECONDS);
+    }
+
+    private static long parse(final String page, final Pattern pattern) {
+        final Matcher matcher = pattern.matcher(page);
+        Assert.assertTrue(page, matcher.find());
+        return Long.parseLong(matcher.group(1));
+    }
+
+    private static WebArchive createWar() {
+        final WebArchive war = ShrinkWrap.create(WebArchive.class, DEPLOYMENT_NAME);
+        war.addClasses(InjectedTag.class, PlainTag.class, AllocationCounter.class);
+        war.addAsWebInfResource(new StringAsset("<taglib xmlns=\"http://java.sun.com/xml/ns/javaee\" version=\"2.1\">"
+                + "<tlib-version>1.0</tlib-version><short-name>b</short-name><uri>http://jboss.org/benchmark/tags</uri>"
+                + "<tag><name>injected</name><tag-class>" + InjectedTag.class.getName() + "</tag-class><body-content>empty</body-content></tag>"
+                + "<tag><name>plain</name><tag-class>" + PlainTag.class.getName() + "</tag-class><body-content>empty</body-content></tag>"
+                + "</taglib>"), "benchmark.tld");
+        war.addAsWebInfResource(new StringAsset("<web-app xmlns=\"http://java.sun.com/xml/ns/javaee\" version=\"3.0\">"
+                + "<servlet><servlet-name>jsp</servlet-name><servlet-class>org.apache.jasper.servlet.JspServlet</servlet-class>"
+                + "<init-param><param-name>enablePooling</param-name><param-value>false</param-value></init-param>"
+                + "<load-on-startup>3</load-on-startup></servlet>"
+                + "</web-app>"), "web.xml");
+        war.add(new StringAsset("<%@ taglib uri=\"http://jboss.org/benchmark/tags\" prefix=\"b\" %>"
+                + "<% long allocated = " + AllocationCounter.class.getName() + ".getAllocatedBytes(); %>"
+                + "<% for (int i = 0; i < " + ITERATIONS + "; i++) { %><b:injected/><b:plain/><% } %>"
+                + "allocated=<%= " + AllocationCounter.class.getName() + ".getAllocatedBytes() - allocated %>"
+                + " created=<%= " + InjectedTag.class.getName() + ".getCreated() %>"), "tags.jsp");
+        return war;
+    }
+
+    private void setPoolSize(final int poolSize) throws Exception {
+        final ModelNode remove = new ModelNode();
+        remove.get(OP).set(REMOVE);
+        remove.get(OP_ADDR).add(SYSTEM_PROPERTY, POOL_SIZE_PROPERTY);
+        // the property does not exist when the benchmark starts
+        managementClient.getControllerClient().execute(remove);
+        if (poolSize > 0) {
+            final ModelNode add = new ModelNode();
+            add.get(OP).set(ADD);
+            add.get(OP_ADDR).add(SYSTEM_PROPERTY, POOL_SIZE_PROPERTY);
+            add.get(VALUE).set(poolSize);
+            execute(OperationBuilder.create(add).build());
+        }
+    }
+
+    private void deploy(final WebArchive war) throws Exception {
+        final ModelNode add = new ModelNode();
+        add.get(OP).set(ADD);
+        add.get(OP_ADDR).add(DEPLOYMENT, DEPLOYMENT_NAME);
+        add.get(CONTENT).add().get(INPUT_STREAM_INDEX).set(0);
+        add.get(ENABLED).set(true);
+        final OperationBuilder builder = new OperationBuilder(add, true);
+        builder.addInputStream(war.as(ZipExporter.class).exportAsInputStream());
+        execute(builder.build());
+    }
+
+    private void undeploy() throws Exception {
+        final ModelNode remove = new ModelNode();
+        remove.get(OP).set(REMOVE);
+        remove.get(OP_ADDR).add(DEPLOYMENT, DEPLOYMENT_NAME);
+        execute(OperationBuilder.create(remove).build());
+    }
+
+    private ModelNode execute(final Operation operation) throws Exception {
+        final ModelNode result = managementClient.getControllerClient().execute(operation);
+        Assert.assertEquals(result.get(FAILURE_DESCRIPTION).asString(), SUCCESS, result.get(OUTCOME).asString());
+        return result.get(RESULT);
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.test.benchmark.web.tags;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.Resource;
+import javax.servlet.jsp.JspException;
+import javax.servlet.jsp.tagext.TagSupport;
+
+/**
+ * A classic tag handler with a resource injection, so that its instances are created and injected by the web
+ * injection container.
+ */
+public class InjectedTag extends TagSupport {
+
+    private static final AtomicLong CREATED = new AtomicLong();
+
+    @Resource(lookup = "java:module/ModuleName")
+    private String moduleName;
+
+    public InjectedTag() {
+        CREATED.incrementAndGet();
+    }
+
+    /**
+     * @return the number of instances created since the deployment was started
+     */
+    public static long getCreated() {
+        return CREATED.get();
+    }
+
+    @Override
+    public int doStartTag() throws JspException {
+        try {
+            pageContext.getOut().write(moduleName);
+        } catch (IOException e) {
+            throw new JspException(e);
+        }
+        return SKIP_BODY;
+    }
+}
@@ -25,7 +25,12 @@ import java.net.URL;
 import java.util.List;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.zip.GZIPInputStream;
 
+import org.apache.http.Header;
+import org.apache.http.HttpResponse;
+import org.apache.http.message.BasicHeader;
+import org.apache.http.util.EntityUtils;
 import org.jboss.arquillian.container.test.api.Deployment;
 import org.jboss.arquillian.container.test.api.RunAsClient;
 import org.jboss.arquillian.junit.Arquillian;
@@ -39,7 +44,10 @@ import org.junit.BeforeClass;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 /**
@@ -166,4 +174,44 @@ public class HttpGetMgmtOpsTestCase {
         assertTrue(node.has("description"));
         assertTrue(node.has("request-properties"));
     }
+
+    @Test
+    public void testConditionalReadResource() throws Exception {
+
+        URL mgmtURL = new URL(url.getProtocol(), url.getHost(), MGMT_PORT, MGMT_CTX);
+        HttpMgmtProxy httpMgmt = new HttpMgmtProxy(mgmtURL);
+
+        HttpResponse response = httpMgmt.sendGetRequest("/subsystem/web?operation=resource&recursive=true");
+        assertEquals(200, response.getStatusLine().getStatusCode());
+        EntityUtils.toString(response.getEntity());
+        Header etag = response.getFirstHeader("ETag");
+        assertNotNull(etag);
+
+        // the resource did not change, it is not sent again
+        response = httpMgmt.sendGetRequest("/subsystem/web?operation=resource&recursive=true",
+                new BasicHeader("If-None-Match", etag.getValue()));
+        assertEquals(304, response.getStatusLine().getStatusCode());
+        assertNull(response.getEntity());
+
+        // a different representation of the resource has a different tag
+        response = httpMgmt.sendGetRequest("/subsystem/web?operation=resource&recursive=true&json.pretty=true",
+                new BasicHeader("If-None-Match", etag.getValue()));
+        assertEquals(200, response.getStatusLine().getStatusCode());
+        EntityUtils.toString(response.getEntity());
+    }
+
+    @Test
+    public void testCompressedReadResource() throws Exception {
+
+        URL mgmtURL = new URL(url.getProtocol(), url.getHost(), MGMT_PORT, MGMT_CTX);
+        HttpMgmtProxy httpMgmt = new HttpMgmtProxy(mgmtURL);
+
+        HttpResponse response = httpMgmt.sendGetRequest("/subsystem/web?operation=resource&recursive=true",
+                new BasicHeader("Accept-Encoding", "gzip"));
+        assertEquals(200, response.getStatusLine().getStatusCode());
+        assertEquals("gzip", response.getFirstHeader("Content-Encoding").getValue());
+
+        ModelNode node = ModelNode.fromJSONStream(new GZIPInputStream(response.getEntity().getContent()));
+        assertTrue(node.has("virtual-server"));
+    }
 }
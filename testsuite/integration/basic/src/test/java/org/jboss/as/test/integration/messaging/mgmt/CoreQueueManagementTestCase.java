@@ -135,6 +135,49 @@ public class CoreQueueManagementTestCase {
         Assert.assertEquals(2, result.asInt());
     }
 
+    @Test
+    public void testListMessagesPaged() throws Exception {
+
+        ClientProducer producer = session.createProducer(getQueueName());
+        for (int i = 0; i < 5; i++) {
+            ClientMessage message = session.createMessage(ClientMessage.TEXT_TYPE, false);
+            message.putIntProperty("index", i);
+            message.putBytesProperty("bytes", new byte[] {1, 2, 3});
+            producer.send(message);
+        }
+
+        ModelNode all = execute(getQueueOperation("list-messages"), true);
+        Assert.assertEquals(5, all.asList().size());
+
+        Set<Long> ids = new HashSet<Long>();
+        for (int offset = 0; offset < 5; offset += 2) {
+            ModelNode page = execute(getPagedQueueOperation("list-messages", offset, 2), true);
+            Assert.assertEquals(Math.min(2, 5 - offset), page.asList().size());
+            for (int i = 0; i < page.asList().size(); i++) {
+                ModelNode message = page.get(i);
+                Assert.assertEquals(offset + i, message.get("index").asInt());
+                // the same layout as the messages listed without paging
+                Assert.assertEquals(all.get(offset + i).keys(), message.keys());
+                // bytes are encoded in Base64
+                Assert.assertEquals("AQID", message.get("bytes").asString());
+                ids.add(message.get("messageID").asLong());
+            }
+        }
+        Assert.assertEquals(5, ids.size());
+
+        ModelNode json = execute(getPagedQueueOperation("list-messages-as-json", 3, 10), true);
+        Assert.assertEquals(ModelType.STRING, json.getType());
+        ModelNode page = ModelNode.fromJSONString(json.asString());
+        Assert.assertEquals(2, page.asList().size());
+        Assert.assertEquals(3, page.get(0).get("index").asInt());
+
+        ModelNode filtered = getPagedQueueOperation("list-messages", 1, 10);
+        filtered.get("filter").set("index > 1");
+        page = execute(filtered, true);
+        Assert.assertEquals(2, page.asList().size());
+        Assert.assertEquals(3, page.get(0).get("index").asInt());
+    }
+
     @Test
     public void testMessageCounters() throws Exception {
 
@@ -339,6 +382,13 @@ public class CoreQueueManagementTestCase {
         return org.jboss.as.controller.operations.common.Util.getEmptyOperation(operationName, address);
     }
 
+    private ModelNode getPagedQueueOperation(String operationName, int offset, int limit) {
+        final ModelNode operation = getQueueOperation(operationName);
+        operation.get("offset").set(offset);
+        operation.get("limit").set(limit);
+        return operation;
+    }
+
     private ModelNode execute(final ModelNode op, final boolean expectSuccess) throws IOException {
         ModelNode response = managementClient.getControllerClient().execute(op);
         final String outcome = response.get("outcome").asString();
@@ -163,6 +163,46 @@ public class JMSQueueManagementTestCase {
         Assert.assertEquals(2, result.asInt());
     }
 
+    @Test
+    public void testListMessagesPaged() throws Exception {
+
+        MessageProducer producer = session.createProducer(queue);
+        for (int i = 0; i < 5; i++) {
+            Message message = session.createTextMessage(String.valueOf(i));
+            message.setIntProperty("index", i);
+            producer.send(message);
+        }
+
+        ModelNode all = execute(getQueueOperation("list-messages"), true);
+        Assert.assertEquals(5, all.asList().size());
+
+        Set<String> ids = new HashSet<String>();
+        for (int offset = 0; offset < 5; offset += 2) {
+            ModelNode page = execute(getPagedQueueOperation("list-messages", offset, 2), true);
+            Assert.assertEquals(Math.min(2, 5 - offset), page.asList().size());
+            for (int i = 0; i < page.asList().size(); i++) {
+                ModelNode message = page.get(i);
+                Assert.assertEquals(offset + i, message.get("index").asInt());
+                // the same layout as the messages listed without paging
+                Assert.assertEquals(all.get(offset + i).keys(), message.keys());
+                ids.add(message.get("JMSMessageID").asString());
+            }
+        }
+        Assert.assertEquals(5, ids.size());
+
+        ModelNode json = execute(getPagedQueueOperation("list-messages-as-json", 3, 10), true);
+        Assert.assertEquals(ModelType.STRING, json.getType());
+        ModelNode page = ModelNode.fromJSONString(json.asString());
+        Assert.assertEquals(2, page.asList().size());
+        Assert.assertEquals(3, page.get(0).get("index").asInt());
+
+        ModelNode selected = getPagedQueueOperation("list-messages", 1, 10);
+        selected.get("filter").set("index > 1");
+        page = execute(selected, true);
+        Assert.assertEquals(2, page.asList().size());
+        Assert.assertEquals(3, page.get(0).get("index").asInt());
+    }
+
     @Test
     public void testMessageCounters() throws Exception {
 
@@ -388,6 +428,13 @@ public class JMSQueueManagementTestCase {
         return org.jboss.as.controller.operations.common.Util.getEmptyOperation(operationName, address);
     }
 
+    private ModelNode getPagedQueueOperation(String operationName, int offset, int limit) {
+        final ModelNode operation = getQueueOperation(operationName);
+        operation.get("offset").set(offset);
+        operation.get("limit").set(limit);
+        return operation;
+    }
+
     private ModelNode execute(final ModelNode op, final boolean expectSuccess) throws IOException {
         ModelNode response = managementClient.getControllerClient().execute(op);
         final String outcome = response.get("outcome").asString();
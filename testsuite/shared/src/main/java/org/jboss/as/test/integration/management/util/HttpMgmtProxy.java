@@ -23,6 +23,7 @@ package org.jboss.as.test.integration.management.util;
 
 import java.net.URL;
 
+import org.apache.http.Header;
 import org.apache.http.HttpResponse;
 import org.apache.http.auth.AuthScope;
 import org.apache.http.auth.UsernamePasswordCredentials;
@@ -66,6 +67,14 @@ public class HttpMgmtProxy {
         return ModelNode.fromJSONString(str);
     }
 
+    public HttpResponse sendGetRequest(String cmd, Header... headers) throws Exception {
+
+        HttpGet get = new HttpGet(url.toURI().toString() + cmd);
+        get.setHeaders(headers);
+
+        return httpClient.execute(get, httpContext);
+    }
+
     public ModelNode sendPostCommand(String address, String operation) throws Exception {
         return sendPostCommand(getOpNode(address, operation));
     }
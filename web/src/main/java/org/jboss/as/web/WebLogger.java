@@ -22,6 +22,8 @@
 
 package org.jboss.as.web;
 
+import java.io.File;
+
 import org.jboss.logging.BasicLogger;
 import org.jboss.logging.Cause;
 import org.jboss.logging.LogMessage;
@@ -154,4 +156,16 @@ public interface WebLogger extends BasicLogger {
     @LogMessage(level = INFO)
     @Message(id = 18224, value = "Unregister web context: %s")
     void unregisterWebapp(String webappPath);
+
+    @LogMessage(level = DEBUG)
+    @Message(id = 18225, value = "Failed to read the cached TLD metadata %s, the TLD will be parsed")
+    void failedToReadCachedTld(@Cause Throwable cause, File file);
+
+    @LogMessage(level = WARN)
+    @Message(id = 18226, value = "Failed to store TLD metadata in %s, parsed TLDs will only be cached in memory")
+    void failedToStoreCachedTld(@Cause Throwable cause, File cacheDir);
+
+    @LogMessage(level = WARN)
+    @Message(id = 18227, value = "Invalid value %s of the %s system property, injected tag handlers will not be pooled")
+    void invalidTagHandlerPoolSize(String value, String propertyName);
 }
@@ -0,0 +1,216 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.web.deployment;
+
+import static org.jboss.as.web.WebLogger.WEB_LOGGER;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.URL;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.ConcurrentMap;
+
+import org.jboss.as.controller.HashUtil;
+import org.jboss.metadata.parser.jsp.TldMetaDataParser;
+import org.jboss.metadata.web.spec.TldMetaData;
+
+/**
+ * A cache of parsed TLDs shared by the web deployments, keyed by the SHA-1 hash of the TLD content.
+ * <p/>
+ * Most web applications bundle the same tag libraries, so the metadata of a TLD parsed for one deployment is reused
+ * by every other deployment packaging the same file. The metadata is also stored serialized in a directory, so that
+ * the TLDs are not parsed again when the server is restarted. The cached metadata is shared, it must not be modified.
+ * <p/>
+ * The serialized metadata is stored in a sub directory named after the version of the metadata parser and classes, so
+ * that TLDs are parsed again, rather than deserialized into different classes, once the metadata library is upgraded.
+ */
+final class TldMetaDataCache {
+
+    /** The name of the cache in the deployment profile */
+    static final String CACHE_NAME = "tld";
+
+    private static final String SUFFIX = ".ser";
+    /** Changes when the content of the cache files changes */
+    private static final String FORMAT = "1";
+
+    private final ConcurrentMap<String, TldMetaData> tlds = new ConcurrentReferenceHashMap<String, TldMetaData>(64,
+            ConcurrentReferenceHashMap.DEFAULT_LOAD_FACTOR, ConcurrentReferenceHashMap.DEFAULT_CONCURRENCY_LEVEL,
+            ConcurrentReferenceHashMap.ReferenceType.STRONG, ConcurrentReferenceHashMap.ReferenceType.SOFT, null);
+    private final File cacheDir;
+    private volatile boolean persistent;
+
+    /**
+     * Construct a new instance.
+     *
+     * @param baseDir the directory storing the cached metadata, or {@code null} to only cache the metadata in memory
+     */
+    TldMetaDataCache(final File baseDir) {
+        this(baseDir, getMetaDataVersion());
+    }
+
+    TldMetaDataCache(final File baseDir, final String metaDataVersion) {
+        this.cacheDir = baseDir == null ? null : new File(baseDir, metaDataVersion);
+        this.persistent = baseDir != null;
+    }
+
+    /**
+     * Get the metadata of a TLD, from memory or else from the cache directory.
+     *
+     * @param hash the hash of the TLD content
+     * @return the metadata, or {@code null} if the TLD was not cached
+     */
+    TldMetaData get(final String hash) {
+        TldMetaData tld = tlds.get(hash);
+        if (tld == null && persistent) {
+            tld = read(new File(cacheDir, hash + SUFFIX));
+            if (tld != null) {
+                final TldMetaData existing = tlds.putIfAbsent(hash, tld);
+                if (existing != null) {
+                    tld = existing;
+                }
+            }
+        }
+        return tld;
+    }
+
+    /**
+     * Cache the metadata of a TLD.
+     *
+     * @param hash the hash of the TLD content
+     * @param tld the metadata parsed from the TLD
+     * @return the cached metadata, which is not {@code tld} if the same TLD was cached concurrently
+     */
+    TldMetaData put(final String hash, final TldMetaData tld) {
+        final TldMetaData existing = tlds.putIfAbsent(hash, tld);
+        if (existing != null) {
+            return existing;
+        }
+        if (persistent) {
+            write(new File(cacheDir, hash + SUFFIX), tld);
+        }
+        return tld;
+    }
+
+    /**
+     * Compute the key of a TLD in the cache.
+     *
+     * @param content the TLD content
+     * @return the hex encoded SHA-1 hash of the content
+     */
+    static String hash(final byte[] content) {
+        try {
+            return HashUtil.bytesToHexString(MessageDigest.getInstance("SHA-1").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Identifies the version of the TLD metadata parser and classes by the location and modification time of their
+     * class files.
+     *
+     * @return the hex encoded SHA-1 hash of the version
+     */
+    static String getMetaDataVersion() {
+        final StringBuilder sb = new StringBuilder(FORMAT);
+        for (Class<?> clazz : new Class<?>[] {TldMetaDataParser.class, TldMetaData.class}) {
+            final String className = clazz.getName();
+            final URL resource = clazz.getResource(className.substring(className.lastIndexOf('.') + 1) + ".class");
+            sb.append(';').append(resource);
+            if (resource != null) {
+                try {
+                    sb.append(':').append(resource.openConnection().getLastModified());
+                } catch (IOException e) {
+                    // the location alone then identifies the version
+                }
+            }
+        }
+        try {
+            return hash(sb.toString().getBytes("UTF-8"));
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private TldMetaData read(final File file) {
+        if (!file.exists()) {
+            return null;
+        }
+        try {
+            final ObjectInputStream input = new ObjectInputStream(new BufferedInputStream(new FileInputStream(file)));
+            try {
+                return (TldMetaData) input.readObject();
+            } finally {
+                safeClose(input);
+            }
+        } catch (Exception e) {
+            // stale or corrupt, the TLD is parsed again and the file replaced
+            WEB_LOGGER.failedToReadCachedTld(e, file);
+            file.delete();
+            return null;
+        }
+    }
+
+    private void write(final File file, final TldMetaData tld) {
+        File tempFile = null;
+        try {
+            if (!cacheDir.exists() && !cacheDir.mkdirs() && !cacheDir.exists()) {
+                throw new IOException(cacheDir.getAbsolutePath());
+            }
+            tempFile = File.createTempFile(file.getName(), null, cacheDir);
+            final ObjectOutputStream output = new ObjectOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)));
+            try {
+                output.writeObject(tld);
+            } finally {
+                safeClose(output);
+            }
+            if (!tempFile.renameTo(file)) {
+                throw new IOException(file.getAbsolutePath());
+            }
+        } catch (IOException e) {
+            // keep caching in memory only rather than failing again for every TLD
+            persistent = false;
+            WEB_LOGGER.failedToStoreCachedTld(e, cacheDir);
+            if (tempFile != null) {
+                tempFile.delete();
+            }
+        }
+    }
+
+    private static void safeClose(final Closeable closeable) {
+        try {
+            closeable.close();
+        } catch (IOException e) {
+            // Ignore
+        }
+    }
+}
@@ -23,12 +23,26 @@ package org.jboss.as.web.deployment;
 
 import static org.jboss.as.web.WebMessages.MESSAGES;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.security.AccessController;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.xml.stream.XMLInputFactory;
 import javax.xml.stream.XMLStreamException;
@@ -36,8 +50,10 @@ import javax.xml.stream.XMLStreamReader;
 
 import org.jboss.as.ee.structure.DeploymentType;
 import org.jboss.as.ee.structure.DeploymentTypeMarker;
+import org.jboss.as.server.ServerEnvironment;
 import org.jboss.as.server.deployment.Attachments;
 import org.jboss.as.server.deployment.DeploymentPhaseContext;
+import org.jboss.as.server.deployment.DeploymentProfile;
 import org.jboss.as.server.deployment.DeploymentUnit;
 import org.jboss.as.server.deployment.DeploymentUnitProcessingException;
 import org.jboss.as.server.deployment.DeploymentUnitProcessor;
@@ -45,9 +61,14 @@ import org.jboss.as.server.deployment.module.ResourceRoot;
 import org.jboss.metadata.parser.jsp.TldMetaDataParser;
 import org.jboss.metadata.parser.util.NoopXMLResolver;
 import org.jboss.metadata.web.spec.TldMetaData;
+import org.jboss.threads.JBossThreadFactory;
+import org.jboss.vfs.VFSUtils;
 import org.jboss.vfs.VirtualFile;
 
 /**
+ * Parses the TLDs of a web deployment. The TLDs of a deployment are parsed concurrently, and their metadata is looked
+ * up first in a {@link TldMetaDataCache} shared by the deployments.
+ *
  * @author Remy Maucherat
  */
 public class TldParsingDeploymentProcessor implements DeploymentUnitProcessor {
@@ -58,6 +79,14 @@ public class TldParsingDeploymentProcessor implements DeploymentUnitProcessor {
     private static final String CLASSES = "classes";
     private static final String LIB = "lib";
     private static final String IMPLICIT_TLD = "implicit.tld";
+    private static final String CACHE_DIR = "web" + File.separator + "tlds";
+
+    private final TldMetaDataCache cache;
+
+    public TldParsingDeploymentProcessor() {
+        final String dataDir = SecurityActions.getSystemProperty(ServerEnvironment.SERVER_DATA_DIR, null);
+        cache = new TldMetaDataCache(dataDir == null ? null : new File(dataDir, CACHE_DIR));
+    }
 
     @Override
     public void deploy(DeploymentPhaseContext phaseContext) throws DeploymentUnitProcessingException {
@@ -73,6 +102,7 @@ public class TldParsingDeploymentProcessor implements DeploymentUnitProcessor {
         }
         Map<String, TldMetaData> tlds = new HashMap<String, TldMetaData>();
         tldsMetaData.setTlds(tlds);
+        Map<String, VirtualFile> tldFiles = new LinkedHashMap<String, VirtualFile>();
         // TLDs are located in WEB-INF or any subdir (except the top level "classes" and "lib")
         // and in JARs from WEB-INF/lib, in META-INF or any subdir
         List<ResourceRoot> resourceRoots = deploymentUnit.getAttachmentList(Attachments.RESOURCE_ROOTS);
@@ -80,7 +110,7 @@ public class TldParsingDeploymentProcessor implements DeploymentUnitProcessor {
             if (resourceRoot.getRoot().getName().toLowerCase(Locale.ENGLISH).endsWith(".jar")) {
                 VirtualFile webFragment = resourceRoot.getRoot().getChild(META_INF);
                 if (webFragment.exists() && webFragment.isDirectory()) {
-                    processTlds(deploymentRoot, webFragment.getChildren(), tlds);
+                    processTlds(deploymentRoot, webFragment.getChildren(), tldFiles);
                 }
             }
         }
@@ -95,19 +125,20 @@ public class TldParsingDeploymentProcessor implements DeploymentUnitProcessor {
                         throw new DeploymentUnitProcessingException(MESSAGES.tldFileNotContainedInRoot(file.getPathName(),
                                 deploymentRoot.getPathName()), e);
                     }
-                    tlds.put("/" + pathNameRelativeToRoot, parseTLD(file));
+                    tldFiles.put("/" + pathNameRelativeToRoot, file);
                 } else if (file.isDirectory() && !CLASSES.equals(file.getName()) && !LIB.equals(file.getName())) {
-                    processTlds(deploymentRoot, file.getChildren(), tlds);
+                    processTlds(deploymentRoot, file.getChildren(), tldFiles);
                 }
             }
         }
+        parseTLDs(deploymentUnit, tldFiles, tlds);
     }
 
     @Override
     public void undeploy(final DeploymentUnit context) {
     }
 
-    private void processTlds(VirtualFile root, List<VirtualFile> files, Map<String, TldMetaData> tlds)
+    private void processTlds(VirtualFile root, List<VirtualFile> files, Map<String, VirtualFile> tlds)
     throws DeploymentUnitProcessingException {
         for (VirtualFile file : files) {
             if (file.isFile() && file.getName().toLowerCase(Locale.ENGLISH).endsWith(TLD)) {
@@ -118,22 +149,94 @@ public class TldParsingDeploymentProcessor implements DeploymentUnitProcessor {
                     throw new DeploymentUnitProcessingException(MESSAGES.tldFileNotContainedInRoot(file.getPathName(),
                             root.getPathName()), e);
                 }
-                tlds.put("/" + pathNameRelativeToRoot, parseTLD(file));
+                tlds.put("/" + pathNameRelativeToRoot, file);
             } else if (file.isDirectory()) {
                 processTlds(root, file.getChildren(), tlds);
             }
         }
     }
 
-    private TldMetaData parseTLD(VirtualFile tld)
+    private void parseTLDs(DeploymentUnit deploymentUnit, Map<String, VirtualFile> files, Map<String, TldMetaData> tlds)
+    throws DeploymentUnitProcessingException {
+        final AtomicInteger lookups = new AtomicInteger();
+        final AtomicInteger hits = new AtomicInteger();
+        final Map<String, Future<TldMetaData>> futures = new LinkedHashMap<String, Future<TldMetaData>>();
+        // the pool only lives for the deployment, so its threads do not outlive the subsystem
+        final ExecutorService executor = files.size() > 1 ? createExecutor(files.size()) : null;
+        try {
+            for (final Map.Entry<String, VirtualFile> entry : files.entrySet()) {
+                final FutureTask<TldMetaData> task = new FutureTask<TldMetaData>(new Callable<TldMetaData>() {
+                    public TldMetaData call() throws DeploymentUnitProcessingException {
+                        return getTLD(entry.getValue(), lookups, hits);
+                    }
+                });
+                if (executor != null) {
+                    executor.execute(task);
+                } else {
+                    task.run();
+                }
+                futures.put(entry.getKey(), task);
+            }
+            for (Map.Entry<String, Future<TldMetaData>> entry : futures.entrySet()) {
+                tlds.put(entry.getKey(), entry.getValue().get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DeploymentUnitProcessingException(e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof DeploymentUnitProcessingException) {
+                throw (DeploymentUnitProcessingException) e.getCause();
+            }
+            throw new DeploymentUnitProcessingException(e.getCause());
+        } finally {
+            for (Future<TldMetaData> future : futures.values()) {
+                future.cancel(true);
+            }
+            if (executor != null) {
+                executor.shutdown();
+            }
+        }
+        final DeploymentProfile profile = deploymentUnit.getAttachment(Attachments.DEPLOYMENT_PROFILE);
+        if (profile != null && lookups.get() > 0) {
+            profile.cacheAccessed(TldMetaDataCache.CACHE_NAME, hits.get(), lookups.get() - hits.get());
+        }
+    }
+
+    private static ExecutorService createExecutor(final int tlds) {
+        final int threads = Math.min(tlds, Runtime.getRuntime().availableProcessors());
+        final JBossThreadFactory threadFactory = new JBossThreadFactory(new ThreadGroup("TldParser-threads"), Boolean.TRUE, null,
+                "%G - %t", null, null, AccessController.getContext());
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<Runnable>(), threadFactory);
+    }
+
+    private TldMetaData getTLD(VirtualFile tld, AtomicInteger lookups, AtomicInteger hits)
     throws DeploymentUnitProcessingException {
         if (IMPLICIT_TLD.equals(tld.getName())) {
             // Implicit TLDs are different from regular TLDs
             return new TldMetaData();
         }
-        InputStream is = null;
+        final byte[] content;
+        try {
+            final InputStream is = tld.openStream();
+            final ByteArrayOutputStream os = new ByteArrayOutputStream();
+            VFSUtils.copyStreamAndClose(is, os);
+            content = os.toByteArray();
+        } catch (IOException e) {
+            throw new DeploymentUnitProcessingException(MESSAGES.failToParseXMLDescriptor(tld), e);
+        }
+        final String hash = TldMetaDataCache.hash(content);
+        lookups.incrementAndGet();
+        final TldMetaData cached = cache.get(hash);
+        if (cached != null) {
+            hits.incrementAndGet();
+            return cached;
+        }
+        return cache.put(hash, parseTLD(tld, new ByteArrayInputStream(content)));
+    }
+
+    private TldMetaData parseTLD(VirtualFile tld, InputStream is)
+    throws DeploymentUnitProcessingException {
         try {
-            is = tld.openStream();
             final XMLInputFactory inputFactory = XMLInputFactory.newInstance();
             inputFactory.setXMLResolver(NoopXMLResolver.create());
             XMLStreamReader xmlReader = inputFactory.createXMLStreamReader(is);
@@ -141,16 +244,6 @@ public class TldParsingDeploymentProcessor implements DeploymentUnitProcessor {
         } catch (XMLStreamException e) {
             throw new DeploymentUnitProcessingException(MESSAGES.failToParseXMLDescriptor(tld, e.getLocation().getLineNumber(),
                     e.getLocation().getColumnNumber()));
-        } catch (IOException e) {
-            throw new DeploymentUnitProcessingException(MESSAGES.failToParseXMLDescriptor(tld), e);
-        } finally {
-            try {
-                if (is != null) {
-                    is.close();
-                }
-            } catch (IOException e) {
-                // Ignore
-            }
         }
     }
 
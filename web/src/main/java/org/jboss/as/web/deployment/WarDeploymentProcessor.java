@@ -22,6 +22,7 @@
 
 package org.jboss.as.web.deployment;
 
+import static org.jboss.as.web.WebLogger.WEB_LOGGER;
 import static org.jboss.as.web.WebMessages.MESSAGES;
 
 import java.io.IOException;
@@ -176,7 +177,7 @@ public class WarDeploymentProcessor implements DeploymentUnitProcessor {
         // Hook for post processing the web context (e.g. for SIP)
         contextFactory.postProcessContext(deploymentUnit, webContext);
 
-        final WebInjectionContainer injectionContainer = new WebInjectionContainer(module.getClassLoader());
+        final WebInjectionContainer injectionContainer = new WebInjectionContainer(module.getClassLoader(), getTagHandlerPoolSize());
 
         // see AS7-2077
         // basically we want to ignore components that have failed for whatever reason
@@ -408,4 +409,17 @@ public class WarDeploymentProcessor implements DeploymentUnitProcessor {
         }
         return securityDomain;
     }
+
+    private static int getTagHandlerPoolSize() {
+        final String poolSize = SecurityActions.getSystemProperty(WebInjectionContainer.TAG_HANDLER_POOL_SIZE, null);
+        if (poolSize == null || poolSize.length() == 0) {
+            return 0;
+        }
+        try {
+            return Math.max(Integer.parseInt(poolSize), 0);
+        } catch (NumberFormatException e) {
+            WEB_LOGGER.invalidTagHandlerPoolSize(poolSize, WebInjectionContainer.TAG_HANDLER_POOL_SIZE);
+            return 0;
+        }
+    }
 }
@@ -42,9 +42,9 @@ import org.jboss.as.server.deployment.module.ModuleSpecification;
 import org.jboss.as.server.deployment.module.MountHandle;
 import org.jboss.as.server.deployment.module.ResourceRoot;
 import org.jboss.as.server.deployment.module.TempFileProviderService;
+import org.jboss.as.server.deployment.module.ZipDirectoryCache;
 import org.jboss.as.web.SharedTldsMetaDataBuilder;
 import org.jboss.metadata.web.spec.WebMetaData;
-import org.jboss.vfs.VFS;
 import org.jboss.vfs.VirtualFile;
 import org.jboss.vfs.VirtualFileFilter;
 import org.jboss.vfs.VisitorAttributes;
@@ -109,7 +109,7 @@ public class WarStructureDeploymentProcessor implements DeploymentUnitProcessor
         final MountHandle mountHandle = deploymentResourceRoot.getMountHandle();
         try {
             // add standard resource roots, this should eventually replace ClassPathEntry
-            final List<ResourceRoot> resourceRoots = createResourceRoots(deploymentRoot, mountHandle);
+            final List<ResourceRoot> resourceRoots = createResourceRoots(deploymentUnit, deploymentRoot, mountHandle);
             for (ResourceRoot root : resourceRoots) {
                 deploymentUnit.addToAttachmentList(Attachments.RESOURCE_ROOTS, root);
             }
@@ -133,12 +133,13 @@ public class WarStructureDeploymentProcessor implements DeploymentUnitProcessor
     /**
      * Create the resource roots for a .war deployment
      *
+     * @param deploymentUnit the deployment unit
      * @param deploymentRoot the deployment root
      * @param mountHandle    the root mount handle
      * @return the resource roots
      * @throws IOException for any error
      */
-    private List<ResourceRoot> createResourceRoots(final VirtualFile deploymentRoot, MountHandle mountHandle) throws IOException, DeploymentUnitProcessingException {
+    private List<ResourceRoot> createResourceRoots(final DeploymentUnit deploymentUnit, final VirtualFile deploymentRoot, MountHandle mountHandle) throws IOException, DeploymentUnitProcessingException {
         final List<ResourceRoot> entries = new ArrayList<ResourceRoot>();
         // WEB-INF classes
         final VirtualFile webinfClasses = deploymentRoot.getChild(WEB_INF_CLASSES);
@@ -153,7 +154,7 @@ public class WarStructureDeploymentProcessor implements DeploymentUnitProcessor
             final List<VirtualFile> archives = webinfLib.getChildren(DEFAULT_WEB_INF_LIB_FILTER);
             for (final VirtualFile archive : archives) {
                 try {
-                    final Closeable closable = VFS.mountZip(archive, archive, TempFileProviderService.provider());
+                    final Closeable closable = ZipDirectoryCache.mountZip(archive, archive, TempFileProviderService.provider(), deploymentUnit);
                     final ResourceRoot webInfArchiveRoot = new ResourceRoot(archive.getName(), archive, new MountHandle(closable));
                     ModuleRootMarker.mark(webInfArchiveRoot);
                     entries.add(webInfArchiveRoot);
@@ -123,6 +123,7 @@ public class WebDeploymentService implements Service<StandardContext> {
         } catch (Exception e) {
             WEB_LOGGER.destroyContextFailed(e);
         }
+        injectionContainer.releasePooledInstances();
     }
 
     @Override
@@ -28,6 +28,7 @@ import org.jboss.as.web.deployment.component.ComponentInstantiator;
 import org.jboss.msc.service.ServiceName;
 
 import javax.naming.NamingException;
+import javax.servlet.jsp.tagext.Tag;
 import java.lang.reflect.InvocationTargetException;
 import java.util.Collections;
 import java.util.EnumSet;
@@ -35,23 +36,62 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * The web injection container.
+ * <p/>
+ * Only the instances of the classes having a {@link ComponentInstantiator} are tracked, so that their
+ * {@link ManagedReference} can be released when they are destroyed; destroying any other instance is a no-op. If a
+ * tag handler pool size is given, the injected instances of classic tag handlers are not released when destroyed but
+ * kept in a pool per class, and handed out again instead of creating and injecting a new instance. Simple tag
+ * handlers must not be reused and are never pooled.
+ * <p/>
+ * Only the instances created by this container are pooled, as only the {@code newInstance} methods taking a class or
+ * a class name can hand out a pooled instance. The JSP engine creates its tag handlers through
+ * {@link #newInstance(String, ClassLoader)} if its {@code org.apache.jasper.Constants.USE_INSTANCE_MANAGER_FOR_TAGS}
+ * system property is {@code true}; otherwise it creates them itself and only has them injected by
+ * {@link #newInstance(Object)}, and they are released when destroyed.
  *
  * @author Emanuel Muckenhuber
  */
 public class WebInjectionContainer implements InstanceManager {
 
+    /**
+     * The system property specifying the maximum number of pooled instances per injected tag handler class, 0 to
+     * disable the pooling.
+     */
+    public static final String TAG_HANDLER_POOL_SIZE = "org.jboss.as.web.tagHandlerPoolSize";
+
     private static final ThreadLocal<WebInjectionContainer> CURRENT_INJECTION_CONTAINER = new ThreadLocal<WebInjectionContainer>();
 
     private final ClassLoader classloader;
     private final Map<String, ComponentInstantiator> webComponentInstantiatorMap = new HashMap<String, ComponentInstantiator>();
     private final Set<ServiceName> serviceNames = new HashSet<ServiceName>();
     private final Map<Object, ManagedReference> instanceMap;
+    // the classes of the instances which may be in the instance map
+    private final Set<Class<?>> trackedClasses = Collections.newSetFromMap(new ConcurrentHashMap<Class<?>, Boolean>());
+    private final int tagHandlerPoolSize;
+    // keyed by class name, like the instantiators
+    private final ConcurrentMap<String, BlockingQueue<ManagedReference>> tagHandlerPools = new ConcurrentHashMap<String, BlockingQueue<ManagedReference>>();
 
     public WebInjectionContainer(ClassLoader classloader) {
+        this(classloader, 0);
+    }
+
+    /**
+     * Construct a new instance.
+     *
+     * @param classloader the class loader of the web application
+     * @param tagHandlerPoolSize the maximum number of pooled instances per injected tag handler class, 0 to disable
+     *                           the pooling
+     */
+    public WebInjectionContainer(ClassLoader classloader, int tagHandlerPoolSize) {
         this.classloader = classloader;
+        this.tagHandlerPoolSize = tagHandlerPoolSize;
         this.instanceMap = new ConcurrentReferenceHashMap<Object, ManagedReference>
                 (256, ConcurrentReferenceHashMap.DEFAULT_LOAD_FACTOR,
                         Runtime.getRuntime().availableProcessors(), ConcurrentReferenceHashMap.ReferenceType.STRONG,
@@ -64,9 +104,17 @@ public class WebInjectionContainer implements InstanceManager {
     }
 
     public void destroyInstance(Object instance) throws IllegalAccessException, InvocationTargetException {
+        final Class<?> clazz = instance.getClass();
+        if (!trackedClasses.contains(clazz)) {
+            // not injected, nothing to release
+            return;
+        }
         final ManagedReference reference = instanceMap.remove(instance);
         if (reference != null) {
-            reference.release();
+            final BlockingQueue<ManagedReference> pool = reference instanceof PoolableReference ? tagHandlerPools.get(clazz.getName()) : null;
+            if (pool == null || !pool.offer(reference)) {
+                reference.release();
+            }
         }
     }
 
@@ -77,7 +125,7 @@ public class WebInjectionContainer implements InstanceManager {
     public Object newInstance(Class<?> clazz) throws IllegalAccessException, InvocationTargetException, NamingException, InstantiationException {
         final ComponentInstantiator instantiator = webComponentInstantiatorMap.get(clazz.getName());
         if (instantiator != null) {
-            return instantiate(instantiator);
+            return instantiate(clazz.getName(), instantiator);
         }
         return clazz.newInstance();
     }
@@ -85,28 +133,82 @@ public class WebInjectionContainer implements InstanceManager {
     public void newInstance(Object arg0) throws IllegalAccessException, InvocationTargetException, NamingException {
         final ComponentInstantiator instantiator = webComponentInstantiatorMap.get(arg0.getClass().getName());
         if (instantiator != null) {
-            instanceMap.put(arg0, instantiator.initializeInstance(arg0));
+            // created by the caller, so it cannot be handed out again
+            track(arg0, instantiator.initializeInstance(arg0));
         }
     }
 
     public Object newInstance(String className, ClassLoader cl) throws IllegalAccessException, InvocationTargetException, NamingException, InstantiationException, ClassNotFoundException {
         final ComponentInstantiator instantiator = webComponentInstantiatorMap.get(className);
         if (instantiator != null) {
-            return instantiate(instantiator);
+            return instantiate(className, instantiator);
         }
         return cl.loadClass(className).newInstance();
     }
 
-    private Object instantiate(ComponentInstantiator instantiator) {
-        ManagedReference reference = instantiator.getReference();
-        instanceMap.put(reference.getInstance(), reference);
-        return reference.getInstance();
+    private Object instantiate(String className, ComponentInstantiator instantiator) {
+        final BlockingQueue<ManagedReference> pool = tagHandlerPools.get(className);
+        final ManagedReference pooled = pool == null ? null : pool.poll();
+        if (pooled != null) {
+            instanceMap.put(pooled.getInstance(), pooled);
+            return pooled.getInstance();
+        }
+        final ManagedReference reference = instantiator.getReference();
+        final Object instance = reference.getInstance();
+        final Class<?> clazz = instance.getClass();
+        if (tagHandlerPoolSize > 0 && Tag.class.isAssignableFrom(clazz)) {
+            if (pool == null) {
+                tagHandlerPools.putIfAbsent(className, new ArrayBlockingQueue<ManagedReference>(tagHandlerPoolSize));
+            }
+            track(instance, new PoolableReference(reference));
+        } else {
+            track(instance, reference);
+        }
+        return instance;
+    }
+
+    private void track(Object instance, ManagedReference reference) {
+        trackedClasses.add(instance.getClass());
+        instanceMap.put(instance, reference);
+    }
+
+    /**
+     * Release the pooled tag handler instances, once the web application is stopped.
+     */
+    public void releasePooledInstances() {
+        for (BlockingQueue<ManagedReference> pool : tagHandlerPools.values()) {
+            ManagedReference reference;
+            while ((reference = pool.poll()) != null) {
+                reference.release();
+            }
+        }
     }
 
     public Set<ServiceName> getServiceNames() {
         return Collections.unmodifiableSet(serviceNames);
     }
 
+    /**
+     * The reference of an instance created by this container, which may be pooled when it is destroyed.
+     */
+    private static final class PoolableReference implements ManagedReference {
+        private final ManagedReference reference;
+
+        private PoolableReference(final ManagedReference reference) {
+            this.reference = reference;
+        }
+
+        @Override
+        public void release() {
+            reference.release();
+        }
+
+        @Override
+        public Object getInstance() {
+            return reference.getInstance();
+        }
+    }
+
     public static void setCurrentInjectionContainer(final WebInjectionContainer webInjectionContainer) {
         CURRENT_INJECTION_CONTAINER.set(webInjectionContainer);
     }
@@ -0,0 +1,138 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.web.deployment;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.Writer;
+
+import javax.xml.stream.XMLInputFactory;
+
+import org.jboss.metadata.parser.jsp.TldMetaDataParser;
+import org.jboss.metadata.parser.util.NoopXMLResolver;
+import org.jboss.metadata.web.spec.TldMetaData;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the {@link TldMetaDataCache}.
+ */
+public class TldMetaDataCacheTestCase {
+
+    private static final String TLD = "<taglib xmlns=\"http://java.sun.com/xml/ns/javaee\" version=\"2.1\">"
+            + "<tlib-version>1.0</tlib-version><short-name>test</short-name><uri>http://test/tags</uri>"
+            + "<tag><name>hello</name><tag-class>org.jboss.test.HelloTag</tag-class><body-content>empty</body-content></tag>"
+            + "</taglib>";
+
+    private File cacheDir;
+
+    @Before
+    public void createCacheDir() {
+        cacheDir = new File(new File("target"), "tld-cache-test");
+        cacheDir.mkdirs();
+    }
+
+    @After
+    public void deleteCacheDir() {
+        delete(cacheDir);
+    }
+
+    @Test
+    public void testSameContentIsShared() throws Exception {
+        final TldMetaDataCache cache = new TldMetaDataCache(null);
+        final String hash = TldMetaDataCache.hash(TLD.getBytes("UTF-8"));
+        assertEquals(hash, TldMetaDataCache.hash(TLD.getBytes("UTF-8")));
+        assertNull(cache.get(hash));
+
+        final TldMetaData tld = parse(TLD);
+        assertSame(tld, cache.put(hash, tld));
+        assertSame(tld, cache.get(hash));
+        // a concurrently parsed copy of the same TLD is replaced by the cached one
+        assertSame(tld, cache.put(hash, parse(TLD)));
+        assertNull(cache.get(TldMetaDataCache.hash("<taglib/>".getBytes("UTF-8"))));
+    }
+
+    @Test
+    public void testCacheSurvivesRestart() throws Exception {
+        final String hash = TldMetaDataCache.hash(TLD.getBytes("UTF-8"));
+        final TldMetaData tld = parse(TLD);
+        new TldMetaDataCache(cacheDir).put(hash, tld);
+
+        final TldMetaData cached = new TldMetaDataCache(cacheDir).get(hash);
+        assertNotNull(cached);
+        assertNotSame(tld, cached);
+        assertEquals("http://test/tags", cached.getUri());
+        assertEquals(1, cached.getTags().size());
+        assertEquals("org.jboss.test.HelloTag", cached.getTags().get(0).getTagClass());
+    }
+
+    @Test
+    public void testCorruptFileIsIgnored() throws Exception {
+        final String hash = TldMetaDataCache.hash(TLD.getBytes("UTF-8"));
+        final File file = new File(new File(cacheDir, TldMetaDataCache.getMetaDataVersion()), hash + ".ser");
+        file.getParentFile().mkdirs();
+        final Writer writer = new FileWriter(file);
+        try {
+            writer.write("garbage");
+        } finally {
+            writer.close();
+        }
+        assertNull(new TldMetaDataCache(cacheDir).get(hash));
+        assertFalse(file.exists());
+    }
+
+    @Test
+    public void testOtherMetaDataVersionIsParsed() throws Exception {
+        final String hash = TldMetaDataCache.hash(TLD.getBytes("UTF-8"));
+        new TldMetaDataCache(cacheDir, "old").put(hash, parse(TLD));
+        assertNotNull(new TldMetaDataCache(cacheDir, "old").get(hash));
+        assertNull(new TldMetaDataCache(cacheDir, "new").get(hash));
+        assertNull(new TldMetaDataCache(cacheDir).get(hash));
+        assertEquals(TldMetaDataCache.getMetaDataVersion(), TldMetaDataCache.getMetaDataVersion());
+    }
+
+    private static void delete(final File file) {
+        final File[] files = file.listFiles();
+        if (files != null) {
+            for (File child : files) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+
+    private static TldMetaData parse(final String tld) throws Exception {
+        final XMLInputFactory inputFactory = XMLInputFactory.newInstance();
+        inputFactory.setXMLResolver(NoopXMLResolver.create());
+        return TldMetaDataParser.parse(inputFactory.createXMLStreamReader(new ByteArrayInputStream(tld.getBytes("UTF-8"))));
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.web.deployment;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.servlet.jsp.tagext.SimpleTagSupport;
+import javax.servlet.jsp.tagext.TagSupport;
+
+import org.jboss.as.naming.ManagedReference;
+import org.jboss.as.web.deployment.component.ComponentInstantiator;
+import org.jboss.msc.service.ServiceName;
+import org.junit.Test;
+
+/**
+ * Tests the tracking and pooling of the instances created by the {@link WebInjectionContainer}.
+ */
+public class WebInjectionContainerTestCase {
+
+    @Test
+    public void testInjectedInstanceIsReleased() throws Exception {
+        final CountingInstantiator instantiator = new CountingInstantiator(ClassicTag.class);
+        final WebInjectionContainer container = new WebInjectionContainer(getClass().getClassLoader());
+        container.addInstantiator(ClassicTag.class.getName(), instantiator);
+
+        final Object instance = container.newInstance(ClassicTag.class);
+        container.destroyInstance(instance);
+        assertEquals(1, instantiator.released.get());
+        container.destroyInstance(instance);
+        assertEquals(1, instantiator.released.get());
+
+        // instances created by the web container are injected and released too
+        final ClassicTag created = new ClassicTag();
+        container.newInstance(created);
+        container.destroyInstance(created);
+        assertEquals(2, instantiator.released.get());
+    }
+
+    @Test
+    public void testInstanceWithoutInjectionIsNotTracked() throws Exception {
+        final WebInjectionContainer container = new WebInjectionContainer(getClass().getClassLoader());
+        final Object instance = container.newInstance(ClassicTag.class);
+        container.newInstance(instance);
+        container.destroyInstance(instance);
+    }
+
+    @Test
+    public void testClassicTagHandlersArePooled() throws Exception {
+        final CountingInstantiator instantiator = new CountingInstantiator(ClassicTag.class);
+        final WebInjectionContainer container = new WebInjectionContainer(getClass().getClassLoader(), 1);
+        container.addInstantiator(ClassicTag.class.getName(), instantiator);
+
+        final Object first = container.newInstance(ClassicTag.class);
+        final Object second = container.newInstance(ClassicTag.class);
+        assertNotSame(first, second);
+        container.destroyInstance(first);
+        // the pool is full
+        container.destroyInstance(second);
+        assertEquals(1, instantiator.released.get());
+
+        assertSame(first, container.newInstance(ClassicTag.class));
+        assertEquals(2, instantiator.created.get());
+        container.destroyInstance(first);
+        assertEquals(1, instantiator.released.get());
+
+        container.releasePooledInstances();
+        assertEquals(2, instantiator.released.get());
+    }
+
+    @Test
+    public void testTagHandlersCreatedByClassNameArePooled() throws Exception {
+        final CountingInstantiator instantiator = new CountingInstantiator(ClassicTag.class);
+        final WebInjectionContainer container = new WebInjectionContainer(getClass().getClassLoader(), 1);
+        container.addInstantiator(ClassicTag.class.getName(), instantiator);
+
+        final ClassLoader classLoader = getClass().getClassLoader();
+        final Object first = container.newInstance(ClassicTag.class.getName(), classLoader);
+        container.destroyInstance(first);
+        assertEquals(0, instantiator.released.get());
+        assertSame(first, container.newInstance(ClassicTag.class.getName(), classLoader));
+        container.destroyInstance(first);
+        assertSame(first, container.newInstance(ClassicTag.class));
+        assertEquals(1, instantiator.created.get());
+    }
+
+    @Test
+    public void testTagHandlersCreatedByTheWebContainerAreNotPooled() throws Exception {
+        final CountingInstantiator instantiator = new CountingInstantiator(ClassicTag.class);
+        final WebInjectionContainer container = new WebInjectionContainer(getClass().getClassLoader(), 1);
+        container.addInstantiator(ClassicTag.class.getName(), instantiator);
+
+        final ClassicTag created = new ClassicTag();
+        container.newInstance(created);
+        container.destroyInstance(created);
+        assertEquals(1, instantiator.released.get());
+        assertNotSame(created, container.newInstance(ClassicTag.class));
+    }
+
+    @Test
+    public void testSimpleTagHandlersAreNotPooled() throws Exception {
+        final CountingInstantiator instantiator = new CountingInstantiator(SimpleTag.class);
+        final WebInjectionContainer container = new WebInjectionContainer(getClass().getClassLoader(), 1);
+        container.addInstantiator(SimpleTag.class.getName(), instantiator);
+
+        final Object first = container.newInstance(SimpleTag.class);
+        container.destroyInstance(first);
+        assertEquals(1, instantiator.released.get());
+        assertNotSame(first, container.newInstance(SimpleTag.class));
+    }
+
+    public static class ClassicTag extends TagSupport {
+    }
+
+    public static class SimpleTag extends SimpleTagSupport {
+    }
+
+    private static final class CountingInstantiator implements ComponentInstantiator {
+        private final Class<?> componentClass;
+        private final AtomicInteger created = new AtomicInteger();
+        private final AtomicInteger released = new AtomicInteger();
+
+        CountingInstantiator(final Class<?> componentClass) {
+            this.componentClass = componentClass;
+        }
+
+        @Override
+        public Set<ServiceName> getServiceNames() {
+            return Collections.emptySet();
+        }
+
+        @Override
+        public ManagedReference initializeInstance(final Object instance) {
+            return new ManagedReference() {
+                @Override
+                public void release() {
+                    released.incrementAndGet();
+                }
+
+                @Override
+                public Object getInstance() {
+                    return instance;
+                }
+            };
+        }
+
+        @Override
+        public ManagedReference getReference() {
+            try {
+                created.incrementAndGet();
+                return initializeInstance(componentClass.newInstance());
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}